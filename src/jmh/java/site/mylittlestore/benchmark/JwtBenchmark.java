@@ -0,0 +1,67 @@
+package site.mylittlestore.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.*;
+import site.mylittlestore.service.auth.jwt.JwtCodec;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 발급/검증 처리량(tokens/sec) 비교
+ * before : 호출마다 Algorithm.HMAC512(secret), JWT.require(...).build() 생성 (기존 JwtService)
+ * after  : 시작 시 한 번 만든 JwtCodec 재사용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class JwtBenchmark {
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final long EXPIRATION = 300000L;
+
+    private JwtCodec jwtCodec;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtCodec = new JwtCodec(SECRET);
+        accessToken = jwtCodec.sign(jwtCodec.create("accessToken", EXPIRATION)
+                .withClaim("email", "benchmark@gmail.com"));
+    }
+
+    @Benchmark
+    public String issueBefore() {
+        return JWT.create()
+                .withIssuer(JwtCodec.ISSUER)
+                .withSubject("accessToken")
+                .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION))
+                .withClaim("email", "benchmark@gmail.com")
+                .sign(Algorithm.HMAC512(SECRET));
+    }
+
+    @Benchmark
+    public String issueAfter() {
+        return jwtCodec.sign(jwtCodec.create("accessToken", EXPIRATION)
+                .withClaim("email", "benchmark@gmail.com"));
+    }
+
+    /**
+     * 기존 decodeJwt는 isTokenValid로 한 번, decodeJwt로 한 번 더 파싱했다.
+     */
+    @Benchmark
+    public DecodedJWT verifyBefore() {
+        JWT.require(Algorithm.HMAC512(SECRET))
+                .build()
+                .verify(accessToken);
+
+        return JWT.decode(accessToken);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyAfter() {
+        return jwtCodec.verify(accessToken).orElseThrow();
+    }
+}
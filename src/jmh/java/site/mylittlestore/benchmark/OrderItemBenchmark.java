@@ -0,0 +1,215 @@
+package site.mylittlestore.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 상품 생성 처리량(order lines/sec) 비교, H2 (JDBC로 서비스가 보내는 SQL만 재현)
+ * before : 주문 상품 조회 -> (없으면 예외 후) 상품 조회 -> 상품 UPDATE -> 주문 상품 INSERT/UPDATE
+ * after  : 조건부 재고 UPDATE -> MERGE 한 문장으로 주문 상품 생성 또는 수량 증가
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderItemBenchmark {
+    private static final long STORE_ID = 1L;
+    private static final int ITEM_COUNT = 20;
+    private static final int ORDER_COUNT = 100;
+
+    private Connection connection;
+
+    private PreparedStatement findOrderItem;
+    private PreparedStatement findItemById;
+    private PreparedStatement findItemByIdAndStoreId;
+    private PreparedStatement updateItem;
+    private PreparedStatement updateOrderItem;
+    private PreparedStatement insertOrderItem;
+
+    private PreparedStatement decreaseStock;
+    private PreparedStatement createOrIncrement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:orderItemBenchmark;DB_CLOSE_DELAY=-1", "sa", "");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists order_item");
+            statement.execute("drop table if exists item");
+            statement.execute("create table item (item_id bigint auto_increment primary key, store_id bigint not null," +
+                    " name varchar(255) not null, price bigint not null, stock bigint not null, item_status varchar(255) not null)");
+            statement.execute("create table order_item (order_item_id bigint auto_increment primary key," +
+                    " store_id bigint not null, order_id bigint not null, item_id bigint not null, item_name varchar(255) not null," +
+                    " price bigint not null, count bigint not null, ordered_date_time timestamp not null, updated_date_time timestamp not null," +
+                    " order_item_status varchar(255) not null, created_date timestamp, last_modified_date timestamp)");
+            statement.execute("create index idx_order_item_order_id on order_item (order_id)");
+            statement.execute("create index idx_order_item_item_id on order_item (item_id)");
+
+            for (int i = 1; i <= ITEM_COUNT; i++) {
+                statement.execute("insert into item (store_id, name, price, stock, item_status) values (" + STORE_ID + ", 'item" + i + "', 10000, " + Long.MAX_VALUE / 2 + ", 'ONSALE')");
+            }
+        }
+
+        connection.setAutoCommit(false);
+
+        findOrderItem = connection.prepareStatement("select order_item_id, count from order_item" +
+                " where order_id = ? and item_id = ? and price = ? and order_item_status = 'ORDERED'");
+        findItemById = connection.prepareStatement("select item_id, store_id, name, price, stock, item_status from item where item_id = ?");
+        findItemByIdAndStoreId = connection.prepareStatement("select item_id, store_id, name, price, stock, item_status from item" +
+                " where item_id = ? and store_id = ? and item_status = 'ONSALE'");
+        updateItem = connection.prepareStatement("update item set store_id = ?, name = ?, price = ?, stock = ?, item_status = ? where item_id = ?");
+        updateOrderItem = connection.prepareStatement("update order_item set count = ?, updated_date_time = ?, last_modified_date = ? where order_item_id = ?");
+        insertOrderItem = connection.prepareStatement("insert into order_item (store_id, order_id, item_id, item_name, price, count," +
+                " ordered_date_time, updated_date_time, order_item_status, created_date, last_modified_date)" +
+                " values (?, ?, ?, ?, ?, ?, ?, ?, 'ORDERED', ?, ?)", Statement.RETURN_GENERATED_KEYS);
+
+        decreaseStock = connection.prepareStatement("update item set stock = stock - ?" +
+                " where item_id = ? and item_status = 'ONSALE' and stock >= ?");
+        createOrIncrement = connection.prepareStatement("select order_item_id from final table (" +
+                " merge into order_item oi" +
+                " using (select i.item_id, i.store_id, i.name from item i" +
+                "        where i.item_id = ? and i.store_id = ? and i.item_status = 'ONSALE') s" +
+                " on oi.order_id = ? and oi.item_id = s.item_id and oi.price = ? and oi.order_item_status = 'ORDERED'" +
+                " when matched then update set oi.count = oi.count + ?, oi.updated_date_time = ?, oi.last_modified_date = ?" +
+                " when not matched then insert" +
+                "  (store_id, order_id, item_id, item_name, price, count, ordered_date_time, updated_date_time, order_item_status, created_date, last_modified_date)" +
+                "  values (s.store_id, ?, s.item_id, s.name, ?, ?, ?, ?, 'ORDERED', ?, ?)" +
+                ")");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long createOrderItemBefore() throws SQLException {
+        long orderId = randomOrderId();
+        long itemId = randomItemId();
+        long price = 10000L;
+        long count = 1L;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        long orderItemId;
+
+        try {
+            //주문 상품 조회, 없으면 NoSuchOrderItemException
+            findOrderItem.setLong(1, orderId);
+            findOrderItem.setLong(2, itemId);
+            findOrderItem.setLong(3, price);
+            long orderItemCount;
+            try (ResultSet resultSet = findOrderItem.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new IllegalStateException("주문 상품이 없습니다.");
+                }
+                orderItemId = resultSet.getLong(1);
+                orderItemCount = resultSet.getLong(2);
+            }
+
+            //orderItem.addCount() -> item 지연 로딩 후 재고 감소
+            findItemById.setLong(1, itemId);
+            updateItem(findItemById, count);
+
+            updateOrderItem.setLong(1, orderItemCount + count);
+            updateOrderItem.setTimestamp(2, now);
+            updateOrderItem.setTimestamp(3, now);
+            updateOrderItem.setLong(4, orderItemId);
+            updateOrderItem.executeUpdate();
+
+        } catch (IllegalStateException e) {
+            //상품 조회 후 재고 감소
+            findItemByIdAndStoreId.setLong(1, itemId);
+            findItemByIdAndStoreId.setLong(2, STORE_ID);
+            String itemName = updateItem(findItemByIdAndStoreId, count);
+
+            insertOrderItem.setLong(1, STORE_ID);
+            insertOrderItem.setLong(2, orderId);
+            insertOrderItem.setLong(3, itemId);
+            insertOrderItem.setString(4, itemName);
+            insertOrderItem.setLong(5, price);
+            insertOrderItem.setLong(6, count);
+            insertOrderItem.setTimestamp(7, now);
+            insertOrderItem.setTimestamp(8, now);
+            insertOrderItem.setTimestamp(9, now);
+            insertOrderItem.setTimestamp(10, now);
+            insertOrderItem.executeUpdate();
+            try (ResultSet generatedKeys = insertOrderItem.getGeneratedKeys()) {
+                generatedKeys.next();
+                orderItemId = generatedKeys.getLong(1);
+            }
+        }
+
+        connection.commit();
+        return orderItemId;
+    }
+
+    @Benchmark
+    public long createOrderItemAfter() throws SQLException {
+        long orderId = randomOrderId();
+        long itemId = randomItemId();
+        long price = 10000L;
+        long count = 1L;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        //조건부 재고 감소
+        decreaseStock.setLong(1, count);
+        decreaseStock.setLong(2, itemId);
+        decreaseStock.setLong(3, count);
+        decreaseStock.executeUpdate();
+
+        //주문 상품 생성 또는 수량 증가
+        createOrIncrement.setLong(1, itemId);
+        createOrIncrement.setLong(2, STORE_ID);
+        createOrIncrement.setLong(3, orderId);
+        createOrIncrement.setLong(4, price);
+        createOrIncrement.setLong(5, count);
+        createOrIncrement.setTimestamp(6, now);
+        createOrIncrement.setTimestamp(7, now);
+        createOrIncrement.setLong(8, orderId);
+        createOrIncrement.setLong(9, price);
+        createOrIncrement.setLong(10, count);
+        createOrIncrement.setTimestamp(11, now);
+        createOrIncrement.setTimestamp(12, now);
+        createOrIncrement.setTimestamp(13, now);
+        createOrIncrement.setTimestamp(14, now);
+
+        long orderItemId;
+        try (ResultSet resultSet = createOrIncrement.executeQuery()) {
+            resultSet.next();
+            orderItemId = resultSet.getLong(1);
+        }
+
+        connection.commit();
+        return orderItemId;
+    }
+
+    /**
+     * 상품을 조회하고, 재고를 줄여서 전체 컬럼을 UPDATE한다. (Hibernate dirty checking)
+     * @return 상품 이름
+     */
+    private String updateItem(PreparedStatement findItem, long count) throws SQLException {
+        try (ResultSet resultSet = findItem.executeQuery()) {
+            resultSet.next();
+
+            updateItem.setLong(1, resultSet.getLong("store_id"));
+            updateItem.setString(2, resultSet.getString("name"));
+            updateItem.setLong(3, resultSet.getLong("price"));
+            updateItem.setLong(4, resultSet.getLong("stock") - count);
+            updateItem.setString(5, resultSet.getString("item_status"));
+            updateItem.setLong(6, resultSet.getLong("item_id"));
+            updateItem.executeUpdate();
+
+            return resultSet.getString("name");
+        }
+    }
+
+    private static long randomOrderId() {
+        return ThreadLocalRandom.current().nextLong(1, ORDER_COUNT + 1);
+    }
+
+    private static long randomItemId() {
+        return ThreadLocalRandom.current().nextLong(1, ITEM_COUNT + 1);
+    }
+}
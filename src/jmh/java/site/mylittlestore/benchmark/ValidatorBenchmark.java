@@ -0,0 +1,74 @@
+package site.mylittlestore.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import site.mylittlestore.util.Validator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 이메일, 비밀번호 검증 처리량(validations/sec) 비교
+ * before : 기존 Validator, 이메일은 정규식, 비밀번호는 호출마다 Pattern.compile 두 번
+ * after  : 문자열을 한 번만 훑는 Validator
+ *
+ * adversarial : @ 앞에서 정규식이 되돌아가며 찾는 입력, 길이가 길어질수록 before는 제곱으로 느려진다.
+ * (점으로 구분된 긴 local part는 before에서 StackOverflowError가 나므로 넣지 않았다.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ValidatorBenchmark {
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            "(([^<>()\\[\\]\\\\.,;:\\s@\"]+(\\.[^<>()\\[\\]\\\\.,;:\\s@\"]+)*)|(\".+\"))@((\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}])|(([a-zA-Z\\-0-9]+\\.)+[a-zA-Z]{2,}))"
+    );
+
+    private static final String EMAIL = "cha3088@gmail.com";
+    private static final String PASSWORD = "abcde102938!";
+
+    @Param({"1000"})
+    private int adversarialLength;
+
+    private String adversarialEmail;
+
+    @Setup
+    public void setUp() {
+        adversarialEmail = "a".repeat(adversarialLength) + "@";
+    }
+
+    @Benchmark
+    public boolean emailBefore() {
+        return EMAIL_PATTERN.matcher(EMAIL).matches();
+    }
+
+    @Benchmark
+    public boolean emailAfter() {
+        return Validator.isValidEmail(EMAIL);
+    }
+
+    @Benchmark
+    public boolean adversarialEmailBefore() {
+        return EMAIL_PATTERN.matcher(adversarialEmail).matches();
+    }
+
+    @Benchmark
+    public boolean adversarialEmailAfter() {
+        return Validator.isValidEmail(adversarialEmail);
+    }
+
+    @Benchmark
+    public boolean passwordBefore() {
+        if (!Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)(?=.*[$@$!%*#?&])[A-Za-z\\d$@$!%*#?&]{8,30}$").matcher(PASSWORD).find()) {
+            return false;
+        }
+        if (Pattern.compile("(\\w)\\1{2,}").matcher(PASSWORD).find()) {
+            return false;
+        }
+        return !PASSWORD.contains(EMAIL.split("@")[0]);
+    }
+
+    @Benchmark
+    public boolean passwordAfter() {
+        return Validator.isValidPassword(EMAIL, PASSWORD);
+    }
+}
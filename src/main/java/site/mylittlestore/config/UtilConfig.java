@@ -1,21 +1,30 @@
 package site.mylittlestore.config;
 
-
-import com.auth0.jwt.JWT;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import site.mylittlestore.service.auth.ratelimit.InMemoryRateLimitStore;
+import site.mylittlestore.service.auth.ratelimit.RateLimitStore;
 
 @Configuration
 public class UtilConfig {
+    /**
+     * 설정을 바꾸면, 기존 비밀번호는 로그인에 성공할 때 새 설정으로 다시 해시한다. (PasswordVerifier)
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password.encoder.version:2a}") String version,
+                                           @Value("${password.encoder.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(BCryptPasswordEncoder.BCryptVersion.valueOf("$" + version.toUpperCase()), strength);
     }
 
+    /**
+     * 서버가 한 대일 때는 메모리에 보관한다.
+     * 여러 대가 되면 공유 저장소 구현으로 바꾼다.
+     */
     @Bean
-    public JWT jwt() {
-        return new JWT();
+    public RateLimitStore rateLimitStore(@Value("${rate-limit.max-keys:100000}") int maxKeys) {
+        return new InMemoryRateLimitStore(maxKeys);
     }
 }
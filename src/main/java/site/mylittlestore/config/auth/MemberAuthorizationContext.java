@@ -0,0 +1,49 @@
+package site.mylittlestore.config.auth;
+
+import lombok.Getter;
+import site.mylittlestore.enumstorage.role.MemberRole;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 인가에 필요한 회원 정보
+ * AuthenticationProcessFilter에서 한 번 만들어서 request attribute로 전달한다.
+ */
+@Getter
+public class MemberAuthorizationContext {
+    public static final String ATTRIBUTE = MemberAuthorizationContext.class.getName();
+
+    private final Long memberId;
+
+    private final MemberRole role;
+
+    private final Set<Long> ownedStoreIds;
+
+    public MemberAuthorizationContext(Long memberId, MemberRole role, Set<Long> ownedStoreIds) {
+        this.memberId = memberId;
+        this.role = role;
+        this.ownedStoreIds = ownedStoreIds;
+    }
+
+    public static Optional<MemberAuthorizationContext> from(HttpServletRequest request) {
+        return Optional.ofNullable((MemberAuthorizationContext) request.getAttribute(ATTRIBUTE));
+    }
+
+    public void saveTo(HttpServletRequest request) {
+        request.setAttribute(ATTRIBUTE, this);
+    }
+
+    public boolean isAdmin() {
+        return role == MemberRole.ADMIN;
+    }
+
+    public boolean isMember(long memberId) {
+        return this.memberId == memberId;
+    }
+
+    public boolean ownsStore(long storeId) {
+        return ownedStoreIds.contains(storeId);
+    }
+}
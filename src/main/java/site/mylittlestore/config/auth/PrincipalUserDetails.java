@@ -5,6 +5,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import site.mylittlestore.domain.member.Member;
+import site.mylittlestore.enumstorage.role.MemberRole;
+import site.mylittlestore.service.auth.jwt.AuthenticatedMember;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -15,11 +17,28 @@ public class PrincipalUserDetails implements UserDetails, OAuth2User {
 
     private Map<String, Object> attributes;
 
+    //access token 캐시로 만든 경우에는 null
     private Member member;
 
+    private Long memberId;
+
+    private String email;
+
+    private MemberRole role;
+
     //일반 로그인 생성자
     public PrincipalUserDetails(Member member) {
         this.member = member;
+        this.memberId = member.getId();
+        this.email = member.getEmail();
+        this.role = member.getRole();
+    }
+
+    //access token 인증 생성자
+    public PrincipalUserDetails(AuthenticatedMember authenticatedMember) {
+        this.memberId = authenticatedMember.getMemberId();
+        this.email = authenticatedMember.getEmail();
+        this.role = authenticatedMember.getRole();
     }
 
 //    //OAuth 로그인 생성자
@@ -30,12 +49,12 @@ public class PrincipalUserDetails implements UserDetails, OAuth2User {
 
     @Override
     public String getUsername() {
-        return member.getEmail();
+        return email;
     }
 
     @Override
     public String getPassword() {
-        return member.getPassword();
+        return member != null ? member.getPassword() : null;
     }
 
     @Override
@@ -55,7 +74,7 @@ public class PrincipalUserDetails implements UserDetails, OAuth2User {
         collect.add(new GrantedAuthority() {
             @Override
             public String getAuthority() {
-                return member.getRole().toString();
+                return role.toString();
             }
         });
         return collect;
@@ -2,12 +2,12 @@ package site.mylittlestore.config.auth.member;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import site.mylittlestore.config.auth.PrincipalUserDetails;
@@ -18,16 +18,25 @@ import site.mylittlestore.enumstorage.errormessage.auth.LogInErrorMessage;
 import site.mylittlestore.enumstorage.errormessage.auth.PasswordErrorMessage;
 import site.mylittlestore.enumstorage.status.MemberStatus;
 import site.mylittlestore.exception.auth.EmailException;
+import site.mylittlestore.exception.auth.LogInException;
 import site.mylittlestore.exception.auth.PasswordException;
 import site.mylittlestore.repository.member.MemberRepository;
+import site.mylittlestore.service.auth.LogInAttemptCounter;
+import site.mylittlestore.service.auth.password.PasswordVerification;
+import site.mylittlestore.service.auth.password.PasswordVerifier;
+import site.mylittlestore.service.member.MemberService;
 import site.mylittlestore.util.Validator;
 
+import java.util.Optional;
+
 @Component
 @RequiredArgsConstructor
 public class MemberAuthenticationProvider implements AuthenticationProvider {
     private final PrincipalUserDetailsService principalUserDetailsService;
     private final MemberRepository memberRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final MemberService memberService;
+    private final LogInAttemptCounter logInAttemptCounter;
+    private final PasswordVerifier passwordVerifier;
     private final Validator validator;
 
     /**
@@ -60,27 +69,48 @@ public class MemberAuthenticationProvider implements AuthenticationProvider {
             };
         }
 
-        //email로 회원정보 조회
-        UserDetails user = principalUserDetailsService.loadUserByUsername(email);
+        //비밀번호를 검증할 자리가 없으면, 회원을 조회하지 않고 (로그인 시도 횟수도 늘리지 않고) 바로 돌려보낸다.
+        try (PasswordVerifier.Permit permit = passwordVerifier.admit()) {
+            //email로 회원정보 조회
+            UserDetails user = principalUserDetailsService.loadUserByUsername(email);
 
-        PrincipalUserDetails principalUserDetails = (PrincipalUserDetails) user;
-        Member member = principalUserDetails.getMember();
+            PrincipalUserDetails principalUserDetails = (PrincipalUserDetails) user;
+            Member member = principalUserDetails.getMember();
 
-        //잠겨있는지 확인
-        if (member.getStatus() == MemberStatus.LOCKED) {
-            throw new BadCredentialsException(LogInErrorMessage.LOG_IN_ATTEMPT_EXCEEDED.getMessage());
-        }
+            //잠겨있는지 확인
+            if (member.getStatus() == MemberStatus.LOCKED) {
+                throw new BadCredentialsException(LogInErrorMessage.LOG_IN_ATTEMPT_EXCEEDED.getMessage());
+            }
 
-        //비밀번호 일치 여부 확인
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new BadCredentialsException(PasswordErrorMessage.PASSWORD_DOES_NOT_MATCH.getMessage());
-        }
+            //비밀번호 일치 여부 확인 (검증 스레드에서)
+            PasswordVerification passwordVerification = permit.verify(password, user.getPassword());
+            if (!passwordVerification.isMatched()) {
+                //로그인 실패 횟수는 메모리에서 세고, 잠글 때만 저장한다.
+                int logInAttempt = logInAttemptCounter.countUp(member.getId(), member.getLogInAttempt());
+                if (logInAttemptCounter.isExceeded(logInAttempt)) {
+                    memberService.lockMember(member.getId(), logInAttempt);
+                    logInAttemptCounter.reset(member.getId());
+                    throw new BadCredentialsException(LogInErrorMessage.LOG_IN_ATTEMPT_EXCEEDED.getMessage());
+                }
+                throw new BadCredentialsException(PasswordErrorMessage.PASSWORD_DOES_NOT_MATCH.getMessage());
+            }
+
+            //로그인 성공했으므로, 로그인 실패 횟수 초기화
+            logInAttemptCounter.reset(member.getId());
 
-        //로그인 성공했으므로, 로그인 시도 횟수 초기화
-        member.resetLogInAttempt();
-        memberRepository.save(member);
+            //encoder 설정이 바뀌었거나, 이전에 저장된 실패 횟수가 남아있을 때만 저장한다.
+            Optional<String> rehashedPassword = passwordVerification.getRehashedPassword();
+            if (rehashedPassword.isPresent() || member.getLogInAttempt() != 0) {
+                rehashedPassword.ifPresent(member::changePassword);
+                member.resetLogInAttempt();
+                memberRepository.save(member);
+            }
 
-        return new UsernamePasswordAuthenticationToken(email, password, user.getAuthorities());
+            //성공 handler에서 회원을 다시 조회하지 않도록, 조회한 회원을 담아서 보낸다.
+            return new UsernamePasswordAuthenticationToken(principalUserDetails, null, user.getAuthorities());
+        } catch (LogInException e) {
+            throw new AuthenticationServiceException(e.getMessage());
+        }
     }
 
     @Override
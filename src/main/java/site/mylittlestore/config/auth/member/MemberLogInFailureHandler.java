@@ -17,6 +17,8 @@ import site.mylittlestore.enumstorage.message.EmailMessage;
 import site.mylittlestore.exception.member.NoSuchMemberException;
 import site.mylittlestore.exception.member.temporarymember.NoSuchTemporaryMemberException;
 import site.mylittlestore.repository.member.temporarymember.TemporaryMemberRepository;
+import site.mylittlestore.service.auth.ratelimit.EmailResendLimiter;
+import site.mylittlestore.service.auth.ratelimit.ResendDecision;
 import site.mylittlestore.service.member.MemberService;
 import site.mylittlestore.service.member.TemporaryMemberService;
 
@@ -33,6 +35,7 @@ import java.util.Optional;
 public class MemberLogInFailureHandler implements AuthenticationFailureHandler {
     private final TemporaryMemberService temporaryMemberService;
     private final MemberService memberService;
+    private final EmailResendLimiter emailResendLimiter;
 
     @Override
     public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response, AuthenticationException exception) throws IOException, ServletException {
@@ -40,11 +43,23 @@ public class MemberLogInFailureHandler implements AuthenticationFailureHandler {
         if (exception instanceof UsernameNotFoundException) {
             String email = request.getParameter("email");
 
+            //재발송 요청이 너무 많으면, 임시 회원을 찾지 않고 돌려보낸다.
+            ResendDecision resendDecision = emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, email, request.getRemoteAddr());
+            if (resendDecision == ResendDecision.RATE_LIMITED) {
+                response.sendRedirect("/auth/login?error=email&exception=" + URLEncoder.encode(EmailMessage.VERIFICATION_EMAIL_RESEND_LIMITED.getMessage(), "UTF-8") + "&email=" + email);
+                return;
+            }
+
             //임시 회원도 찾아본다.
             try
             {
-                //임시 회원이 있다면, 이메일 인증 재전송
-                temporaryMemberService.resendVerificationEmailByEmail(email);
+                if (resendDecision == ResendDecision.SEND) {
+                    //임시 회원이 있다면, 이메일 인증 재전송
+                    temporaryMemberService.resendVerificationEmailByEmail(email);
+                } else {
+                    //방금 재전송했으면 코드를 바꾸지 않고, 보낸 이메일을 확인하게 한다.
+                    temporaryMemberService.findIdByEmail(email);
+                }
 
                 //이메일 인증 알림 페이지로 redirect
                 response.sendRedirect("/auth/member/notice/verification-email");
@@ -84,11 +99,26 @@ public class MemberLogInFailureHandler implements AuthenticationFailureHandler {
             return;
         }
 
+        //로그인 요청이 많아서 비밀번호를 검증하지 못한 경우
+        if (exception.getMessage().equals(LogInErrorMessage.LOG_IN_BUSY.getMessage())) {
+            response.sendRedirect("/auth/login?error=password&exception=" + URLEncoder.encode(exception.getMessage(), "UTF-8") + "&email=" + email);
+            return;
+        }
+
         //로그인 시도 횟수 초과
         if (exception.getMessage().equals(LogInErrorMessage.LOG_IN_ATTEMPT_EXCEEDED.getMessage())) {
+            ResendDecision resendDecision = emailResendLimiter.tryResend(EmailResendLimiter.CHANGE_PASSWORD_EMAIL, email, request.getRemoteAddr());
+            if (resendDecision == ResendDecision.RATE_LIMITED) {
+                response.sendRedirect("/auth/login?error=email&exception=" + URLEncoder.encode(EmailMessage.CHANGE_PASSWORD_EMAIL_RESEND_LIMITED.getMessage(), "UTF-8") + "&email=" + email);
+                return;
+            }
+
             //비밀번호 변경 이메일 전송
             try {
-                memberService.sendChangePasswordEmail(email);
+                //방금 보냈으면 다시 보내지 않고, 보낸 이메일을 확인하게 한다.
+                if (resendDecision == ResendDecision.SEND) {
+                    memberService.sendChangePasswordEmail(email);
+                }
 
                 //비밀번호 변경 알림 페이지로 redirect
                 response.sendRedirect("/auth/member/notice/change-password");
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
+import site.mylittlestore.config.auth.PrincipalUserDetails;
+import site.mylittlestore.domain.member.Member;
 import site.mylittlestore.enumstorage.errormessage.auth.EmailErrorMessage;
 import site.mylittlestore.exception.auth.EmailException;
 import site.mylittlestore.service.auth.jwt.JwtService;
@@ -30,6 +32,20 @@ public class MemberLogInSuccessHandler implements AuthenticationSuccessHandler {
      */
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
+        //로그인 과정에서 조회한 회원이 있으면, 다시 조회하지 않고 token들을 발급한다.
+        if (authentication.getPrincipal() instanceof PrincipalUserDetails) {
+            Member member = ((PrincipalUserDetails) authentication.getPrincipal()).getMember();
+
+            if (member != null) {
+                jwtService.issueTokens(member, response);
+
+                //Member 로그인 성공 시, 메인 페이지로 이동
+                response.setStatus(HttpServletResponse.SC_OK);
+                response.sendRedirect("/");
+                return;
+            }
+        }
+
         String name = authentication.getName();
 
         String email = Optional.ofNullable(name)
@@ -9,8 +9,6 @@ import org.springframework.transaction.annotation.Transactional;
 import site.mylittlestore.config.auth.PrincipalUserDetails;
 import site.mylittlestore.domain.member.Member;
 import site.mylittlestore.enumstorage.errormessage.MemberErrorMessage;
-import site.mylittlestore.enumstorage.status.MemberStatus;
-import site.mylittlestore.exception.member.NoSuchMemberException;
 import site.mylittlestore.repository.member.MemberRepository;
 
 @Service
@@ -19,17 +17,15 @@ public class PrincipalUserDetailsService implements UserDetailsService {
     private final MemberRepository memberRepository;
 
     //이런 요청이 들어왔는데, 얘 혹시 회원이야?
+    //로그인 실패 횟수는 LogInAttemptCounter가 메모리에서 세므로, 조회만 한다.
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         //Member를 찾는다.
         Member member = memberRepository.findNotDeletedByEmail(email)
                 //없으면, UsernameNotFoundException 발생
                 .orElseThrow(() -> new UsernameNotFoundException(MemberErrorMessage.NO_SUCH_MEMBER_WITH_THAT_EMAIL.getMessage()));
 
-        //로그인 시도 횟수 증가
-        member.countUpLogInAttempt();
-
         //있으면, PrincipalUserDetails 생성
         return new PrincipalUserDetails(member);
     }
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Component;
+import site.mylittlestore.service.auth.jwt.AccessTokenCache;
+import site.mylittlestore.service.auth.jwt.AuthenticatedMember;
 import site.mylittlestore.service.auth.jwt.JwtService;
 
 import javax.servlet.http.Cookie;
@@ -15,21 +17,36 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtLogoutHandler implements LogoutHandler {
     private final JwtService jwtService;
+    private final AccessTokenCache accessTokenCache;
 
     @Override
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
 
+        String accessToken = "";
         String refreshToken = "";
 
         Cookie[] requestCookies = request.getCookies();
         if (requestCookies != null) {
             for (Cookie cookie : requestCookies) {
-                if (cookie.getName().equals("refreshToken")) {
+                if (cookie.getName().equals("accessToken")) {
+                    accessToken = cookie.getValue();
+                } else if (cookie.getName().equals("refreshToken")) {
                     refreshToken = cookie.getValue();
                 }
             }
         }
 
+        //캐시된 access token 무효화
+        //refresh token은 회원당 하나이므로, 해당 회원의 모든 access token을 무효화한다.
+        if (!accessToken.isBlank()) {
+            String finalAccessToken = accessToken;
+            accessTokenCache.get(accessToken)
+                    .map(AuthenticatedMember::getEmail)
+                    .ifPresentOrElse(
+                            accessTokenCache::invalidateByEmail,
+                            () -> accessTokenCache.invalidate(finalAccessToken));
+        }
+
         if (!refreshToken.isBlank()) {
             jwtService.deleteByRefreshToken(response, refreshToken);
         }
@@ -58,6 +58,7 @@ public class SecurityConfig {
 //                        .antMatchers("/members/**").hasAuthority(MemberRole.ADMIN.toString())
                         .antMatchers("/","/css/**","/img/**","/js/**","/favicon.ico","/h2-console/**").permitAll()
                         .antMatchers("/auth/**").permitAll()
+                        .antMatchers("/admin/**").hasAuthority(MemberRole.ADMIN.toString())
                         .anyRequest().authenticated()
                 );
 
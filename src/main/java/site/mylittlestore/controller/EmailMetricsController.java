@@ -0,0 +1,21 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.email.EmailMetricsDto;
+import site.mylittlestore.service.email.EmailService;
+
+/**
+ * 이메일 발송 지표 조회 (admin만 접근 가능)
+ */
+@RestController
+@RequiredArgsConstructor
+public class EmailMetricsController {
+    private final EmailService emailService;
+
+    @GetMapping("/admin/email-metrics")
+    public EmailMetricsDto emailMetrics() {
+        return emailService.snapshot();
+    }
+}
@@ -7,14 +7,11 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import site.mylittlestore.config.auth.PrincipalUserDetails;
-import site.mylittlestore.dto.member.MemberFindDto;
-import site.mylittlestore.service.member.MemberService;
 
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class HomeController {
-    private final MemberService memberService;
 
     @GetMapping("/")
     public String home(Authentication authentication, Model model) {
@@ -23,8 +20,8 @@ public class HomeController {
         if (authentication != null) {
             PrincipalUserDetails principal = (PrincipalUserDetails) authentication.getPrincipal();
             model.addAttribute("username", principal.getUsername());
-            MemberFindDto memberFindDtoByEmail = memberService.findMemberFindDtoByEmail(principal.getUsername());
-            model.addAttribute("memberFindDto", memberFindDtoByEmail);
+            //access token의 claim으로 만든 principal이므로, 회원을 조회하지 않는다.
+            model.addAttribute("memberId", principal.getMemberId());
         }
 
         return "home";
@@ -0,0 +1,21 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.item.MenuCacheMetricsDto;
+import site.mylittlestore.service.item.MenuCache;
+
+/**
+ * 메뉴 캐시 지표 조회 (admin만 접근 가능)
+ */
+@RestController
+@RequiredArgsConstructor
+public class MenuCacheMetricsController {
+    private final MenuCache menuCache;
+
+    @GetMapping("/admin/menu-cache-metrics")
+    public MenuCacheMetricsDto menuCacheMetrics() {
+        return menuCache.snapshot();
+    }
+}
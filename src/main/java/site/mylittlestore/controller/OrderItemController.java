@@ -1,12 +1,18 @@
 package site.mylittlestore.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import site.mylittlestore.dto.item.ItemFindDto;
 import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
 import site.mylittlestore.dto.orderitem.OrderItemDeleteDto;
@@ -17,15 +23,18 @@ import site.mylittlestore.enumstorage.errormessage.StoreErrorMessage;
 import site.mylittlestore.exception.orderitem.NoSuchOrderItemException;
 import site.mylittlestore.exception.payment.PaymentAlreadyExistException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.form.OrderItemBatchCreationForm;
 import site.mylittlestore.form.OrderItemCreationForm;
 import site.mylittlestore.form.OrderItemForm;
 import site.mylittlestore.service.ItemService;
 import site.mylittlestore.service.OrderItemService;
 import site.mylittlestore.service.StoreService;
 import site.mylittlestore.service.OrderService;
+import site.mylittlestore.service.orderitem.KitchenDisplay;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
@@ -39,6 +48,21 @@ public class OrderItemController {
 
     private final StoreService storeService;
 
+    private final KitchenDisplay kitchenDisplay;
+
+    /**
+     * 주방 화면 구독 (SSE)
+     * 주문 상품이 생기거나, 수량이 바뀌거나, 삭제될 때마다 받는다.
+     * 다시 연결하면 브라우저가 보내는 Last-Event-ID (또는 lastEventId) 이후의 이벤트부터 받는다.
+     */
+    @ResponseBody
+    @GetMapping(value = "/members/{memberId}/stores/{storeId}/orderItems/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter orderItemStream(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId,
+                                      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                      @RequestParam(value = "lastEventId", required = false) Long lastEventId) {
+        return kitchenDisplay.subscribe(storeId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
     //나중에 주문만 확인할 이유가 생길 때 만들자
 //    @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems")
 //    public String orderItemList(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, Model model) {
@@ -108,6 +132,51 @@ public class OrderItemController {
         }
     }
 
+    /**
+     * 주문서 한 장의 여러 주문 상품을 한 번에 주문한다.
+     * orderItems[0].itemId, orderItems[0].price, orderItems[0].count ... 형식으로 받는다.
+     */
+    @PostMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/batch")
+    public String createOrderItems(@PathVariable("memberId") Long memberId, @PathVariable Long storeId, @PathVariable Long storeTableId, @PathVariable Long orderId, @Valid OrderItemBatchCreationForm orderItemBatchCreationForm, BindingResult result, Model model) {
+
+        //주문서의 오류는 한 상품 주문 폼에 나타낼 수 없으므로, 알림창으로 보여주고 주문 상품 추가 폼으로 돌아간다.
+        if (result.hasErrors()) {
+            //팝업 알림창
+            model.addAttribute("message", result.getAllErrors().stream()
+                            .map(ObjectError::getDefaultMessage)
+                            .distinct()
+                            .collect(Collectors.joining(" ")))
+                    .addAttribute("href", "/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId + "/orderItems/new");
+
+            return "message/message";
+        }
+
+        try {
+            orderItemService.createOrderItems(orderId, orderItemBatchCreationForm.getOrderItems().stream()
+                    .map(orderItemBatchLineForm -> OrderItemCreationDto.builder()
+                            .orderId(orderId)
+                            .itemId(orderItemBatchLineForm.getItemId())
+                            .price(orderItemBatchLineForm.getPrice())
+                            .count(orderItemBatchLineForm.getCount())
+                            .build())
+                    .collect(Collectors.toList()));
+
+            return "redirect:/members/" + memberId + "/stores/" + storeId + "/storeTables/" + storeTableId + "/orders/" + orderId;
+        } catch (PaymentAlreadyExistException e) {  //진행중인 결제가 존재하면, 결제가 시작되어 변경이 불가능합니다.
+            //팝업 알림창
+            model.addAttribute("message", PaymentErrorMessage.PAYMENT_ALREADY_EXIST.getMessage())
+                    .addAttribute("href", "/members/" + memberId + "/stores/" + storeId + "/storeTables/" + e.getStoreTableId() + "/orders/" + e.getOrderId());
+
+            return "message/message";
+        } catch (StoreClosedException e) {  //가게가 닫혀있으면, 가게를 열어야합니다.
+            //팝업 알림창
+            model.addAttribute("message", StoreErrorMessage.STORE_CLOSED.getMessage())
+                    .addAttribute("href", "/members/" + memberId + "/stores/" + storeId);
+
+            return "message/message";
+        }
+    }
+
     @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}/orders/{orderId}/orderItems/{orderItemId}/update")
     public String orderItemUpdateForm(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, @PathVariable("orderId") Long orderId, @PathVariable("orderItemId") Long orderItemId, Model model) {
         model.addAttribute("memberId", memberId);
@@ -0,0 +1,21 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.auth.PasswordVerifierMetricsDto;
+import site.mylittlestore.service.auth.password.PasswordVerifier;
+
+/**
+ * 로그인 비밀번호 검증 지표 조회 (admin만 접근 가능)
+ */
+@RestController
+@RequiredArgsConstructor
+public class PasswordVerifierMetricsController {
+    private final PasswordVerifier passwordVerifier;
+
+    @GetMapping("/admin/password-verifier-metrics")
+    public PasswordVerifierMetricsDto passwordVerifierMetrics() {
+        return passwordVerifier.snapshot();
+    }
+}
@@ -0,0 +1,21 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.auth.RateLimitMetricsDto;
+import site.mylittlestore.service.auth.ratelimit.RateLimitStore;
+
+/**
+ * 요청 제한 지표 조회 (admin만 접근 가능)
+ */
+@RestController
+@RequiredArgsConstructor
+public class RateLimitMetricsController {
+    private final RateLimitStore rateLimitStore;
+
+    @GetMapping("/admin/rate-limit-metrics")
+    public RateLimitMetricsDto rateLimitMetrics() {
+        return rateLimitStore.snapshot();
+    }
+}
@@ -0,0 +1,28 @@
+package site.mylittlestore.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import site.mylittlestore.dto.sqlmetrics.SqlMetricsDto;
+import site.mylittlestore.p6spy.SqlMetrics;
+
+/**
+ * SQL 지표 조회 (admin만 접근 가능)
+ */
+@RestController
+@RequiredArgsConstructor
+public class SqlMetricsController {
+    private final SqlMetrics sqlMetrics;
+
+    @GetMapping("/admin/sql-metrics")
+    public SqlMetricsDto sqlMetrics() {
+        return sqlMetrics.snapshot();
+    }
+
+    @PostMapping("/admin/sql-metrics/reset")
+    public SqlMetricsDto resetSqlMetrics() {
+        sqlMetrics.reset();
+        return sqlMetrics.snapshot();
+    }
+}
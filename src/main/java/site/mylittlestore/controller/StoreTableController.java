@@ -1,12 +1,16 @@
 package site.mylittlestore.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import site.mylittlestore.dto.storetable.StoreTableFindDto;
 import site.mylittlestore.service.StoreTableService;
+import site.mylittlestore.service.storetable.StoreTableBoard;
 
 @Controller
 @RequiredArgsConstructor
@@ -14,15 +18,27 @@ public class StoreTableController {
 
     private final StoreTableService storeTableService;
 
+    private final StoreTableBoard storeTableBoard;
+
     @GetMapping("/members/{memberId}/stores/{storeId}/storeTables")
     public String storeTableList(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, Model model) {
         model.addAttribute("memberId", memberId);
         model.addAttribute("storeId", storeId);
-        model.addAttribute("storeTableFindDtoWithOrderFindDtos", storeTableService.findAllStoreTableFindDtoWithOrderFindDtoByStoreId(storeId));
+        model.addAttribute("storeTableBoardDtos", storeTableService.findAllStoreTableBoardDtoByStoreId(storeId));
 
         return "storeTable/storeTableList";
     }
 
+    /**
+     * 테이블 현황판 구독 (SSE)
+     * 테이블 상태가 바뀔 때마다 바뀐 테이블만 받는다.
+     */
+    @ResponseBody
+    @GetMapping(value = "/members/{memberId}/stores/{storeId}/storeTables/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter storeTableStream(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId) {
+        return storeTableBoard.subscribe(storeId);
+    }
+
     @GetMapping("/members/{memberId}/stores/{storeId}/storeTables/{storeTableId}")
     public String storeTableInfo(@PathVariable("memberId") Long memberId, @PathVariable("storeId") Long storeId, @PathVariable("storeTableId") Long storeTableId, Model model) {
         StoreTableFindDto storeTableFindDtoById = storeTableService.findStoreTableFindDtoById(storeTableId);
@@ -10,7 +10,6 @@ import site.mylittlestore.dto.orderitem.OrderItemFindDto;
 import site.mylittlestore.entity.BaseEntity;
 import site.mylittlestore.enumstorage.errormessage.OrderItemErrorMessage;
 import site.mylittlestore.enumstorage.status.OrderItemStatus;
-import site.mylittlestore.exception.item.NotEnoughStockException;
 import site.mylittlestore.exception.orderitem.OrderItemException;
 
 import javax.persistence.*;
@@ -23,11 +22,12 @@ import java.time.LocalDateTime;
 import static javax.persistence.FetchType.LAZY;
 
 @Entity
+@SequenceGenerator(name = "ORDER_ITEM_SEQ_GENERATOR", sequenceName = "ORDER_ITEM_SEQ", allocationSize = 50)
 @Getter
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public class OrderItem extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ORDER_ITEM_SEQ_GENERATOR")
     @Column(name = "ORDER_ITEM_ID")
     private Long id;
 
@@ -69,7 +69,7 @@ public class OrderItem extends BaseEntity {
     private OrderItemStatus orderItemStatus;
 
     @Builder
-    protected OrderItem(Store store, Order order, Item item, Long price, Long count) throws NotEnoughStockException {
+    protected OrderItem(Store store, Order order, Item item, Long price, Long count) {
         this.store = store;
         this.order = order;
         this.item = item;
@@ -80,8 +80,7 @@ public class OrderItem extends BaseEntity {
         this.updatedDateTime = LocalDateTime.now();
         this.orderItemStatus = OrderItemStatus.ORDERED;
 
-        //OrderItem 생성시 Item의 stock 감소
-        this.item.decreaseStock(count);
+        //재고는 OrderItemService에서 ItemRepository.decreaseStock으로 줄인다.
 
         //OrderItem과 Order 연관관계 설정
         order.getOrderItems().add(this);
@@ -103,11 +102,12 @@ public class OrderItem extends BaseEntity {
         this.orderItemStatus = OrderItemStatus.PAID;
     }
 
-    public Item addCount(Long count) throws NotEnoughStockException {
-        this.item.decreaseStock(count);
+    /**
+     * 수량을 늘린다.
+     * 재고는 OrderItemService에서 ItemRepository.decreaseStock으로 줄인다.
+     */
+    public void addCount(Long count) {
         this.count += count;
-
-        return this.item;
     }
 
     public void updatePrice(Long price) {
@@ -115,15 +115,11 @@ public class OrderItem extends BaseEntity {
         this.updatedDateTime = LocalDateTime.now();
     }
 
+    /**
+     * 수량을 변경한다.
+     * 재고는 OrderItemService에서 ItemRepository.decreaseStock/increaseStock으로 맞춘다.
+     */
     public void updateCount(Long count) {
-        Long oldCount = this.count;
-
-        if (oldCount > count) {
-            this.item.increaseStock(oldCount - count);
-        } else if (oldCount < count) {
-            this.item.decreaseStock(count - oldCount);
-        }
-
         this.count = count;
         this.updatedDateTime = LocalDateTime.now();
     }
@@ -19,9 +19,10 @@ import static javax.persistence.FetchType.LAZY;
 
 @Getter
 @Entity
+@SequenceGenerator(name = "PAYMENT_METHOD_SEQ_GENERATOR", sequenceName = "PAYMENT_METHOD_SEQ", allocationSize = 50)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class PaymentMethod {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PAYMENT_METHOD_SEQ_GENERATOR")
     @Column(name = "PAYMENT_METHOD_ID")
     private Long id;
 
@@ -15,11 +15,12 @@ import javax.validation.constraints.NotNull;
 import static javax.persistence.FetchType.LAZY;
 
 @Entity
+@SequenceGenerator(name = "STORE_TABLE_SEQ_GENERATOR", sequenceName = "STORE_TABLE_SEQ", allocationSize = 50)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class StoreTable extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "STORE_TABLE_SEQ_GENERATOR")
     @Column(name = "TABLE_ID")
     private Long id;
 
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import site.mylittlestore.domain.member.Member;
 import site.mylittlestore.dto.jwt.JwtFindDto;
+import site.mylittlestore.util.TokenHasher;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
@@ -17,15 +18,30 @@ import static javax.persistence.FetchType.LAZY;
 
 @Getter
 @Entity
+@Table(indexes = {
+        @Index(name = "IDX_JWT_PREVIOUS_REFRESH_TOKEN_HASH", columnList = "PREVIOUS_REFRESH_TOKEN_HASH"),
+        @Index(name = "IDX_JWT_EXPIRED_AT", columnList = "EXPIRED_AT")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Jwt {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    //refresh token 조회용 SHA-256 해시 (고정 길이)
+    //refresh token은 저장하지 않는다.
     @NotBlank
-    private String refreshToken;
+    @Column(name = "REFRESH_TOKEN_HASH", unique = true, length = 43)
+    private String refreshTokenHash;
+
+    //재발급 직전의 refresh token 해시
+    //여러 탭에서 동시에 재발급할 때, 잠깐 동안은 이전 refresh token도 인정한다.
+    @Column(name = "PREVIOUS_REFRESH_TOKEN_HASH", length = 43)
+    private String previousRefreshTokenHash;
+
+    private LocalDateTime previousRefreshTokenExpiredAt;
 
     @NotNull
+    @Column(name = "EXPIRED_AT")
     private LocalDateTime expiredAt;
 
     @OneToOne(fetch = LAZY)
@@ -33,7 +49,7 @@ public class Jwt {
 
     @Builder
     protected Jwt(String refreshToken, Member member) {
-        this.refreshToken = refreshToken;
+        this.refreshTokenHash = TokenHasher.hash(refreshToken);
         this.expiredAt = LocalDateTime.now().plusDays(7);
         this.member = member;
         member.setJwt(this);
@@ -41,7 +57,21 @@ public class Jwt {
 
     //== 비즈니스 로직 ==//
     public void updateRefreshToken(String refreshToken) {
-        this.refreshToken = refreshToken;
+        this.refreshTokenHash = TokenHasher.hash(refreshToken);
+        this.previousRefreshTokenHash = null;
+        this.previousRefreshTokenExpiredAt = null;
+        this.expiredAt = LocalDateTime.now().plusDays(7);
+    }
+
+    /**
+     * refresh token을 교체하고, 이전 refresh token은 gracePeriodExpiredAt까지 인정한다.
+     * @param refreshToken
+     * @param gracePeriodExpiredAt
+     */
+    public void rotateRefreshToken(String refreshToken, LocalDateTime gracePeriodExpiredAt) {
+        this.previousRefreshTokenHash = this.refreshTokenHash;
+        this.previousRefreshTokenExpiredAt = gracePeriodExpiredAt;
+        this.refreshTokenHash = TokenHasher.hash(refreshToken);
         this.expiredAt = LocalDateTime.now().plusDays(7);
     }
 
@@ -49,7 +79,6 @@ public class Jwt {
     public JwtFindDto toJwtFindDto() {
         return JwtFindDto.builder()
                 .id(id)
-                .refreshToken(refreshToken)
                 .expiredAt(expiredAt)
                 .memberId(member.getId())
                 .build();
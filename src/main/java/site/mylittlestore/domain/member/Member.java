@@ -12,19 +12,22 @@ import site.mylittlestore.entity.BaseEntity;
 import site.mylittlestore.enumstorage.errormessage.auth.LogInErrorMessage;
 import site.mylittlestore.enumstorage.role.MemberRole;
 import site.mylittlestore.enumstorage.status.MemberStatus;
+import site.mylittlestore.util.TokenHasher;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@SequenceGenerator(name = "MEMBER_SEQ_GENERATOR", sequenceName = "MEMBER_SEQ", allocationSize = 50)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Member extends BaseEntity {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "MEMBER_SEQ_GENERATOR")
     @Column(name = "MEMBER_ID")
     private Long id;
 
@@ -62,7 +65,15 @@ public class Member extends BaseEntity {
     @NotNull
     private int logInAttempt = 0;
 
-    private String passwordVerificationCode;
+    //상태나 권한이 바뀔 때마다 증가, access token의 claim과 비교해서 이전에 발급된 토큰을 거부한다.
+    @NotNull
+    private int statusVersion = 0;
+
+    //비밀번호 변경 코드 조회용 SHA-256 해시 (고정 길이), 코드는 이메일로만 보내고 저장하지 않는다.
+    @Column(name = "PASSWORD_VERIFICATION_CODE_HASH", unique = true, length = 43)
+    private String passwordVerificationCodeHash;
+
+    private LocalDateTime passwordVerificationCodeExpiredAt;
 
     @Builder
     protected Member(String name, String email, String password, String city, String street, String zipcode) {
@@ -106,31 +117,39 @@ public class Member extends BaseEntity {
         if (this.status == MemberStatus.LOCKED) {
             this.status = MemberStatus.ACTIVE;
             this.logInAttempt = 0;
+            this.statusVersion += 1;
         }
     }
 
-    public MemberStatus countUpLogInAttempt() {
-        this.logInAttempt += 1;
+    /**
+     * 로그인에 너무 많이 실패해서 잠근다.
+     * @param logInAttempt 메모리에서 센 로그인 실패 횟수
+     * @return 이번에 잠갔으면 true
+     */
+    public boolean lock(int logInAttempt) {
+        this.logInAttempt = Math.max(this.logInAttempt, logInAttempt);
 
-        if (this.logInAttempt >= 5) {
-            if (this.status != MemberStatus.DELETED) {
-                return this.status = MemberStatus.LOCKED;
-            }
+        if (this.status == MemberStatus.DELETED || this.status == MemberStatus.LOCKED) {
+            return false;
         }
 
-        return this.status;
+        this.status = MemberStatus.LOCKED;
+        this.statusVersion += 1;
+        return true;
     }
 
     public void resetLogInAttempt() {
         this.logInAttempt = 0;
     }
 
-    public void updatePasswordVerificationCode(String passwordVerificationCode) {
-        this.passwordVerificationCode = passwordVerificationCode;
+    public void updatePasswordVerificationCode(String passwordVerificationCode, LocalDateTime expiredAt) {
+        this.passwordVerificationCodeHash = TokenHasher.hash(passwordVerificationCode);
+        this.passwordVerificationCodeExpiredAt = expiredAt;
     }
 
     public void deletePasswordVerificationCode() {
-        this.passwordVerificationCode = "";
+        this.passwordVerificationCodeHash = null;
+        this.passwordVerificationCodeExpiredAt = null;
     }
 
     //== 테스트 로직 ==//
@@ -140,6 +159,7 @@ public class Member extends BaseEntity {
         } else {
             this.role = MemberRole.ADMIN;
         }
+        this.statusVersion += 1;
     }
 
     //==연관관계 메소드==//
@@ -175,7 +195,6 @@ public class Member extends BaseEntity {
                 .status(status.toString())
                 .jwtId(jwt != null ? jwt.getId() : null)
                 .logInAttempt(logInAttempt)
-                .passwordVerificationCode(passwordVerificationCode != null ? passwordVerificationCode : null)
                 .build();
     }
 }
@@ -6,12 +6,21 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import site.mylittlestore.domain.Address;
 import site.mylittlestore.entity.BaseEntity;
+import site.mylittlestore.util.TokenHasher;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
+/**
+ * 이메일 인증 전의 회원
+ * 인증 코드가 만료되면 TemporaryMemberSweeper가 지운다. (생성 시각은 BaseEntity의 createdDate)
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "IDX_TEMPORARY_MEMBER_VERIFICATION_CODE_EXPIRED_AT", columnList = "VERIFICATION_CODE_EXPIRED_AT")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class TemporaryMember extends BaseEntity {
@@ -31,11 +40,18 @@ public class TemporaryMember extends BaseEntity {
     @NotNull
     private Address address;
 
+    //인증 코드 조회용 SHA-256 해시 (고정 길이), 코드는 이메일로만 보내고 저장하지 않는다.
     @NotBlank
-    private String verificationCode;
+    @Column(name = "VERIFICATION_CODE_HASH", unique = true, length = 43)
+    private String verificationCodeHash;
+
+    //만료되면 인증할 수 없고, 만료된 순서로 지운다.
+    @NotNull
+    @Column(name = "VERIFICATION_CODE_EXPIRED_AT")
+    private LocalDateTime verificationCodeExpiredAt;
 
     @Builder
-    protected TemporaryMember(String name, String email, String password, String city, String street, String zipcode, String verificationCode) {
+    protected TemporaryMember(String name, String email, String password, String city, String street, String zipcode, String verificationCode, LocalDateTime verificationCodeExpiredAt) {
         this.name = name;
         this.email = email;
         this.password = password;
@@ -44,11 +60,12 @@ public class TemporaryMember extends BaseEntity {
                         .street(street)
                         .zipcode(zipcode)
                 .build();
-        this.verificationCode = verificationCode;
+        updateVerificationCode(verificationCode, verificationCodeExpiredAt);
     }
 
     //== 비즈니스 로직 ==//
-    public void updateVerificationCode(String verificationCode) {
-        this.verificationCode = verificationCode;
+    public void updateVerificationCode(String verificationCode, LocalDateTime expiredAt) {
+        this.verificationCodeHash = TokenHasher.hash(verificationCode);
+        this.verificationCodeExpiredAt = expiredAt;
     }
 }
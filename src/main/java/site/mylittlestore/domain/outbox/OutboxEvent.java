@@ -0,0 +1,124 @@
+package site.mylittlestore.domain.outbox;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import site.mylittlestore.dto.outbox.OutboxEventDto;
+import site.mylittlestore.entity.BaseEntity;
+import site.mylittlestore.enumstorage.OutboxEventType;
+import site.mylittlestore.enumstorage.status.OutboxEventStatus;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * 트랜잭션 outbox
+ * 상태 변경과 같은 트랜잭션에서 저장하고, 커밋된 후에 OutboxDispatcher가 처리한다.
+ * 처리하다가 서버가 죽어도 행이 남아있으므로, 이벤트를 잃지 않는다. (최소 한 번 처리)
+ */
+@Entity
+@SequenceGenerator(name = "OUTBOX_EVENT_SEQ_GENERATOR", sequenceName = "OUTBOX_EVENT_SEQ", allocationSize = 50)
+@Table(indexes = {
+        @Index(name = "IDX_OUTBOX_EVENT_STATUS_NEXT_ATTEMPT_AT", columnList = "OUTBOX_EVENT_STATUS, NEXT_ATTEMPT_AT")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent extends BaseEntity {
+    private static final int MAX_ERROR_LENGTH = 1000;
+    //보냈거나 더 보내지 않는 이벤트의 내용, 인증 코드 같은 내용을 남기지 않는다.
+    public static final String REDACTED_PAYLOAD = "{}";
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "OUTBOX_EVENT_SEQ_GENERATOR")
+    @Column(name = "OUTBOX_EVENT_ID")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    //이벤트 내용 (JSON)
+    @NotBlank
+    @Column(length = 10000)
+    private String payload;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "OUTBOX_EVENT_STATUS")
+    private OutboxEventStatus outboxEventStatus;
+
+    @NotNull
+    private Integer attemptCount;
+
+    //이 시간 이후에 처리한다. 처리 중에는 lease가 끝나는 시간, 실패하면 다시 시도할 시간
+    @NotNull
+    @Column(name = "NEXT_ATTEMPT_AT")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    private LocalDateTime sentAt;
+
+    //이 시간이 지나면 보내지 않는다. (ex. 인증 코드가 만료된 이메일) null이면 만료되지 않는다.
+    private LocalDateTime expiredAt;
+
+    @Builder
+    protected OutboxEvent(OutboxEventType eventType, String payload, LocalDateTime expiredAt) {
+        this.eventType = eventType;
+        this.payload = payload;
+        this.expiredAt = expiredAt;
+        this.outboxEventStatus = OutboxEventStatus.PENDING;
+        this.attemptCount = 0;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    //== 비즈니스 로직 ==//
+    /**
+     * 처리를 맡는다.
+     * leasedUntil까지 끝내지 못하면 (ex. 서버가 죽으면) 다시 처리 대상이 된다.
+     */
+    public void lease(LocalDateTime leasedUntil) {
+        this.nextAttemptAt = leasedUntil;
+    }
+
+    /**
+     * 아직 leasedUntil까지 맡고 있는 PENDING 이벤트인지
+     */
+    public boolean isLeasedUntil(LocalDateTime leasedUntil) {
+        return outboxEventStatus == OutboxEventStatus.PENDING && nextAttemptAt.equals(leasedUntil);
+    }
+
+    public void sent(LocalDateTime sentAt) {
+        this.outboxEventStatus = OutboxEventStatus.SENT;
+        this.payload = REDACTED_PAYLOAD;
+        this.sentAt = sentAt;
+    }
+
+    /**
+     * 처리에 실패하면 nextAttemptAt에 다시 시도한다.
+     * maxAttempts번 실패하면 더 이상 시도하지 않고, 내용을 지운다.
+     */
+    public void failed(String error, LocalDateTime nextAttemptAt, int maxAttempts) {
+        this.attemptCount++;
+        this.lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        this.nextAttemptAt = nextAttemptAt;
+
+        if (this.attemptCount >= maxAttempts) {
+            this.outboxEventStatus = OutboxEventStatus.FAILED;
+            this.payload = REDACTED_PAYLOAD;
+        }
+    }
+
+    //== Dto ==//
+    public OutboxEventDto toOutboxEventDto() {
+        return OutboxEventDto.builder()
+                .id(id)
+                .eventType(eventType.toString())
+                .payload(payload)
+                .attemptCount(attemptCount)
+                .build();
+    }
+}
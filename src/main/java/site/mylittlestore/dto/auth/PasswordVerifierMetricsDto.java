@@ -0,0 +1,59 @@
+package site.mylittlestore.dto.auth;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class PasswordVerifierMetricsDto {
+    private int poolSize;
+
+    //검증 중이거나 기다리는 요청 수
+    private int inFlight;
+
+    private int maxInFlight;
+
+    private int queueDepth;
+
+    private long admittedCount;
+
+    //자리가 없어서 바로 돌려보낸 요청 수
+    private long rejectedCount;
+
+    //max-wait 안에 끝나지 않은 요청 수
+    private long timedOutCount;
+
+    private long matchedCount;
+
+    private long mismatchedCount;
+
+    //encoder 설정이 바뀌어서 다시 해시한 비밀번호 수
+    private long rehashedCount;
+
+    //검증 스레드를 기다린 시간
+    private double meanQueueMillis;
+
+    private double maxQueueMillis;
+
+    //해시 시간 (다시 해시한 시간 포함)
+    private double meanHashMillis;
+
+    private double maxHashMillis;
+
+    @Builder
+    protected PasswordVerifierMetricsDto(int poolSize, int inFlight, int maxInFlight, int queueDepth, long admittedCount, long rejectedCount, long timedOutCount, long matchedCount, long mismatchedCount, long rehashedCount, double meanQueueMillis, double maxQueueMillis, double meanHashMillis, double maxHashMillis) {
+        this.poolSize = poolSize;
+        this.inFlight = inFlight;
+        this.maxInFlight = maxInFlight;
+        this.queueDepth = queueDepth;
+        this.admittedCount = admittedCount;
+        this.rejectedCount = rejectedCount;
+        this.timedOutCount = timedOutCount;
+        this.matchedCount = matchedCount;
+        this.mismatchedCount = mismatchedCount;
+        this.rehashedCount = rehashedCount;
+        this.meanQueueMillis = meanQueueMillis;
+        this.maxQueueMillis = maxQueueMillis;
+        this.meanHashMillis = meanHashMillis;
+        this.maxHashMillis = maxHashMillis;
+    }
+}
@@ -0,0 +1,22 @@
+package site.mylittlestore.dto.auth;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class RateLimitMetricsDto {
+    //보관 중인 버킷 수
+    private int keys;
+
+    private int maxKeys;
+
+    //버킷이 가득 차서 가장 오래 쓰지 않은 버킷을 지운 수
+    private long evictedCount;
+
+    @Builder
+    protected RateLimitMetricsDto(int keys, int maxKeys, long evictedCount) {
+        this.keys = keys;
+        this.maxKeys = maxKeys;
+        this.evictedCount = evictedCount;
+    }
+}
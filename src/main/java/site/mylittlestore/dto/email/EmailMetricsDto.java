@@ -0,0 +1,66 @@
+package site.mylittlestore.dto.email;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class EmailMetricsDto {
+    private int poolSize;
+
+    private int activeCount;
+
+    //발송을 기다리는 이메일 수
+    private int queueDepth;
+
+    private int queueCapacity;
+
+    private long submittedCount;
+
+    private long sentCount;
+
+    private long failedCount;
+
+    //대기열이 가득 차서 받지 않은 이메일 수
+    private long rejectedCount;
+
+    //발송 전에 같은 수신자, 같은 제목의 새 이메일로 바뀐 이메일 수
+    private long coalescedCount;
+
+    //dedup-window 안에 똑같이 보낸 적이 있어서 보내지 않은 이메일 수
+    private long duplicateCount;
+
+    //SMTP 서버에 새로 연결한 횟수
+    private long connectedCount;
+
+    private int idleTransportCount;
+
+    //대기열에서 기다린 시간
+    private double meanQueueMillis;
+
+    private double maxQueueMillis;
+
+    //SMTP 발송 시간
+    private double meanSendMillis;
+
+    private double maxSendMillis;
+
+    @Builder
+    protected EmailMetricsDto(int poolSize, int activeCount, int queueDepth, int queueCapacity, long submittedCount, long sentCount, long failedCount, long rejectedCount, long coalescedCount, long duplicateCount, long connectedCount, int idleTransportCount, double meanQueueMillis, double maxQueueMillis, double meanSendMillis, double maxSendMillis) {
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.submittedCount = submittedCount;
+        this.sentCount = sentCount;
+        this.failedCount = failedCount;
+        this.rejectedCount = rejectedCount;
+        this.coalescedCount = coalescedCount;
+        this.duplicateCount = duplicateCount;
+        this.connectedCount = connectedCount;
+        this.idleTransportCount = idleTransportCount;
+        this.meanQueueMillis = meanQueueMillis;
+        this.maxQueueMillis = maxQueueMillis;
+        this.meanSendMillis = meanSendMillis;
+        this.maxSendMillis = maxSendMillis;
+    }
+}
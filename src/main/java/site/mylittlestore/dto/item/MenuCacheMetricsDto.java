@@ -0,0 +1,26 @@
+package site.mylittlestore.dto.item;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class MenuCacheMetricsDto {
+    //캐시된 가게 수
+    private int stores;
+
+    private long hitCount;
+
+    //DB에서 메뉴를 조회한 횟수
+    private long missCount;
+
+    //비워진 재고만 다시 조회한 횟수
+    private long stockReloadCount;
+
+    @Builder
+    protected MenuCacheMetricsDto(int stores, long hitCount, long missCount, long stockReloadCount) {
+        this.stores = stores;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.stockReloadCount = stockReloadCount;
+    }
+}
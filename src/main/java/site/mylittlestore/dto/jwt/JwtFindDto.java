@@ -3,7 +3,6 @@ package site.mylittlestore.dto.jwt;
 import lombok.Builder;
 import lombok.Getter;
 
-import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
@@ -12,9 +11,6 @@ public class JwtFindDto {
     @NotNull
     private Long id;
 
-    @NotBlank
-    private String refreshToken;
-
     @NotNull
     private LocalDateTime expiredAt;
 
@@ -22,9 +18,8 @@ public class JwtFindDto {
     private Long memberId;
 
     @Builder
-    protected JwtFindDto(Long id, String refreshToken, LocalDateTime expiredAt, Long memberId) {
+    protected JwtFindDto(Long id, LocalDateTime expiredAt, Long memberId) {
         this.id = id;
-        this.refreshToken = refreshToken;
         this.expiredAt = expiredAt;
         this.memberId = memberId;
     }
@@ -25,10 +25,9 @@ public class MemberFindDto {
     private String status;
     private Long jwtId;
     private int logInAttempt;
-    private String passwordVerificationCode;
 
     @Builder
-    protected MemberFindDto(Long id, String name, String email, String city, String street, String zipcode, String status, Long jwtId, int logInAttempt, String passwordVerificationCode) {
+    protected MemberFindDto(Long id, String name, String email, String city, String street, String zipcode, String status, Long jwtId, int logInAttempt) {
         this.id = id;
         this.name = name;
         this.email = email;
@@ -38,6 +37,5 @@ public class MemberFindDto {
         this.status = status;
         this.jwtId = jwtId;
         this.logInAttempt = logInAttempt;
-        this.passwordVerificationCode = passwordVerificationCode;
     }
 }
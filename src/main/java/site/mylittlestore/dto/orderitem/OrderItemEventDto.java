@@ -0,0 +1,41 @@
+package site.mylittlestore.dto.orderitem;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주방 화면으로 보내는 주문 상품 이벤트
+ * 이벤트 순번은 SSE 이벤트 Id로 보낸다.
+ */
+@Getter
+public class OrderItemEventDto {
+    private String eventType;
+    private Long orderItemId;
+    private Long orderId;
+    private Long storeTableId;
+    private Long itemId;
+    private Long price;
+
+    //바뀐 수량 (CREATED: 더해진 수량, COUNT_CHANGED: 새 수량 - 이전 수량, DELETED: -삭제된 수량)
+    private Long countDelta;
+
+    //바뀐 후 수량, CREATED는 기존 주문 상품에 더해졌을 수 있어서 알 수 없으므로 null
+    private Long count;
+
+    private LocalDateTime eventDateTime;
+
+    @Builder
+    protected OrderItemEventDto(String eventType, Long orderItemId, Long orderId, Long storeTableId, Long itemId, Long price, Long countDelta, Long count, LocalDateTime eventDateTime) {
+        this.eventType = eventType;
+        this.orderItemId = orderItemId;
+        this.orderId = orderId;
+        this.storeTableId = storeTableId;
+        this.itemId = itemId;
+        this.price = price;
+        this.countDelta = countDelta;
+        this.count = count;
+        this.eventDateTime = eventDateTime;
+    }
+}
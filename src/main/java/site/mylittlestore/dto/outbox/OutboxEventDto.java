@@ -0,0 +1,20 @@
+package site.mylittlestore.dto.outbox;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class OutboxEventDto {
+    private Long id;
+    private String eventType;
+    private String payload;
+    private Integer attemptCount;
+
+    @Builder
+    protected OutboxEventDto(Long id, String eventType, String payload, Integer attemptCount) {
+        this.id = id;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.attemptCount = attemptCount;
+    }
+}
@@ -0,0 +1,48 @@
+package site.mylittlestore.dto.sqlmetrics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class QueryShapeDto {
+    private String shape;
+
+    private long count;
+
+    private long errorCount;
+
+    private long rows;
+
+    private double totalMillis;
+
+    private double meanMillis;
+
+    private double maxMillis;
+
+    //히스토그램으로 추정한 값 (버킷의 상한)
+    private double p50Millis;
+
+    private double p95Millis;
+
+    private double p99Millis;
+
+    //버킷 상한(ms) -> 실행 횟수
+    private Map<String, Long> histogram;
+
+    @Builder
+    protected QueryShapeDto(String shape, long count, long errorCount, long rows, double totalMillis, double meanMillis, double maxMillis, double p50Millis, double p95Millis, double p99Millis, Map<String, Long> histogram) {
+        this.shape = shape;
+        this.count = count;
+        this.errorCount = errorCount;
+        this.rows = rows;
+        this.totalMillis = totalMillis;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.histogram = histogram;
+    }
+}
@@ -0,0 +1,30 @@
+package site.mylittlestore.dto.sqlmetrics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+public class SlowQueryDto {
+    private String shape;
+
+    private double elapsedMillis;
+
+    private LocalDateTime executedAt;
+
+    private String threadName;
+
+    //stack-threshold보다 느린 경우에만 채운다.
+    private List<String> stack;
+
+    @Builder
+    protected SlowQueryDto(String shape, double elapsedMillis, LocalDateTime executedAt, String threadName, List<String> stack) {
+        this.shape = shape;
+        this.elapsedMillis = elapsedMillis;
+        this.executedAt = executedAt;
+        this.threadName = threadName;
+        this.stack = stack;
+    }
+}
@@ -0,0 +1,26 @@
+package site.mylittlestore.dto.sqlmetrics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class SqlMetricsDto {
+    private boolean enabled;
+
+    //max-shapes를 넘어서 "(other)"로 합쳐진 SQL 문 수
+    private long overflowCount;
+
+    private List<QueryShapeDto> queryShapes;
+
+    private List<SlowQueryDto> slowQueries;
+
+    @Builder
+    protected SqlMetricsDto(boolean enabled, long overflowCount, List<QueryShapeDto> queryShapes, List<SlowQueryDto> slowQueries) {
+        this.enabled = enabled;
+        this.overflowCount = overflowCount;
+        this.queryShapes = queryShapes;
+        this.slowQueries = slowQueries;
+    }
+}
@@ -0,0 +1,48 @@
+package site.mylittlestore.dto.storetable;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.status.OrderStatus;
+import site.mylittlestore.enumstorage.status.PaymentStatus;
+import site.mylittlestore.enumstorage.status.StoreTableStatus;
+
+/**
+ * 테이블 현황판 한 칸
+ * 테이블, 주문, 결제, 주문 상품 합계를 엔티티 없이 한 번에 조회한다.
+ */
+@Getter
+public class StoreTableBoardDto {
+    private Long id;
+    private Long storeId;
+    private Long xCoordinate;
+    private Long yCoordinate;
+    private String storeTableStatus;
+
+    private Long orderId;
+    private String orderStatus;
+
+    private Long paymentId;
+    private String paymentStatus;
+
+    //주문된(ORDERED) 주문 상품의 수량 합계, 금액 합계
+    private Long orderItemCount;
+    private Long totalPrice;
+
+    @Builder
+    @QueryProjection
+    public StoreTableBoardDto(Long id, Long storeId, Long xCoordinate, Long yCoordinate, StoreTableStatus storeTableStatus, Long orderId, OrderStatus orderStatus, Long paymentId, PaymentStatus paymentStatus, Long orderItemCount, Long totalPrice) {
+        this.id = id;
+        this.storeId = storeId;
+        this.xCoordinate = xCoordinate;
+        this.yCoordinate = yCoordinate;
+        this.storeTableStatus = storeTableStatus.toString();
+        this.orderId = orderId;
+        this.orderStatus = orderStatus != null ? orderStatus.toString() : null;
+        this.paymentId = paymentId;
+        this.paymentStatus = paymentStatus != null ? paymentStatus.toString() : null;
+        //주문 상품이 없으면 SUM은 null
+        this.orderItemCount = orderItemCount != null ? orderItemCount : 0L;
+        this.totalPrice = totalPrice != null ? totalPrice : 0L;
+    }
+}
@@ -0,0 +1,27 @@
+package site.mylittlestore.dto.storetable;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 테이블 현황판으로 보내는 테이블 상태 변경 (바뀐 테이블 한 칸)
+ */
+@Getter
+public class StoreTableStatusEventDto {
+    private Long storeTableId;
+    private String storeTableStatus;
+    private Long orderId;
+    private String orderStatus;
+    private Long paymentId;
+    private String paymentStatus;
+
+    @Builder
+    protected StoreTableStatusEventDto(Long storeTableId, String storeTableStatus, Long orderId, String orderStatus, Long paymentId, String paymentStatus) {
+        this.storeTableId = storeTableId;
+        this.storeTableStatus = storeTableStatus;
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+        this.paymentId = paymentId;
+        this.paymentStatus = paymentStatus;
+    }
+}
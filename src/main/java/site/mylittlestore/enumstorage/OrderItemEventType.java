@@ -0,0 +1,13 @@
+package site.mylittlestore.enumstorage;
+
+/**
+ * 주방 화면으로 보내는 주문 상품 이벤트 종류
+ */
+public enum OrderItemEventType {
+    //주문 상품이 생겼거나, 같은 주문 상품(상품, 가격이 같음)에 수량이 더해짐
+    CREATED,
+    //직원이 주문 상품의 수량을 바꿈
+    COUNT_CHANGED,
+    //주문 상품이 삭제됨
+    DELETED
+}
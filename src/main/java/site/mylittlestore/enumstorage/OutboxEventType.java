@@ -0,0 +1,8 @@
+package site.mylittlestore.enumstorage;
+
+/**
+ * outbox 이벤트 종류, 종류마다 OutboxEventHandler가 하나씩 있다.
+ */
+public enum OutboxEventType {
+    EMAIL
+}
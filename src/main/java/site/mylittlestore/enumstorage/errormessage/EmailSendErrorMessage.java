@@ -0,0 +1,16 @@
+package site.mylittlestore.enumstorage.errormessage;
+
+import lombok.Getter;
+
+@Getter
+public enum EmailSendErrorMessage {
+
+    EMAIL_QUEUE_FULL("이메일 발송 대기열이 가득 찼습니다."),
+    EMAIL_SENDER_SHUT_DOWN("이메일 발송이 중단되었습니다.");
+
+    private final String message;
+
+    EmailSendErrorMessage(String message) {
+        this.message = message;
+    }
+}
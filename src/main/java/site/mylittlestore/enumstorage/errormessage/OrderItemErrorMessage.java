@@ -7,7 +7,9 @@ public enum OrderItemErrorMessage {
     NO_SUCH_ORDER_ITEM("해당 주문이 존재하지 않습니다."),
     CONFIRM_DELETE_ORDER_ITEM("주문 상품을 삭제하시겠습니까?"),
     ORDER_ITEM_ALREADY_DELETED("이미 삭제된 주문 상품입니다."),
-    ORDER_ITEM_ALREADY_PAID("이미 결제된 주문 상품입니다.");
+    ORDER_ITEM_ALREADY_PAID("이미 결제된 주문 상품입니다."),
+    NO_ORDER_ITEMS_TO_CREATE("주문할 상품이 없습니다."),
+    DIFFERENT_ORDER_IN_BATCH("같은 주문의 상품만 한 번에 주문할 수 있습니다.");
 
     private final String message;
 
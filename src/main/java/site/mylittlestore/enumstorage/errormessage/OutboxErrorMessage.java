@@ -0,0 +1,18 @@
+package site.mylittlestore.enumstorage.errormessage;
+
+import lombok.Getter;
+
+@Getter
+public enum OutboxErrorMessage {
+
+    NO_HANDLER_FOR_EVENT_TYPE("이벤트를 처리할 핸들러가 없습니다."),
+    PAYLOAD_SERIALIZATION_FAILED("이벤트 내용을 저장할 수 없습니다."),
+    PAYLOAD_DESERIALIZATION_FAILED("이벤트 내용을 읽을 수 없습니다."),
+    EVENT_EXPIRED("보내기 전에 이벤트가 만료되었습니다.");
+
+    private final String message;
+
+    OutboxErrorMessage(String message) {
+        this.message = message;
+    }
+}
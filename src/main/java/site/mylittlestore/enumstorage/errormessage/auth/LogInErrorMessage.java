@@ -4,7 +4,8 @@ import lombok.Getter;
 
 @Getter
 public enum LogInErrorMessage {
-    LOG_IN_ATTEMPT_EXCEEDED("로그인 시도 횟수를 초과하였습니다.");
+    LOG_IN_ATTEMPT_EXCEEDED("로그인 시도 횟수를 초과하였습니다."),
+    LOG_IN_BUSY("로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
 
     private final String message;
 
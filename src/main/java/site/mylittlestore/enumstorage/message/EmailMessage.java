@@ -12,12 +12,14 @@ public enum EmailMessage {
     VERIFICATION_EMAIL_RESENT("회원가입 인증 이메일이 성공적으로 재발송되었습니다."),
     VERIFICATION_EMAIL_SUCCESS("이메일 인증에 성공하였습니다."),
     VERIFICATION_EMAIL_SEND_FAIL("회원가입 인증 이메일 발송에 실패하였습니다. 다시 시도해주세요."),
+    VERIFICATION_EMAIL_RESEND_LIMITED("회원가입 인증 이메일 재발송 요청이 너무 많습니다. 잠시 후 다시 시도해주세요."),
     CHANGE_PASSWORD_EMAIL_SUBJECT("MyLittleStore 비밀번호 변경 메일입니다."),
     CHANGE_PASSWORD_EMAIL_MESSAGE("MyLittleStore 비밀번호 변경 메일입니다.<br>" + "비밀번호를 변경하려면 아래 링크를 눌러주세요.<br><br>"),
     CHANGE_PASSWORD_EMAIL_LINK("https://localhost:8080/auth/member/change-password/"),
     CHANGE_PASSWORD_EMAIL_SENT("비밀번호 변경 이메일이 성공적으로 발송되었습니다."),
     CHANGE_PASSWORD_EMAIL_SUCCESS("비밀번호 변경에 성공하였습니다."),
-    CHANGE_PASSWORD_EMAIL_SEND_FAIL("비밀번호 변경 이메일 발송에 실패하였습니다. 다시 시도해주세요.");
+    CHANGE_PASSWORD_EMAIL_SEND_FAIL("비밀번호 변경 이메일 발송에 실패하였습니다. 다시 시도해주세요."),
+    CHANGE_PASSWORD_EMAIL_RESEND_LIMITED("비밀번호 변경 이메일 재발송 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
 
     private final String message;
 
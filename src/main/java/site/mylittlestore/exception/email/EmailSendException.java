@@ -0,0 +1,7 @@
+package site.mylittlestore.exception.email;
+
+public class EmailSendException extends RuntimeException {
+    public EmailSendException(String message) {
+        super(message);
+    }
+}
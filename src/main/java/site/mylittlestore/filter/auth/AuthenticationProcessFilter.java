@@ -1,6 +1,7 @@
 package site.mylittlestore.filter.auth;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -9,6 +10,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import site.mylittlestore.config.auth.MemberAuthorizationContext;
 import site.mylittlestore.config.auth.PrincipalUserDetails;
 import site.mylittlestore.domain.member.Member;
 import site.mylittlestore.dto.jwt.JwtFindDto;
@@ -17,8 +19,15 @@ import site.mylittlestore.enumstorage.errormessage.auth.jwt.JwtErrorMessage;
 import site.mylittlestore.exception.auth.jwt.NoSuchJwtException;
 import site.mylittlestore.exception.auth.jwt.NotValidJwtException;
 import site.mylittlestore.exception.member.NoSuchMemberException;
+import site.mylittlestore.enumstorage.role.MemberRole;
 import site.mylittlestore.repository.member.MemberRepository;
+import site.mylittlestore.service.auth.OwnedStoreCache;
+import site.mylittlestore.service.auth.jwt.AccessTokenCache;
+import site.mylittlestore.service.auth.jwt.AuthenticatedMember;
 import site.mylittlestore.service.auth.jwt.JwtService;
+import site.mylittlestore.service.auth.jwt.MemberStatusVersions;
+import site.mylittlestore.service.auth.jwt.RefreshTokenReissuer;
+import site.mylittlestore.service.auth.jwt.ReissuedTokens;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -27,6 +36,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -37,6 +47,10 @@ import java.util.List;
 public class AuthenticationProcessFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final MemberRepository memberRepository;
+    private final AccessTokenCache accessTokenCache;
+    private final MemberStatusVersions memberStatusVersions;
+    private final OwnedStoreCache ownedStoreCache;
+    private final RefreshTokenReissuer refreshTokenReissuer;
 
     private static final String NO_CHECK_URL = "/auth"; // "/auth/login"으로 들어오는 요청은 Filter 작동 X
 
@@ -70,16 +84,36 @@ public class AuthenticationProcessFilter extends OncePerRequestFilter {
                 //access token이 유효하면
                 try
                 {
-                    //access token에서 email 추출
-                    String email = jwtService.extractEmailFromAccessToken(accessToken)
+                    //이미 검증한 access token이면, 서명 검증 없이 인증 처리
+                    Optional<AuthenticatedMember> cachedMember = accessTokenCache.get(accessToken);
+                    if (cachedMember.isPresent() && !memberStatusVersions.isRevoked(cachedMember.get())) {
+                        saveAuthentication(cachedMember.get());
+                        saveAuthorizationContext(request, cachedMember.get().getMemberId(), cachedMember.get().getRole());
+
+                        filterChain.doFilter(request, response); //다음 필터 호출
+                        return; //return으로 이후 현재 필터 진행 막기
+                    }
+
+                    //access token을 한 번만 파싱해서 검증하고 claim을 가져온다.
+                    DecodedJWT decodedAccessToken = jwtService.verify(accessToken)
                             .orElseThrow(() -> new NotValidJwtException(JwtErrorMessage.NOT_VALID_JWT.getMessage()));
 
-                    //해당 email을 사용하는 유저 객체 반환
-                    Member member = memberRepository.findNotDeletedByEmail(email)
-                            .orElseThrow(() -> new NoSuchMemberException(MemberErrorMessage.NO_SUCH_MEMBER.getMessage()));
+                    //claim만으로 회원 정보를 만든다.
+                    //claim이 없는 이전 형식의 토큰이면, email로 회원을 조회한다.
+                    AuthenticatedMember authenticatedMember = jwtService.extractAuthenticatedMember(decodedAccessToken)
+                            .orElseGet(() -> loadAuthenticatedMember(decodedAccessToken));
+
+                    //상태나 권한이 바뀌기 전에 발급된 토큰이면 거부
+                    if (memberStatusVersions.isRevoked(authenticatedMember)) {
+                        throw new NotValidJwtException(JwtErrorMessage.NOT_VALID_JWT.getMessage());
+                    }
+
+                    //access token이 만료될 때까지 캐시
+                    accessTokenCache.put(accessToken, authenticatedMember);
 
                     //access token으로 인증 처리
-                    saveAuthentication(member);
+                    saveAuthentication(authenticatedMember);
+                    saveAuthorizationContext(request, authenticatedMember.getMemberId(), authenticatedMember.getRole());
 
                     filterChain.doFilter(request, response); //다음 필터 호출
                     return; //return으로 이후 현재 필터 진행 막기
@@ -102,30 +136,23 @@ public class AuthenticationProcessFilter extends OncePerRequestFilter {
             else if (accessToken.isBlank()) {
                 //refresh token이 있으면
                 if (!refreshToken.isBlank()) {
-                    //refresh token을 검증
-                    if (jwtService.isTokenValid(refreshToken) && jwtService.isRefreshTokenExists(response, refreshToken)) {
-                        //refresh token이 유효하면
-
-                        //토큰들 재발급
-                        Member member = jwtService.reissueTokens(refreshToken, response);
+                    //refresh token을 검증하고 토큰들 재발급
+                    //같은 refresh token으로 동시에 들어온 요청들은 재발급 결과를 공유한다.
+                    //refresh token이 유효하지 않거나 DB에 없거나 기한이 지났으면, 예외로 인증 실패
+                    ReissuedTokens reissuedTokens = refreshTokenReissuer.reissue(refreshToken);
+                    jwtService.setTokensOnCookie(response, reissuedTokens);
 
-                        //access token을 재발급 받았으므로, 인증 성공
-                        saveAuthentication(member);
+                    //재발급한 access token은 이미 검증된 것이므로 캐시
+                    AuthenticatedMember authenticatedMember = reissuedTokens.getAuthenticatedMember();
+                    accessTokenCache.put(reissuedTokens.getAccessToken(), authenticatedMember);
 
-                        filterChain.doFilter(request, response); //다음 필터 호출
-
-                        return; //RefreshToken이 유효한 경우에는 AccessToken을 재발급 하고 인증 처리는 하지 않도록 바로 return으로 필터 진행 막기
-                    }
+                    //access token을 재발급 받았으므로, 인증 성공
+                    saveAuthentication(authenticatedMember);
+                    saveAuthorizationContext(request, authenticatedMember.getMemberId(), authenticatedMember.getRole());
 
-                    //refresh token인 유효하지 않거나 DB에 없거나 기한이 지났으면, 인증 실패
-                    else {
-                        //모든 토큰 삭제
-                        jwtService.deleteAllTokens(response);
+                    filterChain.doFilter(request, response); //다음 필터 호출
 
-                        //로그인 페이지로 redirect
-                        response.sendRedirect("/auth/login");
-                        return;
-                    }
+                    return; //RefreshToken이 유효한 경우에는 AccessToken을 재발급 하고 인증 처리는 하지 않도록 바로 return으로 필터 진행 막기
                 }
 
                 //refresh token도 없으면, 인증이 없는 것
@@ -161,6 +188,20 @@ public class AuthenticationProcessFilter extends OncePerRequestFilter {
         }
     }
 
+    private AuthenticatedMember loadAuthenticatedMember(DecodedJWT decodedAccessToken) {
+        //해당 email을 사용하는 유저 객체 반환
+        Member member = memberRepository.findNotDeletedByEmail(decodedAccessToken.getClaim("email").asString())
+                .orElseThrow(() -> new NoSuchMemberException(MemberErrorMessage.NO_SUCH_MEMBER.getMessage()));
+
+        return AuthenticatedMember.builder()
+                .memberId(member.getId())
+                .email(member.getEmail())
+                .role(member.getRole())
+                .statusVersion(member.getStatusVersion())
+                .expiresAt(decodedAccessToken.getExpiresAt().getTime())
+                .build();
+    }
+
     /**
      * [인증 허가 메소드]
      * 파라미터의 유저 : 우리가 만든 회원 객체 / 빌더의 유저 : UserDetails의 User 객체
@@ -176,14 +217,21 @@ public class AuthenticationProcessFilter extends OncePerRequestFilter {
      * SecurityContextHolder.getContext()로 SecurityContext를 꺼낸 후,
      * setAuthentication()을 이용하여 위에서 만든 Authentication 객체에 대한 인증 허가 처리
      */
-    private void saveAuthentication(Member member) {
-        UserDetails userDetails = new PrincipalUserDetails(member);
-
-//        Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
+    private void saveAuthentication(AuthenticatedMember authenticatedMember) {
+        UserDetails userDetails = new PrincipalUserDetails(authenticatedMember);
 
         Authentication authentication =
-                new UsernamePasswordAuthenticationToken(userDetails, null, List.of(new SimpleGrantedAuthority(member.getRole().toString())));
+                new UsernamePasswordAuthenticationToken(userDetails, null, List.of(new SimpleGrantedAuthority(authenticatedMember.getRole().toString())));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
+
+    /**
+     * 인가에 필요한 회원 Id, 권한, 회원이 가진 가게 Id 목록을 request에 담는다.
+     * MemberAuthorizationInterceptor는 DB 조회 없이 이것만으로 인가 처리
+     */
+    private void saveAuthorizationContext(HttpServletRequest request, Long memberId, MemberRole role) {
+        new MemberAuthorizationContext(memberId, role, ownedStoreCache.findAllStoreIdsByMemberId(memberId))
+                .saveTo(request);
+    }
 }
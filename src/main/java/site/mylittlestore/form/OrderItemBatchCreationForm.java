@@ -0,0 +1,17 @@
+package site.mylittlestore.form;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class OrderItemBatchCreationForm {
+    @Valid
+    @NotEmpty(message = "주문할 상품이 없습니다.")
+    private List<OrderItemBatchLineForm> orderItems = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package site.mylittlestore.form;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 주문서 한 장의 주문 상품 한 줄
+ * 주문 Id는 경로로 받으므로, 줄마다 받지 않는다.
+ */
+@Getter
+@Setter
+public class OrderItemBatchLineForm {
+    @NotNull(message = "상품 Id는 필수입니다.")
+    private Long itemId;
+
+    @NotNull(message = "가격은 필수입니다.")
+    @Min(value = 1, message = "가격은 0보다 커야합니다.")
+    private Long price;
+
+    @NotNull(message = "수량은 필수입니다.")
+    @Min(value = 1, message = "수량은 1개 이상이어야 합니다.")
+    private Long count;
+}
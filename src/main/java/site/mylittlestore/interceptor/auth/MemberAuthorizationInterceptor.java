@@ -1,55 +1,91 @@
 package site.mylittlestore.interceptor.auth;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
-import site.mylittlestore.config.auth.PrincipalUserDetails;
-import site.mylittlestore.enumstorage.errormessage.MemberErrorMessage;
-import site.mylittlestore.enumstorage.role.MemberRole;
-import site.mylittlestore.exception.member.NoSuchMemberException;
-import site.mylittlestore.repository.member.MemberRepository;
+import site.mylittlestore.config.auth.MemberAuthorizationContext;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Collection;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class MemberAuthorizationInterceptor implements HandlerInterceptor {
-    private final MemberRepository memberRepository;
+    // /members/{memberId}/stores/{storeId}/...
+    private static final int MEMBER_ID_SEGMENT = 2;
+    private static final int STORES_SEGMENT = 3;
+    private static final int STORE_ID_SEGMENT = 4;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        //AuthenticationProcessFilter에서 만든 인가 정보
+        Optional<MemberAuthorizationContext> optionalContext = MemberAuthorizationContext.from(request);
 
-        if (!authentication.isAuthenticated()) {
+        if (optionalContext.isEmpty()) {
             return false;
         }
 
+        MemberAuthorizationContext context = optionalContext.get();
+
         //admin이면 프리 패스
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        for (GrantedAuthority authority : authorities) {
-            if (authority.getAuthority().equals(MemberRole.ADMIN.toString())) {
-                return true;
+        if (context.isAdmin()) {
+            return true;
+        }
+
+        String requestURI = request.getRequestURI();
+
+        //URL의 memberId가 본인인지 확인
+        long requestMemberId = parseId(segment(requestURI, MEMBER_ID_SEGMENT));
+        if (requestMemberId < 0 || !context.isMember(requestMemberId)) {
+            return false;
+        }
+
+        //가게 하위 URL이면, 본인의 가게인지 확인
+        //가게 생성(/stores/new)처럼 storeId가 숫자가 아니면 확인하지 않는다.
+        if ("stores".equals(segment(requestURI, STORES_SEGMENT))) {
+            long requestStoreId = parseId(segment(requestURI, STORE_ID_SEGMENT));
+            if (requestStoreId >= 0) {
+                return context.ownsStore(requestStoreId);
             }
         }
 
-        //아니면, username으로 찾은 memberId와 URL의 memberId가 일치하는지 확인
-        PrincipalUserDetails principal = (PrincipalUserDetails) authentication.getPrincipal();
-        String email = principal.getUsername();
+        return true;
+    }
 
-        Long memberId = memberRepository.findNotDeletedIdByEmail(email)
-                .orElseThrow(() -> new NoSuchMemberException(MemberErrorMessage.NO_SUCH_MEMBER.getMessage()));
+    /**
+     * URI를 "/"로 나눴을 때 index번째 조각을 반환한다. 없으면 null
+     * split()처럼 배열을 만들지 않는다.
+     */
+    private static String segment(String uri, int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            start = uri.indexOf('/', start) + 1;
+            if (start == 0) {
+                return null;
+            }
+        }
 
-        String requestMemberId = request.getRequestURI().split("/")[2];
+        int end = uri.indexOf('/', start);
+        return end < 0 ? uri.substring(start) : uri.substring(start, end);
+    }
 
-        if (memberId.equals(Long.parseLong(requestMemberId))) {
-            return true;
+    /**
+     * 숫자로만 이루어진 Id를 파싱한다. 숫자가 아니면 -1
+     */
+    private static long parseId(String segment) {
+        if (segment == null || segment.isEmpty() || segment.length() > 18) {
+            return -1;
         }
 
-        return false;
+        long id = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
     }
 }
@@ -14,7 +14,9 @@ public class CustomP6spySqlFormat implements MessageFormattingStrategy {
     private List<String> DENIED_FILTER = Arrays.asList("Test1"
             , this.getClass().getSimpleName());
     // 표기에 허용되는 filter
-    private String ALLOW_FILTER = "com.test";
+    private String ALLOW_FILTER = "site.mylittlestore";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
 
     @Override
     public String formatMessage(int connectionId, String now, long elapsed, String category, String prepared, String sql, String url) {
@@ -45,16 +47,16 @@ public class CustomP6spySqlFormat implements MessageFormattingStrategy {
     // stack 콘솔 표기
     private String createStack(int connectionId, long elapsed) {
         Stack<String> callStack = new Stack<>();
-        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
 
-        for (StackTraceElement stackTraceElement : stackTrace) {
-            String trace = stackTraceElement.toString();
+        // Throwable로 스택 전체를 만들지 않고, StackWalker로 필요한 프레임만 읽는다.
+        STACK_WALKER.forEach(stackFrame -> {
+            String trace = stackFrame.toString();
 
             // trace 항목을 보고 내게 맞는 것만 필터
             if(trace.startsWith(ALLOW_FILTER) && !filterDenied(trace)) {
                 callStack.push(trace);
             }
-        }
+        });
 
         StringBuffer sb = new StringBuffer();
         int order = 1;
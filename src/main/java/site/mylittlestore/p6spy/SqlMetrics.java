@@ -0,0 +1,441 @@
+package site.mylittlestore.p6spy;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.dto.sqlmetrics.QueryShapeDto;
+import site.mylittlestore.dto.sqlmetrics.SlowQueryDto;
+import site.mylittlestore.dto.sqlmetrics.SqlMetricsDto;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 운영에서도 켜둘 수 있는 SQL 지표
+ * SQL 문의 모양(리터럴, IN 목록을 ?로 바꾼 SQL)마다 실행 횟수, 지연 시간 히스토그램, 행 수를 모으고,
+ * 느린 SQL 문은 최근 slow-samples개만 남긴다. 호출 스택은 stack-threshold보다 느릴 때만 뜬다.
+ * 메모리는 모양 max-shapes개, 느린 SQL 문 slow-samples개로 제한된다.
+ */
+@Component
+public class SqlMetrics extends SimpleJdbcEventListener {
+    static final String OTHER_SHAPE = "(other)";
+
+    private static final int MAX_SHAPE_LENGTH = 2000;
+    private static final int MAX_STACK_FRAMES = 20;
+    private static final String APP_PACKAGE = "site.mylittlestore";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    //히스토그램 버킷 상한 (마이크로초), 마지막 버킷은 그보다 느린 것
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000};
+
+    private final boolean enabled;
+    private final int maxShapes;
+    private final long slowThresholdNanos;
+    private final long stackThresholdNanos;
+
+    //SQL 모양 -> 통계
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    //SQL 원문 -> 통계
+    //prepared statement는 같은 SQL 원문이 반복되므로, 모양을 매번 만들지 않는다.
+    private final Map<String, ShapeStats> statsBySql = new ConcurrentHashMap<>();
+
+    //max-shapes를 넘은 모양은 여기에 합친다.
+    private volatile ShapeStats otherStats = new ShapeStats(OTHER_SHAPE);
+    private final LongAdder overflowCount = new LongAdder();
+
+    //최근 느린 SQL 문 (원형 버퍼)
+    private final AtomicReferenceArray<SlowQueryDto> slowQueries;
+    private final AtomicLong slowQueryCursor = new AtomicLong();
+
+    //현재 스레드에서 마지막으로 실행한 SQL 문의 통계 (ResultSet에서 읽은 행 수를 더한다.)
+    private final ThreadLocal<ShapeStats> lastStats = new ThreadLocal<>();
+
+    public SqlMetrics(@Value("${sql.metrics.enabled:false}") boolean enabled,
+                      @Value("${sql.metrics.max-shapes:500}") int maxShapes,
+                      @Value("${sql.metrics.slow-threshold:100}") long slowThresholdMillis,
+                      @Value("${sql.metrics.slow-samples:50}") int slowSamples,
+                      @Value("${sql.metrics.stack-threshold:500}") long stackThresholdMillis) {
+        this.enabled = enabled;
+        this.maxShapes = maxShapes;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000L;
+        this.stackThresholdNanos = stackThresholdMillis * 1_000_000L;
+        this.slowQueries = new AtomicReferenceArray<>(Math.max(1, slowSamples));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //== p6spy 이벤트 ==//
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (!enabled) {
+            return;
+        }
+        lastStats.set(record(statementInformation.getSql(), timeElapsedNanos, e != null));
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+        addRows(rowCount);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos, String sql, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+        addRows(rowCount);
+    }
+
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos, int[] updateCounts, SQLException e) {
+        super.onAfterExecuteBatch(statementInformation, timeElapsedNanos, updateCounts, e);
+        if (updateCounts == null) {
+            return;
+        }
+
+        //SUCCESS_NO_INFO(-2)처럼 음수는 행 수를 모르는 것
+        long rows = 0;
+        for (int updateCount : updateCounts) {
+            if (updateCount > 0) {
+                rows += updateCount;
+            }
+        }
+        addRows(rows);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        if (hasNext) {
+            addRows(1);
+        }
+    }
+
+    private void addRows(long rows) {
+        if (!enabled || rows <= 0) {
+            return;
+        }
+
+        ShapeStats stats = lastStats.get();
+        if (stats != null) {
+            stats.rows.add(rows);
+        }
+    }
+
+    //== 기록 ==//
+    ShapeStats record(String sql, long elapsedNanos, boolean error) {
+        ShapeStats stats = findStats(sql);
+        stats.record(elapsedNanos, error);
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            addSlowQuery(stats.shape, elapsedNanos);
+        }
+        return stats;
+    }
+
+    private ShapeStats findStats(String sql) {
+        if (sql == null) {
+            return otherStats;
+        }
+
+        ShapeStats stats = statsBySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+
+        String shape = shapeOf(sql);
+        stats = shapes.get(shape);
+        if (stats == null) {
+            //모양이 너무 많으면, 새 모양은 "(other)"로 합친다.
+            if (shapes.size() >= maxShapes) {
+                overflowCount.increment();
+                return otherStats;
+            }
+            stats = shapes.computeIfAbsent(shape, ShapeStats::new);
+        }
+
+        if (statsBySql.size() < maxShapes * 4) {
+            statsBySql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    private void addSlowQuery(String shape, long elapsedNanos) {
+        SlowQueryDto slowQuery = SlowQueryDto.builder()
+                .shape(shape)
+                .elapsedMillis(toMillis(elapsedNanos))
+                .executedAt(LocalDateTime.now())
+                .threadName(Thread.currentThread().getName())
+                .stack(elapsedNanos >= stackThresholdNanos ? captureStack() : null)
+                .build();
+
+        int index = (int) (slowQueryCursor.getAndIncrement() % slowQueries.length());
+        slowQueries.set(index, slowQuery);
+    }
+
+    /**
+     * 애플리케이션 코드의 호출 스택만 뜬다.
+     * StackWalker는 필요한 프레임까지만 읽으므로, Throwable로 스택 전체를 만드는 것보다 싸다.
+     */
+    private static List<String> captureStack() {
+        String metricsPackage = SqlMetrics.class.getPackageName();
+
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE) && !frame.getClassName().startsWith(metricsPackage))
+                .limit(MAX_STACK_FRAMES)
+                .map(StackWalker.StackFrame::toString)
+                .collect(Collectors.toList()));
+    }
+
+    //== 조회 ==//
+    public SqlMetricsDto snapshot() {
+        List<QueryShapeDto> queryShapes = Stream.concat(shapes.values().stream(), Stream.of(otherStats))
+                .filter(stats -> stats.count.sum() > 0)
+                .map(ShapeStats::toQueryShapeDto)
+                //DB 시간을 많이 쓴 순서
+                .sorted(Comparator.comparingDouble(QueryShapeDto::getTotalMillis).reversed())
+                .collect(Collectors.toList());
+
+        List<SlowQueryDto> recentSlowQueries = new ArrayList<>();
+        for (int i = 0; i < slowQueries.length(); i++) {
+            SlowQueryDto slowQuery = slowQueries.get(i);
+            if (slowQuery != null) {
+                recentSlowQueries.add(slowQuery);
+            }
+        }
+        recentSlowQueries.sort(Comparator.comparing(SlowQueryDto::getExecutedAt).reversed());
+
+        return SqlMetricsDto.builder()
+                .enabled(enabled)
+                .overflowCount(overflowCount.sum())
+                .queryShapes(queryShapes)
+                .slowQueries(recentSlowQueries)
+                .build();
+    }
+
+    public void reset() {
+        shapes.clear();
+        statsBySql.clear();
+        otherStats = new ShapeStats(OTHER_SHAPE);
+        overflowCount.reset();
+        for (int i = 0; i < slowQueries.length(); i++) {
+            slowQueries.set(i, null);
+        }
+    }
+
+    //== SQL 모양 ==//
+    /**
+     * 공백을 하나로 줄이고, 문자열/숫자 리터럴과 바인딩 변수를 ?로 바꾼다.
+     * 이어지는 ?는 하나로 합쳐서, IN 목록의 길이가 달라도 같은 모양이 된다.
+     * SQL을 한 번만 훑는다.
+     */
+    static String shapeOf(String sql) {
+        int length = sql.length();
+        StringBuilder shape = new StringBuilder(Math.min(length, MAX_SHAPE_LENGTH));
+
+        int i = 0;
+        while (i < length && shape.length() < MAX_SHAPE_LENGTH) {
+            char c = sql.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (shape.length() > 0) {
+                    shape.append(' ');
+                }
+                continue;
+            }
+
+            //문자열 리터럴 ('' 는 따옴표)
+            if (c == '\'') {
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+                appendPlaceholder(shape);
+                continue;
+            }
+
+            //숫자 리터럴 (식별자 안의 숫자는 그대로)
+            if (isDigit(c) && !endsWithIdentifierPart(shape)) {
+                while (i < length && (isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                appendPlaceholder(shape);
+                continue;
+            }
+
+            if (c == '?') {
+                appendPlaceholder(shape);
+                i++;
+                continue;
+            }
+
+            shape.append(c);
+            i++;
+        }
+
+        int end = shape.length();
+        while (end > 0 && shape.charAt(end - 1) == ' ') {
+            end--;
+        }
+        shape.setLength(end);
+        return shape.toString();
+    }
+
+    /**
+     * ?를 붙인다. 바로 앞이 "?," 이면 붙이지 않고 ","를 지운다.
+     */
+    private static void appendPlaceholder(StringBuilder shape) {
+        int last = shape.length() - 1;
+        while (last >= 0 && shape.charAt(last) == ' ') {
+            last--;
+        }
+
+        if (last >= 0 && shape.charAt(last) == ',') {
+            int beforeComma = last - 1;
+            while (beforeComma >= 0 && shape.charAt(beforeComma) == ' ') {
+                beforeComma--;
+            }
+            if (beforeComma >= 0 && shape.charAt(beforeComma) == '?') {
+                shape.setLength(beforeComma + 1);
+                return;
+            }
+        }
+        shape.append('?');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean endsWithIdentifierPart(StringBuilder shape) {
+        if (shape.length() == 0) {
+            return false;
+        }
+        char c = shape.charAt(shape.length() - 1);
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * SQL 모양 하나의 통계
+     * 여러 스레드가 동시에 기록하므로 LongAdder로 센다.
+     */
+    static class ShapeStats {
+        final String shape;
+        final LongAdder count = new LongAdder();
+        final LongAdder errorCount = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+
+        ShapeStats(String shape) {
+            this.shape = shape;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long elapsedNanos, boolean error) {
+            count.increment();
+            if (error) {
+                errorCount.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            buckets[bucketIndex(elapsedNanos / 1_000)].increment();
+        }
+
+        static int bucketIndex(long micros) {
+            for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+                if (micros <= BUCKET_BOUNDS_MICROS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUNDS_MICROS.length;
+        }
+
+        QueryShapeDto toQueryShapeDto() {
+            long[] bucketCounts = new long[buckets.length];
+            long bucketTotal = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                bucketCounts[i] = buckets[i].sum();
+                bucketTotal += bucketCounts[i];
+            }
+
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < buckets.length; i++) {
+                histogram.put(i < BUCKET_BOUNDS_MICROS.length ? String.valueOf(BUCKET_BOUNDS_MICROS[i] / 1_000.0) : "+Inf", bucketCounts[i]);
+            }
+
+            long countSum = count.sum();
+            double totalMillis = toMillis(totalNanos.sum());
+            double maxMillis = toMillis(maxNanos.get());
+
+            return QueryShapeDto.builder()
+                    .shape(shape)
+                    .count(countSum)
+                    .errorCount(errorCount.sum())
+                    .rows(rows.sum())
+                    .totalMillis(totalMillis)
+                    .meanMillis(countSum == 0 ? 0 : totalMillis / countSum)
+                    .maxMillis(maxMillis)
+                    .p50Millis(percentile(bucketCounts, bucketTotal, 0.50, maxMillis))
+                    .p95Millis(percentile(bucketCounts, bucketTotal, 0.95, maxMillis))
+                    .p99Millis(percentile(bucketCounts, bucketTotal, 0.99, maxMillis))
+                    .histogram(histogram)
+                    .build();
+        }
+
+        /**
+         * 누적 개수가 quantile을 넘는 버킷의 상한. 가장 느린 버킷이면 최댓값
+         */
+        private static double percentile(long[] bucketCounts, long bucketTotal, double quantile, double maxMillis) {
+            if (bucketTotal == 0) {
+                return 0;
+            }
+
+            long target = (long) Math.ceil(bucketTotal * quantile);
+            long cumulative = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+                cumulative += bucketCounts[i];
+                if (cumulative >= target) {
+                    return Math.min(BUCKET_BOUNDS_MICROS[i] / 1_000.0, maxMillis);
+                }
+            }
+            return maxMillis;
+        }
+    }
+}
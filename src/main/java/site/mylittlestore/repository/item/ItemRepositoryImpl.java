@@ -1,13 +1,15 @@
 package site.mylittlestore.repository.item;
 
+import com.querydsl.core.Tuple;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import site.mylittlestore.domain.Item;
 import site.mylittlestore.dto.item.ItemFindDto;
 import site.mylittlestore.enumstorage.status.ItemStatus;
 
 import javax.persistence.EntityManager;
-import java.util.List;
+import java.util.*;
 import java.util.Optional;
 
 import static site.mylittlestore.domain.QItem.item;
@@ -15,6 +17,10 @@ import static site.mylittlestore.domain.QItem.item;
 @RequiredArgsConstructor
 public class ItemRepositoryImpl implements ItemRepositoryQueryDsl {
     private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String DECREASE_STOCK_SQL =
+            "update item set stock = stock - ? where item_id = ? and store_id = ? and item_status = 'ONSALE' and stock >= ?";
 
     @Override
     public Optional<Item> findItemById(Long id) {
@@ -56,6 +62,137 @@ public class ItemRepositoryImpl implements ItemRepositoryQueryDsl {
                 .fetch();
     }
 
+    /**
+     * 상품 Id -> 재고
+     * 메뉴 캐시에서 재고만 다시 조회할 때 사용한다.
+     */
+    @Override
+    public Map<Long, Long> findAllStockByIdIn(Collection<Long> ids) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        List<Tuple> stocks = queryFactory
+                .select(item.id, item.stock)
+                .from(item)
+                .where(item.id.in(ids))
+                .fetch();
+
+        Map<Long, Long> stockMap = new HashMap<>();
+        for (Tuple stock : stocks) {
+            stockMap.put(stock.get(item.id), stock.get(item.stock));
+        }
+        return stockMap;
+    }
+
+    /**
+     * 가게에서 판매 중인 상품의 재고
+     * 재고 장부에 상품을 처음 넣을 때 사용한다.
+     */
+    @Override
+    public Optional<Long> findStockByIdAndStoreId(Long id, Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(item.stock)
+                .from(item)
+                .where(item.id.eq(id),
+                        item.store.id.eq(storeId),
+                        item.itemStatus.eq(ItemStatus.ONSALE))
+                .fetchOne());
+    }
+
+    /**
+     * 가게의 판매 중인 상품 Id -> 재고
+     * 재고 장부를 DB와 맞출 때 사용한다.
+     */
+    @Override
+    public Map<Long, Long> findAllStockByStoreId(Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        List<Tuple> stocks = queryFactory
+                .select(item.id, item.stock)
+                .from(item)
+                .where(item.store.id.eq(storeId), item.itemStatus.eq(ItemStatus.ONSALE))
+                .fetch();
+
+        Map<Long, Long> stockMap = new HashMap<>();
+        for (Tuple stock : stocks) {
+            stockMap.put(stock.get(item.id), stock.get(item.stock));
+        }
+        return stockMap;
+    }
+
+    /**
+     * 재고가 충분할 때만 재고를 줄인다.
+     * 조회 없이 UPDATE 한 번으로 확인과 차감을 같이 하므로, 동시에 주문해도 재고보다 많이 팔리지 않는다.
+     * 다른 가게의 상품은 잠그지도 줄이지도 않는다.
+     * @return 재고를 줄였으면 1, 재고가 부족하거나 가게에 판매 중인 상품이 없으면 0
+     */
+    @Override
+    public long decreaseStock(Long storeId, Long id, Long count) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(item)
+                .set(item.stock, item.stock.subtract(count))
+                .where(item.id.eq(id),
+                        item.store.id.eq(storeId),
+                        item.itemStatus.eq(ItemStatus.ONSALE),
+                        item.stock.goe(count))
+                .execute();
+    }
+
+    /**
+     * 여러 상품의 재고를 JDBC batch 한 번으로 줄인다. 상품마다 decreaseStock과 같은 조건부 UPDATE
+     * 동시에 들어온 주문끼리 교착 상태가 생기지 않도록, 상품 Id 순서로 UPDATE한다.
+     * 다른 가게의 상품은 잠그지도 줄이지도 않는다.
+     * @param storeId
+     * @param itemCounts 상품 Id -> 줄일 수량
+     * @return 재고가 부족하거나 가게에서 판매 중이 아니어서 줄이지 못한 상품 Id
+     */
+    @Override
+    public List<Long> decreaseAllStock(Long storeId, Map<Long, Long> itemCounts) {
+        if (itemCounts.isEmpty()) {
+            return List.of();
+        }
+
+        //JPA로 변경한 내용을 먼저 반영
+        em.flush();
+
+        List<Map.Entry<Long, Long>> sortedItemCounts = new ArrayList<>(new TreeMap<>(itemCounts).entrySet());
+
+        int[] updatedCounts = jdbcTemplate.batchUpdate(DECREASE_STOCK_SQL, sortedItemCounts, sortedItemCounts.size(),
+                (ps, itemCount) -> {
+                    ps.setLong(1, itemCount.getValue());
+                    ps.setLong(2, itemCount.getKey());
+                    ps.setLong(3, storeId);
+                    ps.setLong(4, itemCount.getValue());
+                })[0];
+
+        List<Long> failedItemIds = new ArrayList<>();
+        for (int i = 0; i < updatedCounts.length; i++) {
+            if (updatedCounts[i] == 0) {
+                failedItemIds.add(sortedItemCounts.get(i).getKey());
+            }
+        }
+        return failedItemIds;
+    }
+
+    /**
+     * 재고를 늘린다.
+     * @return 재고를 늘렸으면 1, 가게에 상품이 없으면 0
+     */
+    @Override
+    public long increaseStock(Long storeId, Long id, Long count) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(item)
+                .set(item.stock, item.stock.add(count))
+                .where(item.id.eq(id),
+                        item.store.id.eq(storeId))
+                .execute();
+    }
+
     @Override
     public void deleteById(Long id) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -3,7 +3,9 @@ package site.mylittlestore.repository.item;
 import site.mylittlestore.domain.Item;
 import site.mylittlestore.dto.item.ItemFindDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ItemRepositoryQueryDsl {
@@ -13,5 +15,13 @@ public interface ItemRepositoryQueryDsl {
 
     List<Item> findAllByStoreId(Long storeId);
 
+    Map<Long, Long> findAllStockByIdIn(Collection<Long> ids);
+    Optional<Long> findStockByIdAndStoreId(Long id, Long storeId);
+    Map<Long, Long> findAllStockByStoreId(Long storeId);
+
+    long decreaseStock(Long storeId, Long id, Long count);
+    long increaseStock(Long storeId, Long id, Long count);
+    List<Long> decreaseAllStock(Long storeId, Map<Long, Long> itemCounts);
+
     void deleteById(Long id);
 }
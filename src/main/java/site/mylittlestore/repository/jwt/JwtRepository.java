@@ -6,7 +6,7 @@ import site.mylittlestore.domain.auth.Jwt;
 import java.util.Optional;
 
 public interface JwtRepository extends JpaRepository<Jwt, Long>, JwtRepositoryQueryDsl {
-    Optional<Jwt> findByRefreshToken(String refreshToken);
+    Optional<Jwt> findByRefreshTokenHash(String refreshTokenHash);
     Optional<Jwt> findByMemberId(Long memberId);
-    void deleteByRefreshToken(String refreshToken);
+    void deleteByRefreshTokenHash(String refreshTokenHash);
 }
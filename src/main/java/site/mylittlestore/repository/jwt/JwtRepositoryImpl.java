@@ -1,4 +1,46 @@
 package site.mylittlestore.repository.jwt;
 
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import site.mylittlestore.domain.auth.Jwt;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static site.mylittlestore.domain.auth.QJwt.jwt;
+import static site.mylittlestore.domain.member.QMember.member;
+
+@RequiredArgsConstructor
 public class JwtRepositoryImpl implements JwtRepositoryQueryDsl {
+    private final EntityManager em;
+
+    /**
+     * 현재 refresh token 해시, 또는 유예 기간이 남은 이전 refresh token 해시로 조회한다.
+     * 둘 다 인덱스가 걸려 있다.
+     */
+    @Override
+    public Optional<Jwt> findWithMemberByRefreshTokenHash(String refreshTokenHash, LocalDateTime now) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(
+                queryFactory
+                        .selectFrom(jwt)
+                        .join(jwt.member, member).fetchJoin()
+                        .where(jwt.refreshTokenHash.eq(refreshTokenHash)
+                                .or(jwt.previousRefreshTokenHash.eq(refreshTokenHash)
+                                        .and(jwt.previousRefreshTokenExpiredAt.after(now))))
+                        .fetchFirst()
+        );
+    }
+
+    @Override
+    public long deleteAllExpired(LocalDateTime now) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .delete(jwt)
+                .where(jwt.expiredAt.before(now))
+                .execute();
+    }
 }
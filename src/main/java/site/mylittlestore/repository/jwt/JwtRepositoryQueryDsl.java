@@ -1,4 +1,11 @@
 package site.mylittlestore.repository.jwt;
 
+import site.mylittlestore.domain.auth.Jwt;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 public interface JwtRepositoryQueryDsl {
+    Optional<Jwt> findWithMemberByRefreshTokenHash(String refreshTokenHash, LocalDateTime now);
+    long deleteAllExpired(LocalDateTime now);
 }
@@ -3,12 +3,13 @@ package site.mylittlestore.repository.member;
 import org.springframework.data.jpa.repository.JpaRepository;
 import site.mylittlestore.domain.member.Member;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryQueryDsl {
     Optional<Member> findNotDeletedById(Long id);
     Optional<Member> findNotDeletedByEmail(String email);
-    Optional<Member> findNotDeletedByPasswordVerificationCode(String passwordVerificationCode);
+    Optional<Member> findNotDeletedByPasswordVerificationCodeHash(String passwordVerificationCodeHash, LocalDateTime now);
 
     /**
      * 이메일로 회원의 id를 찾는다.
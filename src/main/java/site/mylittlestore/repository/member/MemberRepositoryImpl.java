@@ -6,6 +6,7 @@ import site.mylittlestore.domain.member.Member;
 import site.mylittlestore.enumstorage.status.MemberStatus;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static site.mylittlestore.domain.member.QMember.member;
@@ -41,13 +42,15 @@ public class MemberRepositoryImpl implements MemberRepositoryQueryDsl {
     }
 
     @Override
-    public Optional<Member> findNotDeletedByPasswordVerificationCode(String passwordVerificationCode) {
+    public Optional<Member> findNotDeletedByPasswordVerificationCodeHash(String passwordVerificationCodeHash, LocalDateTime now) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
 
+        //unique index로 찾고, 만료된 코드는 찾지 않는다.
         return Optional.ofNullable(
                 queryFactory
                         .selectFrom(member)
-                        .where(member.passwordVerificationCode.eq(passwordVerificationCode)
+                        .where(member.passwordVerificationCodeHash.eq(passwordVerificationCodeHash)
+                                .and(member.passwordVerificationCodeExpiredAt.after(now))
                                 .and(member.status.ne(MemberStatus.DELETED)))
                         .fetchOne()
         );
@@ -3,11 +3,14 @@ package site.mylittlestore.repository.member.temporarymember;
 import org.springframework.data.jpa.repository.JpaRepository;
 import site.mylittlestore.domain.member.TemporaryMember;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface TemporaryMemberRepository extends JpaRepository<TemporaryMember, Long>, TemporaryMemberRepositoryQueryDsl {
     Optional<Long> findIdByEmail(String email);
     Optional<TemporaryMember> findByEmail(String email);
-    Optional<String> findVerificationCodeByEmail(String email);
-    Optional<TemporaryMember> findByVerificationCode(String verificationCode);
+    Optional<TemporaryMember> findByVerificationCodeHash(String verificationCodeHash, LocalDateTime now);
+    List<Long> findAllExpiredIds(LocalDateTime now, int limit);
+    long deleteAllExpiredByIds(List<Long> ids, LocalDateTime now);
 }
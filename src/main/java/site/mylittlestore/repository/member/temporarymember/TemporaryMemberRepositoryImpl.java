@@ -6,6 +6,8 @@ import site.mylittlestore.domain.member.TemporaryMember;
 
 import javax.persistence.EntityManager;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static site.mylittlestore.domain.member.QTemporaryMember.temporaryMember;
@@ -36,23 +38,45 @@ public class TemporaryMemberRepositoryImpl implements TemporaryMemberRepositoryQ
     }
 
     @Override
-    public Optional<String> findVerificationCodeByEmail(String email) {
+    public Optional<TemporaryMember> findByVerificationCodeHash(String verificationCodeHash, LocalDateTime now) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
 
+        //unique index로 찾고, 만료된 코드는 찾지 않는다.
         return Optional.ofNullable(queryFactory
-                .select(temporaryMember.verificationCode)
-                .from(temporaryMember)
-                .where(temporaryMember.email.eq(email))
+                .selectFrom(temporaryMember)
+                .where(temporaryMember.verificationCodeHash.eq(verificationCodeHash)
+                        .and(temporaryMember.verificationCodeExpiredAt.after(now)))
                 .fetchOne());
     }
 
+    /**
+     * 인증 코드가 만료된 임시 회원 Id를 만료된 순서로 limit개 조회한다. (만료 시각 인덱스로 범위만 읽는다.)
+     */
     @Override
-    public Optional<TemporaryMember> findByVerificationCode(String verificationCode) {
+    public List<Long> findAllExpiredIds(LocalDateTime now, int limit) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
 
-        return Optional.ofNullable(queryFactory
-                .selectFrom(temporaryMember)
-                .where(temporaryMember.verificationCode.eq(verificationCode))
-                .fetchOne());
+        return queryFactory
+                .select(temporaryMember.id)
+                .from(temporaryMember)
+                .where(temporaryMember.verificationCodeExpiredAt.before(now))
+                .orderBy(temporaryMember.verificationCodeExpiredAt.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 조회한 Id만 지워서, 한 번에 잠그는 행을 limit개로 제한한다.
+     * 조회한 후에 인증 코드를 다시 받은 임시 회원은 지우지 않는다.
+     */
+    @Override
+    public long deleteAllExpiredByIds(List<Long> ids, LocalDateTime now) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .delete(temporaryMember)
+                .where(temporaryMember.id.in(ids)
+                        .and(temporaryMember.verificationCodeExpiredAt.before(now)))
+                .execute();
     }
 }
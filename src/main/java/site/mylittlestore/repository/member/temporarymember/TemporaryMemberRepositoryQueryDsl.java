@@ -2,11 +2,14 @@ package site.mylittlestore.repository.member.temporarymember;
 
 import site.mylittlestore.domain.member.TemporaryMember;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface TemporaryMemberRepositoryQueryDsl {
     Optional<Long> findIdByEmail(String email);
     Optional<TemporaryMember> findByEmail(String email);
-    Optional<String> findVerificationCodeByEmail(String email);
-    Optional<TemporaryMember> findByVerificationCode(String verificationCode);
+    Optional<TemporaryMember> findByVerificationCodeHash(String verificationCodeHash, LocalDateTime now);
+    List<Long> findAllExpiredIds(LocalDateTime now, int limit);
+    long deleteAllExpiredByIds(List<Long> ids, LocalDateTime now);
 }
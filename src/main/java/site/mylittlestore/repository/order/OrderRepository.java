@@ -9,6 +9,7 @@ import java.util.Optional;
 public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryQueryDsl {
     Optional<Order> findNotDeletedAndPaidByIdAndStoreId(Long id, Long storeId);
     Optional<Order> findNotDeletedAndPaidWithStoreById(Long orderId);
+    Optional<Long> findIdByIdForUpdate(Long orderId);
     Optional<Order> findNotDeletedAndPaidWithStoreAndOrderItemsById(Long orderId);
     Optional<Order> findNotDeletedAndPaidWithStoreTableAndOrderItemsByIdAndPaymentId(Long orderId, Long paymentId);
     List<Order> findAllNotDeletedAndPaidByStoreId(Long storeId);
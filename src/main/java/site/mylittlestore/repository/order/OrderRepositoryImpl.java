@@ -7,6 +7,7 @@ import site.mylittlestore.enumstorage.status.OrderItemStatus;
 import site.mylittlestore.enumstorage.status.OrderStatus;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -51,6 +52,22 @@ public class OrderRepositoryImpl implements OrderRepositoryQueryDsl {
                 .fetchOne());
     }
 
+    /**
+     * 주문 행만 잠근다. (가게 행은 잠그지 않도록 조인하지 않는다.)
+     * 같은 주문의 주문 상품을 바꾸는 트랜잭션을 주문마다 한 줄로 세운다.
+     */
+    @Override
+    public Optional<Long> findIdByIdForUpdate(Long orderId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return Optional.ofNullable(queryFactory
+                .select(order.id)
+                .from(order)
+                .where(order.id.eq(orderId))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetchOne());
+    }
+
     @Override
     public Optional<Order> findNotDeletedAndPaidWithStoreAndOrderItemsById(Long orderId) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -8,6 +8,7 @@ import java.util.Optional;
 public interface OrderRepositoryQueryDsl {
     Optional<Order> findNotDeletedAndPaidByIdAndStoreId(Long id, Long storeId);
     Optional<Order> findNotDeletedAndPaidWithStoreById(Long orderId);
+    Optional<Long> findIdByIdForUpdate(Long orderId);
     Optional<Order> findNotDeletedAndPaidWithStoreAndOrderItemsById(Long orderId);
     Optional<Order> findNotDeletedAndPaidWithStoreTableAndOrderItemsByIdAndPaymentId(Long orderId, Long paymentId);
     List<Order> findAllNotDeletedAndPaidByStoreId(Long storeId);
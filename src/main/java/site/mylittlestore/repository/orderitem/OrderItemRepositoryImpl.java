@@ -3,12 +3,15 @@ package site.mylittlestore.repository.orderitem;
 import com.querydsl.core.Tuple;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
 import site.mylittlestore.enumstorage.status.OrderItemStatus;
 
 import javax.persistence.EntityManager;
-import java.util.List;
-import java.util.Optional;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
 
 import static site.mylittlestore.domain.QOrderItem.orderItem;
 import static site.mylittlestore.domain.QItem.item;
@@ -16,6 +19,7 @@ import static site.mylittlestore.domain.QItem.item;
 @RequiredArgsConstructor
 public class OrderItemRepositoryImpl implements OrderItemRepositoryQueryDsl {
     private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Optional<OrderItem> findOrderedById(Long id) {
@@ -151,4 +155,113 @@ public class OrderItemRepositoryImpl implements OrderItemRepositoryQueryDsl {
                 .set(orderItem.orderItemStatus, OrderItemStatus.DELETED)
                 .execute();
     }
+
+    /**
+     * 주문에 상품 Id, 가격이 같은 주문 상품이 있으면 수량을 늘리고, 없으면 새로 만든다.
+     * 조회 후 저장하지 않고, MERGE 한 문장으로 처리한 뒤 주문 상품 Id를 돌려받는다.
+     * (H2의 FINAL TABLE 문법을 사용한다.)
+     *
+     * 상품은 가게에서 판매 중이어야 한다.
+     * @return 주문 상품 Id, 가게에 판매 중인 상품이 없으면 Optional.empty()
+     */
+    @Override
+    public Optional<Long> createOrIncrement(Long storeId, Long orderId, Long itemId, Long price, Long count) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<?> orderItemIds = em.createNativeQuery(CREATE_OR_INCREMENT_SQL)
+                .setParameter("storeId", storeId)
+                .setParameter("orderId", orderId)
+                .setParameter("itemId", itemId)
+                .setParameter("price", price)
+                .setParameter("count", count)
+                .setParameter("now", now)
+                .getResultList();
+
+        return orderItemIds.stream()
+                .findFirst()
+                .map(orderItemId -> ((Number) orderItemId).longValue());
+    }
+
+    //order_item_id는 JPA와 같은 시퀀스에서 받는다.
+    //pooled-lo optimizer는 시퀀스 값 v를 받으면 [v, v + 50) 범위를 쓰므로, 시퀀스 값을 그대로 쓰면 겹치지 않는다.
+    private static final String CREATE_OR_INCREMENT_SQL =
+            "select order_item_id from final table (" +
+            " merge into order_item oi" +
+            " using (select i.item_id, i.store_id, i.name from item i" +
+            "        where i.item_id = :itemId and i.store_id = :storeId and i.item_status = 'ONSALE') s" +
+            " on oi.order_id = :orderId and oi.item_id = s.item_id and oi.price = :price and oi.order_item_status = 'ORDERED'" +
+            " when matched then update set oi.count = oi.count + :count, oi.updated_date_time = :now, oi.last_modified_date = :now" +
+            " when not matched then insert" +
+            "  (order_item_id, store_id, order_id, item_id, item_name, price, count, ordered_date_time, updated_date_time, order_item_status, created_date, last_modified_date)" +
+            "  values (next value for order_item_seq, s.store_id, :orderId, s.item_id, s.name, :price, :count, :now, :now, 'ORDERED', :now, :now)" +
+            ")";
+
+    /**
+     * 여러 주문 상품을 createOrIncrement와 같은 MERGE로, JDBC batch 한 번에 만든다.
+     * 만든 주문 상품 Id는 MERGE 후 한 번에 조회한다.
+     * @return 주문 상품 Id (입력 순서), 가게에 판매 중인 상품이 없어서 만들지 못했으면 null
+     */
+    @Override
+    public List<Long> createOrIncrementAll(Long storeId, Long orderId, List<OrderItemCreationDto> orderItemCreationDtos) {
+        if (orderItemCreationDtos.isEmpty()) {
+            return List.of();
+        }
+
+        //JPA로 변경한 내용을 먼저 반영
+        em.flush();
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] mergedCounts = jdbcTemplate.batchUpdate(CREATE_OR_INCREMENT_BATCH_SQL, orderItemCreationDtos, orderItemCreationDtos.size(),
+                (ps, orderItemCreationDto) -> {
+                    ps.setLong(1, orderItemCreationDto.getItemId());
+                    ps.setLong(2, storeId);
+                    ps.setLong(3, orderId);
+                    ps.setLong(4, orderItemCreationDto.getPrice());
+                    ps.setLong(5, orderItemCreationDto.getCount());
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                    ps.setLong(8, orderId);
+                    ps.setLong(9, orderItemCreationDto.getPrice());
+                    ps.setLong(10, orderItemCreationDto.getCount());
+                    ps.setTimestamp(11, now);
+                    ps.setTimestamp(12, now);
+                    ps.setTimestamp(13, now);
+                    ps.setTimestamp(14, now);
+                })[0];
+
+        //상품 Id, 가격 -> 주문 상품 Id
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        List<Tuple> orderItemKeys = queryFactory
+                .select(orderItem.id, orderItem.item.id, orderItem.price)
+                .from(orderItem)
+                .where(orderItem.order.id.eq(orderId)
+                        .and(orderItem.orderItemStatus.eq(OrderItemStatus.ORDERED)))
+                .orderBy(orderItem.id.asc())
+                .fetch();
+
+        Map<String, Long> orderItemIds = new HashMap<>();
+        for (Tuple orderItemKey : orderItemKeys) {
+            orderItemIds.putIfAbsent(orderItemKey.get(orderItem.item.id) + ":" + orderItemKey.get(orderItem.price), orderItemKey.get(orderItem.id));
+        }
+
+        List<Long> createdOrderItemIds = new ArrayList<>(orderItemCreationDtos.size());
+        for (int i = 0; i < orderItemCreationDtos.size(); i++) {
+            OrderItemCreationDto orderItemCreationDto = orderItemCreationDtos.get(i);
+            createdOrderItemIds.add(mergedCounts[i] == 0 ? null
+                    : orderItemIds.get(orderItemCreationDto.getItemId() + ":" + orderItemCreationDto.getPrice()));
+        }
+        return createdOrderItemIds;
+    }
+
+    private static final String CREATE_OR_INCREMENT_BATCH_SQL =
+            "merge into order_item oi" +
+            " using (select i.item_id, i.store_id, i.name from item i" +
+            "        where i.item_id = ? and i.store_id = ? and i.item_status = 'ONSALE') s" +
+            " on oi.order_id = ? and oi.item_id = s.item_id and oi.price = ? and oi.order_item_status = 'ORDERED'" +
+            " when matched then update set oi.count = oi.count + ?, oi.updated_date_time = ?, oi.last_modified_date = ?" +
+            " when not matched then insert" +
+            "  (order_item_id, store_id, order_id, item_id, item_name, price, count, ordered_date_time, updated_date_time, order_item_status, created_date, last_modified_date)" +
+            "  values (next value for order_item_seq, s.store_id, ?, s.item_id, s.name, ?, ?, ?, ?, 'ORDERED', ?, ?)";
 }
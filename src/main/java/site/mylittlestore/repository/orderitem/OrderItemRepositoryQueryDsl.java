@@ -1,6 +1,7 @@
 package site.mylittlestore.repository.orderitem;
 
 import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +18,7 @@ public interface OrderItemRepositoryQueryDsl {
     Optional<OrderItem> findByOrderIdAndItemIdAndPrice(Long orderId, Long itemId, Long price);
     Optional<OrderItem> findByOrderIdAndOrderItemIdAndItemIdAndPrice(Long orderId, Long orderItemId, Long itemId, Long price);
     void deleteByChangingStatus(Long id);
+
+    Optional<Long> createOrIncrement(Long storeId, Long orderId, Long itemId, Long price, Long count);
+    List<Long> createOrIncrementAll(Long storeId, Long orderId, List<OrderItemCreationDto> orderItemCreationDtos);
 }
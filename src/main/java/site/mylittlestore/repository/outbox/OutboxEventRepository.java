@@ -0,0 +1,7 @@
+package site.mylittlestore.repository.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import site.mylittlestore.domain.outbox.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryQueryDsl {
+}
@@ -0,0 +1,100 @@
+package site.mylittlestore.repository.outbox;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import site.mylittlestore.domain.outbox.OutboxEvent;
+import site.mylittlestore.enumstorage.status.OutboxEventStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static site.mylittlestore.domain.outbox.QOutboxEvent.outboxEvent;
+
+@RequiredArgsConstructor
+public class OutboxEventRepositoryImpl implements OutboxEventRepositoryQueryDsl {
+    private final EntityManager em;
+
+    /**
+     * 처리할 시간이 된 PENDING 이벤트를 오래된 순서로 limit개 조회한다. 만료된 이벤트는 조회하지 않는다.
+     * 맡는 트랜잭션끼리 같은 이벤트를 같이 맡지 않도록, 조회한 행을 잠근다.
+     * 맡은 후에 lease 안에 끝내지 못하면 다른 서버가 다시 맡을 수 있으므로, 한 번만 처리되는 것은 아니다.
+     */
+    @Override
+    public List<OutboxEvent> findAllDispatchable(LocalDateTime now, int limit) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .selectFrom(outboxEvent)
+                .where(outboxEvent.outboxEventStatus.eq(OutboxEventStatus.PENDING)
+                        .and(outboxEvent.nextAttemptAt.loe(now))
+                        .and(outboxEvent.expiredAt.isNull().or(outboxEvent.expiredAt.after(now))))
+                .orderBy(outboxEvent.id.asc())
+                .limit(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+    }
+
+    /**
+     * 아직 leasedUntil까지 맡고 있는 PENDING 이벤트만 SENT로 바꾼다.
+     * lease가 끝나서 다른 서버가 다시 맡았거나 이미 처리한 이벤트는 바꾸지 않는다.
+     * 보낸 이벤트의 내용은 더 필요 없으므로, 같이 지운다.
+     * @return SENT로 바꾼 이벤트 수
+     */
+    @Override
+    public long markAllSent(List<Long> ids, LocalDateTime leasedUntil, LocalDateTime sentAt) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(outboxEvent)
+                .set(outboxEvent.outboxEventStatus, OutboxEventStatus.SENT)
+                .set(outboxEvent.payload, OutboxEvent.REDACTED_PAYLOAD)
+                .set(outboxEvent.sentAt, sentAt)
+                .where(outboxEvent.id.in(ids),
+                        outboxEvent.outboxEventStatus.eq(OutboxEventStatus.PENDING),
+                        outboxEvent.nextAttemptAt.eq(leasedUntil))
+                .execute();
+    }
+
+    /**
+     * 보내지 못하고 만료된 PENDING 이벤트를 FAILED로 바꾸고, 내용을 지운다.
+     * @return FAILED로 바꾼 이벤트 수
+     */
+    @Override
+    public long expireAll(LocalDateTime now, String error) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .update(outboxEvent)
+                .set(outboxEvent.outboxEventStatus, OutboxEventStatus.FAILED)
+                .set(outboxEvent.payload, OutboxEvent.REDACTED_PAYLOAD)
+                .set(outboxEvent.lastError, error)
+                .where(outboxEvent.outboxEventStatus.eq(OutboxEventStatus.PENDING),
+                        outboxEvent.expiredAt.loe(now))
+                .execute();
+    }
+
+    @Override
+    public long countByStatus(OutboxEventStatus outboxEventStatus) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        Long count = queryFactory
+                .select(outboxEvent.count())
+                .from(outboxEvent)
+                .where(outboxEvent.outboxEventStatus.eq(outboxEventStatus))
+                .fetchOne();
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public long deleteAllSentBefore(LocalDateTime before) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        return queryFactory
+                .delete(outboxEvent)
+                .where(outboxEvent.outboxEventStatus.eq(OutboxEventStatus.SENT)
+                        .and(outboxEvent.sentAt.before(before)))
+                .execute();
+    }
+}
@@ -0,0 +1,15 @@
+package site.mylittlestore.repository.outbox;
+
+import site.mylittlestore.domain.outbox.OutboxEvent;
+import site.mylittlestore.enumstorage.status.OutboxEventStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepositoryQueryDsl {
+    List<OutboxEvent> findAllDispatchable(LocalDateTime now, int limit);
+    long markAllSent(List<Long> ids, LocalDateTime leasedUntil, LocalDateTime sentAt);
+    long expireAll(LocalDateTime now, String error);
+    long countByStatus(OutboxEventStatus outboxEventStatus);
+    long deleteAllSentBefore(LocalDateTime before);
+}
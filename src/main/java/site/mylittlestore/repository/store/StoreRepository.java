@@ -1,6 +1,7 @@
 package site.mylittlestore.repository.store;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import site.mylittlestore.domain.Store;
 
@@ -17,4 +18,7 @@ public interface StoreRepository extends JpaRepository<Store, Long>, StoreReposi
 
     Optional<Store> findStoreByIdAndMemberId(Long id, Long memberId);
 
+    @Query("select s.id from Store s where s.member.id = :memberId")
+    List<Long> findAllIdByMemberId(@Param("memberId") Long memberId);
+
 }
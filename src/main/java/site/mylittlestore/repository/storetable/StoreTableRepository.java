@@ -2,6 +2,7 @@ package site.mylittlestore.repository.storetable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import site.mylittlestore.domain.StoreTable;
+import site.mylittlestore.dto.storetable.StoreTableBoardDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +20,7 @@ public interface StoreTableRepository extends JpaRepository<StoreTable, Long>, S
 
     //가게에 속한 테이블만 찾아야지.
     List<StoreTable> findAllStoreTableWithOrderByStoreId(Long storeId);
+
+    //테이블 현황판
+    List<StoreTableBoardDto> findAllStoreTableBoardDtoByStoreId(Long storeId);
 }
@@ -3,7 +3,11 @@ package site.mylittlestore.repository.storetable;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import site.mylittlestore.domain.Order;
+import site.mylittlestore.domain.QStoreTable;
 import site.mylittlestore.domain.StoreTable;
+import site.mylittlestore.dto.storetable.QStoreTableBoardDto;
+import site.mylittlestore.dto.storetable.StoreTableBoardDto;
+import site.mylittlestore.enumstorage.status.OrderItemStatus;
 import site.mylittlestore.enumstorage.status.StoreTableStatus;
 import site.mylittlestore.repository.order.OrderRepositoryQueryDsl;
 
@@ -13,6 +17,7 @@ import java.util.Optional;
 
 import static site.mylittlestore.domain.QOrder.order;
 import static site.mylittlestore.domain.QOrderItem.orderItem;
+import static site.mylittlestore.domain.QPayment.payment;
 import static site.mylittlestore.domain.QStore.store;
 import static site.mylittlestore.domain.QStoreTable.storeTable;
 
@@ -21,6 +26,8 @@ public class StoreTableRepositoryImpl implements StoreTableRepositoryQueryDsl {
 
     private final EntityManager em;
 
+    private static final QStoreTable orderStoreTable = new QStoreTable("orderStoreTable");
+
 //    @Override
 //    public Optional<Order> findOrderAndOrderItemsByIdOrderByTime(Long orderId) {
 //        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
@@ -111,8 +118,49 @@ public class StoreTableRepositoryImpl implements StoreTableRepositoryQueryDsl {
                 .select(storeTable)
                 .from(storeTable)
                 .leftJoin(storeTable.order, order).fetchJoin()
+                //Order의 storeTable, payment는 mappedBy 쪽이라 지연 로딩이 안 되므로, 같이 가져와야 주문마다 조회하지 않는다.
+                .leftJoin(order.storeTable, orderStoreTable).fetchJoin()
+                .leftJoin(order.payment, payment).fetchJoin()
+                .where(storeTable.store.id.eq(storeId)
+                        .and(storeTable.storeTableStatus.ne(StoreTableStatus.DELETED)))
+                .orderBy(storeTable.id.asc())
+                .fetch();
+    }
+
+    @Override
+    public List<StoreTableBoardDto> findAllStoreTableBoardDtoByStoreId(Long storeId) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        //테이블마다 주문 상품을 모아서 수량, 금액을 DB에서 합계를 낸다.
+        //엔티티를 만들지 않으므로, 연관 엔티티를 지연 로딩하는 SQL 문이 나가지 않는다.
+        return queryFactory
+                .select(new QStoreTableBoardDto(
+                        storeTable.id,
+                        storeTable.store.id,
+                        storeTable.xCoordinate,
+                        storeTable.yCoordinate,
+                        storeTable.storeTableStatus,
+                        order.id,
+                        order.orderStatus,
+                        payment.id,
+                        payment.paymentStatus,
+                        orderItem.count.sum(),
+                        orderItem.price.multiply(orderItem.count).sum()))
+                .from(storeTable)
+                .leftJoin(storeTable.order, order)
+                .leftJoin(order.payment, payment)
+                .leftJoin(order.orderItems, orderItem).on(orderItem.orderItemStatus.eq(OrderItemStatus.ORDERED))
                 .where(storeTable.store.id.eq(storeId)
                         .and(storeTable.storeTableStatus.ne(StoreTableStatus.DELETED)))
+                .groupBy(storeTable.id,
+                        storeTable.store.id,
+                        storeTable.xCoordinate,
+                        storeTable.yCoordinate,
+                        storeTable.storeTableStatus,
+                        order.id,
+                        order.orderStatus,
+                        payment.id,
+                        payment.paymentStatus)
                 .orderBy(storeTable.id.asc())
                 .fetch();
     }
@@ -1,6 +1,7 @@
 package site.mylittlestore.repository.storetable;
 
 import site.mylittlestore.domain.StoreTable;
+import site.mylittlestore.dto.storetable.StoreTableBoardDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +15,5 @@ public interface StoreTableRepositoryQueryDsl {
     Optional<StoreTable> findStoreTableWithStoreAndOrderByIdAndStoreId(Long id, Long storeId);
     List<StoreTable> findAllStoreTableByStoreIdWhereStoreTableStatusIsNotDeleted(Long storeId);
     List<StoreTable> findAllStoreTableWithOrderByStoreId(Long storeId);
+    List<StoreTableBoardDto> findAllStoreTableBoardDtoByStoreId(Long storeId);
 }
@@ -14,9 +14,10 @@ import site.mylittlestore.exception.item.NoSuchItemException;
 import site.mylittlestore.exception.store.NoSuchStoreException;
 import site.mylittlestore.repository.item.ItemRepository;
 import site.mylittlestore.repository.store.StoreRepository;
+import site.mylittlestore.service.item.MenuCache;
+import site.mylittlestore.service.item.StockLedger;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -24,6 +25,8 @@ import java.util.stream.Collectors;
 public class ItemService {
     private final StoreRepository storeRepository;
     private final ItemRepository itemRepository;
+    private final MenuCache menuCache;
+    private final StockLedger stockLedger;
 
     public ItemFindDto findItemDtoById(Long id) throws NoSuchItemException {
         return itemRepository.findItemById(id)
@@ -35,10 +38,8 @@ public class ItemService {
 
     public List<ItemFindDto> findAllItemDtoByStoreId(Long storeId) {
         //가게에 속한 아이템만 찾아야지.
-        return itemRepository.findAllByStoreId(storeId).stream()
-                //Dto로 변환
-                .map(Item::toItemFindDto)
-                .collect(Collectors.toList());
+        //메뉴는 캐시에서 찾고, 없으면 DB에서 조회해서 캐시
+        return menuCache.findAllByStoreId(storeId);
     }
 
     @Transactional
@@ -61,6 +62,9 @@ public class ItemService {
         //가게 저장
         storeRepository.save(updatedStore);
 
+        //메뉴 캐시 비우기
+        menuCache.evict(findStoreById.getId());
+
         return savedItem.getId();
     }
 
@@ -70,6 +74,9 @@ public class ItemService {
         Item findItemByIdAndStoreId = itemRepository.findItemByIdAndStoreId(itemUpdateDto.getId(), itemUpdateDto.getStoreId())
                 .orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
 
+        //재고를 직접 바꾸므로, 바꾸기 전에 재고 장부의 delta를 반영하고 장부에서 뺀다. 다음 주문 때 DB에서 다시 읽는다.
+        stockLedger.evict(findItemByIdAndStoreId.getId());
+
         //상품 정보 업데이트
         findItemByIdAndStoreId.updateName(itemUpdateDto.getNewItemName());
         findItemByIdAndStoreId.updatePrice(itemUpdateDto.getNewPrice());
@@ -78,6 +85,9 @@ public class ItemService {
         //저장
         Item savedItem = itemRepository.save(findItemByIdAndStoreId);
 
+        //메뉴 캐시 비우기
+        menuCache.evict(itemUpdateDto.getStoreId());
+
         return savedItem.getId();
     }
 
@@ -85,10 +95,16 @@ public class ItemService {
     public void deleteItemById(Long id) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
 
+        //재고 장부에서 빼기
+        stockLedger.evict(item.getId());
+
         item.deleteItem();
 
         //저장
         itemRepository.save(item);
+
+        //메뉴 캐시 비우기
+        menuCache.evict(item.getStore().getId());
     }
 
     private Store findStoreById(Long id) throws NoSuchStoreException {
@@ -9,6 +9,7 @@ import site.mylittlestore.domain.OrderItem;
 import site.mylittlestore.domain.Store;
 import site.mylittlestore.domain.Item;
 import site.mylittlestore.dto.orderitem.*;
+import site.mylittlestore.enumstorage.OrderItemEventType;
 import site.mylittlestore.enumstorage.errormessage.*;
 import site.mylittlestore.enumstorage.status.StoreStatus;
 import site.mylittlestore.exception.item.NoSuchItemException;
@@ -22,8 +23,14 @@ import site.mylittlestore.exception.store.StoreClosedException;
 import site.mylittlestore.repository.item.ItemRepository;
 import site.mylittlestore.repository.order.OrderRepository;
 import site.mylittlestore.repository.orderitem.OrderItemRepository;
+import site.mylittlestore.service.item.MenuCache;
+import site.mylittlestore.service.item.StockLedger;
+import site.mylittlestore.service.orderitem.KitchenDisplay;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +44,12 @@ public class OrderItemService {
 
     private final ItemRepository itemRepository;
 
+    private final MenuCache menuCache;
+
+    private final StockLedger stockLedger;
+
+    private final KitchenDisplay kitchenDisplay;
+
     public OrderItemFindDto findOrderItemFindDtoByIdAndOrderId(Long orderItemId, Long orderId) {
         return orderItemRepository.findOrderedById(orderItemId)
                 //주문 상품이 없으면 예외 발생
@@ -102,43 +115,73 @@ public class OrderItemService {
         //결제 중이면 예외 발생
         isPaymentAlreadyExists(order);
 
-        try {
-            //주문에 상품 Id와 상품 가격이 같은 주문 상품이 존재하는지 확인
-            OrderItem orderItem = validateOrderItemExistenceWithOrderIdAndItemIdAndPrice(orderItemCreationDto.getOrderId(), orderItemCreationDto.getItemId(), orderItemCreationDto.getPrice());
+        //상품의 재고를 낮춘다.
+        decreaseStock(store.getId(), orderItemCreationDto.getItemId(), orderItemCreationDto.getCount());
 
-            //주문에 상품이 이미 있다면,
+        //주문에 상품 Id와 상품 가격이 같은 주문 상품이 있으면 수량을 늘리고, 없으면 새로 만든다.
+        Long orderItemId = orderItemRepository.createOrIncrement(store.getId(), order.getId(), orderItemCreationDto.getItemId(), orderItemCreationDto.getPrice(), orderItemCreationDto.getCount())
+                //가게에 판매 중인 상품이 없으면 예외 발생
+                .orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
 
-            //주문에 있는 해당 상품의 수량을 늘려주고, 상품의 재고를 낮춰준다.
-            Item item = orderItem.addCount(orderItemCreationDto.getCount());
+        //주방 화면에 알림
+        publishOrderItemEvent(store, order, OrderItemEventType.CREATED, orderItemId, orderItemCreationDto.getItemId(), orderItemCreationDto.getPrice(), orderItemCreationDto.getCount(), null);
 
-            //저장
-            itemRepository.save(item);
-            OrderItem savedOrderItem = orderItemRepository.save(orderItem);
+        return orderItemId;
+    }
 
-            return savedOrderItem.getId();
+    /**
+     * 한 주문에 여러 주문 상품을 한 트랜잭션으로 만든다.
+     * 가게와 주문 상태는 한 번만 확인하고, 재고 차감과 주문 상품 생성은 각각 JDBC batch 한 번으로 처리한다.
+     * 하나라도 실패하면 모두 롤백된다.
+     * @param orderId
+     * @param orderItemCreationDtos
+     * @return 주문 상품 Id (입력 순서)
+     */
+    @Transactional
+    public List<Long> createOrderItems(Long orderId, List<OrderItemCreationDto> orderItemCreationDtos) throws NoSuchStoreException, StoreClosedException, NoSuchOrderException, NotEnoughStockException {
+        if (orderItemCreationDtos.isEmpty()) {
+            throw new OrderItemException(OrderItemErrorMessage.NO_ORDER_ITEMS_TO_CREATE.getMessage());
+        }
 
-        } catch (NoSuchOrderItemException e) {
-            //주문에 상품이 없으면,
+        //상품별로 주문할 수량을 합친다.
+        Map<Long, Long> itemCounts = new TreeMap<>();
+        for (OrderItemCreationDto orderItemCreationDto : orderItemCreationDtos) {
+            if (orderItemCreationDto.getOrderId() != null && !orderItemCreationDto.getOrderId().equals(orderId)) {
+                throw new OrderItemException(OrderItemErrorMessage.DIFFERENT_ORDER_IN_BATCH.getMessage());
+            }
+            itemCounts.merge(orderItemCreationDto.getItemId(), orderItemCreationDto.getCount(), Long::sum);
+        }
 
-            //가게 Id와 상품 Id로 상품을 찾는다.
-            Item findItem = itemRepository.findItemByIdAndStoreId(orderItemCreationDto.getItemId(), store.getId())
-                    .orElseThrow(() -> new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage()));
+        //주문 Id로 주문을 찾는다.
+        Order order = findOrderWithStoreById(orderId);
 
-            //새로운 주문 상품 추가
-            OrderItem createdOrderItem = OrderItem.builder()
-                    .store(store)
-                    .order(order)
-                    .item(findItem)
-                    .price(orderItemCreationDto.getPrice())
-                    .count(orderItemCreationDto.getCount())
-                .build();
+        Store store = order.getStore();
 
-            //저장
-            itemRepository.save(findItem);
-            OrderItem savedOrderItem = orderItemRepository.save(createdOrderItem);
+        //가게가 열려있는지 확인
+        isStoreOpen(store);
 
-            return savedOrderItem.getId();
+        //결제 중인지 확인
+        //결제 중이면 예외 발생
+        isPaymentAlreadyExists(order);
+
+        //상품들의 재고를 한 번에 낮춘다.
+        decreaseAllStock(store.getId(), itemCounts);
+
+        //주문 상품들을 한 번에 만든다.
+        List<Long> createdOrderItemIds = orderItemRepository.createOrIncrementAll(store.getId(), order.getId(), orderItemCreationDtos);
+
+        //가게에 판매 중인 상품이 없으면 예외 발생
+        if (createdOrderItemIds.contains(null)) {
+            throw new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage());
+        }
+
+        //주방 화면에 알림
+        for (int i = 0; i < orderItemCreationDtos.size(); i++) {
+            OrderItemCreationDto orderItemCreationDto = orderItemCreationDtos.get(i);
+            publishOrderItemEvent(store, order, OrderItemEventType.CREATED, createdOrderItemIds.get(i), orderItemCreationDto.getItemId(), orderItemCreationDto.getPrice(), orderItemCreationDto.getCount(), null);
         }
+
+        return createdOrderItemIds;
     }
 
     /**
@@ -167,12 +210,25 @@ public class OrderItemService {
         //주문에 상품 Id와 가격이 같은 주문 상품이 존재하는지 확인
         OrderItem orderItem = validateOrderItemExistenceWithOrderIdAndOrderItemIdAndItemIdAndPrice(orderItemUpdateDto.getOrderId(), orderItemUpdateDto.getId(), orderItemUpdateDto.getItemId(), orderItemUpdateDto.getPrice());
 
+        //바뀐 수량만큼 상품의 재고를 맞춘다.
+        long countDifference = orderItemUpdateDto.getCount() - orderItem.getCount();
+        if (countDifference > 0) {
+            decreaseStock(store.getId(), orderItemUpdateDto.getItemId(), countDifference);
+        } else if (countDifference < 0) {
+            increaseStock(store.getId(), orderItemUpdateDto.getItemId(), -countDifference);
+        }
+
         orderItem.updatePrice(orderItemUpdateDto.getPrice());
         orderItem.updateCount(orderItemUpdateDto.getCount());
 
         //저장
         OrderItem savedOrderItem = orderItemRepository.save(orderItem);
 
+        //주방 화면에 알림
+        if (countDifference != 0) {
+            publishOrderItemEvent(store, order, OrderItemEventType.COUNT_CHANGED, savedOrderItem.getId(), orderItemUpdateDto.getItemId(), savedOrderItem.getPrice(), countDifference, savedOrderItem.getCount());
+        }
+
         return savedOrderItem.getId();
     }
 
@@ -196,18 +252,97 @@ public class OrderItemService {
         //주문에 상품 Id, 상품 가격이 같은 주문 상품이 존재하는지 확인하고 삭제
         OrderItem orderItem = validateOrderItemExistenceWithOrderIdAndOrderItemIdAndItemIdAndPrice(order.getId(), orderItemDeleteDto.getId(), orderItemDeleteDto.getItemId(), orderItemDeleteDto.getPrice());
 
-        try {
-            //해당 상품의 재고를 늘려주고, 주문 상품을 삭제한다.
-            Item item = orderItem.getItem();
-            item.increaseStock(orderItem.getCount());
-
-            //저장
-            itemRepository.save(item);
-        } catch (NullPointerException e) {
-            //상품이 없으면, 주문 상품만 삭제
-        } finally {
-            orderItemRepository.deleteByChangingStatus(orderItem.getId());
+        //해당 상품의 재고를 늘려주고, 주문 상품을 삭제한다.
+        //상품이 없으면, 주문 상품만 삭제
+        Item item = orderItem.getItem();
+        if (item != null) {
+            increaseStock(store.getId(), item.getId(), orderItem.getCount());
+        }
+
+        orderItemRepository.deleteByChangingStatus(orderItem.getId());
+
+        //주방 화면에 알림
+        publishOrderItemEvent(store, order, OrderItemEventType.DELETED, orderItem.getId(), item != null ? item.getId() : null, orderItem.getPrice(), -orderItem.getCount(), 0L);
+    }
+
+    /**
+     * 주방 화면에 주문 상품 이벤트를 보낸다. (커밋된 후에 보낸다.)
+     */
+    private void publishOrderItemEvent(Store store, Order order, OrderItemEventType eventType, Long orderItemId, Long itemId, Long price, Long countDelta, Long count) {
+        kitchenDisplay.publish(store.getId(), OrderItemEventDto.builder()
+                .eventType(eventType.toString())
+                .orderItemId(orderItemId)
+                .orderId(order.getId())
+                .storeTableId(order.getStoreTable().getId())
+                .itemId(itemId)
+                .price(price)
+                .countDelta(countDelta)
+                .count(count)
+                .eventDateTime(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * 재고가 충분할 때만 재고를 줄인다.
+     * 재고 장부를 켠 가게는 메모리에서, 아니면 UPDATE 한 번으로 줄인다.
+     * 재고가 부족하면 예외 발생
+     */
+    private void decreaseStock(Long storeId, Long itemId, Long count) throws NotEnoughStockException {
+        //재고 장부는 메뉴 캐시가 직접 읽으므로, 메뉴 캐시를 비우지 않는다.
+        if (stockLedger.isEnabled(storeId)) {
+            if (!stockLedger.reserve(storeId, itemId, count)) {
+                throw notEnoughStockOrNoSuchItem(storeId, itemId);
+            }
+            return;
         }
+
+        if (itemRepository.decreaseStock(storeId, itemId, count) == 0) {
+            throw notEnoughStockOrNoSuchItem(storeId, itemId);
+        }
+
+        //메뉴 캐시에서 재고만 비운다.
+        menuCache.evictStock(storeId, itemId);
+    }
+
+    /**
+     * 여러 상품의 재고를 한 번에 줄인다.
+     * 하나라도 재고가 부족하면 예외 발생
+     */
+    private void decreaseAllStock(Long storeId, Map<Long, Long> itemCounts) throws NotEnoughStockException {
+        if (stockLedger.isEnabled(storeId)) {
+            itemCounts.forEach((itemId, count) -> decreaseStock(storeId, itemId, count));
+            return;
+        }
+
+        List<Long> failedItemIds = itemRepository.decreaseAllStock(storeId, itemCounts);
+        if (!failedItemIds.isEmpty()) {
+            throw notEnoughStockOrNoSuchItem(storeId, failedItemIds.get(0));
+        }
+
+        //메뉴 캐시에서 재고만 비운다.
+        itemCounts.keySet().forEach(itemId -> menuCache.evictStock(storeId, itemId));
+    }
+
+    /**
+     * 재고를 줄이지 못했을 때만, 판매 중인 상품이 없어서인지 확인한다.
+     */
+    private RuntimeException notEnoughStockOrNoSuchItem(Long storeId, Long itemId) {
+        if (itemRepository.findItemByIdAndStoreId(itemId, storeId).isEmpty()) {
+            return new NoSuchItemException(ItemErrorMessage.NO_SUCH_ITEM.getMessage());
+        }
+        return new NotEnoughStockException(ItemErrorMessage.NOT_ENOUGH_STOCK.getMessage());
+    }
+
+    private void increaseStock(Long storeId, Long itemId, Long count) {
+        if (stockLedger.isEnabled(storeId)) {
+            stockLedger.release(storeId, itemId, count);
+            return;
+        }
+
+        itemRepository.increaseStock(storeId, itemId, count);
+
+        //메뉴 캐시에서 재고만 비운다.
+        menuCache.evictStock(storeId, itemId);
     }
 
     private static void isStoreOpen(Store store) {
@@ -222,19 +357,20 @@ public class OrderItemService {
         }
     }
 
+    /**
+     * 주문 행을 잠근 뒤, 가게와 함께 주문을 조회한다.
+     * 같은 주문의 주문 상품을 바꾸는 트랜잭션은 주문 행에서 줄을 서므로, 아래 MERGE가 같은 주문 상품을 두 줄로 나누지 않는다.
+     * (재고 장부를 켠 가게는 상품 행의 재고 UPDATE에서 줄을 서지 않는다.)
+     */
     private Order findOrderWithStoreById(Long orderId) {
+        orderRepository.findIdByIdForUpdate(orderId)
+                .orElseThrow(() -> new NoSuchOrderException(OrderErrorMessage.NO_SUCH_ORDER.getMessage()));
+
         Order order = orderRepository.findNotDeletedAndPaidWithStoreById(orderId)
                 .orElseThrow(() -> new NoSuchOrderException(OrderErrorMessage.NO_SUCH_ORDER.getMessage()));
         return order;
     }
 
-    private OrderItem validateOrderItemExistenceWithOrderIdAndItemIdAndPrice(Long orderId, Long itemId, Long price) {
-        //주문 상품에 주문 Id, 상품 Id, 가격이 같은 상품이 존재하는지 확인
-        //해당 조건을 만족하는 주문 상품이 없으면 예외 발생
-        return orderItemRepository.findByOrderIdAndItemIdAndPrice(orderId, itemId, price)
-                .orElseThrow(() -> new NoSuchOrderItemException(OrderItemErrorMessage.NO_SUCH_ORDER_ITEM.getMessage(), orderId));
-    }
-
     private OrderItem validateOrderItemExistenceWithOrderIdAndOrderItemIdAndItemIdAndPrice(Long orderId, Long orderItemId, Long itemId, Long price) {
         //주문 상품에 주문 Id, 주문 상품 Id, 상품 Id, 가격이 같은 상품이 존재하는지 확인
         //해당 조건을 만족하는 상품이 없으면 예외 발생
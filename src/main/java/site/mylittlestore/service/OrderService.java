@@ -20,6 +20,7 @@ import site.mylittlestore.repository.payment.PaymentRepository;
 import site.mylittlestore.repository.store.StoreRepository;
 import site.mylittlestore.repository.order.OrderRepository;
 import site.mylittlestore.repository.storetable.StoreTableRepository;
+import site.mylittlestore.service.storetable.StoreTableBoard;
 
 import java.util.Optional;
 
@@ -33,6 +34,7 @@ public class OrderService {
     private final StoreTableRepository storeTableRepository;
     private final OrderItemRepository orderItemRepository;
     private final PaymentRepository paymentRepository;
+    private final StoreTableBoard storeTableBoard;
 
     public OrderDto findOrderDtoByIdAndStoreId(Long id, Long storeId) throws NoSuchOrderException {
         Optional<Order> findOrderById = orderRepository.findNotDeletedAndPaidByIdAndStoreId(id, storeId);
@@ -91,6 +93,9 @@ public class OrderService {
         //주문 저장
         Order savedOrder = orderRepository.save(createOrder);
 
+        //테이블 현황판에 알림 (EMPTY -> USING)
+        storeTableBoard.publish(store.getId(), storeTable, savedOrder, null);
+
         return savedOrder.getId();
     }
 
@@ -15,6 +15,7 @@ import site.mylittlestore.exception.store.StoreClosedException;
 import site.mylittlestore.repository.order.OrderRepository;
 import site.mylittlestore.repository.payment.PaymentRepository;
 import site.mylittlestore.repository.storetable.StoreTableRepository;
+import site.mylittlestore.service.storetable.StoreTableBoard;
 
 import java.util.Arrays;
 import java.util.List;
@@ -29,6 +30,7 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final StoreTableRepository storeTableRepository;
+    private final StoreTableBoard storeTableBoard;
 
     public List<String> findPaymentMethodTypes() {
         return Arrays.stream(PaymentMethodType.values())
@@ -81,6 +83,9 @@ public class PaymentService {
         //저장
         Payment payment = paymentRepository.save(createdPayment);
 
+        //테이블 현황판에 알림 (결제 IN_PROGRESS)
+        storeTableBoard.publish(store.getId(), order.getStoreTable(), order, payment);
+
         return payment.getId();
     }
 
@@ -98,7 +103,11 @@ public class PaymentService {
         //payment 삭제 가능
         if (payment.getPaymentMethods().isEmpty()) {
             paymentRepository.delete(payment);
-            payment.getOrder().changeOrderStatusUsing();
+            Order order = payment.getOrder();
+            order.changeOrderStatusUsing();
+
+            //테이블 현황판에 알림 (결제 취소, 다시 USING)
+            storeTableBoard.publish(order.getStore().getId(), order.getStoreTable(), order, null);
             return true;
         } else {
             //paymentMethods가 비어있지 않으면
@@ -128,8 +137,8 @@ public class PaymentService {
         }
 
         //값이 0이 아니고, initialPaymentAmount와 paidPaymentAmount가 같으면
-        //결제 완료
-        if (payment.getInitialPaymentAmount() != 0 & payment.getInitialPaymentAmount() == payment.getPaidPaymentAmount()) {
+        //결제 완료 (Long은 캐시된 -128~127 밖에서 ==로 비교하면 다르므로, 값으로 비교한다.)
+        if (payment.getInitialPaymentAmount() != 0 && payment.getInitialPaymentAmount().equals(payment.getPaidPaymentAmount())) {
             //storeTable, orderItems와 함께 order 찾기
             Order order = orderRepository.findNotDeletedAndPaidWithStoreTableAndOrderItemsByIdAndPaymentId(orderId, paymentId)
                     //order가 없으면 예외 발생
@@ -149,6 +158,10 @@ public class PaymentService {
             orderItems.stream()
                     .forEach(orderItem -> orderItem.changeOrderItemStatusPaid());
 
+            //테이블 현황판에 알림 (결제 완료, EMPTY)
+            //비워진 테이블에는 주문과 결제가 없다.
+            storeTableBoard.publish(order.getStore().getId(), storeTable, null, null);
+
             return true;
         }
         //같지 않으면
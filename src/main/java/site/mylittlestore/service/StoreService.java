@@ -18,6 +18,7 @@ import site.mylittlestore.repository.item.ItemRepository;
 import site.mylittlestore.repository.member.MemberRepository;
 import site.mylittlestore.repository.store.StoreRepository;
 import site.mylittlestore.repository.storetable.StoreTableRepository;
+import site.mylittlestore.service.auth.OwnedStoreCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +32,7 @@ public class StoreService {
     private final StoreRepository storeRepository;
     private final StoreTableRepository storeTableRepository;
     private final ItemRepository itemRepository;
+    private final OwnedStoreCache ownedStoreCache;
 
     public StoreDto findStoreDtoById(Long id) throws NoSuchStoreException {
         return storeRepository.findById(id)
@@ -75,6 +77,9 @@ public class StoreService {
         //회원의 정보 저장
         memberRepository.save(member);
 
+        //회원이 가진 가게 목록 갱신
+        ownedStoreCache.refresh(member.getId());
+
         return savedStore.getId();
     }
 
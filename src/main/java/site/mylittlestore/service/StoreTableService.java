@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import site.mylittlestore.domain.Store;
 import site.mylittlestore.domain.StoreTable;
+import site.mylittlestore.dto.storetable.StoreTableBoardDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDtoWithOrderFindDto;
 import site.mylittlestore.enumstorage.errormessage.StoreErrorMessage;
@@ -68,6 +69,14 @@ public class StoreTableService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 테이블 현황판 조회
+     * 테이블 상태, 주문, 결제, 주문 상품 수량과 금액 합계를 SQL 문 하나로 조회한다.
+     */
+    public List<StoreTableBoardDto> findAllStoreTableBoardDtoByStoreId(Long storeId) {
+        return storeTableRepository.findAllStoreTableBoardDtoByStoreId(storeId);
+    }
+
     @Transactional
     public Long createStoreTable(Long storeId) {
         //가게가 없으면, 예외 발생
@@ -0,0 +1,101 @@
+package site.mylittlestore.service.auth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 회원별 로그인 실패 횟수
+ * 실패할 때마다 DB에 쓰지 않도록 서버 메모리에서 세고, max-attempt번 실패해서 잠글 때만 DB에 저장한다.
+ * 마지막 실패 후 ttl이 지나면 지운다. (서버가 다시 시작되어도 지워진다.)
+ */
+@Component
+public class LogInAttemptCounter {
+    private final Map<Long, Attempt> attempts = new ConcurrentHashMap<>();
+
+    private final int maxAttempt;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LogInAttemptCounter(@Value("${log-in.attempt.max:5}") int maxAttempt,
+                               @Value("${log-in.attempt.ttl:86400000}") long ttlMillis) {
+        this(maxAttempt, ttlMillis, System::currentTimeMillis);
+    }
+
+    LogInAttemptCounter(int maxAttempt, long ttlMillis, LongSupplier clock) {
+        this.maxAttempt = maxAttempt;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 실패 횟수를 하나 늘린다.
+     * @param memberId
+     * @param persistedAttempt DB에 저장된 실패 횟수, 메모리에 없으면 여기서부터 센다.
+     * @return 늘린 실패 횟수
+     */
+    public int countUp(Long memberId, int persistedAttempt) {
+        long now = clock.getAsLong();
+
+        return attempts.compute(memberId, (k, attempt) -> {
+            if (attempt == null || attempt.isExpired(now, ttlMillis)) {
+                attempt = new Attempt();
+            }
+            attempt.count = Math.max(attempt.count, persistedAttempt) + 1;
+            attempt.failedAt = now;
+            return attempt;
+        }).count;
+    }
+
+    /**
+     * 잠가야 할 만큼 실패했으면 true
+     */
+    public boolean isExceeded(int attempt) {
+        return attempt >= maxAttempt;
+    }
+
+    /**
+     * 로그인에 성공하거나 잠그면 지운다.
+     */
+    public void reset(Long memberId) {
+        attempts.remove(memberId);
+    }
+
+    /**
+     * 마지막 실패 후 ttl이 지난 회원을 지운다.
+     * @return 지운 회원 수
+     */
+    @Scheduled(fixedDelayString = "${log-in.attempt.sweep-interval:600000}", initialDelayString = "${log-in.attempt.sweep-interval:600000}")
+    public int evict() {
+        long now = clock.getAsLong();
+        int before = attempts.size();
+
+        for (Long memberId : attempts.keySet()) {
+            attempts.computeIfPresent(memberId, (k, attempt) -> attempt.isExpired(now, ttlMillis) ? null : attempt);
+        }
+        return Math.max(0, before - attempts.size());
+    }
+
+    public int size() {
+        return attempts.size();
+    }
+
+    /**
+     * ConcurrentHashMap.compute 안에서만 바꾸므로, 따로 잠그지 않는다.
+     */
+    private static class Attempt {
+        private int count;
+        //마지막으로 실패한 시간
+        private long failedAt;
+
+        private boolean isExpired(long now, long ttlMillis) {
+            return now - failedAt >= ttlMillis;
+        }
+    }
+}
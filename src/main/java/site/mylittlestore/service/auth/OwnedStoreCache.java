@@ -0,0 +1,140 @@
+package site.mylittlestore.service.auth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.repository.store.StoreRepository;
+import site.mylittlestore.util.TransactionCallbacks;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 회원 Id -> 회원이 가진 가게 Id 목록 캐시
+ * 회원마다 처음 한 번만 조회하고, 가게가 생기면 갱신한다.
+ * 조회한 후 ttl이 지나면 다시 조회하고, max-size명까지만 캐시한다.
+ */
+@Component
+public class OwnedStoreCache {
+    //가득 찼을 때 요청마다 전체를 훑지 않도록, 요청 스레드에서는 이 간격으로만 지운다.
+    private static final long MIN_EVICT_INTERVAL_MILLIS = 1000;
+
+    private final Function<Long, ? extends Collection<Long>> loader;
+
+    private final Map<Long, Entry> ownedStoreIds = new ConcurrentHashMap<>();
+    private volatile long evictedAt;
+
+    //캐시를 비운 횟수
+    //조회하는 동안 캐시가 비워졌으면, 조회한 목록을 캐시하지 않는다.
+    //회원마다 두면 비운 회원 수만큼 늘어나므로, 모든 회원이 같이 쓴다. (가게가 생길 때만 늘어난다.)
+    private final AtomicLong version = new AtomicLong();
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public OwnedStoreCache(StoreRepository storeRepository,
+                           @Value("${owned-store.cache.max-size:10000}") int maxSize,
+                           @Value("${owned-store.cache.ttl:600000}") long ttlMillis) {
+        this(storeRepository::findAllIdByMemberId, maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    OwnedStoreCache(Function<Long, ? extends Collection<Long>> loader, int maxSize, long ttlMillis, LongSupplier clock) {
+        this.loader = loader;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    public Set<Long> findAllStoreIdsByMemberId(Long memberId) {
+        long now = clock.getAsLong();
+        Entry entry = ownedStoreIds.get(memberId);
+
+        if (entry != null && !entry.isExpired(now, ttlMillis)) {
+            return entry.storeIds;
+        }
+
+        //없으면, DB에서 조회해서 캐시
+        long loadedVersion = version.get();
+        Entry loadedEntry = new Entry(Set.copyOf(loader.apply(memberId)), now);
+
+        if (entry == null && ownedStoreIds.size() >= maxSize) {
+            if (now - evictedAt >= MIN_EVICT_INTERVAL_MILLIS) {
+                evict();
+            }
+
+            //가득 차면 캐시하지 않고, 만료된 회원이 지워질 때까지 매번 조회한다.
+            if (ownedStoreIds.size() >= maxSize) {
+                return loadedEntry.storeIds;
+            }
+        }
+
+        //refresh와 같은 키에서 compute하므로, 비워진 후에 이전 목록을 넣지 않는다.
+        Entry currentEntry = ownedStoreIds.compute(memberId, (id, previousEntry) -> {
+            if (version.get() != loadedVersion) {
+                return previousEntry;
+            }
+            return previousEntry == null || previousEntry.isExpired(now, ttlMillis) ? loadedEntry : previousEntry;
+        });
+
+        return currentEntry != null && !currentEntry.isExpired(now, ttlMillis) ? currentEntry.storeIds : loadedEntry.storeIds;
+    }
+
+    /**
+     * 회원의 가게 목록을 다시 조회하도록 캐시를 비운다.
+     * 트랜잭션 안에서 호출되면, 커밋된 후에 비운다.
+     * @param memberId
+     */
+    public void refresh(Long memberId) {
+        TransactionCallbacks.afterCommit(() -> remove(memberId));
+    }
+
+    /**
+     * 조회한 후 ttl이 지난 회원을 지운다.
+     * @return 지운 회원 수
+     */
+    @Scheduled(fixedDelayString = "${owned-store.cache.sweep-interval:60000}", initialDelayString = "${owned-store.cache.sweep-interval:60000}")
+    public int evict() {
+        long now = clock.getAsLong();
+        evictedAt = now;
+        int before = ownedStoreIds.size();
+
+        for (Long memberId : ownedStoreIds.keySet()) {
+            ownedStoreIds.computeIfPresent(memberId, (k, entry) -> entry.isExpired(now, ttlMillis) ? null : entry);
+        }
+        return Math.max(0, before - ownedStoreIds.size());
+    }
+
+    public int size() {
+        return ownedStoreIds.size();
+    }
+
+    private void remove(Long memberId) {
+        ownedStoreIds.compute(memberId, (id, entry) -> {
+            version.incrementAndGet();
+            return null;
+        });
+    }
+
+    private static class Entry {
+        private final Set<Long> storeIds;
+        //조회한 시간
+        private final long loadedAt;
+
+        private Entry(Set<Long> storeIds, long loadedAt) {
+            this.storeIds = storeIds;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpired(long now, long ttlMillis) {
+            return now - loadedAt >= ttlMillis;
+        }
+    }
+}
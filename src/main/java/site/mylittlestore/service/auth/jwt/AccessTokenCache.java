@@ -0,0 +1,95 @@
+package site.mylittlestore.service.auth.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.util.TokenHasher;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 검증이 끝난 access token -> 회원 정보 캐시
+ * access token의 만료 시각까지만 보관하고, 최대 크기를 넘으면 만료된 것부터 비운다.
+ * 회원이 잠기거나, 삭제되거나, 로그아웃하면 명시적으로 무효화한다.
+ */
+@Component
+public class AccessTokenCache {
+    private final Map<String, AuthenticatedMember> cache = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    public AccessTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Optional<AuthenticatedMember> get(String accessToken) {
+        String key = TokenHasher.hash(accessToken);
+        AuthenticatedMember authenticatedMember = cache.get(key);
+
+        if (authenticatedMember == null) {
+            return Optional.empty();
+        }
+
+        //만료되었으면 지우고 miss 처리
+        if (authenticatedMember.isExpired(System.currentTimeMillis())) {
+            cache.remove(key, authenticatedMember);
+            return Optional.empty();
+        }
+
+        return Optional.of(authenticatedMember);
+    }
+
+    public void put(String accessToken, AuthenticatedMember authenticatedMember) {
+        if (authenticatedMember.isExpired(System.currentTimeMillis())) {
+            return;
+        }
+
+        if (cache.size() >= maxSize) {
+            evict();
+        }
+
+        cache.put(TokenHasher.hash(accessToken), authenticatedMember);
+    }
+
+    public void invalidate(String accessToken) {
+        cache.remove(TokenHasher.hash(accessToken));
+    }
+
+    /**
+     * 해당 회원의 모든 access token을 무효화한다.
+     * 잠금, 삭제, 로그아웃처럼 드물게 일어나는 경우에만 사용
+     * @param email
+     */
+    public void invalidateByEmail(String email) {
+        cache.values().removeIf(authenticatedMember -> authenticatedMember.getEmail().equals(email));
+    }
+
+    public void invalidateByMemberId(Long memberId) {
+        cache.values().removeIf(authenticatedMember -> authenticatedMember.getMemberId().equals(memberId));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 만료된 항목을 먼저 비우고, 그래도 가득 차 있으면 전체의 1/10을 비운다.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(authenticatedMember -> authenticatedMember.isExpired(now));
+
+        if (cache.size() < maxSize) {
+            return;
+        }
+
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<String> iterator = cache.keySet().iterator();
+        while (iterator.hasNext() && toRemove-- > 0) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
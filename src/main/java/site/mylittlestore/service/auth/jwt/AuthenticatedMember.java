@@ -0,0 +1,37 @@
+package site.mylittlestore.service.auth.jwt;
+
+import lombok.Builder;
+import lombok.Getter;
+import site.mylittlestore.enumstorage.role.MemberRole;
+
+/**
+ * access token 검증이 끝난 회원 정보
+ * 서명된 access token의 claim만으로 만들어지므로, 회원 엔티티를 조회하지 않는다.
+ * 불변 객체이므로 여러 요청 스레드가 공유해도 된다.
+ */
+@Getter
+public class AuthenticatedMember {
+    private final Long memberId;
+
+    private final String email;
+
+    private final MemberRole role;
+
+    private final int statusVersion;
+
+    //access token의 만료 시각(epoch millis)
+    private final long expiresAt;
+
+    @Builder
+    protected AuthenticatedMember(Long memberId, String email, MemberRole role, int statusVersion, long expiresAt) {
+        this.memberId = memberId;
+        this.email = email;
+        this.role = role;
+        this.statusVersion = statusVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -0,0 +1,63 @@
+package site.mylittlestore.service.auth.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * JWT 서명/검증기
+ * Algorithm과 JWTVerifier는 thread-safe하므로, 애플리케이션 시작 시 한 번만 만들어서 공유한다.
+ */
+@Component
+public class JwtCodec {
+    public static final String ISSUER = "myLittleStore";
+
+    private final Algorithm algorithm;
+
+    private final JWTVerifier verifier;
+
+    public JwtCodec(@Value("${jwt.secret}") String secret) {
+        this.algorithm = Algorithm.HMAC512(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
+
+    /**
+     * issuer, subject, 만료 시각이 채워진 토큰 빌더를 반환한다.
+     * @param subject
+     * @param expiration 유효 기간(ms)
+     * @return
+     */
+    public JWTCreator.Builder create(String subject, long expiration) {
+        return JWT.create()
+                .withIssuer(ISSUER)
+                .withSubject(subject)
+                .withExpiresAt(new Date(System.currentTimeMillis() + expiration));
+    }
+
+    public String sign(JWTCreator.Builder builder) {
+        return builder.sign(algorithm);
+    }
+
+    /**
+     * 토큰을 한 번만 파싱해서 검증하고, 유효하면 claim과 함께 반환한다.
+     * @param token
+     * @return 유효하지 않으면 Optional.empty()
+     */
+    public Optional<DecodedJWT> verify(String token) {
+        try {
+            return Optional.of(verifier.verify(token));
+        } catch (JWTVerificationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package site.mylittlestore.service.auth.jwt;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -13,37 +11,39 @@ import site.mylittlestore.domain.auth.Jwt;
 import site.mylittlestore.dto.jwt.JwtFindDto;
 import site.mylittlestore.enumstorage.errormessage.MemberErrorMessage;
 import site.mylittlestore.enumstorage.errormessage.auth.jwt.JwtErrorMessage;
+import site.mylittlestore.enumstorage.role.MemberRole;
 import site.mylittlestore.exception.auth.jwt.NoSuchJwtException;
 import site.mylittlestore.exception.auth.jwt.NotValidJwtException;
 import site.mylittlestore.exception.member.NoSuchMemberException;
 import site.mylittlestore.repository.jwt.JwtRepository;
 import site.mylittlestore.repository.member.MemberRepository;
+import site.mylittlestore.util.TokenHasher;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.Optional;
+import java.util.UUID;
 
 @Getter
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class JwtService {
-    private final JWT jwt;
+    private final JwtCodec jwtCodec;
     private final MemberRepository memberRepository;
     private final JwtRepository jwtRepository;
 
-    @Value("${jwt.secret}")
-    private String secret;
-
     @Value("${jwt.token.access.expiration}")
     private Long accessTokenExpiration;
 
     @Value("${jwt.token.refresh.expiration}")
     private Long refreshTokenExpiration;
 
+    @Value("${jwt.token.refresh.grace-period}")
+    private Long refreshTokenGracePeriod;
+
     @Value("${jwt.token.access.header}")
     private String accessTokenHeader;
 
@@ -52,15 +52,20 @@ public class JwtService {
 
     private static final String BEARER = "Bearer ";
 
+    private static final String MEMBER_ID_CLAIM = "id";
+    private static final String EMAIL_CLAIM = "email";
+    private static final String ROLE_CLAIM = "role";
+    private static final String STATUS_VERSION_CLAIM = "statusVersion";
+
     public JwtFindDto findJwtFindDtoByRefreshToken(String refreshToken) {
-        return jwtRepository.findByRefreshToken(refreshToken)
+        return jwtRepository.findByRefreshTokenHash(TokenHasher.hash(refreshToken))
                 .orElseThrow(() -> new NoSuchJwtException(JwtErrorMessage.NO_SUCH_REFRESH_TOKEN.getMessage()))
                 .toJwtFindDto();
     }
 
     @Transactional
     public void deleteByRefreshToken(HttpServletResponse response, String refreshToken) {
-        jwtRepository.deleteByRefreshToken(refreshToken);
+        jwtRepository.deleteByRefreshTokenHash(TokenHasher.hash(refreshToken));
     }
 
     /**
@@ -74,12 +79,19 @@ public class JwtService {
         Member member = memberRepository.findNotDeletedByEmail(email)
                 .orElseThrow(() -> new NoSuchMemberException(MemberErrorMessage.NO_SUCH_MEMBER.getMessage()));
 
+        issueTokens(member, response);
+    }
+
+    /**
+     * 이미 조회한 회원으로 access token, refresh token을 발급, DB에 저장한다.
+     * 로그인 과정에서 조회한 회원을 그대로 쓰므로, 회원을 다시 조회하지 않는다.
+     * @param member
+     * @param response
+     */
+    @Transactional
+    public void issueTokens(Member member, HttpServletResponse response) {
         //refresh token을 발급한다.
-        String refreshToken = jwt.create()
-                .withIssuer("myLittleStore")
-                .withSubject("refreshToken")
-                .withExpiresAt(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .sign(Algorithm.HMAC512(secret));
+        String refreshToken = createRefreshToken(member);
 
         jwtRepository.findByMemberId(member.getId())
                 .ifPresentOrElse(
@@ -95,12 +107,7 @@ public class JwtService {
                         });
 
         //access token을 발급한다.
-        String accessToken = jwt.create()
-                .withIssuer("myLittleStore")
-                .withSubject("accessToken")
-                .withExpiresAt(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .withClaim("email", email)
-                .sign(Algorithm.HMAC512(secret));
+        String accessToken = createAccessToken(member);
 
         //access token, refresh token을 헤더에 실어서 보낸다.
         response.setStatus(HttpServletResponse.SC_OK);
@@ -109,57 +116,86 @@ public class JwtService {
         setRefreshTokenOnCookie(response, refreshToken);
     }
 
-    @Transactional
-    public Member reissueTokens(String refreshToken, HttpServletResponse response) {
-        //refreshToken으로 member를 찾는다.
-        Jwt jwt = jwtRepository.findByRefreshToken(refreshToken)
-                .orElseThrow(() -> new NoSuchJwtException(JwtErrorMessage.NO_SUCH_REFRESH_TOKEN.getMessage()));
+    /**
+     * refresh token을 검증하고, access token과 refresh token을 재발급한다.
+     * 유예 기간 안의 이전 refresh token이면 access token만 재발급한다.
+     * 쿠키에는 싣지 않으므로, 동시에 들어온 여러 요청이 결과를 나눠 쓸 수 있다.
+     * 만료된 refresh token은 DB에서 지우고 NotValidJwtException을 던진다.
+     * @param refreshToken
+     * @return
+     */
+    @Transactional(noRollbackFor = NotValidJwtException.class)
+    public ReissuedTokens reissueTokens(String refreshToken) {
+        //서명과 만료 시각 검증
+        if (!isTokenValid(refreshToken)) {
+            throw new NotValidJwtException(JwtErrorMessage.NOT_VALID_JWT.getMessage());
+        }
 
-        Member member = jwt.getMember();
+        //현재 refresh token이거나, 유예 기간이 남은 이전 refresh token이어야 한다.
+        Jwt jwt = findJwtWithMemberByRefreshToken(refreshToken);
 
-        //refresh token을 발급한다.
-        String newRefreshToken = this.jwt.create()
-                .withIssuer("myLittleStore")
-                .withSubject("refreshToken")
-                .withExpiresAt(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .sign(Algorithm.HMAC512(secret));
+        //만료기간이 지났으면, DB에서 지운다.
+        if (jwt.getExpiredAt().isBefore(LocalDateTime.now())) {
+            jwtRepository.delete(jwt);
+            throw new NotValidJwtException(JwtErrorMessage.NOT_VALID_JWT.getMessage());
+        }
 
-        jwtRepository.findByMemberId(member.getId())
-                .ifPresentOrElse(
-                        //이미 있으면, update
-                        jwtEntity -> jwtEntity.updateRefreshToken(newRefreshToken),
-                        //없으면, 새로 만든다.
-                        () -> {
-                            Jwt jwtEntity = Jwt.builder()
-                                    .member(member)
-                                    .refreshToken(newRefreshToken)
-                                    .build();
-                            jwtRepository.save(jwtEntity);
-                        });
+        Member member = jwt.getMember();
+
+        //현재 refresh token이면 새로 발급해서 교체하고, 이전 refresh token은 유예 기간 동안만 인정한다.
+        //유예 기간 안의 이전 refresh token이면 다시 교체하지 않는다.
+        //다시 교체하면 먼저 재발급한 탭의 refresh token이 무효가 되므로, access token만 발급한다.
+        String newRefreshToken = null;
+        if (jwt.getRefreshTokenHash().equals(TokenHasher.hash(refreshToken))) {
+            newRefreshToken = createRefreshToken(member);
+            jwt.rotateRefreshToken(newRefreshToken, LocalDateTime.now().plusNanos(refreshTokenGracePeriod * 1_000_000L));
+        }
 
         //access token을 발급한다.
-        String accessToken = this.jwt.create()
-                .withIssuer("myLittleStore")
-                .withSubject("accessToken")
-                .withExpiresAt(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .withClaim("email", member.getEmail())
-                .sign(Algorithm.HMAC512(secret));
+        //토큰의 만료 시각은 초 단위로 잘리므로, 발급 전에 초 단위로 내림해서 캐시 만료 시각으로 쓴다.
+        long accessTokenExpiresAt = (System.currentTimeMillis() + accessTokenExpiration) / 1000 * 1000;
+        String accessToken = createAccessToken(member);
+
+        return ReissuedTokens.builder()
+                .accessToken(accessToken)
+                .refreshToken(newRefreshToken)
+                .authenticatedMember(AuthenticatedMember.builder()
+                        .memberId(member.getId())
+                        .email(member.getEmail())
+                        .role(member.getRole())
+                        .statusVersion(member.getStatusVersion())
+                        .expiresAt(accessTokenExpiresAt)
+                        .build())
+                .build();
+    }
 
-        //access token, refresh token을 헤더에 실어서 보낸다.
+    /**
+     * 재발급한 access token, refresh token을 쿠키에 실어서 보낸다.
+     * refresh token을 교체하지 않았으면, 쿠키의 refresh token (먼저 재발급한 요청이 받은 것)을 그대로 둔다.
+     * @param response
+     * @param reissuedTokens
+     */
+    public void setTokensOnCookie(HttpServletResponse response, ReissuedTokens reissuedTokens) {
         response.setStatus(HttpServletResponse.SC_OK);
 
-        setAccessTokenOnCookie(response, accessToken);
-        setRefreshTokenOnCookie(response, refreshToken);
-
-        return member;
+        setAccessTokenOnCookie(response, reissuedTokens.getAccessToken());
+        if (reissuedTokens.getRefreshToken() != null) {
+            setRefreshTokenOnCookie(response, reissuedTokens.getRefreshToken());
+        }
     }
 
     public DecodedJWT decodeJwt(HttpServletResponse response, String token) {
-        if (isTokenValid(token)) {
-            return jwt.decodeJwt(token);
-        } else {
-            throw new NotValidJwtException(JwtErrorMessage.NOT_VALID_JWT.getMessage());
-        }
+        return verify(token)
+                .orElseThrow(() -> new NotValidJwtException(JwtErrorMessage.NOT_VALID_JWT.getMessage()));
+    }
+
+    /**
+     * 토큰을 한 번만 파싱해서 검증하고, 유효하면 claim과 함께 반환한다.
+     * @param token
+     * @return 유효하지 않으면 Optional.empty()
+     */
+    public Optional<DecodedJWT> verify(String token) {
+        return jwtCodec.verify(token);
     }
 
     /**
@@ -185,48 +221,78 @@ public class JwtService {
     }
 
     public Optional<String> extractEmailFromAccessToken(String accessToken) {
-        try {
-            // 토큰 유효성 검사하는 데에 사용할 알고리즘이 있는 JWT verifier builder 반환
-            return Optional.ofNullable(JWT.require(Algorithm.HMAC512(secret))
-                    .build() // 반환된 빌더로 JWT verifier 생성
-                    .verify(accessToken) // accessToken을 검증하고 유효하지 않다면 예외 발생
-                    .getClaim("email") // claim(Email) 가져오기
-                    .asString());
-        } catch (Exception e) {
+        return verify(accessToken)
+                .map(decodedJWT -> decodedJWT.getClaim(EMAIL_CLAIM).asString());
+    }
+
+    /**
+     * 검증된 access token의 claim만으로 회원 정보를 만든다.
+     * claim이 없는 이전 형식의 토큰이면 Optional.empty()
+     * @param decodedAccessToken
+     * @return
+     */
+    public Optional<AuthenticatedMember> extractAuthenticatedMember(DecodedJWT decodedAccessToken) {
+        Long memberId = decodedAccessToken.getClaim(MEMBER_ID_CLAIM).asLong();
+        String email = decodedAccessToken.getClaim(EMAIL_CLAIM).asString();
+        String role = decodedAccessToken.getClaim(ROLE_CLAIM).asString();
+        Integer statusVersion = decodedAccessToken.getClaim(STATUS_VERSION_CLAIM).asInt();
+
+        if (memberId == null || email == null || role == null || statusVersion == null) {
             return Optional.empty();
         }
+
+        return Optional.of(AuthenticatedMember.builder()
+                .memberId(memberId)
+                .email(email)
+                .role(MemberRole.valueOf(role))
+                .statusVersion(statusVersion)
+                .expiresAt(decodedAccessToken.getExpiresAt().getTime())
+                .build());
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            JWT.require(Algorithm.HMAC512(secret))
-                    .build()
-                    .verify(token);
-
-            return true;
-        } catch (RuntimeException e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
+    /**
+     * 만료된 refresh token을 모두 지운다.
+     * @return 지운 개수
+     */
     @Transactional
-    public boolean isRefreshTokenExists(HttpServletResponse response, String refreshToken) {
-        Jwt jwt = jwtRepository.findByRefreshToken(refreshToken)
-                .orElseThrow(() -> new NoSuchJwtException(JwtErrorMessage.NO_SUCH_REFRESH_TOKEN.getMessage()));
-
-        //DB의 refresh token과 일치하는지, 만료기간이 지났는지 확인
-        if (!jwt.getRefreshToken().equals(refreshToken) || jwt.getExpiredAt().isBefore(LocalDateTime.now())) {
-            //DB에서 지우고
-            jwtRepository.delete(jwt);
+    public long deleteAllExpiredRefreshTokens() {
+        return jwtRepository.deleteAllExpired(LocalDateTime.now());
+    }
 
-            //cookie에서 지우고
-            deleteToken("accessToken", response);
-            deleteToken("refreshToken", response);
+    private Jwt findJwtWithMemberByRefreshToken(String refreshToken) {
+        return jwtRepository.findWithMemberByRefreshTokenHash(TokenHasher.hash(refreshToken), LocalDateTime.now())
+                .orElseThrow(() -> new NoSuchJwtException(JwtErrorMessage.NO_SUCH_REFRESH_TOKEN.getMessage()));
+    }
 
-            return false;
-        }
+    /**
+     * refresh token을 발급한다.
+     * 같은 시각에 발급된 다른 회원의 refresh token과 겹치지 않도록 회원 Id를 claim에 담는다.
+     * 같은 초에 교체해도 이전 refresh token과 달라지도록, 무작위 jti를 담는다.
+     * @param member
+     * @return
+     */
+    private String createRefreshToken(Member member) {
+        return jwtCodec.sign(jwtCodec.create("refreshToken", refreshTokenExpiration)
+                .withJWTId(UUID.randomUUID().toString())
+                .withClaim(MEMBER_ID_CLAIM, member.getId()));
+    }
 
-        return true;
+    /**
+     * access token을 발급한다.
+     * 요청마다 회원을 조회하지 않도록, 인증에 필요한 회원 정보를 claim에 담는다.
+     * @param member
+     * @return
+     */
+    private String createAccessToken(Member member) {
+        return jwtCodec.sign(jwtCodec.create("accessToken", accessTokenExpiration)
+                .withClaim(MEMBER_ID_CLAIM, member.getId())
+                .withClaim(EMAIL_CLAIM, member.getEmail())
+                .withClaim(ROLE_CLAIM, member.getRole().toString())
+                .withClaim(STATUS_VERSION_CLAIM, member.getStatusVersion()));
     }
 
     public void deleteAllTokens(HttpServletResponse response) {
@@ -0,0 +1,53 @@
+package site.mylittlestore.service.auth.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원의 상태나 권한이 바뀌었을 때, 이전 statusVersion으로 발급된 access token을 거부하기 위한 저장소
+ * access token의 유효 기간이 지나면 이전 토큰은 어차피 만료되므로, 그 이후에는 기록을 지운다.
+ */
+@Component
+public class MemberStatusVersions {
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+
+    private final long accessTokenExpiration;
+
+    public MemberStatusVersions(@Value("${jwt.token.access.expiration}") long accessTokenExpiration) {
+        this.accessTokenExpiration = accessTokenExpiration;
+    }
+
+    /**
+     * statusVersion보다 작은 버전으로 발급된 access token을 모두 거부한다.
+     * @param memberId
+     * @param statusVersion 회원의 현재 statusVersion
+     */
+    public void revoke(Long memberId, int statusVersion) {
+        long now = System.currentTimeMillis();
+        revocations.values().removeIf(revocation -> revocation.isStale(now, accessTokenExpiration));
+        revocations.merge(memberId, new Revocation(statusVersion, now),
+                (oldRevocation, newRevocation) -> oldRevocation.statusVersion > newRevocation.statusVersion ? oldRevocation : newRevocation);
+    }
+
+    public boolean isRevoked(AuthenticatedMember authenticatedMember) {
+        Revocation revocation = revocations.get(authenticatedMember.getMemberId());
+        return revocation != null && authenticatedMember.getStatusVersion() < revocation.statusVersion;
+    }
+
+    private static class Revocation {
+        private final int statusVersion;
+        private final long revokedAt;
+
+        private Revocation(int statusVersion, long revokedAt) {
+            this.statusVersion = statusVersion;
+            this.revokedAt = revokedAt;
+        }
+
+        private boolean isStale(long now, long accessTokenExpiration) {
+            return revokedAt + accessTokenExpiration < now;
+        }
+    }
+}
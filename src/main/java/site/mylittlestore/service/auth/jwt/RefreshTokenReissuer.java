@@ -0,0 +1,63 @@
+package site.mylittlestore.service.auth.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.util.TokenHasher;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 같은 refresh token으로 동시에 들어온 재발급 요청을 하나로 합친다.
+ * access token이 만료된 직후 페이지가 여러 요청을 한꺼번에 보내도,
+ * 서명과 DB 갱신은 한 번만 하고 모든 요청이 같은 토큰 쌍을 받는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenReissuer {
+    private final JwtService jwtService;
+
+    //refresh token 해시 -> 진행 중인 재발급
+    private final Map<String, CompletableFuture<ReissuedTokens>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 진행 중인 재발급이 있으면 그 결과를 기다리고, 없으면 직접 재발급한다.
+     * 재발급에 실패하면, 기다리던 요청들도 같은 예외를 받는다.
+     * @param refreshToken
+     * @return
+     */
+    public ReissuedTokens reissue(String refreshToken) {
+        String key = TokenHasher.hash(refreshToken);
+
+        CompletableFuture<ReissuedTokens> newReissue = new CompletableFuture<>();
+        CompletableFuture<ReissuedTokens> reissue = inFlight.putIfAbsent(key, newReissue);
+
+        //진행 중인 재발급이 없으면, 이 요청이 재발급한다.
+        if (reissue == null) {
+            reissue = newReissue;
+            try {
+                newReissue.complete(jwtService.reissueTokens(refreshToken));
+            } catch (RuntimeException e) {
+                newReissue.completeExceptionally(e);
+            } finally {
+                //커밋까지 끝났으므로, 이후 요청은 유예 기간 동안 이전 refresh token으로 재발급한다.
+                inFlight.remove(key, newReissue);
+            }
+        }
+
+        try {
+            return reissue.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public int inFlightSize() {
+        return inFlight.size();
+    }
+}
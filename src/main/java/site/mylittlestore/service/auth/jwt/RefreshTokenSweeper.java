@@ -0,0 +1,26 @@
+package site.mylittlestore.service.auth.jwt;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 만료된 refresh token을 주기적으로 지운다.
+ * 로그아웃 없이 떠난 회원의 refresh token이 쌓이지 않도록 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenSweeper {
+    private final JwtService jwtService;
+
+    @Scheduled(fixedDelayString = "${jwt.sweeper.interval}", initialDelayString = "${jwt.sweeper.interval}")
+    public void sweep() {
+        long deletedCount = jwtService.deleteAllExpiredRefreshTokens();
+
+        if (deletedCount > 0) {
+            log.info("만료된 refresh token {}개 삭제", deletedCount);
+        }
+    }
+}
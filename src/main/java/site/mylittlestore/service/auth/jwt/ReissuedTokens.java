@@ -0,0 +1,25 @@
+package site.mylittlestore.service.auth.jwt;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * refresh token으로 재발급한 토큰 한 쌍과 회원 정보
+ * 동시에 재발급을 요청한 요청들이 같은 결과를 공유하므로 불변 객체로 둔다.
+ */
+@Getter
+public class ReissuedTokens {
+    private final String accessToken;
+
+    //유예 기간 안의 이전 refresh token으로 재발급했으면 null (refresh token을 다시 교체하지 않는다.)
+    private final String refreshToken;
+
+    private final AuthenticatedMember authenticatedMember;
+
+    @Builder
+    protected ReissuedTokens(String accessToken, String refreshToken, AuthenticatedMember authenticatedMember) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.authenticatedMember = authenticatedMember;
+    }
+}
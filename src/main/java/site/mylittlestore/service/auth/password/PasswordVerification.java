@@ -0,0 +1,26 @@
+package site.mylittlestore.service.auth.password;
+
+import java.util.Optional;
+
+/**
+ * 비밀번호 검증 결과
+ */
+public class PasswordVerification {
+    private final boolean matched;
+
+    //encoder 설정이 바뀌었으면 새 설정으로 다시 해시한 비밀번호
+    private final String rehashedPassword;
+
+    PasswordVerification(boolean matched, String rehashedPassword) {
+        this.matched = matched;
+        this.rehashedPassword = rehashedPassword;
+    }
+
+    public boolean isMatched() {
+        return matched;
+    }
+
+    public Optional<String> getRehashedPassword() {
+        return Optional.ofNullable(rehashedPassword);
+    }
+}
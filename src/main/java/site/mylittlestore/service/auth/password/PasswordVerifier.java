@@ -0,0 +1,245 @@
+package site.mylittlestore.service.auth.password;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.dto.auth.PasswordVerifierMetricsDto;
+import site.mylittlestore.enumstorage.errormessage.auth.LogInErrorMessage;
+import site.mylittlestore.exception.auth.LogInException;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 로그인 비밀번호 검증
+ * BCrypt 검증은 한 번에 수십~수백 ms의 CPU를 쓰므로, 로그인이 몰리면 Tomcat 스레드와 CPU를 다른 요청(주문 등)과 나눠 쓰지 못한다.
+ *
+ * 검증은 pool-size개의 검증 스레드에서만 하고, 검증 중이거나 기다릴 수 있는 요청은 pool-size + queue-capacity개로 제한한다.
+ * 자리가 없으면 회원을 조회하기 전에 바로 돌려보내고, max-wait 안에 끝나지 않아도 돌려보낸다.
+ * 돌려보내도 이미 시작한 검증은 멈출 수 없으므로, 자리는 검증이 끝난 후에 돌려준다. (기다리던 검증은 취소하고 바로 돌려준다.)
+ * 로그인에 성공했는데 저장된 해시의 설정(버전, strength)이 지금 설정과 다르면, 새 설정으로 다시 해시한다.
+ */
+@Component
+public class PasswordVerifier {
+    //$2a$10$...
+    private static final Pattern BCRYPT_SETTINGS = Pattern.compile("\\A\\$(2[aby]?)\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final String version;
+    private final int strength;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore admission;
+    private final int maxInFlight;
+    private final long maxWaitNanos;
+
+    private final LongAdder admittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder matchedCount = new LongAdder();
+    private final LongAdder mismatchedCount = new LongAdder();
+    private final LongAdder rehashedCount = new LongAdder();
+    private final LongAdder startedCount = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Long::max, 0);
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${password.encoder.version:2a}") String version,
+                            @Value("${password.encoder.strength:10}") int strength,
+                            @Value("${password.verifier.pool-size:0}") int poolSize,
+                            @Value("${password.verifier.queue-capacity:32}") int queueCapacity,
+                            @Value("${password.verifier.max-wait:3000}") long maxWaitMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.version = version;
+        this.strength = strength;
+
+        //0이면 CPU 코어의 절반만 쓴다.
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        //자리 수만큼만 맡기므로, 큐도 queue-capacity개로 제한한다.
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new LinkedBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                new CustomizableThreadFactory("password-verifier-"));
+        this.maxInFlight = threads + Math.max(0, queueCapacity);
+        this.admission = new Semaphore(maxInFlight);
+        this.maxWaitNanos = maxWaitMillis * 1_000_000L;
+    }
+
+    /**
+     * 검증할 자리를 받는다. 회원을 조회하기 전에 호출해서, 자리가 없으면 로그인 시도 횟수를 늘리지 않고 돌려보낸다.
+     * @throws LogInException 자리가 없으면 바로
+     */
+    public Permit admit() throws LogInException {
+        if (!admission.tryAcquire()) {
+            rejectedCount.increment();
+            throw new LogInException(LogInErrorMessage.LOG_IN_BUSY.getMessage());
+        }
+
+        admittedCount.increment();
+        return new Permit();
+    }
+
+    /**
+     * 저장된 해시가 지금 설정(버전, strength)으로 만든 것이 아니면 true
+     */
+    boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+
+        Matcher matcher = BCRYPT_SETTINGS.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return true;
+        }
+        return !matcher.group(1).equals(version) || Integer.parseInt(matcher.group(2)) != strength;
+    }
+
+    private PasswordVerification verifyOnPool(String rawPassword, String encodedPassword, long submittedAt) {
+        long startedAt = System.nanoTime();
+        long waitedNanos = startedAt - submittedAt;
+        startedCount.increment();
+        queueNanos.add(waitedNanos);
+        maxQueueNanos.accumulate(waitedNanos);
+
+        boolean matched = passwordEncoder.matches(rawPassword, encodedPassword);
+        String rehashedPassword = null;
+        if (matched && needsRehash(encodedPassword)) {
+            rehashedPassword = passwordEncoder.encode(rawPassword);
+            rehashedCount.increment();
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        hashNanos.add(elapsedNanos);
+        maxHashNanos.accumulate(elapsedNanos);
+        (matched ? matchedCount : mismatchedCount).increment();
+
+        return new PasswordVerification(matched, rehashedPassword);
+    }
+
+    public PasswordVerifierMetricsDto snapshot() {
+        long started = startedCount.sum();
+
+        return PasswordVerifierMetricsDto.builder()
+                .poolSize(executor.getCorePoolSize())
+                .inFlight(maxInFlight - admission.availablePermits())
+                .maxInFlight(maxInFlight)
+                .queueDepth(executor.getQueue().size())
+                .admittedCount(admittedCount.sum())
+                .rejectedCount(rejectedCount.sum())
+                .timedOutCount(timedOutCount.sum())
+                .matchedCount(matchedCount.sum())
+                .mismatchedCount(mismatchedCount.sum())
+                .rehashedCount(rehashedCount.sum())
+                .meanQueueMillis(started == 0 ? 0 : toMillis(queueNanos.sum()) / started)
+                .maxQueueMillis(toMillis(maxQueueNanos.get()))
+                .meanHashMillis(started == 0 ? 0 : toMillis(hashNanos.sum()) / started)
+                .maxHashMillis(toMillis(maxHashNanos.get()))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * 검증할 자리, 검증이 끝나면 닫는다. (try-with-resources)
+     * 닫아도 아직 끝나지 않은 검증이 있으면, 그 검증이 끝날 때 자리를 돌려준다.
+     */
+    public class Permit implements AutoCloseable {
+        //자리를 쓰는 쪽 수 (받은 요청 + 끝나지 않은 검증), 0이 되면 자리를 돌려준다.
+        private final AtomicInteger holders = new AtomicInteger(1);
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        /**
+         * 검증 스레드에서 검증하고, 끝날 때까지 기다린다.
+         * @throws LogInException max-wait 안에 끝나지 않으면
+         */
+        public PasswordVerification verify(String rawPassword, String encodedPassword) throws LogInException {
+            long submittedAt = System.nanoTime();
+
+            holders.incrementAndGet();
+            //결과를 받기 전에 자리를 돌려주도록, 검증 스레드에서 돌려준다.
+            FutureTask<PasswordVerification> future = new FutureTask<>(() -> {
+                try {
+                    return verifyOnPool(rawPassword, encodedPassword, submittedAt);
+                } finally {
+                    leave();
+                }
+            });
+
+            try {
+                executor.execute(future);
+            } catch (RejectedExecutionException e) {
+                //종료 중
+                leave();
+                rejectedCount.increment();
+                throw new LogInException(LogInErrorMessage.LOG_IN_BUSY.getMessage());
+            }
+
+            try {
+                return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancelIfWaiting(future);
+                timedOutCount.increment();
+                throw new LogInException(LogInErrorMessage.LOG_IN_BUSY.getMessage());
+            } catch (InterruptedException e) {
+                cancelIfWaiting(future);
+                Thread.currentThread().interrupt();
+                throw new LogInException(LogInErrorMessage.LOG_IN_BUSY.getMessage());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /**
+         * 아직 큐에서 기다리는 중이면 빼고 취소한다.
+         * 검증 중이면 멈출 수 없으므로, 끝날 때까지 자리를 돌려주지 않는다.
+         */
+        private void cancelIfWaiting(FutureTask<PasswordVerification> future) {
+            if (executor.remove(future)) {
+                future.cancel(false);
+                leave();
+            }
+        }
+
+        private void leave() {
+            if (holders.decrementAndGet() == 0) {
+                admission.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                leave();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package site.mylittlestore.service.auth.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 로그인 실패 시 인증 이메일, 비밀번호 변경 이메일의 재발송을 제한한다.
+ * 재발송할 때마다 코드를 새로 만들고 (DB 쓰기) 이메일을 보내므로, 로그인을 반복하는 스크립트가 DB와 SMTP를 채울 수 있다.
+ *
+ * 클라이언트 IP마다, 그리고 이메일, 클라이언트 IP마다 토큰 버킷으로 재발송 횟수를 제한하고,
+ * 같은 이메일로 coalesce-window 안에 다시 요청하면 새로 보내지 않고 이미 보낸 이메일을 확인하게 한다.
+ */
+@Component
+public class EmailResendLimiter {
+    public static final String VERIFICATION_EMAIL = "verification-email";
+    public static final String CHANGE_PASSWORD_EMAIL = "change-password-email";
+
+    private final RateLimitStore rateLimitStore;
+
+    private final int capacity;
+    private final int ipCapacity;
+    private final long refillIntervalMillis;
+    private final long coalesceWindowMillis;
+
+    public EmailResendLimiter(RateLimitStore rateLimitStore,
+                              @Value("${rate-limit.email-resend.capacity:5}") int capacity,
+                              @Value("${rate-limit.email-resend.ip-capacity:20}") int ipCapacity,
+                              @Value("${rate-limit.email-resend.refill-interval:600000}") long refillIntervalMillis,
+                              @Value("${rate-limit.email-resend.coalesce-window:60000}") long coalesceWindowMillis) {
+        this.rateLimitStore = rateLimitStore;
+        this.capacity = capacity;
+        this.ipCapacity = ipCapacity;
+        this.refillIntervalMillis = refillIntervalMillis;
+        this.coalesceWindowMillis = coalesceWindowMillis;
+    }
+
+    /**
+     * @param purpose VERIFICATION_EMAIL, CHANGE_PASSWORD_EMAIL
+     */
+    public ResendDecision tryResend(String purpose, String email, String clientIp) {
+        //한 IP에서 이메일을 바꿔가며 요청해도 ip-capacity번까지만 보낸다.
+        if (!rateLimitStore.tryAcquire(purpose + ":ip:" + clientIp, ipCapacity, refillIntervalMillis)) {
+            return ResendDecision.RATE_LIMITED;
+        }
+
+        if (!rateLimitStore.tryAcquire(purpose + ":" + email + ":" + clientIp, capacity, refillIntervalMillis)) {
+            return ResendDecision.RATE_LIMITED;
+        }
+
+        //이메일마다 coalesce-window에 한 번만 보낸다. (토큰 1개짜리 버킷)
+        if (!rateLimitStore.tryAcquire(purpose + ":" + email, 1, coalesceWindowMillis)) {
+            return ResendDecision.COALESCED;
+        }
+
+        return ResendDecision.SEND;
+    }
+}
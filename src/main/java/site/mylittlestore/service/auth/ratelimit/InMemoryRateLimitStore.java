@@ -0,0 +1,144 @@
+package site.mylittlestore.service.auth.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import site.mylittlestore.dto.auth.RateLimitMetricsDto;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 서버 메모리에 토큰 버킷을 보관한다.
+ * 다시 가득 찬 버킷은 처음 만든 버킷과 같으므로 지운다.
+ * 버킷이 max-keys개면 가장 오래 쓰지 않은 버킷을 지우고 새 버킷을 만든다. (많은 키로 요청해도 메모리가 늘지 않고, 새 키도 제한한다.)
+ * 지운 버킷의 키는 다시 가득 찬 버킷으로 시작하므로, evictedCount로 센다.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+    //접근한 순서로 보관한다. (가장 오래 쓰지 않은 버킷이 처음)
+    private final LinkedHashMap<String, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    private final LongAdder evictedCount = new LongAdder();
+
+    public InMemoryRateLimitStore(int maxKeys) {
+        this(maxKeys, System::currentTimeMillis);
+    }
+
+    InMemoryRateLimitStore(int maxKeys, LongSupplier clock) {
+        this.maxKeys = Math.max(1, maxKeys);
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int capacity, long refillIntervalMillis) {
+        long now = clock.getAsLong();
+
+        synchronized (buckets) {
+            TokenBucket bucket = buckets.get(key);
+
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys) {
+                    evictLeastRecentlyUsed();
+                }
+                bucket = new TokenBucket(capacity, refillIntervalMillis, now);
+                buckets.put(key, bucket);
+            }
+            return bucket.tryAcquire(now);
+        }
+    }
+
+    /**
+     * 다시 가득 찬 버킷을 지운다.
+     * @return 지운 버킷 수
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval:60000}", initialDelayString = "${rate-limit.sweep-interval:60000}")
+    public int evict() {
+        long now = clock.getAsLong();
+
+        synchronized (buckets) {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            return before - buckets.size();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<TokenBucket> iterator = buckets.values().iterator();
+        iterator.next();
+        iterator.remove();
+        evictedCount.increment();
+    }
+
+    public int size() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    /**
+     * 버킷이 가득 차서 가장 오래 쓰지 않은 버킷을 지운 수
+     */
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    @Override
+    public RateLimitMetricsDto snapshot() {
+        return RateLimitMetricsDto.builder()
+                .keys(size())
+                .maxKeys(maxKeys)
+                .evictedCount(evictedCount.sum())
+                .build();
+    }
+
+    /**
+     * buckets를 잠근 채로만 사용하므로, 따로 잠그지 않는다.
+     */
+    private static class TokenBucket {
+        private final int capacity;
+        private final long refillIntervalMillis;
+
+        private long tokens;
+        //마지막으로 토큰이 찬 시간
+        private long refilledAt;
+
+        private TokenBucket(int capacity, long refillIntervalMillis, long now) {
+            this.capacity = capacity;
+            this.refillIntervalMillis = Math.max(1, refillIntervalMillis);
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        private boolean tryAcquire(long now) {
+            refill(now);
+
+            if (tokens == 0) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        private boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (tokens >= capacity) {
+                refilledAt = now;
+                return;
+            }
+
+            long refills = (now - refilledAt) / refillIntervalMillis;
+            if (refills > 0) {
+                tokens = Math.min(capacity, tokens + refills);
+                //남은 시간은 다음 토큰에 이어서 센다.
+                refilledAt += refills * refillIntervalMillis;
+            }
+        }
+    }
+}
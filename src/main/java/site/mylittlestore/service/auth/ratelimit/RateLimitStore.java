@@ -0,0 +1,18 @@
+package site.mylittlestore.service.auth.ratelimit;
+
+import site.mylittlestore.dto.auth.RateLimitMetricsDto;
+
+/**
+ * 키마다 토큰 버킷을 보관한다.
+ * 서버가 여러 대가 되면, 같은 인터페이스로 공유 저장소(ex. Redis)를 구현해서 빈을 바꾼다.
+ */
+public interface RateLimitStore {
+    /**
+     * key의 버킷에서 토큰 하나를 꺼낸다.
+     * 버킷은 capacity개로 시작하고, refillIntervalMillis마다 하나씩 capacity개까지 다시 찬다.
+     * @return 꺼냈으면 true, 토큰이 없으면 false
+     */
+    boolean tryAcquire(String key, int capacity, long refillIntervalMillis);
+
+    RateLimitMetricsDto snapshot();
+}
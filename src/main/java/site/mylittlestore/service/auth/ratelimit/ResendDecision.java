@@ -0,0 +1,10 @@
+package site.mylittlestore.service.auth.ratelimit;
+
+public enum ResendDecision {
+    //새로 보낸다.
+    SEND,
+    //coalesce-window 안에 이미 보냈으므로, 보낸 이메일을 확인하게 한다.
+    COALESCED,
+    //재발송 요청이 너무 많다.
+    RATE_LIMITED
+}
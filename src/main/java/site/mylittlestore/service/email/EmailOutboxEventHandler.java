@@ -0,0 +1,40 @@
+package site.mylittlestore.service.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.enumstorage.OutboxEventType;
+import site.mylittlestore.enumstorage.errormessage.OutboxErrorMessage;
+import site.mylittlestore.exception.outbox.OutboxException;
+import site.mylittlestore.service.outbox.OutboxEventHandler;
+import site.mylittlestore.util.email.Email;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * outbox에 저장된 이메일을 EmailService의 대기열에 넣는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxEventHandler implements OutboxEventHandler {
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxEventType getEventType() {
+        return OutboxEventType.EMAIL;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(String payload) {
+        Email email;
+        try {
+            email = objectMapper.readValue(payload, Email.class);
+        } catch (JsonProcessingException e) {
+            throw new OutboxException(OutboxErrorMessage.PAYLOAD_DESERIALIZATION_FAILED.getMessage(), e);
+        }
+
+        return emailService.send(email);
+    }
+}
@@ -1,32 +1,270 @@
 package site.mylittlestore.service.email;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.dto.email.EmailMetricsDto;
+import site.mylittlestore.enumstorage.errormessage.EmailSendErrorMessage;
+import site.mylittlestore.exception.email.EmailSendException;
 import site.mylittlestore.util.email.Email;
 
+import javax.annotation.PreDestroy;
 import javax.mail.MessagingException;
+import javax.mail.Transport;
 import javax.mail.internet.MimeMessage;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
-@Transactional(readOnly = true)
+/**
+ * 이메일 발송
+ * 요청 트랜잭션에서는 직접 호출하지 않고, OutboxService.appendEmail로 outbox에 저장하면 OutboxDispatcher가 호출한다.
+ *
+ * pool-size개의 발송 스레드가 queue-capacity개까지 쌓이는 대기열에서 꺼내서 보내고, 대기열이 가득 차면 받지 않는다.
+ * 발송 스레드는 SMTP 연결을 끊지 않고 다시 사용한다.
+ * 같은 수신자에게 같은 제목의 이메일이 아직 대기열에 있으면, 새 이메일로 바꿔서 한 번만 보낸다. (재발송할 때마다 인증 코드가 바뀌므로, 마지막 이메일만 유효하다.)
+ * dedup-window 안에 똑같은 이메일을 이미 보냈으면 다시 보내지 않는다. (outbox에서 다시 처리하는 경우)
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class EmailService {
-    private final JavaMailSender javaMailSender;
+    private final JavaMailSenderImpl javaMailSender;
+    private final SmtpTransportPool smtpTransportPool;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long dedupWindowNanos;
 
-    @Transactional
-    @Async
+    //수신자, 제목 -> 아직 보내지 않은 이메일
+    private final Map<String, PendingEmail> pendingEmails = new ConcurrentHashMap<>();
+
+    //수신자, 제목 -> 최근에 보낸 이메일
+    private final Map<String, SentEmail> sentEmails = new ConcurrentHashMap<>();
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder duplicateCount = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder dequeuedCount = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private final LongAccumulator maxSendNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder smtpSendCount = new LongAdder();
+
+    public EmailService(JavaMailSenderImpl javaMailSender,
+                        @Value("${email.sender.pool-size:4}") int poolSize,
+                        @Value("${email.sender.queue-capacity:500}") int queueCapacity,
+                        @Value("${email.sender.idle-timeout:60000}") long idleTimeoutMillis,
+                        @Value("${email.sender.dedup-window:60000}") long dedupWindowMillis) {
+        this.javaMailSender = javaMailSender;
+        this.smtpTransportPool = new SmtpTransportPool(javaMailSender, idleTimeoutMillis);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("email-sender-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueCapacity = queueCapacity;
+        this.dedupWindowNanos = dedupWindowMillis * 1_000_000L;
+    }
+
+    /**
+     * 대기열에 넣고 바로 돌아온다.
+     * @return 보내면 완료되고, 대기열이 가득 찼거나 보내지 못하면 예외로 완료된다.
+     */
+    public CompletableFuture<Void> send(Email email) {
+        submittedCount.increment();
+        String key = keyOf(email);
+
+        if (isDuplicate(key, email)) {
+            duplicateCount.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        PendingEmail[] created = new PendingEmail[1];
+        PendingEmail pendingEmail = pendingEmails.compute(key, (k, existing) -> {
+            //아직 보내지 않았으면, 새 이메일로 바꾼다.
+            if (existing != null) {
+                existing.email = email;
+                return existing;
+            }
+            created[0] = new PendingEmail(key, email);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            coalescedCount.increment();
+            return pendingEmail.future;
+        }
+
+        try {
+            executor.execute(() -> sendPending(pendingEmail));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            pendingEmails.remove(key, pendingEmail);
+            pendingEmail.future.completeExceptionally(new EmailSendException(executor.isShutdown()
+                    ? EmailSendErrorMessage.EMAIL_SENDER_SHUT_DOWN.getMessage()
+                    : EmailSendErrorMessage.EMAIL_QUEUE_FULL.getMessage()));
+        }
+        return pendingEmail.future;
+    }
+
+    private void sendPending(PendingEmail pendingEmail) {
+        //이제부터 들어오는 이메일은 새로 대기열에 넣는다.
+        pendingEmails.remove(pendingEmail.key, pendingEmail);
+        Email email = pendingEmail.email;
+
+        long waitedNanos = System.nanoTime() - pendingEmail.submittedAt;
+        queueNanos.add(waitedNanos);
+        maxQueueNanos.accumulate(waitedNanos);
+        dequeuedCount.increment();
+
+        try {
+            //대기하는 사이에 똑같은 이메일을 보냈을 수 있다.
+            if (isDuplicate(pendingEmail.key, email)) {
+                duplicateCount.increment();
+            } else {
+                sendMail(email);
+                sentEmails.put(pendingEmail.key, new SentEmail(email.getMessage(), System.nanoTime()));
+            }
+            pendingEmail.future.complete(null);
+        } catch (Exception e) {
+            failedCount.increment();
+            log.warn("이메일 발송 실패 receiver={}", email.getReceiver(), e);
+            pendingEmail.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 바로 보낸다. (호출한 스레드에서 SMTP 발송이 끝날 때까지 기다린다.)
+     */
     public String sendMail(Email email) throws MessagingException {
         MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
         mimeMessageHelper.setTo(email.getReceiver());
         mimeMessageHelper.setSubject(email.getSubject());
         mimeMessageHelper.setText(email.getMessage(), true);
-        javaMailSender.send(mimeMessage);
+        mimeMessage.setSentDate(new Date());
+        mimeMessage.saveChanges();
+
+        long startedAt = System.nanoTime();
+        Transport transport = smtpTransportPool.borrow();
+        boolean sent = false;
+        try {
+            transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+            sent = true;
+        } finally {
+            if (sent) {
+                smtpTransportPool.release(transport);
+            } else {
+                smtpTransportPool.invalidate(transport);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        sendNanos.add(elapsedNanos);
+        maxSendNanos.accumulate(elapsedNanos);
+        smtpSendCount.increment();
+        sentCount.increment();
 
         return "success";
     }
+
+    private boolean isDuplicate(String key, Email email) {
+        SentEmail sentEmail = sentEmails.get(key);
+        return sentEmail != null
+                && System.nanoTime() - sentEmail.sentAt < dedupWindowNanos
+                && sentEmail.message.equals(email.getMessage());
+    }
+
+    /**
+     * 오래 쓰지 않은 SMTP 연결을 닫고, dedup-window가 지난 발송 기록을 지운다.
+     */
+    @Scheduled(fixedDelayString = "${email.sender.evict-interval:30000}", initialDelayString = "${email.sender.evict-interval:30000}")
+    public void evict() {
+        smtpTransportPool.evictIdle();
+
+        long now = System.nanoTime();
+        sentEmails.values().removeIf(sentEmail -> now - sentEmail.sentAt >= dedupWindowNanos);
+    }
+
+    public EmailMetricsDto snapshot() {
+        long dequeued = dequeuedCount.sum();
+        long smtpSent = smtpSendCount.sum();
+
+        return EmailMetricsDto.builder()
+                .poolSize(executor.getCorePoolSize())
+                .activeCount(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .submittedCount(submittedCount.sum())
+                .sentCount(sentCount.sum())
+                .failedCount(failedCount.sum())
+                .rejectedCount(rejectedCount.sum())
+                .coalescedCount(coalescedCount.sum())
+                .duplicateCount(duplicateCount.sum())
+                .connectedCount(smtpTransportPool.getConnectedCount())
+                .idleTransportCount(smtpTransportPool.countIdle())
+                .meanQueueMillis(dequeued == 0 ? 0 : toMillis(queueNanos.sum()) / dequeued)
+                .maxQueueMillis(toMillis(maxQueueNanos.get()))
+                .meanSendMillis(smtpSent == 0 ? 0 : toMillis(sendNanos.sum()) / smtpSent)
+                .maxSendMillis(toMillis(maxSendNanos.get()))
+                .build();
+    }
+
+    /**
+     * 대기열에 남은 이메일을 보낼 때까지 잠시 기다린다.
+     * 보내지 못한 이메일은 outbox에 남아있으므로, 다시 시작한 후에 보낸다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        smtpTransportPool.close();
+    }
+
+    private static String keyOf(Email email) {
+        return email.getReceiver() + "\n" + email.getSubject();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class PendingEmail {
+        private final String key;
+        private final long submittedAt = System.nanoTime();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        //보내기 전에는 같은 수신자, 같은 제목의 새 이메일로 바뀔 수 있다.
+        private volatile Email email;
+
+        private PendingEmail(String key, Email email) {
+            this.key = key;
+            this.email = email;
+        }
+    }
+
+    private static class SentEmail {
+        private final String message;
+        private final long sentAt;
+
+        private SentEmail(String message, long sentAt) {
+            this.message = message;
+            this.sentAt = sentAt;
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package site.mylittlestore.service.email;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 연결된 SMTP Transport를 다시 사용한다.
+ * JavaMailSenderImpl.send는 보낼 때마다 연결하고 (TLS, 인증 포함) 끊으므로, 이메일마다 연결 비용이 든다.
+ *
+ * 발송 스레드가 하나씩 빌려가므로, 열린 연결 수는 발송 스레드 수를 넘지 않는다.
+ * idle-timeout 동안 사용하지 않은 연결은 닫는다. (SMTP 서버가 먼저 끊기 전에)
+ */
+class SmtpTransportPool implements AutoCloseable {
+    private static final String DEFAULT_PROTOCOL = "smtp";
+
+    private final JavaMailSenderImpl javaMailSender;
+    private final long idleTimeoutNanos;
+
+    //최근에 반납한 연결이 앞에 있다. 앞에서 빌려가므로, 덜 쓰는 연결은 뒤에 남았다가 닫힌다.
+    private final Deque<IdleTransport> idleTransports = new ArrayDeque<>();
+    private boolean closed;
+
+    private final LongAdder connectedCount = new LongAdder();
+
+    SmtpTransportPool(JavaMailSenderImpl javaMailSender, long idleTimeoutMillis) {
+        this.javaMailSender = javaMailSender;
+        this.idleTimeoutNanos = idleTimeoutMillis * 1_000_000L;
+    }
+
+    Transport borrow() throws MessagingException {
+        long now = System.nanoTime();
+
+        while (true) {
+            IdleTransport idleTransport;
+            synchronized (this) {
+                idleTransport = idleTransports.pollFirst();
+            }
+            if (idleTransport == null) {
+                break;
+            }
+
+            //서버가 끊었을 수 있는 연결은 버린다.
+            if (now - idleTransport.releasedAt < idleTimeoutNanos && idleTransport.transport.isConnected()) {
+                return idleTransport.transport;
+            }
+            closeQuietly(idleTransport.transport);
+        }
+
+        return connect();
+    }
+
+    void release(Transport transport) {
+        synchronized (this) {
+            if (!closed) {
+                idleTransports.addFirst(new IdleTransport(transport, System.nanoTime()));
+                return;
+            }
+        }
+        closeQuietly(transport);
+    }
+
+    /**
+     * 발송에 실패한 연결은 상태를 알 수 없으므로, 반납하지 않고 닫는다.
+     */
+    void invalidate(Transport transport) {
+        closeQuietly(transport);
+    }
+
+    /**
+     * idle-timeout 동안 사용하지 않은 연결을 닫는다.
+     * @return 닫은 연결 수
+     */
+    int evictIdle() {
+        long now = System.nanoTime();
+        Deque<Transport> expiredTransports = new ArrayDeque<>();
+
+        synchronized (this) {
+            Iterator<IdleTransport> iterator = idleTransports.descendingIterator();
+            while (iterator.hasNext()) {
+                IdleTransport idleTransport = iterator.next();
+                if (now - idleTransport.releasedAt < idleTimeoutNanos) {
+                    break;
+                }
+                iterator.remove();
+                expiredTransports.add(idleTransport.transport);
+            }
+        }
+
+        //닫을 때 QUIT을 보내므로, 잠금 밖에서 닫는다.
+        expiredTransports.forEach(SmtpTransportPool::closeQuietly);
+        return expiredTransports.size();
+    }
+
+    synchronized int countIdle() {
+        return idleTransports.size();
+    }
+
+    long getConnectedCount() {
+        return connectedCount.sum();
+    }
+
+    @Override
+    public void close() {
+        Deque<IdleTransport> transports;
+        synchronized (this) {
+            closed = true;
+            transports = new ArrayDeque<>(idleTransports);
+            idleTransports.clear();
+        }
+        transports.forEach(idleTransport -> closeQuietly(idleTransport.transport));
+    }
+
+    /**
+     * JavaMailSenderImpl.connectTransport와 같은 설정으로 연결한다.
+     */
+    private Transport connect() throws MessagingException {
+        String protocol = javaMailSender.getProtocol() != null ? javaMailSender.getProtocol() : DEFAULT_PROTOCOL;
+        String username = emptyToNull(javaMailSender.getUsername());
+        String password = username != null ? emptyToNull(javaMailSender.getPassword()) : null;
+
+        Transport transport = javaMailSender.getSession().getTransport(protocol);
+        transport.connect(javaMailSender.getHost(), javaMailSender.getPort(), username, password);
+        connectedCount.increment();
+        return transport;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            //이미 끊긴 연결
+        }
+    }
+
+    private static class IdleTransport {
+        private final Transport transport;
+        private final long releasedAt;
+
+        private IdleTransport(Transport transport, long releasedAt) {
+            this.transport = transport;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package site.mylittlestore.service.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import site.mylittlestore.domain.Item;
+import site.mylittlestore.dto.item.ItemFindDto;
+import site.mylittlestore.dto.item.MenuCacheMetricsDto;
+import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.util.TransactionCallbacks;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 가게 Id -> 판매 중인 상품 목록 캐시
+ * 메뉴는 거의 바뀌지 않지만, 메뉴/주문 페이지마다 조회된다.
+ *
+ * 상품 정보(이름, 가격, 이미지)와 재고를 따로 들고 있어서,
+ * 주문으로 재고만 바뀌면 해당 상품의 재고만 다시 조회한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuCache {
+    private final ItemRepository itemRepository;
+    private final StockLedger stockLedger;
+
+    private final Map<Long, StoreMenu> menus = new ConcurrentHashMap<>();
+
+    //가게 Id -> 메뉴가 바뀐 횟수
+    //조회하는 동안 메뉴가 바뀌었으면, 조회한 메뉴를 캐시하지 않는다.
+    private final Map<Long, AtomicLong> menuVersions = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder stockReloadCount = new LongAdder();
+
+    public List<ItemFindDto> findAllByStoreId(Long storeId) {
+        StoreMenu menu = menus.get(storeId);
+
+        if (menu != null) {
+            hitCount.increment();
+            return menu.toItemFindDtos();
+        }
+
+        //없으면, DB에서 조회해서 캐시
+        missCount.increment();
+
+        AtomicLong menuVersion = menuVersion(storeId);
+        long version = menuVersion.get();
+
+        StoreMenu loadedMenu = new StoreMenu(itemRepository.findAllByStoreId(storeId));
+
+        menus.compute(storeId, (id, currentMenu) -> {
+            if (currentMenu != null) {
+                return currentMenu;
+            }
+            return menuVersion.get() == version ? loadedMenu : null;
+        });
+
+        return loadedMenu.toItemFindDtos();
+    }
+
+    /**
+     * 상품이 추가/수정/삭제되면 가게의 메뉴를 비운다.
+     * 트랜잭션 안에서 호출되면, 커밋된 후에 비운다.
+     * @param storeId
+     */
+    public void evict(Long storeId) {
+        TransactionCallbacks.afterCommit(() -> {
+            menuVersion(storeId).incrementAndGet();
+            menus.remove(storeId);
+        });
+    }
+
+    /**
+     * 주문으로 상품의 재고가 바뀌면, 해당 상품의 재고만 비운다.
+     * 다음 조회 때 비워진 재고만 다시 조회한다.
+     * 트랜잭션 안에서 호출되면, 커밋된 후에 비운다.
+     * @param storeId
+     * @param itemId
+     */
+    public void evictStock(Long storeId, Long itemId) {
+        TransactionCallbacks.afterCommit(() -> {
+            //조회 중인 메뉴는 이전 재고를 읽었을 수 있으므로 캐시하지 않는다.
+            menuVersion(storeId).incrementAndGet();
+
+            StoreMenu menu = menus.get(storeId);
+            if (menu != null) {
+                menu.evictStock(itemId);
+            }
+        });
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getStockReloadCount() {
+        return stockReloadCount.sum();
+    }
+
+    public int size() {
+        return menus.size();
+    }
+
+    /**
+     * 테스트용
+     * sql/test.sql로 가게 Id가 다시 1부터 시작하므로, 테스트가 끝나면 모든 메뉴를 비운다.
+     */
+    public void clear() {
+        //조회 중인 메뉴도 캐시하지 않는다.
+        menuVersions.values().forEach(AtomicLong::incrementAndGet);
+        menus.clear();
+    }
+
+    /**
+     * /admin/menu-cache-metrics에서 조회한다.
+     */
+    public MenuCacheMetricsDto snapshot() {
+        return MenuCacheMetricsDto.builder()
+                .stores(menus.size())
+                .hitCount(hitCount.sum())
+                .missCount(missCount.sum())
+                .stockReloadCount(stockReloadCount.sum())
+                .build();
+    }
+
+    private AtomicLong menuVersion(Long storeId) {
+        return menuVersions.computeIfAbsent(storeId, id -> new AtomicLong());
+    }
+
+    /**
+     * 가게 하나의 메뉴
+     * 상품 정보는 바뀌지 않는 스냅샷이고, 재고만 따로 갱신한다.
+     */
+    private class StoreMenu {
+        //재고를 뺀 상품 정보
+        private final List<ItemFindDto> items;
+
+        //상품 Id -> 재고, 비워진 재고는 다음 조회 때 다시 조회한다.
+        private final Map<Long, Long> stocks = new HashMap<>();
+
+        //재고가 비워진 횟수
+        private long stockVersion = 0;
+
+        private StoreMenu(List<Item> items) {
+            List<ItemFindDto> itemFindDtos = new ArrayList<>(items.size());
+            for (Item item : items) {
+                itemFindDtos.add(item.toItemFindDto());
+                stocks.put(item.getId(), item.getStock());
+            }
+            this.items = Collections.unmodifiableList(itemFindDtos);
+        }
+
+        private synchronized void evictStock(Long itemId) {
+            if (stocks.remove(itemId) != null) {
+                stockVersion++;
+            }
+        }
+
+        private List<ItemFindDto> toItemFindDtos() {
+            Map<Long, Long> currentStocks = currentStocks();
+
+            List<ItemFindDto> itemFindDtos = new ArrayList<>(items.size());
+            for (ItemFindDto item : items) {
+                itemFindDtos.add(ItemFindDto.builder()
+                        .id(item.getId())
+                        .storeId(item.getStoreId())
+                        .name(item.getName())
+                        .price(item.getPrice())
+                        //재고 장부에 있는 상품이면, DB에 아직 반영되지 않은 재고까지 보여준다.
+                        .stock(stockLedger.findStock(item.getId()).orElse(currentStocks.get(item.getId())))
+                        .image(item.getImage())
+                        .build());
+            }
+            return itemFindDtos;
+        }
+
+        /**
+         * 비워진 재고가 있으면 그 상품들의 재고만 다시 조회한다.
+         */
+        private Map<Long, Long> currentStocks() {
+            List<Long> evictedItemIds = new ArrayList<>();
+            Map<Long, Long> currentStocks;
+            long version;
+
+            synchronized (this) {
+                currentStocks = new HashMap<>(stocks);
+                version = stockVersion;
+                for (ItemFindDto item : items) {
+                    if (!currentStocks.containsKey(item.getId())) {
+                        evictedItemIds.add(item.getId());
+                    }
+                }
+            }
+
+            if (evictedItemIds.isEmpty()) {
+                return currentStocks;
+            }
+
+            stockReloadCount.increment();
+            Map<Long, Long> reloadedStocks = itemRepository.findAllStockByIdIn(evictedItemIds);
+            currentStocks.putAll(reloadedStocks);
+
+            //다시 조회하는 동안 재고가 또 바뀌지 않았을 때만 캐시
+            synchronized (this) {
+                if (stockVersion == version) {
+                    stocks.putAll(reloadedStocks);
+                }
+            }
+
+            return currentStocks;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package site.mylittlestore.service.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.util.TransactionCallbacks;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메모리 재고 장부
+ * 주문이 몰리는 가게는 주문마다 Item 행을 UPDATE하면 같은 행에서 줄을 서게 된다.
+ * 장부를 켠 가게는 상품별 재고를 메모리의 원자적 카운터로 차감/복구하고,
+ * 바뀐 양(delta)만 모아서 주기적으로, 그리고 종료할 때 DB에 반영한다.
+ *
+ * 장부를 켤 가게는 stock.ledger.store-ids로 정하고, 실행 중에도 enable/disable로 바꿀 수 있다.
+ *
+ * 장부에서 상품을 빼거나 바꿀 때는 flush와 같은 모니터 안에서 남은 delta를 먼저 DB에 반영한다.
+ * 빠진 상품의 재고를 차감/복구하던 요청은 다시 장부에서 상품을 찾아서 처리한다.
+ */
+@Slf4j
+@Component
+public class StockLedger {
+    private static final String FLUSH_SQL = "update item set stock = stock + ? where item_id = ?";
+
+    //장부에서 빠진 재고
+    private static final long DETACHED = Long.MIN_VALUE;
+
+    //가게에 판매 중인 상품이 없을 때 itemStock이 돌려준다. (장부에 넣지 않는다.)
+    private static final ItemStock NO_SUCH_ITEM = new ItemStock(null, null, 0);
+
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    //delta는 호출한 트랜잭션과 상관없이 바로 커밋한다.
+    private final TransactionTemplate flushTransactionTemplate;
+
+    //장부를 켠 가게 Id
+    private final Set<Long> enabledStoreIds = ConcurrentHashMap.newKeySet();
+
+    //상품 Id -> 재고
+    private final Map<Long, ItemStock> itemStocks = new ConcurrentHashMap<>();
+
+    //장부에서 뺄 때 반영하지 못한 delta (상품 Id -> delta), 다음 flush 때 다시 반영한다.
+    //모니터 안에서만 읽고 쓴다.
+    private final Map<Long, Long> detachedDeltas = new HashMap<>();
+
+    public StockLedger(ItemRepository itemRepository,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${stock.ledger.store-ids:}") String storeIds) {
+        this.itemRepository = itemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (String storeId : storeIds.split(",")) {
+            if (!storeId.isBlank()) {
+                enabledStoreIds.add(Long.parseLong(storeId.trim()));
+            }
+        }
+    }
+
+    public boolean isEnabled(Long storeId) {
+        return enabledStoreIds.contains(storeId);
+    }
+
+    /**
+     * 가게의 장부를 켠다. 재고는 DB에서 다시 읽는다.
+     * @param storeId
+     */
+    public void enable(Long storeId) {
+        if (enabledStoreIds.add(storeId)) {
+            reconcile(storeId);
+        }
+    }
+
+    /**
+     * 가게의 장부를 끈다. 남은 delta는 DB에 반영하고 장부에서 뺀다.
+     * @param storeId
+     */
+    public void disable(Long storeId) {
+        if (!enabledStoreIds.remove(storeId)) {
+            return;
+        }
+
+        detachStore(storeId);
+    }
+
+    /**
+     * 재고가 충분하면 재고를 줄인다.
+     * 트랜잭션 안에서 호출되면, 롤백될 때 줄인 재고를 되돌린다.
+     * 그 사이에 장부가 꺼졌으면, 호출한 트랜잭션에서 DB의 재고를 줄인다.
+     * @return 재고가 부족하거나 가게에 판매 중인 상품이 없으면 false
+     */
+    public boolean reserve(Long storeId, Long itemId, long count) {
+        while (true) {
+            ItemStock itemStock = itemStock(storeId, itemId);
+            if (itemStock == null) {
+                return itemRepository.decreaseStock(storeId, itemId, count) > 0;
+            }
+            if (itemStock == NO_SUCH_ITEM) {
+                return false;
+            }
+
+            Reservation reservation = itemStock.reserve(count);
+            if (reservation == Reservation.NOT_ENOUGH_STOCK) {
+                return false;
+            }
+            if (reservation == Reservation.RESERVED) {
+                TransactionCallbacks.afterRollback(() -> add(storeId, itemId, count));
+                return true;
+            }
+
+            //장부에서 빠지는 중이면, delta가 반영되고 장부에서 빠진 후에 다시 찾는다.
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 재고를 늘린다.
+     * 트랜잭션 안에서 호출되면, 롤백될 때 늘린 재고를 되돌린다.
+     * 그 사이에 장부가 꺼졌거나 판매 중이 아닌 상품이면, 호출한 트랜잭션에서 DB의 재고를 늘린다.
+     */
+    public void release(Long storeId, Long itemId, long count) {
+        while (true) {
+            ItemStock itemStock = itemStock(storeId, itemId);
+            if (itemStock == null || itemStock == NO_SUCH_ITEM) {
+                itemRepository.increaseStock(storeId, itemId, count);
+                return;
+            }
+
+            if (itemStock.add(count)) {
+                TransactionCallbacks.afterRollback(() -> add(storeId, itemId, -count));
+                return;
+            }
+
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 장부에 있는 상품이면 메모리의 재고
+     */
+    public Optional<Long> findStock(Long itemId) {
+        ItemStock itemStock = itemStocks.get(itemId);
+        if (itemStock == null) {
+            return Optional.empty();
+        }
+
+        long available = itemStock.available.get();
+        return available == DETACHED ? Optional.empty() : Optional.of(available);
+    }
+
+    /**
+     * 상품 수정/삭제로 DB의 재고를 직접 바꾸기 전에 호출한다.
+     * 남은 delta를 먼저 DB에 반영하고 장부에서 빼므로, 바꾼 재고 위에 이전 delta가 더해지지 않는다.
+     * 커밋되기 전에 다시 읽은 재고는 커밋된 후에 한 번 더 뺀다. 다음 주문 때 DB에서 다시 읽는다.
+     * @param itemId
+     */
+    public void evict(Long itemId) {
+        detachItem(itemId);
+        //트랜잭션 밖이면 이미 빠졌으므로, 바로 한 번 더 불러도 아무것도 하지 않는다.
+        TransactionCallbacks.afterCommit(() -> detachItem(itemId));
+    }
+
+    /**
+     * 쌓인 delta를 한 번의 JDBC batch로 DB에 반영한다.
+     * 실패하면 다음 flush 때 다시 반영한다.
+     */
+    @Scheduled(fixedDelayString = "${stock.ledger.flush-interval:1000}")
+    public synchronized void flush() {
+        List<ItemStock> flushedItemStocks = new ArrayList<>();
+        List<Long> flushedAvailables = new ArrayList<>();
+        List<Object[]> deltas = new ArrayList<>();
+
+        for (ItemStock itemStock : itemStocks.values()) {
+            long available = itemStock.available.get();
+            if (available == DETACHED || available == itemStock.flushedAvailable) {
+                continue;
+            }
+
+            flushedItemStocks.add(itemStock);
+            flushedAvailables.add(available);
+            deltas.add(new Object[]{available - itemStock.flushedAvailable, itemStock.itemId});
+        }
+
+        if (!write(deltas)) {
+            return;
+        }
+
+        for (int i = 0; i < flushedItemStocks.size(); i++) {
+            flushedItemStocks.get(i).flushedAvailable = flushedAvailables.get(i);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 시작할 때, 장부를 켠 가게의 재고를 DB에서 읽는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        for (Long storeId : enabledStoreIds) {
+            reconcile(storeId);
+        }
+    }
+
+    public int size() {
+        return itemStocks.size();
+    }
+
+    /**
+     * 가게의 재고를 DB의 Item.stock으로 맞춘다.
+     * 장부에 있던 상품은 남은 delta를 반영하고 뺀 뒤에 DB에서 다시 읽는다.
+     */
+    private synchronized void reconcile(Long storeId) {
+        detachStore(storeId);
+
+        itemRepository.findAllStockByStoreId(storeId)
+                .forEach((itemId, stock) -> itemStocks.putIfAbsent(itemId, new ItemStock(storeId, itemId, stock)));
+    }
+
+    /**
+     * 장부에서 상품을 찾고, 없으면 DB에서 읽어서 넣는다.
+     * @return 장부가 꺼진 가게면 null, 가게에 판매 중인 상품이 없으면 NO_SUCH_ITEM
+     */
+    private ItemStock itemStock(Long storeId, Long itemId) {
+        ItemStock itemStock = itemStocks.get(itemId);
+        if (itemStock != null) {
+            return itemStock.storeId.equals(storeId) ? itemStock : NO_SUCH_ITEM;
+        }
+
+        if (!isEnabled(storeId)) {
+            return null;
+        }
+
+        return loadItemStock(storeId, itemId);
+    }
+
+    /**
+     * DB에서 재고를 읽어서 장부에 넣는다.
+     * Map의 잠금을 잡은 채로 DB를 읽지 않도록 computeIfAbsent를 쓰지 않고, flush와 같은 모니터 안에서 읽고 넣는다.
+     * 그동안 delta가 반영되지 않으므로, 읽은 재고에는 이전 delta가 모두 들어있다.
+     */
+    private synchronized ItemStock loadItemStock(Long storeId, Long itemId) {
+        ItemStock itemStock = itemStocks.get(itemId);
+
+        if (itemStock == null) {
+            Optional<Long> stock = itemRepository.findStockByIdAndStoreId(itemId, storeId);
+            if (stock.isEmpty()) {
+                return NO_SUCH_ITEM;
+            }
+
+            ItemStock loadedItemStock = new ItemStock(storeId, itemId, stock.get());
+            itemStock = Optional.ofNullable(itemStocks.putIfAbsent(itemId, loadedItemStock)).orElse(loadedItemStock);
+        }
+
+        if (!itemStock.storeId.equals(storeId)) {
+            return NO_SUCH_ITEM;
+        }
+
+        //읽는 사이에 장부가 꺼졌으면 다시 뺀다.
+        if (!isEnabled(storeId)) {
+            detachItem(itemId);
+            return null;
+        }
+        return itemStock;
+    }
+
+    /**
+     * 롤백된 차감/복구를 되돌린다.
+     * 그 사이에 상품이 장부에서 빠졌으면 다시 읽은 재고에, 장부가 꺼졌거나 판매 중이 아니게 되었으면 DB에 반영한다.
+     */
+    private void add(Long storeId, Long itemId, long delta) {
+        while (true) {
+            ItemStock itemStock = itemStock(storeId, itemId);
+            if (itemStock == null || itemStock == NO_SUCH_ITEM) {
+                addDetachedDelta(itemId, delta);
+                return;
+            }
+
+            if (itemStock.add(delta)) {
+                return;
+            }
+
+            Thread.onSpinWait();
+        }
+    }
+
+    private synchronized void addDetachedDelta(Long itemId, long delta) {
+        detachedDeltas.merge(itemId, delta, Long::sum);
+        write(List.of());
+    }
+
+    private synchronized void detachItem(Long itemId) {
+        ItemStock itemStock = itemStocks.get(itemId);
+        if (itemStock != null) {
+            detach(List.of(itemStock));
+        }
+    }
+
+    private synchronized void detachStore(Long storeId) {
+        List<ItemStock> storeItemStocks = new ArrayList<>();
+        for (ItemStock itemStock : itemStocks.values()) {
+            if (itemStock.storeId.equals(storeId)) {
+                storeItemStocks.add(itemStock);
+            }
+        }
+
+        detach(storeItemStocks);
+    }
+
+    /**
+     * 더 이상 차감/복구되지 않도록 막고, 남은 delta를 반영한 뒤에 장부에서 뺀다.
+     * 그동안 이 상품을 차감/복구하려는 요청은 장부에서 빠지기를 기다렸다가 DB에서 다시 읽는다.
+     */
+    private synchronized void detach(Collection<ItemStock> targetItemStocks) {
+        List<ItemStock> detachedItemStocks = new ArrayList<>();
+        List<Object[]> deltas = new ArrayList<>();
+
+        for (ItemStock itemStock : targetItemStocks) {
+            long available = itemStock.available.getAndSet(DETACHED);
+            if (available == DETACHED) {
+                continue;
+            }
+
+            detachedItemStocks.add(itemStock);
+            if (available != itemStock.flushedAvailable) {
+                deltas.add(new Object[]{available - itemStock.flushedAvailable, itemStock.itemId});
+            }
+        }
+
+        if (!write(deltas)) {
+            //빠진 상품의 delta는 되돌릴 곳이 없으므로, 따로 두고 다음 flush 때 반영한다.
+            for (Object[] delta : deltas) {
+                detachedDeltas.merge((Long) delta[1], (Long) delta[0], Long::sum);
+            }
+        }
+
+        for (ItemStock itemStock : detachedItemStocks) {
+            itemStocks.remove(itemStock.itemId, itemStock);
+        }
+    }
+
+    /**
+     * delta와 이전에 반영하지 못한 빠진 상품의 delta를 함께 반영한다.
+     * @return 실패하면 false
+     */
+    private synchronized boolean write(List<Object[]> deltas) {
+        if (deltas.isEmpty() && detachedDeltas.isEmpty()) {
+            return true;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas);
+        detachedDeltas.forEach((itemId, delta) -> batchArgs.add(new Object[]{delta, itemId}));
+
+        try {
+            flushTransactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs));
+        } catch (RuntimeException e) {
+            log.error("재고 장부 flush 실패, 상품 {}개", batchArgs.size(), e);
+            return false;
+        }
+
+        detachedDeltas.clear();
+        return true;
+    }
+
+    private enum Reservation {
+        RESERVED, NOT_ENOUGH_STOCK, DETACHED
+    }
+
+    /**
+     * 상품 하나의 재고
+     * 락 없이 원자적 카운터 하나로만 차감/복구한다.
+     * DB에 반영할 delta는 따로 세지 않고, 마지막으로 반영한 재고와의 차이로 구한다.
+     * (delta를 따로 세면, 카운터를 바꾼 뒤 delta를 더하기 전에 장부에서 빠져서 delta를 잃을 수 있다.)
+     */
+    private static class ItemStock {
+        private final Long storeId;
+
+        private final Long itemId;
+
+        //주문 가능한 재고, 장부에서 빠지면 DETACHED
+        private final AtomicLong available;
+
+        //마지막으로 DB에 반영했을 때의 available (모니터 안에서만 읽고 쓴다.)
+        private long flushedAvailable;
+
+        private ItemStock(Long storeId, Long itemId, long stock) {
+            this.storeId = storeId;
+            this.itemId = itemId;
+            this.available = new AtomicLong(stock);
+            this.flushedAvailable = stock;
+        }
+
+        private Reservation reserve(long count) {
+            long current;
+            do {
+                current = available.get();
+                if (current == DETACHED) {
+                    return Reservation.DETACHED;
+                }
+                if (current < count) {
+                    return Reservation.NOT_ENOUGH_STOCK;
+                }
+            } while (!available.compareAndSet(current, current - count));
+
+            return Reservation.RESERVED;
+        }
+
+        /**
+         * @return 장부에서 빠졌으면 false
+         */
+        private boolean add(long delta) {
+            long current;
+            do {
+                current = available.get();
+                if (current == DETACHED) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current + delta));
+
+            return true;
+        }
+    }
+}
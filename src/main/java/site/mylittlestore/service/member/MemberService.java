@@ -1,6 +1,7 @@
 package site.mylittlestore.service.member;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,13 +18,18 @@ import site.mylittlestore.enumstorage.status.MemberStatus;
 import site.mylittlestore.exception.auth.PasswordException;
 import site.mylittlestore.exception.member.NoSuchMemberException;
 import site.mylittlestore.repository.member.MemberRepository;
-import site.mylittlestore.service.email.EmailService;
+import site.mylittlestore.service.auth.jwt.AccessTokenCache;
+import site.mylittlestore.service.auth.jwt.MemberStatusVersions;
+import site.mylittlestore.service.outbox.OutboxService;
 import site.mylittlestore.util.CodeGenerator;
+import site.mylittlestore.util.TokenHasher;
 import site.mylittlestore.util.email.Email;
 
 import javax.mail.MessagingException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,8 +38,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MemberService {
     private final MemberRepository memberRepository;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
     private final PasswordEncoder passwordEncoder;
+    private final MemberStatusVersions memberStatusVersions;
+    private final AccessTokenCache accessTokenCache;
+
+    //비밀번호 변경 코드 유효 기간
+    @Value("${verification-code.password.expiration:3600000}")
+    private Long passwordVerificationCodeExpiration;
 
     public MemberFindDto findMemberFindDtoById(Long memberId) throws NoSuchMemberException {
         return memberRepository.findNotDeletedById(memberId)
@@ -54,7 +66,7 @@ public class MemberService {
 
     @Transactional
     public Long verifyPasswordVerificationCode(String passwordVerificationCode) throws NoSuchMemberException {
-        Member member = memberRepository.findNotDeletedByPasswordVerificationCode(passwordVerificationCode)
+        Member member = memberRepository.findNotDeletedByPasswordVerificationCodeHash(TokenHasher.hash(passwordVerificationCode), LocalDateTime.now())
                 //해당하는 비밀번호 변경 코드를 가진 회원이 없으면, 예외 발생
                 .orElseThrow(() -> new NoSuchMemberException(MemberErrorMessage.NO_SUCH_MEMBER_WITH_THAT_PASSWORD_VERIFICATION_CODE.getMessage()));
 
@@ -69,21 +81,19 @@ public class MemberService {
      */
     @Transactional
     public void changePassword(String passwordVerificationCode, String newPassword) throws NoSuchMemberException {
-        Member member = memberRepository.findNotDeletedByPasswordVerificationCode(passwordVerificationCode)
+        Member member = memberRepository.findNotDeletedByPasswordVerificationCodeHash(TokenHasher.hash(passwordVerificationCode), LocalDateTime.now())
                 //해당하는 비밀번호 변경 코드를 가진 회원이 없으면, 예외 발생
                 .orElseThrow(() -> new NoSuchMemberException(MemberErrorMessage.NO_SUCH_MEMBER_WITH_THAT_PASSWORD_VERIFICATION_CODE.getMessage()));
 
-        //verificationCode로 인증
-        if (!member.getPasswordVerificationCode().equals(passwordVerificationCode)) {
-            throw new NoSuchMemberException(MemberErrorMessage.NO_SUCH_MEMBER_WITH_THAT_PASSWORD_VERIFICATION_CODE.getMessage());
-        }
-
         //비밀번호 변경
         member.changePassword(passwordEncoder.encode(newPassword));
 
         //상태 변경
         member.unlock();
 
+        //상태가 바뀌기 전에 발급된 access token 무효화
+        memberStatusVersions.revoke(member.getId(), member.getStatusVersion());
+
         //logInAttempt 초기화
         member.resetLogInAttempt();
 
@@ -155,6 +165,22 @@ public class MemberService {
         memberRepository.save(findMemberById);
     }
 
+    /**
+     * 로그인에 너무 많이 실패한 회원을 잠그고, 이미 발급된 access token도 더 이상 인증되지 않도록 무효화한다.
+     * @param memberId
+     * @param logInAttempt 메모리에서 센 로그인 실패 횟수
+     * @throws NoSuchMemberException
+     */
+    @Transactional
+    public void lockMember(Long memberId, int logInAttempt) throws NoSuchMemberException {
+        Member member = findById(memberId);
+
+        if (member.lock(logInAttempt)) {
+            accessTokenCache.invalidateByMemberId(member.getId());
+            memberStatusVersions.revoke(member.getId(), member.getStatusVersion());
+        }
+    }
+
     @Transactional
     public void sendChangePasswordEmail(String email) throws UnsupportedEncodingException, MessagingException {
         Member member = memberRepository.findNotDeletedByEmail(email)
@@ -165,16 +191,17 @@ public class MemberService {
         String verificationCode = CodeGenerator.generateCode(20);
 
         //PasswordVerificationCode 업데이트
-        member.updatePasswordVerificationCode(verificationCode);
+        LocalDateTime verificationCodeExpiredAt = LocalDateTime.now().plus(Duration.ofMillis(passwordVerificationCodeExpiration));
+        member.updatePasswordVerificationCode(verificationCode, verificationCodeExpiredAt);
 
-        //비밀번호 재설정 이메일 발송
-        emailService.sendMail(Email.builder()
+        //비밀번호 재설정 이메일 발송 (커밋된 후에 OutboxDispatcher가 보내고, 코드가 만료되면 보내지 않는다.)
+        outboxService.appendEmail(Email.builder()
                 .subject(EmailMessage.CHANGE_PASSWORD_EMAIL_SUBJECT.getMessage())
                 .receiver(email)
                 .message(EmailMessage.CHANGE_PASSWORD_EMAIL_MESSAGE.getMessage() +
                         EmailMessage.CHANGE_PASSWORD_EMAIL_LINK.getMessage() +
                         URLEncoder.encode(verificationCode, "UTF-8"))
-                .build());
+                .build(), verificationCodeExpiredAt);
     }
 
     /**
@@ -188,6 +215,9 @@ public class MemberService {
 
         member.switchRole();
 
+        //권한이 바뀌기 전에 발급된 access token 무효화
+        memberStatusVersions.revoke(member.getId(), member.getStatusVersion());
+
         memberRepository.save(member);
     }
 
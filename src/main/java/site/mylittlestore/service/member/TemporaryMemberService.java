@@ -1,6 +1,7 @@
 package site.mylittlestore.service.member;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -13,37 +14,41 @@ import site.mylittlestore.enumstorage.message.EmailMessage;
 import site.mylittlestore.exception.member.temporarymember.NoSuchTemporaryMemberException;
 import site.mylittlestore.repository.member.MemberRepository;
 import site.mylittlestore.repository.member.temporarymember.TemporaryMemberRepository;
-import site.mylittlestore.service.email.EmailService;
+import site.mylittlestore.service.outbox.OutboxService;
 import site.mylittlestore.util.CodeGenerator;
+import site.mylittlestore.util.TokenHasher;
 import site.mylittlestore.util.email.Email;
 
 import javax.mail.MessagingException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class TemporaryMemberService {
-    private final EmailService emailService;
+    private final OutboxService outboxService;
     private final MemberRepository memberRepository;
     private final TemporaryMemberRepository temporaryMemberRepository;
     private final PasswordEncoder passwordEncoder;
 
+    //이메일 인증 코드 유효 기간
+    @Value("${verification-code.email.expiration:86400000}")
+    private Long verificationCodeExpiration;
+
     public Long findIdByEmail(String email) throws NoSuchTemporaryMemberException {
         return temporaryMemberRepository.findIdByEmail(email)
                 .orElseThrow(() -> new NoSuchTemporaryMemberException(TemporaryMemberErrorMessage.NO_SUCH_TEMPORARY_MEMBER_WITH_THAT_EMAIL.getMessage()));
     }
 
-    public String findVerificationCodeByEmail(String email) throws NoSuchTemporaryMemberException {
-        return temporaryMemberRepository.findVerificationCodeByEmail(email)
-                .orElseThrow(() -> new NoSuchTemporaryMemberException(TemporaryMemberErrorMessage.NO_SUCH_TEMPORARY_MEMBER_WITH_THAT_EMAIL.getMessage()));
-    }
-
     @Transactional
     public Long joinTemporaryMember(MemberCreationDto memberCreationDto) throws DataIntegrityViolationException, UnsupportedEncodingException, MessagingException {
         //verificationCode 생성
         String verificationCode = CodeGenerator.generateCode(20);
+        LocalDateTime verificationCodeExpiredAt = verificationCodeExpiredAt();
 
         //temporaryMember 생성
         Long temporaryMemberId = temporaryMemberRepository.save(TemporaryMember.builder()
@@ -54,17 +59,18 @@ public class TemporaryMemberService {
                         .street(memberCreationDto.getStreet())
                         .zipcode(memberCreationDto.getZipcode())
                         .verificationCode(verificationCode)
+                        .verificationCodeExpiredAt(verificationCodeExpiredAt)
                         .build())
                 .getId();
 
-        //이메일 발송
-        emailService.sendMail(Email.builder()
+        //이메일 발송 (커밋된 후에 OutboxDispatcher가 보내고, 코드가 만료되면 보내지 않는다.)
+        outboxService.appendEmail(Email.builder()
                 .subject(EmailMessage.VERIFICATION_EMAIL_SUBJECT.getMessage())
                 .receiver(memberCreationDto.getEmail())
                 .message(EmailMessage.VERIFICATION_EMAIL_MESSAGE.getMessage() +
                         EmailMessage.VERIFICATION_EMAIL_LINK.getMessage() +
                         URLEncoder.encode(verificationCode, "UTF-8"))
-                .build());
+                .build(), verificationCodeExpiredAt);
 
         return temporaryMemberId;
     }
@@ -76,18 +82,19 @@ public class TemporaryMemberService {
 
         //verificationCode 생성
         String verificationCode = CodeGenerator.generateCode(20);
+        LocalDateTime verificationCodeExpiredAt = verificationCodeExpiredAt();
 
         //temporaryMember의 verificationCode 변경
-        temporaryMember.updateVerificationCode(verificationCode);
+        temporaryMember.updateVerificationCode(verificationCode, verificationCodeExpiredAt);
 
-        //이메일 발송
-        emailService.sendMail(Email.builder()
+        //이메일 발송 (커밋된 후에 OutboxDispatcher가 보내고, 코드가 만료되면 보내지 않는다.)
+        outboxService.appendEmail(Email.builder()
                 .subject(EmailMessage.VERIFICATION_EMAIL_SUBJECT.getMessage())
                 .receiver(temporaryMember.getEmail())
                 .message(EmailMessage.VERIFICATION_EMAIL_MESSAGE.getMessage() +
                         EmailMessage.VERIFICATION_EMAIL_LINK.getMessage() +
                         URLEncoder.encode(verificationCode, "UTF-8"))
-                .build());
+                .build(), verificationCodeExpiredAt);
     }
 
     @Transactional
@@ -97,42 +104,58 @@ public class TemporaryMemberService {
 
         //verificationCode 생성
         String verificationCode = CodeGenerator.generateCode(20);
+        LocalDateTime verificationCodeExpiredAt = verificationCodeExpiredAt();
 
         //temporaryMember의 verificationCode 변경
-        temporaryMember.updateVerificationCode(verificationCode);
+        temporaryMember.updateVerificationCode(verificationCode, verificationCodeExpiredAt);
 
-        //이메일 발송
-        emailService.sendMail(Email.builder()
+        //이메일 발송 (커밋된 후에 OutboxDispatcher가 보내고, 코드가 만료되면 보내지 않는다.)
+        outboxService.appendEmail(Email.builder()
                 .subject(EmailMessage.VERIFICATION_EMAIL_SUBJECT.getMessage())
                 .receiver(temporaryMember.getEmail())
                 .message(EmailMessage.VERIFICATION_EMAIL_MESSAGE.getMessage() +
                         EmailMessage.VERIFICATION_EMAIL_LINK.getMessage() +
                         URLEncoder.encode(verificationCode, "UTF-8"))
-                .build());
+                .build(), verificationCodeExpiredAt);
     }
 
     @Transactional
     public void verifyEmail(String verificationCode) throws NoSuchTemporaryMemberException {
-        TemporaryMember temporaryMember = temporaryMemberRepository.findByVerificationCode(verificationCode)
+        //해시로 unique index를 찾고, 만료된 코드는 찾지 않는다.
+        TemporaryMember temporaryMember = temporaryMemberRepository.findByVerificationCodeHash(TokenHasher.hash(verificationCode), LocalDateTime.now())
                 .orElseThrow(() -> new NoSuchTemporaryMemberException(TemporaryMemberErrorMessage.NO_SUCH_TEMPORARY_MEMBER_WITH_THAT_VERIFICATION_CODE.getMessage()));
 
-        //verificationCode가 일치하면
-        if (verificationCode.equals(temporaryMember.getVerificationCode())) {
-            //member 생성
-            memberRepository.save(Member.builder()
-                            .name(temporaryMember.getName())
-                            .email(temporaryMember.getEmail())
-                            .password(temporaryMember.getPassword())
-                            .city(temporaryMember.getAddress().getCity())
-                            .street(temporaryMember.getAddress().getStreet())
-                            .zipcode(temporaryMember.getAddress().getZipcode())
-                            .build());
-
-            //temporaryMember 삭제
-            temporaryMemberRepository.delete(temporaryMember);
-        } else {
-            throw new NoSuchTemporaryMemberException(TemporaryMemberErrorMessage.NO_SUCH_TEMPORARY_MEMBER_WITH_THAT_VERIFICATION_CODE.getMessage());
+        //member 생성
+        memberRepository.save(Member.builder()
+                        .name(temporaryMember.getName())
+                        .email(temporaryMember.getEmail())
+                        .password(temporaryMember.getPassword())
+                        .city(temporaryMember.getAddress().getCity())
+                        .street(temporaryMember.getAddress().getStreet())
+                        .zipcode(temporaryMember.getAddress().getZipcode())
+                        .build());
+
+        //temporaryMember 삭제
+        temporaryMemberRepository.delete(temporaryMember);
+    }
+
+    /**
+     * 인증 코드가 만료된 임시 회원을 chunkSize개까지 지운다.
+     * 한 트랜잭션에서 잠그는 행이 많지 않도록, 한 번에 한 묶음만 지운다.
+     * @return 지운 임시 회원 수
+     */
+    @Transactional
+    public long deleteExpiredTemporaryMembers(LocalDateTime now, int chunkSize) {
+        List<Long> expiredIds = temporaryMemberRepository.findAllExpiredIds(now, chunkSize);
+
+        if (expiredIds.isEmpty()) {
+            return 0L;
         }
+
+        return temporaryMemberRepository.deleteAllExpiredByIds(expiredIds, now);
     }
 
+    private LocalDateTime verificationCodeExpiredAt() {
+        return LocalDateTime.now().plus(Duration.ofMillis(verificationCodeExpiration));
+    }
 }
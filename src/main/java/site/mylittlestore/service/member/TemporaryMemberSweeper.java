@@ -0,0 +1,40 @@
+package site.mylittlestore.service.member;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이메일 인증을 하지 않아서 인증 코드가 만료된 임시 회원을 주기적으로 지운다.
+ * 묶음마다 트랜잭션을 따로 커밋해서, 쌓인 행이 많아도 회원가입, 인증을 오래 막지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TemporaryMemberSweeper {
+    private final TemporaryMemberService temporaryMemberService;
+
+    @Value("${temporary-member.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${temporary-member.sweeper.interval:3600000}", initialDelayString = "${temporary-member.sweeper.interval:3600000}")
+    public void sweep() {
+        //지우는 동안 새로 만료되는 임시 회원은 다음 주기에 지운다.
+        LocalDateTime now = LocalDateTime.now();
+
+        long deletedCount = 0L;
+        long chunkDeletedCount;
+        do {
+            chunkDeletedCount = temporaryMemberService.deleteExpiredTemporaryMembers(now, chunkSize);
+            deletedCount += chunkDeletedCount;
+        } while (chunkDeletedCount == chunkSize);
+
+        if (deletedCount > 0) {
+            log.info("만료된 임시 회원 {}명 삭제", deletedCount);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package site.mylittlestore.service.orderitem;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import site.mylittlestore.dto.orderitem.OrderItemEventDto;
+import site.mylittlestore.service.sse.SseChannel;
+import site.mylittlestore.service.sse.SseEvent;
+import site.mylittlestore.util.TransactionCallbacks;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 가게마다 주문 상품 이벤트(생성, 수량 변경, 삭제)를 주방 화면에 SSE로 보낸다.
+ *
+ * 가게마다 최근 이벤트 replay-size개를 원형 버퍼에 남긴다.
+ * 다시 연결한 주방 화면은 마지막으로 받은 이벤트 순번(Last-Event-ID) 이후의 이벤트를 DB 조회 없이 받는다.
+ * 원형 버퍼에서 이미 밀려난 이벤트가 필요하면 resync 이벤트를 보내서, 주문 상품을 다시 조회하게 한다.
+ */
+@Component
+public class KitchenDisplay {
+    public static final String ORDER_ITEM_EVENT = "orderItem";
+
+    private final int replaySize;
+
+    //서버가 다시 시작되면 순번이 이전보다 커지도록, 시작 시간으로 순번을 시작한다.
+    //그래서 재시작 전의 순번으로 다시 연결하면 항상 resync가 된다.
+    private final long initialSequence = System.currentTimeMillis() * 1000;
+
+    private final Map<Long, StoreEvents> storeEvents = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender;
+    private final SseChannel sseChannel;
+
+    public KitchenDisplay(@Value("${kitchen.display.replay-size:1024}") int replaySize,
+                          @Value("${kitchen.display.buffer-size:256}") int bufferSize,
+                          @Value("${kitchen.display.timeout:1800000}") long timeout,
+                          @Value("${kitchen.display.sender-threads:4}") int senderThreads) {
+        this.replaySize = Math.max(1, replaySize);
+        this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("kitchen-display-"));
+        this.sseChannel = new SseChannel(bufferSize, timeout, sender);
+    }
+
+    /**
+     * @param lastSequence 마지막으로 받은 이벤트 순번, 처음 연결이면 null
+     */
+    public SseEmitter subscribe(Long storeId, Long lastSequence) {
+        StoreEvents events = storeEvents(storeId);
+
+        //놓친 이벤트를 고르는 사이에 새 이벤트가 발행되지 않도록, 발행과 같은 잠금 안에서 구독한다.
+        synchronized (events) {
+            List<SseEvent> initialEvents = lastSequence == null
+                    ? List.of()
+                    : events.findAllAfter(lastSequence).orElse(List.of(SseEvent.of(SseChannel.RESYNC_EVENT, "")));
+
+            return sseChannel.subscribe(storeId, initialEvents);
+        }
+    }
+
+    /**
+     * 주문 상품 이벤트를 가게의 주방 화면에 보낸다.
+     * 트랜잭션 안에서 호출되면, 커밋된 후에 커밋된 순서대로 순번을 매겨서 보낸다.
+     */
+    public void publish(Long storeId, OrderItemEventDto orderItemEventDto) {
+        TransactionCallbacks.afterCommit(() -> {
+            StoreEvents events = storeEvents(storeId);
+
+            synchronized (events) {
+                sseChannel.publish(storeId, events.append(orderItemEventDto));
+            }
+        });
+    }
+
+    /**
+     * lastSequence 이후의 이벤트
+     * @return 원형 버퍼에서 이미 밀려난 이벤트가 있으면 empty
+     */
+    public Optional<List<SseEvent>> findAllAfter(Long storeId, long lastSequence) {
+        StoreEvents events = storeEvents(storeId);
+
+        synchronized (events) {
+            return events.findAllAfter(lastSequence);
+        }
+    }
+
+    /**
+     * 가게에서 마지막으로 매긴 이벤트 순번
+     * 주문 상품을 조회하기 전에 받아두고 그 순번으로 구독하면, 조회하는 사이의 이벤트도 놓치지 않는다.
+     */
+    public long findLastSequence(Long storeId) {
+        StoreEvents events = storeEvents(storeId);
+
+        synchronized (events) {
+            return events.lastSequence;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.display.heartbeat-interval:15000}", initialDelayString = "${kitchen.display.heartbeat-interval:15000}")
+    public void heartbeat() {
+        sseChannel.heartbeat();
+    }
+
+    public int countSubscribers(Long storeId) {
+        return sseChannel.countSubscribers(storeId);
+    }
+
+    public long getDroppedCount() {
+        return sseChannel.getDroppedCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private StoreEvents storeEvents(Long storeId) {
+        return storeEvents.computeIfAbsent(storeId, id -> new StoreEvents());
+    }
+
+    /**
+     * 가게 하나의 최근 이벤트 (원형 버퍼)
+     * KitchenDisplay에서 StoreEvents로 잠그고 사용한다.
+     */
+    private class StoreEvents {
+        private final SseEvent[] ring = new SseEvent[replaySize];
+
+        //마지막으로 매긴 순번
+        private long lastSequence = initialSequence;
+
+        private SseEvent append(OrderItemEventDto orderItemEventDto) {
+            long sequence = ++lastSequence;
+            SseEvent event = SseEvent.of(sequence, ORDER_ITEM_EVENT, orderItemEventDto);
+            ring[(int) (sequence % replaySize)] = event;
+            return event;
+        }
+
+        private Optional<List<SseEvent>> findAllAfter(long sequence) {
+            //원형 버퍼에 남아있는 가장 오래된 순번
+            long oldestSequence = Math.max(initialSequence + 1, lastSequence - replaySize + 1);
+
+            //밀려난 이벤트가 있거나, 모르는 순번 (ex. 재시작 전의 순번)
+            if (sequence < oldestSequence - 1 || sequence > lastSequence) {
+                return Optional.empty();
+            }
+
+            List<SseEvent> events = new ArrayList<>((int) (lastSequence - sequence));
+            for (long s = sequence + 1; s <= lastSequence; s++) {
+                events.add(ring[(int) (s % replaySize)]);
+            }
+            return Optional.of(events);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package site.mylittlestore.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import site.mylittlestore.dto.outbox.OutboxEventDto;
+import site.mylittlestore.enumstorage.OutboxEventType;
+import site.mylittlestore.enumstorage.errormessage.OutboxErrorMessage;
+import site.mylittlestore.exception.outbox.OutboxException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * outbox 이벤트를 batch-size개씩 맡아서, 트랜잭션 밖에서 처리한다.
+ * batch의 이벤트를 모두 시작한 후에 완료를 기다리고, 완료된 이벤트부터 모아서 SENT로 바꾼다.
+ *
+ * 이벤트가 저장되면 커밋된 후에 바로 깨어나고, 놓친 이벤트와 다시 시도할 이벤트는 interval마다 찾는다.
+ * 실패한 이벤트는 initial-backoff부터 두 배씩 (max-backoff까지) 기다렸다가 다시 시도하고,
+ * max-attempts번 실패하면 FAILED로 남긴다.
+ * 처리 중에 서버가 죽으면, lease가 끝난 후에 다시 처리한다.
+ * lease가 끝나기 lease-margin 전까지만 기다리고, 그 후에 끝난 이벤트는 다시 맡긴 것으로 보고 SENT로 바꾸지 않는다.
+ * 그래서 lease보다 오래 걸린 이벤트는 두 번 처리될 수 있다. (최소 한 번 처리)
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    private final OutboxService outboxService;
+    private final Map<OutboxEventType, OutboxEventHandler> handlers = new EnumMap<>(OutboxEventType.class);
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration leaseMargin;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    //한 번에 한 스레드만 처리한다.
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    //커밋된 후에 깨어나서 처리하는 스레드, 여러 번 깨워도 한 번만 맡긴다.
+    private final ExecutorService wakeUpExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("outbox-dispatcher-"));
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public OutboxDispatcher(OutboxService outboxService,
+                            List<OutboxEventHandler> outboxEventHandlers,
+                            @Value("${outbox.dispatcher.batch-size:100}") int batchSize,
+                            @Value("${outbox.dispatcher.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.dispatcher.lease:60000}") long leaseMillis,
+                            @Value("${outbox.dispatcher.lease-margin:5000}") long leaseMarginMillis,
+                            @Value("${outbox.dispatcher.initial-backoff:1000}") long initialBackoffMillis,
+                            @Value("${outbox.dispatcher.max-backoff:600000}") long maxBackoffMillis,
+                            @Value("${outbox.retention:604800000}") long retentionMillis) {
+        this.outboxService = outboxService;
+        for (OutboxEventHandler outboxEventHandler : outboxEventHandlers) {
+            if (handlers.put(outboxEventHandler.getEventType(), outboxEventHandler) != null) {
+                throw new IllegalStateException("OutboxEventHandler가 중복되었습니다. " + outboxEventHandler.getEventType());
+            }
+        }
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.leaseMargin = Duration.ofMillis(Math.min(leaseMarginMillis, leaseMillis));
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.retention = Duration.ofMillis(retentionMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxEventAppended(OutboxEventAppended outboxEventAppended) {
+        wakeUp();
+    }
+
+    /**
+     * 요청 스레드를 기다리게 하지 않고, 처리 스레드에 맡긴다.
+     */
+    public void wakeUp() {
+        if (!wakeUpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            wakeUpExecutor.execute(() -> {
+                wakeUpScheduled.set(false);
+                //주기적인 처리가 진행 중이면, 그 처리가 방금 커밋된 이벤트를 못 봤을 수 있으므로 끝날 때까지 기다렸다가 처리한다.
+                dispatch(true);
+            });
+        } catch (RejectedExecutionException e) {
+            //다음 주기에 처리한다.
+            wakeUpScheduled.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.interval:5000}", initialDelayString = "${outbox.dispatcher.interval:5000}")
+    public void poll() {
+        expire();
+        dispatch(false);
+    }
+
+    /**
+     * 보내지 못하고 만료된 이벤트를 FAILED로 바꾸고, 내용을 지운다.
+     * 인증 코드가 만료된 후에도 outbox에 남지 않도록, interval마다 지운다.
+     */
+    public void expire() {
+        try {
+            long expiredCount = outboxService.expireAll(LocalDateTime.now());
+
+            if (expiredCount > 0) {
+                log.warn("보내기 전에 만료된 outbox 이벤트 {}개", expiredCount);
+            }
+        } catch (RuntimeException e) {
+            //다음 주기에 다시 지운다.
+            log.warn("만료된 outbox 이벤트 정리 실패", e);
+        }
+    }
+
+    /**
+     * 처리할 이벤트가 없을 때까지 batch-size개씩 처리한다.
+     * @param wait 다른 스레드가 처리 중이면 기다릴지, 아니면 바로 돌아온다.
+     * @return 처리에 성공한 이벤트 수
+     */
+    public int dispatch(boolean wait) {
+        if (wait) {
+            dispatchLock.lock();
+        } else if (!dispatchLock.tryLock()) {
+            return 0;
+        }
+
+        int dispatchedCount = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                //lease가 끝나기 lease-margin 전까지만 기다린다. (DB 시간과 이 서버의 시간 차이, SENT로 바꾸는 시간)
+                long deadline = System.nanoTime() + lease.minus(leaseMargin).toNanos();
+                LocalDateTime now = LocalDateTime.now();
+                //SENT로 바꿀 때 그대로 비교하므로, DB에 저장되는 정밀도로 자른다.
+                LocalDateTime leasedUntil = now.plus(lease).truncatedTo(ChronoUnit.MILLIS);
+                List<OutboxEventDto> outboxEventDtos = outboxService.leaseDispatchable(now, leasedUntil, batchSize);
+
+                if (outboxEventDtos.isEmpty()) {
+                    break;
+                }
+
+                dispatchedCount += dispatchBatch(outboxEventDtos, leasedUntil, deadline);
+
+                if (outboxEventDtos.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            //DB 오류 등, 맡은 이벤트는 lease가 끝난 후에 다시 처리한다.
+            log.warn("outbox 이벤트 처리 중단", e);
+        } finally {
+            dispatchLock.unlock();
+        }
+        return dispatchedCount;
+    }
+
+    private int dispatchBatch(List<OutboxEventDto> outboxEventDtos, LocalDateTime leasedUntil, long deadline) {
+        //batch의 이벤트를 모두 시작한 후에 기다린다. (ex. 이메일은 발송 스레드들이 나눠서 보낸다.)
+        //느린 이벤트를 기다리는 동안 lease가 끝나지 않도록, 끝난 이벤트부터 받는다.
+        BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+        for (OutboxEventDto outboxEventDto : outboxEventDtos) {
+            handle(outboxEventDto).whenComplete((result, throwable) -> completions.add(new Completion(outboxEventDto, throwable)));
+        }
+
+        int remaining = outboxEventDtos.size();
+        int dispatchedCount = 0;
+
+        try {
+            while (remaining > 0) {
+                Completion completion = completions.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                if (completion == null) {
+                    //lease가 끝나면 다시 처리 대상이 된다.
+                    log.warn("outbox 이벤트 처리 시간 초과 {}개", remaining);
+                    break;
+                }
+
+                //그 사이에 끝난 이벤트도 같이 SENT로 바꾼다.
+                List<Completion> done = new ArrayList<>();
+                done.add(completion);
+                completions.drainTo(done);
+                remaining -= done.size();
+
+                dispatchedCount += markAll(done, leasedUntil);
+            }
+        } catch (InterruptedException e) {
+            //종료 중, 나머지는 lease가 끝난 후에 다시 처리한다.
+            Thread.currentThread().interrupt();
+        }
+        return dispatchedCount;
+    }
+
+    /**
+     * 성공한 이벤트는 한 번에 SENT로 바꾸고, 실패한 이벤트는 다시 시도할 시간을 정한다.
+     * @return SENT로 바꾼 이벤트 수
+     */
+    private int markAll(List<Completion> completions, LocalDateTime leasedUntil) {
+        List<Long> sentIds = new ArrayList<>(completions.size());
+
+        for (Completion completion : completions) {
+            if (completion.cause == null) {
+                sentIds.add(completion.outboxEventDto.getId());
+            } else {
+                markFailed(completion.outboxEventDto, leasedUntil, completion.cause);
+            }
+        }
+
+        if (sentIds.isEmpty()) {
+            return 0;
+        }
+
+        int markedCount = (int) outboxService.markAllSent(sentIds, leasedUntil, LocalDateTime.now());
+        if (markedCount < sentIds.size()) {
+            log.warn("lease가 끝난 후에 처리된 outbox 이벤트 {}개, 다시 처리될 수 있다.", sentIds.size() - markedCount);
+        }
+        sentCount.add(markedCount);
+        return markedCount;
+    }
+
+    private CompletableFuture<?> handle(OutboxEventDto outboxEventDto) {
+        OutboxEventHandler outboxEventHandler = handlers.get(OutboxEventType.valueOf(outboxEventDto.getEventType()));
+
+        if (outboxEventHandler == null) {
+            return CompletableFuture.failedFuture(new OutboxException(OutboxErrorMessage.NO_HANDLER_FOR_EVENT_TYPE.getMessage()));
+        }
+
+        try {
+            return outboxEventHandler.handle(outboxEventDto.getPayload());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void markFailed(OutboxEventDto outboxEventDto, LocalDateTime leasedUntil, Throwable cause) {
+        failedCount.increment();
+        int attempt = outboxEventDto.getAttemptCount() + 1;
+        log.warn("outbox 이벤트 처리 실패 id={}, attempt={}", outboxEventDto.getId(), attempt, cause);
+        outboxService.markFailed(outboxEventDto.getId(), leasedUntil, String.valueOf(cause), LocalDateTime.now().plus(backoff(attempt)), maxAttempts);
+    }
+
+    /**
+     * attempt번째 실패 후 기다릴 시간
+     * initial-backoff * 2^(attempt - 1)을 max-backoff까지 늘리고, 한꺼번에 다시 시도하지 않도록 절반까지 무작위로 줄인다.
+     */
+    Duration backoff(int attempt) {
+        long backoffMillis = initialBackoff.toMillis() << Math.min(Math.max(attempt - 1, 0), 30);
+        backoffMillis = Math.min(Math.max(backoffMillis, initialBackoff.toMillis()), maxBackoff.toMillis());
+
+        long jitterMillis = ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+        return Duration.ofMillis(backoffMillis - jitterMillis);
+    }
+
+    /**
+     * 보낸 지 retention이 지난 이벤트를 지운다.
+     */
+    @Scheduled(fixedDelayString = "${outbox.sweeper.interval:3600000}", initialDelayString = "${outbox.sweeper.interval:3600000}")
+    public void sweep() {
+        long deletedCount = outboxService.deleteAllSentBefore(LocalDateTime.now().minus(retention));
+
+        if (deletedCount > 0) {
+            log.info("보낸 outbox 이벤트 {}개 삭제", deletedCount);
+        }
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wakeUpExecutor.shutdownNow();
+    }
+
+    /**
+     * 처리가 끝난 이벤트
+     */
+    private static class Completion {
+        private final OutboxEventDto outboxEventDto;
+        //실패했으면 원인, 성공했으면 null
+        private final Throwable cause;
+
+        private Completion(OutboxEventDto outboxEventDto, Throwable throwable) {
+            this.outboxEventDto = outboxEventDto;
+            this.cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package site.mylittlestore.service.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import site.mylittlestore.enumstorage.OutboxEventType;
+
+/**
+ * outbox에 이벤트가 저장됨 (커밋된 후에 OutboxDispatcher가 받는다.)
+ */
+@Getter
+@RequiredArgsConstructor
+public class OutboxEventAppended {
+    private final OutboxEventType eventType;
+}
@@ -0,0 +1,20 @@
+package site.mylittlestore.service.outbox;
+
+import site.mylittlestore.enumstorage.OutboxEventType;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * outbox 이벤트 종류 하나를 처리한다.
+ * 최소 한 번 처리되므로, 같은 이벤트를 두 번 처리해도 문제가 없어야 한다.
+ */
+public interface OutboxEventHandler {
+    OutboxEventType getEventType();
+
+    /**
+     * 처리를 시작하고 바로 돌아와도 된다. OutboxDispatcher는 batch의 이벤트를 모두 시작한 후에 완료를 기다린다.
+     * 예외가 발생하거나 예외로 완료되면 나중에 다시 시도한다.
+     * @param payload 저장할 때의 이벤트 내용 (JSON)
+     */
+    CompletableFuture<?> handle(String payload) throws Exception;
+}
@@ -0,0 +1,118 @@
+package site.mylittlestore.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.domain.outbox.OutboxEvent;
+import site.mylittlestore.dto.outbox.OutboxEventDto;
+import site.mylittlestore.enumstorage.OutboxEventType;
+import site.mylittlestore.enumstorage.errormessage.OutboxErrorMessage;
+import site.mylittlestore.enumstorage.status.OutboxEventStatus;
+import site.mylittlestore.exception.outbox.OutboxException;
+import site.mylittlestore.repository.outbox.OutboxEventRepository;
+import site.mylittlestore.util.email.Email;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * 이메일 발송을 outbox에 저장한다.
+     * 호출한 트랜잭션과 같이 커밋되거나 롤백되고, 커밋된 후에 보낸다.
+     * @param email
+     */
+    @Transactional
+    public void appendEmail(Email email) {
+        append(OutboxEventType.EMAIL, email, null);
+    }
+
+    /**
+     * expiredAt까지 보내지 못하면 보내지 않고, 내용을 지운다.
+     * 인증 코드처럼 만료되는 내용은 만료된 후에 outbox에 남기지 않는다.
+     * @param email
+     * @param expiredAt
+     */
+    @Transactional
+    public void appendEmail(Email email, LocalDateTime expiredAt) {
+        append(OutboxEventType.EMAIL, email, expiredAt);
+    }
+
+    private void append(OutboxEventType eventType, Object payload, LocalDateTime expiredAt) {
+        String serializedPayload;
+        try {
+            serializedPayload = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new OutboxException(OutboxErrorMessage.PAYLOAD_SERIALIZATION_FAILED.getMessage(), e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .payload(serializedPayload)
+                .expiredAt(expiredAt)
+                .build());
+
+        //다음 주기까지 기다리지 않도록, 커밋되면 OutboxDispatcher가 바로 처리를 시작한다.
+        applicationEventPublisher.publishEvent(new OutboxEventAppended(eventType));
+    }
+
+    /**
+     * 처리할 이벤트를 batchSize개 맡는다.
+     * 맡은 이벤트는 leasedUntil까지 다른 처리 대상에서 빠진다.
+     */
+    @Transactional
+    public List<OutboxEventDto> leaseDispatchable(LocalDateTime now, LocalDateTime leasedUntil, int batchSize) {
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findAllDispatchable(now, batchSize);
+
+        return outboxEvents.stream()
+                .peek(outboxEvent -> outboxEvent.lease(leasedUntil))
+                .map(OutboxEvent::toOutboxEventDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * leasedUntil까지 맡은 이벤트만 SENT로 바꾼다.
+     * @return SENT로 바꾼 이벤트 수, lease가 끝나서 다시 맡겨진 이벤트는 빠진다.
+     */
+    @Transactional
+    public long markAllSent(List<Long> ids, LocalDateTime leasedUntil, LocalDateTime sentAt) {
+        return outboxEventRepository.markAllSent(ids, leasedUntil, sentAt);
+    }
+
+    /**
+     * leasedUntil까지 맡은 이벤트만 실패로 기록한다.
+     */
+    @Transactional
+    public void markFailed(Long id, LocalDateTime leasedUntil, String error, LocalDateTime nextAttemptAt, int maxAttempts) {
+        outboxEventRepository.findById(id)
+                .filter(outboxEvent -> outboxEvent.isLeasedUntil(leasedUntil))
+                .ifPresent(outboxEvent -> outboxEvent.failed(error, nextAttemptAt, maxAttempts));
+    }
+
+    /**
+     * 만료된 PENDING 이벤트를 FAILED로 바꾸고, 내용을 지운다.
+     */
+    @Transactional
+    public long expireAll(LocalDateTime now) {
+        return outboxEventRepository.expireAll(now, OutboxErrorMessage.EVENT_EXPIRED.getMessage());
+    }
+
+    @Transactional
+    public long deleteAllSentBefore(LocalDateTime before) {
+        return outboxEventRepository.deleteAllSentBefore(before);
+    }
+
+    public long countByStatus(OutboxEventStatus outboxEventStatus) {
+        return outboxEventRepository.countByStatus(outboxEventStatus);
+    }
+}
@@ -0,0 +1,233 @@
+package site.mylittlestore.service.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 가게 Id -> SSE 구독자 목록
+ *
+ * 이벤트를 발행하는 스레드는 구독자마다 있는 버퍼에 넣기만 하고, 보내는 것은 sender 스레드가 한다.
+ * 그래서 느린 구독자가 있어도 발행하는 요청(주문, 결제)은 기다리지 않는다.
+ * 버퍼는 bufferSize개로 제한되고, 가득 차면 밀린 이벤트를 버리고 resync 이벤트를 보낸다.
+ * resync를 받은 구독자는 전체를 다시 조회한다.
+ */
+@Slf4j
+public class SseChannel {
+    public static final String RESYNC_EVENT = "resync";
+
+    private final int bufferSize;
+    private final long timeout;
+    private final Executor sender;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * @param bufferSize 구독자마다 보내지 못하고 쌓아둘 수 있는 이벤트 수
+     * @param timeout SSE 연결 유지 시간 (ms), 끊기면 브라우저가 다시 연결한다.
+     * @param sender 버퍼의 이벤트를 보내는 스레드
+     */
+    public SseChannel(int bufferSize, long timeout, Executor sender) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.timeout = timeout;
+        this.sender = sender;
+    }
+
+    public SseEmitter subscribe(Long storeId) {
+        return subscribe(storeId, List.of());
+    }
+
+    /**
+     * @param initialEvents 구독하자마자 보낼 이벤트 (ex. 재연결 전에 놓친 이벤트)
+     *                      버퍼와 따로 두고 모두 보낸 후에 버퍼의 이벤트를 보내므로, 버퍼보다 많아도 된다.
+     */
+    public SseEmitter subscribe(Long storeId, List<SseEvent> initialEvents) {
+        return subscribe(storeId, initialEvents, new SseEmitter(timeout));
+    }
+
+    SseEmitter subscribe(Long storeId, List<SseEvent> initialEvents, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(storeId, emitter, initialEvents);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(throwable -> subscriber.close());
+
+        //마지막 구독자가 빠지면서 목록이 지워지는 것과 겹치지 않도록, compute 안에서 넣는다.
+        subscribers.compute(storeId, (id, storeSubscribers) -> {
+            Set<Subscriber> currentSubscribers = storeSubscribers != null ? storeSubscribers : ConcurrentHashMap.newKeySet();
+            currentSubscribers.add(subscriber);
+            return currentSubscribers;
+        });
+
+        if (!initialEvents.isEmpty()) {
+            subscriber.schedule();
+        }
+        return emitter;
+    }
+
+    /**
+     * 가게의 모든 구독자의 버퍼에 이벤트를 넣는다. 보내는 것을 기다리지 않는다.
+     */
+    public void publish(Long storeId, SseEvent event) {
+        Set<Subscriber> storeSubscribers = subscribers.get(storeId);
+        if (storeSubscribers == null) {
+            return;
+        }
+
+        publishedCount.increment();
+        for (Subscriber subscriber : storeSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * 모든 구독자에게 heartbeat를 보낸다.
+     * 보내다가 실패하면 끊긴 연결이므로 구독자에서 뺀다.
+     */
+    public void heartbeat() {
+        for (Set<Subscriber> storeSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : storeSubscribers) {
+                subscriber.offer(SseEvent.HEARTBEAT);
+            }
+        }
+    }
+
+    public int countSubscribers(Long storeId) {
+        Set<Subscriber> storeSubscribers = subscribers.get(storeId);
+        return storeSubscribers == null ? 0 : storeSubscribers.size();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * 버퍼가 넘쳐서 버린 이벤트 수
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 구독자 하나
+     * 버퍼에 이벤트가 있으면 sender에 자기 자신을 한 번만 맡기고, 버퍼가 빌 때까지 보낸다.
+     * 구독하자마자 보낼 이벤트가 있으면, 그것부터 모두 보낸다.
+     */
+    private class Subscriber implements Runnable {
+        private final Long storeId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        //구독하자마자 보낼 이벤트, sender 스레드가 꺼내고 버퍼가 넘치면 비운다.
+        private final Queue<SseEvent> initialEvents;
+
+        //sender에 맡겨졌는지
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        //버퍼가 넘쳐서 resync를 보내야 하는지
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+
+        private volatile boolean closed = false;
+
+        private Subscriber(Long storeId, SseEmitter emitter, List<SseEvent> initialEvents) {
+            this.storeId = storeId;
+            this.emitter = emitter;
+            this.initialEvents = new ConcurrentLinkedQueue<>(initialEvents);
+        }
+
+        private void offer(SseEvent event) {
+            if (closed) {
+                return;
+            }
+
+            if (!buffer.offer(event)) {
+                //느린 구독자: 밀린 이벤트는 버리고, 전체를 다시 조회하게 한다.
+                //아직 보내지 못한 구독 전 이벤트도 다시 조회하면 필요 없다.
+                droppedCount.add(buffer.size() + initialEvents.size() + 1);
+                buffer.clear();
+                initialEvents.clear();
+                overflowed.set(true);
+            }
+
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                //다음 이벤트나 heartbeat 때 다시 맡긴다.
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                SseEvent event;
+                while (!closed && !overflowed.get() && (event = initialEvents.poll()) != null) {
+                    send(event);
+                }
+
+                if (overflowed.getAndSet(false)) {
+                    send(SseEvent.RESYNC);
+                }
+
+                while (!closed && (event = buffer.poll()) != null) {
+                    send(event);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+
+            //끝내는 사이에 들어온 이벤트
+            if (!closed && (!buffer.isEmpty() || overflowed.get())) {
+                schedule();
+            }
+        }
+
+        private void send(SseEvent event) {
+            try {
+                emitter.send(event.toSseEventBuilder());
+            } catch (IOException | IllegalStateException e) {
+                //연결이 끊겼거나 이미 끝난 emitter, 연결 정리는 서블릿 컨테이너가 한다.
+                log.debug("SSE 전송 실패, 구독 해제 storeId={}", storeId, e);
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            initialEvents.clear();
+
+            subscribers.computeIfPresent(storeId, (id, storeSubscribers) -> {
+                storeSubscribers.remove(this);
+                return storeSubscribers.isEmpty() ? null : storeSubscribers;
+            });
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package site.mylittlestore.service.sse;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 구독자에게 보낼 SSE 이벤트 (바뀌지 않는다.)
+ * 구독자마다 만들지 않고, 하나를 모든 구독자의 버퍼에 넣는다.
+ */
+@Getter
+public class SseEvent {
+    //연결이 살아있는지 확인하는 주석 이벤트
+    static final SseEvent HEARTBEAT = new SseEvent(null, null, null);
+
+    //버퍼가 넘쳐서 이벤트를 잃었으니, 전체를 다시 조회하라는 이벤트
+    static final SseEvent RESYNC = new SseEvent(null, SseChannel.RESYNC_EVENT, "");
+
+    //재연결 시 Last-Event-ID로 돌아온다. 없으면 null
+    private final String id;
+    private final String name;
+    private final Object data;
+
+    private SseEvent(String id, String name, Object data) {
+        this.id = id;
+        this.name = name;
+        this.data = data;
+    }
+
+    public static SseEvent of(String name, Object data) {
+        return new SseEvent(null, name, data);
+    }
+
+    public static SseEvent of(long id, String name, Object data) {
+        return new SseEvent(String.valueOf(id), name, data);
+    }
+
+    SseEmitter.SseEventBuilder toSseEventBuilder() {
+        if (this == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (id != null) {
+            builder.id(id);
+        }
+        builder.name(name);
+        return data instanceof String
+                ? builder.data(data)
+                : builder.data(data, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,90 @@
+package site.mylittlestore.service.storetable;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import site.mylittlestore.domain.Order;
+import site.mylittlestore.domain.Payment;
+import site.mylittlestore.domain.StoreTable;
+import site.mylittlestore.dto.storetable.StoreTableStatusEventDto;
+import site.mylittlestore.service.sse.SseChannel;
+import site.mylittlestore.service.sse.SseEvent;
+import site.mylittlestore.util.TransactionCallbacks;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 가게마다 테이블 상태 변경을 SSE로 보내는 현황판
+ * 처음에는 테이블 목록을 한 번 조회하고, 이후에는 바뀐 테이블만 받는다.
+ * resync 이벤트를 받으면 테이블 목록을 다시 조회한다.
+ */
+@Component
+public class StoreTableBoard {
+    public static final String STORE_TABLE_EVENT = "storeTable";
+
+    private final ExecutorService sender;
+    private final SseChannel sseChannel;
+
+    public StoreTableBoard(@Value("${store-table.board.buffer-size:64}") int bufferSize,
+                           @Value("${store-table.board.timeout:1800000}") long timeout,
+                           @Value("${store-table.board.sender-threads:2}") int senderThreads) {
+        this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("store-table-board-"));
+        this.sseChannel = new SseChannel(bufferSize, timeout, sender);
+    }
+
+    public SseEmitter subscribe(Long storeId) {
+        return sseChannel.subscribe(storeId);
+    }
+
+    /**
+     * 테이블 상태가 바뀌면 가게의 현황판에 보낸다.
+     * 트랜잭션 안에서 호출되면, 커밋된 후에 보낸다.
+     * @param order 테이블의 주문, 없으면 null
+     * @param payment 주문의 결제, 없으면 null
+     */
+    public void publish(Long storeId, StoreTable storeTable, Order order, Payment payment) {
+        //커밋 후에는 엔티티를 읽지 않도록, 지금 값으로 만든다.
+        StoreTableStatusEventDto storeTableStatusEventDto = StoreTableStatusEventDto.builder()
+                .storeTableId(storeTable.getId())
+                .storeTableStatus(storeTable.getStoreTableStatus().toString())
+                .orderId(order != null ? order.getId() : null)
+                .orderStatus(order != null ? order.getOrderStatus().toString() : null)
+                .paymentId(payment != null ? payment.getId() : null)
+                .paymentStatus(payment != null ? payment.getPaymentStatus().toString() : null)
+                .build();
+
+        TransactionCallbacks.afterCommit(() -> sseChannel.publish(storeId, SseEvent.of(STORE_TABLE_EVENT, storeTableStatusEventDto)));
+    }
+
+    /**
+     * 끊긴 연결을 찾고, 프록시가 연결을 끊지 않도록 주기적으로 heartbeat를 보낸다.
+     */
+    @Scheduled(fixedDelayString = "${store-table.board.heartbeat-interval:15000}", initialDelayString = "${store-table.board.heartbeat-interval:15000}")
+    public void heartbeat() {
+        sseChannel.heartbeat();
+    }
+
+    public int countSubscribers(Long storeId) {
+        return sseChannel.countSubscribers(storeId);
+    }
+
+    /**
+     * 구독자가 있는 가게에 보낸 이벤트 수
+     */
+    public long getPublishedCount() {
+        return sseChannel.getPublishedCount();
+    }
+
+    public long getDroppedCount() {
+        return sseChannel.getDroppedCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+}
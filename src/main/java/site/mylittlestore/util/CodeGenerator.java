@@ -2,22 +2,61 @@ package site.mylittlestore.util;
 
 import org.springframework.stereotype.Component;
 
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * 이메일 인증, 비밀번호 변경 코드 생성
+ * 스레드마다 SecureRandom(DRBG)과 난수 버퍼를 따로 두어서, 회원가입이 몰려도 하나의 난수 생성기를 두고 기다리지 않는다.
+ * 코드는 0-9, a-z 중에서 고르게 뽑는다. (링크에 그대로 넣을 수 있다.)
+ */
 @Component
 public class CodeGenerator {
-    private static final String[] CODES = {
-            "0123456789",
-            "abcdefghijklmnopqrstuvwxyz",
-    };
+    private static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+    //256을 넘지 않는 ALPHABET 길이의 최대 배수, 이 이상인 바이트는 버린다. (앞쪽 문자가 더 자주 나오지 않도록)
+    private static final int ACCEPT_BOUND = 256 - 256 % ALPHABET.length;
+    private static final int BUFFER_SIZE = 64;
+
+    private static final ThreadLocal<RandomBuffer> RANDOM_BUFFER = ThreadLocal.withInitial(RandomBuffer::new);
 
     public static String generateCode(int length) {
-        StringBuilder code = new StringBuilder();
+        char[] code = new char[length];
+        RANDOM_BUFFER.get().fill(code);
+        return new String(code);
+    }
+
+    /**
+     * 한 스레드에서만 사용하므로, 따로 잠그지 않는다.
+     */
+    private static class RandomBuffer {
+        private final SecureRandom secureRandom = newSecureRandom();
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+
+        private void fill(char[] code) {
+            int i = 0;
+            while (i < code.length) {
+                if (position == BUFFER_SIZE) {
+                    secureRandom.nextBytes(bytes);
+                    position = 0;
+                }
+
+                int randomByte = bytes[position++] & 0xFF;
+                if (randomByte < ACCEPT_BOUND) {
+                    code[i++] = ALPHABET[randomByte % ALPHABET.length];
+                }
+            }
+        }
 
-        for (int i = 0; i < length; ++i) {
-            int randomIndex = (int) (Math.random() * CODES.length);
-            String randomCode = CODES[randomIndex];
-            int randomCodeIndex = (int) (Math.random() * randomCode.length());
-            code.append(randomCode.charAt(randomCodeIndex));
+        /**
+         * 기본 SecureRandom(NativePRNG)은 모든 인스턴스가 하나의 상태를 잠그고 나눠 쓰므로, 인스턴스마다 상태를 가진 DRBG를 쓴다.
+         */
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
         }
-        return code.toString();
     }
 }
@@ -0,0 +1,31 @@
+package site.mylittlestore.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+@Component
+public class TokenHasher {
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * 토큰을 SHA-256으로 해싱하여 고정 길이(43자)의 문자열로 반환한다.
+     * 원본 토큰을 key나 column으로 쓰지 않기 위해 사용
+     * @param token
+     * @return
+     */
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance(ALGORITHM)
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            //SHA-256은 모든 JVM이 지원해야 하므로, 여기로 오면 안 된다.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package site.mylittlestore.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션이 끝난 후에 실행할 작업 등록
+ * 메모리에 둔 캐시, 장부, SSE 이벤트를 DB와 맞추기 위해 사용
+ */
+@Component
+public class TransactionCallbacks {
+
+    /**
+     * 트랜잭션이 커밋된 후에 실행한다.
+     * 트랜잭션 밖이면 바로 실행한다.
+     * @param runnable
+     */
+    public static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * 트랜잭션이 롤백된 후에 실행한다.
+     * 트랜잭션 밖이면 롤백될 일이 없으므로, 실행하지 않는다.
+     * @param runnable
+     */
+    public static void afterRollback(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    runnable.run();
+                }
+            }
+        });
+    }
+}
@@ -1,20 +1,44 @@
 package site.mylittlestore.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.springframework.stereotype.Component;
 import site.mylittlestore.enumstorage.errormessage.auth.PasswordErrorMessage;
 import site.mylittlestore.exception.auth.PasswordException;
 
+/**
+ * 이메일, 비밀번호 형식 검증
+ * 로그인, 회원가입마다 외부 입력을 검증하므로, 정규식 대신 문자열을 한 번만 훑는다. (입력 길이에 비례, 객체 생성 없음)
+ * 이전 정규식과 같은 규칙이다. (ValidatorTest에서 비교)
+ */
 @Component
 public class Validator {
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "(([^<>()\\[\\]\\\\.,;:\\s@\"]+(\\.[^<>()\\[\\]\\\\.,;:\\s@\"]+)*)|(\".+\"))@((\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}])|(([a-zA-Z\\-0-9]+\\.)+[a-zA-Z]{2,}))"
-    );
+    private static final int PASSWORD_MIN_LENGTH = 8;
+    private static final int PASSWORD_MAX_LENGTH = 30;
+    private static final int PASSWORD_MAX_REPEAT = 2;
 
+    //문자마다 찾지 않도록 ASCII 표로 만들어둔다.
+    private static final boolean[] PASSWORD_SPECIAL_CHARACTERS = asciiTable("$@!%*#?&");
+    //이메일 local part(따옴표 없는)에 쓸 수 없는 문자, 점과 정규식의 \s 포함
+    private static final boolean[] EMAIL_LOCAL_FORBIDDEN_CHARACTERS = asciiTable("<>()[]\\.,;:@\" \t\n\u000B\f\r");
+
+    /**
+     * local-part@domain
+     * local-part : 점으로 구분된 단어들(점으로 시작/끝나거나 연속될 수 없다.) 또는 "따옴표로 감싼 문자열"
+     * domain : [0.0.0.0] 형식의 IP 또는 영문/숫자/- 로 된 label들과, 영문 2자 이상의 최상위 도메인
+     */
     public static boolean isValidEmail(String email) {
-        Matcher matcher = EMAIL_PATTERN.matcher(email);
-        return matcher.matches();
+        if (email == null) {
+            return false;
+        }
+
+        //따옴표로 감싼 local part에만 @가 들어갈 수 있으므로, 마지막 @로 나눈다.
+        int at = email.lastIndexOf('@');
+        if (at < 0) {
+            return false;
+        }
+
+        //domain이 보통 더 짧으므로 먼저 확인한다.
+        return (isValidIpLiteral(email, at + 1) || isValidDomainName(email, at + 1))
+                && (isValidDotAtom(email, at) || isValidQuotedString(email, at));
     }
 
     public static boolean isValidPassword(String password) throws PasswordException {
@@ -23,18 +47,12 @@ public class Validator {
         }
 
         //비밀번호 포맷 확인(영문, 특수문자, 숫자 포함 8자 이상, 30자 이하)
-        Pattern passwordFormatPattern = Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)(?=.*[$@$!%*#?&])[A-Za-z\\d$@$!%*#?&]{8,30}$");
-        Matcher passwordFormatMatcher = passwordFormatPattern.matcher(password);
-
-        if (!passwordFormatMatcher.find()) {
+        if (!isValidPasswordFormat(password)) {
             throw new PasswordException(PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID.getMessage());
         }
 
         //반복된 문자 확인
-        Pattern passwordRepeatPattern = Pattern.compile("(\\w)\\1{2,}");
-        Matcher passwordRepeatMatcher = passwordRepeatPattern.matcher(password);
-
-        if (passwordRepeatMatcher.find()) {
+        if (containsRepeatedCharacter(password)) {
             throw new PasswordException(PasswordErrorMessage.PASSWORD_CONTAINS_REPEATED_CHARACTER.getMessage());
         }
 
@@ -42,39 +60,211 @@ public class Validator {
     }
 
     public static boolean isValidPassword(String email, String password) throws PasswordException {
-        if (password.isBlank()) {
-            throw new PasswordException(PasswordErrorMessage.PASSWORD_IS_BLANK.getMessage());
+        isValidPassword(password);
+
+        //아이디 포함 확인
+        if (containsId(email, password)) {
+            throw new PasswordException(PasswordErrorMessage.PASSWORD_CONTAINS_ID.getMessage());
         }
 
-        //비밀번호 포맷 확인(영문, 특수문자, 숫자 포함 8자 이상, 30자 이하)
-        Pattern passwordFormatPattern = Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)(?=.*[$@$!%*#?&])[A-Za-z\\d$@$!%*#?&]{8,30}$");
-        Matcher passwordFormatMatcher = passwordFormatPattern.matcher(password);
+        return true;
+    }
 
-        if (!passwordFormatMatcher.find()) {
-            throw new PasswordException(PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID.getMessage());
+    /**
+     * [A-Za-z\d$@!%*#?&]{8,30}, 영문, 숫자, 특수문자를 하나 이상씩
+     */
+    private static boolean isValidPasswordFormat(String password) {
+        int length = password.length();
+        if (length < PASSWORD_MIN_LENGTH || length > PASSWORD_MAX_LENGTH) {
+            return false;
         }
 
-        //반복된 문자 확인
-        Pattern passwordRepeatPattern = Pattern.compile("(\\w)\\1{2,}");
-        Matcher passwordRepeatMatcher = passwordRepeatPattern.matcher(password);
+        boolean hasLetter = false;
+        boolean hasDigit = false;
+        boolean hasSpecialCharacter = false;
 
-        if (passwordRepeatMatcher.find()) {
-            throw new PasswordException(PasswordErrorMessage.PASSWORD_CONTAINS_REPEATED_CHARACTER.getMessage());
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+
+            if (isAsciiLetter(c)) {
+                hasLetter = true;
+            } else if (isAsciiDigit(c)) {
+                hasDigit = true;
+            } else if (isAsciiIn(PASSWORD_SPECIAL_CHARACTERS, c)) {
+                hasSpecialCharacter = true;
+            } else {
+                return false;
+            }
         }
 
-        //아이디 포함 확인
-        String id = email.split("@")[0];
-        if (password.contains(id)) {
-            throw new PasswordException(PasswordErrorMessage.PASSWORD_CONTAINS_ID.getMessage());
+        return hasLetter && hasDigit && hasSpecialCharacter;
+    }
+
+    /**
+     * 같은 영문, 숫자, _가 3번 이상 연속되면 true ((\w)\1{2,})
+     */
+    private static boolean containsRepeatedCharacter(String password) {
+        int repeat = 0;
+
+        for (int i = 1; i < password.length(); i++) {
+            char c = password.charAt(i);
+
+            if (c == password.charAt(i - 1) && isWordCharacter(c)) {
+                if (++repeat >= PASSWORD_MAX_REPEAT) {
+                    return true;
+                }
+            } else {
+                repeat = 0;
+            }
         }
+        return false;
+    }
+
+    /**
+     * 비밀번호에 이메일의 아이디(첫 @ 앞부분)가 들어있으면 true
+     */
+    private static boolean containsId(String email, String password) {
+        int at = email.indexOf('@');
+        int idLength = at < 0 ? email.length() : at;
+
+        for (int i = 0; i + idLength <= password.length(); i++) {
+            if (password.regionMatches(i, email, 0, idLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * email[0, end)가 점으로 구분된 단어들이면 true
+     */
+    private static boolean isValidDotAtom(String email, int end) {
+        boolean previousIsDot = true;
 
-//        //특정 특수문자 포함 확인
-//        Pattern passwordSpecialPattern = Pattern.compile("[!?@#$%^&*( )/+\\-=~,.]");
-//        Matcher passwordSpecialMatcher = passwordSpecialPattern.matcher(password);
-//        if (!passwordSpecialMatcher.find()) {
-//            throw new PasswordException(PasswordErrorMessage.PASSWORD_ONLY_CONTAINS_CERTAIN_SPECIAL_CHARACTER.getMessage());
-//        }
+        for (int i = 0; i < end; i++) {
+            char c = email.charAt(i);
+
+            if (c == '.') {
+                if (previousIsDot) {
+                    return false;
+                }
+                previousIsDot = true;
+            } else if (isAsciiIn(EMAIL_LOCAL_FORBIDDEN_CHARACTERS, c)) {
+                return false;
+            } else {
+                previousIsDot = false;
+            }
+        }
 
+        //비어있거나 점으로 끝나면 안 된다.
+        return !previousIsDot;
+    }
+
+    /**
+     * email[0, end)가 "줄바꿈 없는 한 글자 이상"이면 true
+     */
+    private static boolean isValidQuotedString(String email, int end) {
+        if (end < 3 || email.charAt(0) != '"' || email.charAt(end - 1) != '"') {
+            return false;
+        }
+
+        for (int i = 1; i < end - 1; i++) {
+            if (isLineTerminator(email.charAt(i))) {
+                return false;
+            }
+        }
         return true;
     }
+
+    /**
+     * email[start, )가 [숫자 1~3자리.숫자.숫자.숫자]이면 true
+     */
+    private static boolean isValidIpLiteral(String email, int start) {
+        int end = email.length();
+        if (end - start < 9 || email.charAt(start) != '[' || email.charAt(end - 1) != ']') {
+            return false;
+        }
+
+        int octets = 0;
+        int digits = 0;
+
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = email.charAt(i);
+
+            if (isAsciiDigit(c)) {
+                if (++digits > 3) {
+                    return false;
+                }
+            } else if (c == '.' && digits > 0 && octets < 3) {
+                octets++;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+
+        return octets == 3 && digits > 0;
+    }
+
+    /**
+     * email[start, )가 label.label...tld 이면 true
+     * label은 영문, 숫자, - 한 글자 이상, tld는 영문 2자 이상
+     */
+    private static boolean isValidDomainName(String email, int start) {
+        int labels = 0;
+        int labelLength = 0;
+        boolean labelIsAlphabetic = true;
+
+        for (int i = start; i < email.length(); i++) {
+            char c = email.charAt(i);
+
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return false;
+                }
+                labels++;
+                labelLength = 0;
+                labelIsAlphabetic = true;
+            } else if (isAsciiLetter(c)) {
+                labelLength++;
+            } else if (isAsciiDigit(c) || c == '-') {
+                labelLength++;
+                labelIsAlphabetic = false;
+            } else {
+                return false;
+            }
+        }
+
+        //마지막 label이 tld
+        return labels > 0 && labelLength >= 2 && labelIsAlphabetic;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return isAsciiLetter(c) || isAsciiDigit(c) || c == '_';
+    }
+
+    private static boolean isAsciiIn(boolean[] table, char c) {
+        return c < table.length && table[c];
+    }
+
+    private static boolean[] asciiTable(String characters) {
+        boolean[] table = new boolean[128];
+        for (int i = 0; i < characters.length(); i++) {
+            table[characters.charAt(i)] = true;
+        }
+        return table;
+    }
+
+    //정규식의 .이 건너뛰지 않는 문자
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
 }
@@ -1,5 +1,7 @@
 package site.mylittlestore.util.email;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -9,8 +11,12 @@ public class Email {
     private final String receiver;
     private final String message;
 
+    //outbox에 JSON으로 저장했다가, 보낼 때 다시 만든다.
     @Builder
-    protected Email(String subject, String receiver, String message) {
+    @JsonCreator
+    protected Email(@JsonProperty("subject") String subject,
+                    @JsonProperty("receiver") String receiver,
+                    @JsonProperty("message") String message) {
         this.subject = subject;
         this.receiver = receiver;
         this.message = message;
@@ -9,5 +9,17 @@ TRUNCATE TABLE item RESTART IDENTITY;
 TRUNCATE TABLE payment RESTART IDENTITY;
 TRUNCATE TABLE paymentMethodType RESTART IDENTITY;
 TRUNCATE TABLE oauth2 RESTART IDENTITY;
+TRUNCATE TABLE outbox_event RESTART IDENTITY;
+TRUNCATE TABLE temporary_member RESTART IDENTITY;
+
+--시퀀스로 Id를 만드는 테이블 (allocationSize = 50, 다른 설정으로 먼저 만든 스키마라도 pooled-lo와 맞춘다.)
+ALTER SEQUENCE member_seq RESTART WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE store_table_seq RESTART WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE order_seq RESTART WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE order_item_seq RESTART WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE item_seq RESTART WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE payment_seq RESTART WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE payment_method_seq RESTART WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE outbox_event_seq RESTART WITH 1 INCREMENT BY 50;
 
 SET REFERENTIAL_INTEGRITY TRUE; --제약조건 재설정
\ No newline at end of file
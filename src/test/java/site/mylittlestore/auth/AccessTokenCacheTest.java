@@ -0,0 +1,80 @@
+package site.mylittlestore.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.mylittlestore.enumstorage.role.MemberRole;
+import site.mylittlestore.service.auth.jwt.AccessTokenCache;
+import site.mylittlestore.service.auth.jwt.AuthenticatedMember;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessTokenCacheTest {
+
+    private AuthenticatedMember authenticatedMember(Long memberId, String email, long expiresAt) {
+        return AuthenticatedMember.builder()
+                .memberId(memberId)
+                .email(email)
+                .role(MemberRole.MEMBER)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("만료되지 않은 access token은 캐시에서 찾을 수 있다.")
+    void hit() {
+        //given
+        AccessTokenCache accessTokenCache = new AccessTokenCache(100);
+        accessTokenCache.put("token", authenticatedMember(1L, "test@gmail.com", System.currentTimeMillis() + 60000L));
+
+        //then
+        assertThat(accessTokenCache.get("token")).isPresent();
+        assertThat(accessTokenCache.get("token").get().getMemberId()).isEqualTo(1L);
+        assertThat(accessTokenCache.get("otherToken")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("만료된 access token은 캐시에서 찾을 수 없다.")
+    void expired() {
+        //given
+        AccessTokenCache accessTokenCache = new AccessTokenCache(100);
+        accessTokenCache.put("token", authenticatedMember(1L, "test@gmail.com", System.currentTimeMillis() - 1L));
+
+        //then
+        assertThat(accessTokenCache.get("token")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("email로 해당 회원의 access token을 모두 무효화한다.")
+    void invalidateByEmail() {
+        //given
+        AccessTokenCache accessTokenCache = new AccessTokenCache(100);
+        long expiresAt = System.currentTimeMillis() + 60000L;
+        accessTokenCache.put("token1", authenticatedMember(1L, "test@gmail.com", expiresAt));
+        accessTokenCache.put("token2", authenticatedMember(1L, "test@gmail.com", expiresAt));
+        accessTokenCache.put("token3", authenticatedMember(2L, "other@gmail.com", expiresAt));
+
+        //when
+        accessTokenCache.invalidateByEmail("test@gmail.com");
+
+        //then
+        assertThat(accessTokenCache.get("token1")).isEmpty();
+        assertThat(accessTokenCache.get("token2")).isEmpty();
+        assertThat(accessTokenCache.get("token3")).isPresent();
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘지 않는다.")
+    void bounded() {
+        //given
+        AccessTokenCache accessTokenCache = new AccessTokenCache(100);
+        long expiresAt = System.currentTimeMillis() + 60000L;
+
+        //when
+        for (long i = 0; i < 1000; i++) {
+            accessTokenCache.put("token" + i, authenticatedMember(i, "test" + i + "@gmail.com", expiresAt));
+        }
+
+        //then
+        assertThat(accessTokenCache.size()).isLessThanOrEqualTo(100);
+    }
+}
@@ -0,0 +1,113 @@
+package site.mylittlestore.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.filter.auth.AuthenticationProcessFilter;
+import site.mylittlestore.p6spy.StatementCounter;
+import site.mylittlestore.service.StoreService;
+import site.mylittlestore.service.auth.jwt.JwtService;
+import site.mylittlestore.service.member.MemberService;
+
+import javax.servlet.http.Cookie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class AuthenticationProcessFilterTest {
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private AuthenticationProcessFilter authenticationProcessFilter;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long memberTestId;
+    private String accessToken;
+    private String refreshToken;
+
+    @BeforeEach
+    void setUp() {
+        memberTestId = memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email("memberTest@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        storeService.createStore(StoreCreationDto.builder()
+                .memberId(memberTestId)
+                .name("storeTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        //로그인
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtService.issueTokens("memberTest@gmail.com", response);
+        accessToken = response.getCookie("accessToken").getValue();
+        refreshToken = response.getCookie("refreshToken").getValue();
+    }
+
+    private MockHttpServletResponse doFilter(Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/members/" + memberTestId);
+        request.setCookies(cookie);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            authenticationProcessFilter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    @Test
+    @DisplayName("access token으로 인증하면, 처음에만 회원의 가게 목록을 조회하고 이후에는 SQL 문을 보내지 않는다.")
+    void accessTokenStatementCount() throws Exception {
+        //when
+        //then
+        //회원 정보는 claim으로, 가게 목록은 한 번만 조회
+        statementCounter.measure(() -> assertThat(doFilter(new Cookie("accessToken", accessToken)).getRedirectedUrl()).isNull())
+                .assertSelectsAtMost(1)
+                .assertTotalAtMost(1);
+
+        //검증한 access token과 가게 목록은 캐시
+        statementCounter.measure(() -> assertThat(doFilter(new Cookie("accessToken", accessToken)).getRedirectedUrl()).isNull())
+                .assertNone();
+    }
+
+    @Test
+    @DisplayName("refresh token으로 재발급하면, refresh token 조회와 교체만 한다.")
+    void refreshTokenStatementCount() throws Exception {
+        //when
+        //then
+        //refresh token + 회원 조회 / 가게 목록 조회 / refresh token UPDATE
+        statementCounter.measure(() -> assertThat(doFilter(new Cookie("refreshToken", refreshToken)).getCookie("accessToken")).isNotNull())
+                .assertSelectsAtMost(3)
+                .assertUpdatesAtMost(1)
+                .assertInsertsAtMost(0)
+                .assertDeletesAtMost(0);
+    }
+}
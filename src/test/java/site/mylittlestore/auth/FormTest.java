@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import site.mylittlestore.dto.jwt.JwtFindDto;
@@ -12,10 +13,13 @@ import site.mylittlestore.enumstorage.errormessage.auth.EmailErrorMessage;
 import site.mylittlestore.enumstorage.errormessage.auth.PasswordErrorMessage;
 import site.mylittlestore.enumstorage.message.EmailMessage;
 import site.mylittlestore.enumstorage.status.MemberStatus;
+import site.mylittlestore.exception.member.NoSuchMemberException;
 import site.mylittlestore.exception.member.temporarymember.NoSuchTemporaryMemberException;
 import site.mylittlestore.service.auth.jwt.JwtService;
 import site.mylittlestore.service.member.MemberService;
 import site.mylittlestore.service.member.TemporaryMemberService;
+import site.mylittlestore.service.outbox.OutboxService;
+import site.mylittlestore.util.email.OutboxEmails;
 
 import java.net.URLEncoder;
 
@@ -43,6 +47,10 @@ public class FormTest {
     @Autowired
     private JwtService jwtService;
 
+    //outbox에 넘긴 이메일에서 인증 코드를 꺼낸다.
+    @SpyBean
+    private OutboxService outboxService;
+
     private String verificationCode = "";
 
     private String passwordVerificationCode = "";
@@ -261,7 +269,10 @@ public class FormTest {
 
         //then
         //임시회원정보 생성되었는지 확인
-        verificationCode = temporaryMemberService.findVerificationCodeByEmail("cha3088@gmail.com");
+        assertThat(temporaryMemberService.findIdByEmail("cha3088@gmail.com")).isNotNull();
+
+        //인증 메일의 링크에서 verificationCode를 얻는다.
+        verificationCode = OutboxEmails.findLastCode(outboxService, "cha3088@gmail.com", EmailMessage.VERIFICATION_EMAIL_LINK);
         assertThat(verificationCode).isNotBlank();
     }
 
@@ -409,9 +420,9 @@ public class FormTest {
         assertThat(memberFindDtoByEmail.getStatus()).isEqualTo(MemberStatus.LOCKED.toString());
         assertThat(memberFindDtoByEmail.getLogInAttempt()).isGreaterThanOrEqualTo(5);
 
-        //passwordVerificationCode 저장
-        passwordVerificationCode = memberFindDtoByEmail.getPasswordVerificationCode();
-        assertThat(memberFindDtoByEmail.getPasswordVerificationCode()).isNotBlank();
+        //비밀번호 변경 메일의 링크에서 passwordVerificationCode를 얻는다.
+        passwordVerificationCode = OutboxEmails.findLastCode(outboxService, "cha3088@gmail.com", EmailMessage.CHANGE_PASSWORD_EMAIL_LINK);
+        assertThat(memberService.verifyPasswordVerificationCode(passwordVerificationCode)).isEqualTo(memberFindDtoByEmail.getId());
 
         //서버에 RefreshToken X
         assertThat(memberFindDtoByEmail.getJwtId()).isNull();
@@ -438,7 +449,8 @@ public class FormTest {
         assertThat(memberFindDtoByEmailAgain.getStatus()).isEqualTo(MemberStatus.ACTIVE.toString());
 
         //passwordVerificationCode 삭제 확인
-        assertThat(memberFindDtoByEmailAgain.getPasswordVerificationCode()).isBlank();
+        assertThatThrownBy(() -> memberService.verifyPasswordVerificationCode(passwordVerificationCode))
+                .isInstanceOf(NoSuchMemberException.class);
 
         //logInAttemptCount 0으로 초기화 확인
         assertThat(memberFindDtoByEmailAgain.getLogInAttempt()).isEqualTo(0);
@@ -463,7 +475,7 @@ public class FormTest {
         //서버에 RefreshToken O
         JwtFindDto jwtFindDtoByRefreshToken = jwtService.findJwtFindDtoByRefreshToken(refreshToken);
 
-        assertThat(jwtFindDtoByRefreshToken.getRefreshToken()).isEqualTo(refreshToken);
+        assertThat(jwtFindDtoByRefreshToken.getMemberId()).isNotNull();
     }
 
     @Test
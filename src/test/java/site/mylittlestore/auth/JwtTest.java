@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import site.mylittlestore.dto.jwt.JwtFindDto;
@@ -13,6 +14,8 @@ import site.mylittlestore.exception.member.temporarymember.NoSuchTemporaryMember
 import site.mylittlestore.service.auth.jwt.JwtService;
 import site.mylittlestore.service.member.MemberService;
 import site.mylittlestore.service.member.TemporaryMemberService;
+import site.mylittlestore.service.outbox.OutboxService;
+import site.mylittlestore.util.email.OutboxEmails;
 
 import javax.servlet.http.Cookie;
 import java.net.URLEncoder;
@@ -42,6 +45,10 @@ public class JwtTest {
     @Autowired
     private JwtService jwtService;
 
+    //outbox에 넘긴 이메일에서 인증 코드를 꺼낸다.
+    @SpyBean
+    private OutboxService outboxService;
+
     private String verificationCode = "";
 
     private String refreshToken = "";
@@ -66,7 +73,10 @@ public class JwtTest {
 
         //then
         //임시회원정보 생성되었는지 확인
-        verificationCode = temporaryMemberService.findVerificationCodeByEmail("cha3088@gmail.com");
+        assertThat(temporaryMemberService.findIdByEmail("cha3088@gmail.com")).isNotNull();
+
+        //인증 메일의 링크에서 verificationCode를 얻는다.
+        verificationCode = OutboxEmails.findLastCode(outboxService, "cha3088@gmail.com", EmailMessage.VERIFICATION_EMAIL_LINK);
         assertThat(verificationCode).isNotBlank();
     }
 
@@ -110,7 +120,7 @@ public class JwtTest {
         //서버에 RefreshToken O
         JwtFindDto jwtFindDtoByRefreshToken = jwtService.findJwtFindDtoByRefreshToken(refreshToken);
 
-        assertThat(jwtFindDtoByRefreshToken.getRefreshToken()).isEqualTo(refreshToken);
+        assertThat(jwtFindDtoByRefreshToken.getMemberId()).isNotNull();
     }
 
     @Test
@@ -119,16 +129,25 @@ public class JwtTest {
     void reissueAccessToken() throws Exception {
         //when
         //refreshToken으로 accessToken 재발급
+        String newRefreshToken = mockMvc.perform(get("/members/1")
+                        .cookie(new Cookie("refreshToken", refreshToken)))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists("accessToken"))
+                .andExpect(cookie().exists("refreshToken"))
+                .andReturn().getResponse().getCookie("refreshToken").getValue();
+
+        //다른 탭이 유예 기간 안에 이전 refreshToken으로 재발급하면, accessToken만 받는다.
         mockMvc.perform(get("/members/1")
                         .cookie(new Cookie("refreshToken", refreshToken)))
                 .andExpect(status().isOk())
                 .andExpect(cookie().exists("accessToken"))
-                .andExpect(cookie().exists("refreshToken"));
+                .andExpect(cookie().doesNotExist("refreshToken"));
 
         //then
-        //서버에 RefreshToken O
-        JwtFindDto jwtFindDtoByRefreshToken = jwtService.findJwtFindDtoByRefreshToken(refreshToken);
-        assertThat(jwtFindDtoByRefreshToken.getRefreshToken()).isEqualTo(refreshToken);
+        //서버에 새 RefreshToken O, 먼저 재발급한 탭의 refreshToken이 그대로 남는다.
+        JwtFindDto jwtFindDtoByRefreshToken = jwtService.findJwtFindDtoByRefreshToken(newRefreshToken);
+        assertThat(jwtFindDtoByRefreshToken.getMemberId()).isNotNull();
+        refreshToken = newRefreshToken;
     }
 
     @Test
@@ -0,0 +1,166 @@
+package site.mylittlestore.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import site.mylittlestore.config.auth.PrincipalUserDetails;
+import site.mylittlestore.config.auth.member.MemberAuthenticationProvider;
+import site.mylittlestore.config.auth.member.MemberLogInSuccessHandler;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.enumstorage.errormessage.auth.LogInErrorMessage;
+import site.mylittlestore.enumstorage.errormessage.auth.PasswordErrorMessage;
+import site.mylittlestore.enumstorage.status.MemberStatus;
+import site.mylittlestore.p6spy.StatementCount;
+import site.mylittlestore.p6spy.StatementCounter;
+import site.mylittlestore.service.auth.LogInAttemptCounter;
+import site.mylittlestore.service.member.MemberService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class MemberAuthenticationProviderTest {
+    private static final String EMAIL = "memberTest@gmail.com";
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private MemberAuthenticationProvider memberAuthenticationProvider;
+    @Autowired
+    private MemberLogInSuccessHandler memberLogInSuccessHandler;
+    @Autowired
+    private LogInAttemptCounter logInAttemptCounter;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Value("${log-in.attempt.max}")
+    private int maxAttempt;
+
+    private Long memberTestId;
+
+    @BeforeEach
+    void setUp() {
+        //joinMember는 받은 비밀번호를 그대로 저장하므로, 암호화해서 넘긴다. (회원가입에서는 임시 회원이 암호화한다.)
+        memberTestId = memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        //sql/test.sql로 회원 Id가 다시 1부터 시작하므로, 이전 테스트에서 센 실패 횟수를 지운다.
+        logInAttemptCounter.reset(memberTestId);
+    }
+
+    @Test
+    @DisplayName("max번 실패하면 잠그고, 잠글 때만 회원을 한 번 저장한다.")
+    void lockAfterMaxAttempt() throws Exception {
+        //given
+        List<String> sqls = new ArrayList<>();
+
+        //when
+        //max - 1번까지는 비밀번호가 틀렸다고만 하고, 회원을 저장하지 않는다.
+        for (int i = 1; i < maxAttempt; i++) {
+            StatementCount statementCount = statementCounter.measure(() -> assertThatThrownBy(() -> authenticate("wrongPassword"))
+                    .isInstanceOf(BadCredentialsException.class)
+                    .hasMessage(PasswordErrorMessage.PASSWORD_DOES_NOT_MATCH.getMessage()));
+            statementCount.assertUpdatesAtMost(0);
+            sqls.addAll(statementCount.getSqls());
+        }
+
+        //max번째에 잠근다.
+        StatementCount statementCount = statementCounter.measure(() -> assertThatThrownBy(() -> authenticate("wrongPassword"))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage(LogInErrorMessage.LOG_IN_ATTEMPT_EXCEEDED.getMessage()));
+        sqls.addAll(statementCount.getSqls());
+
+        //then
+        assertThat(countMemberUpdates(sqls)).isEqualTo(1);
+        assertThat(memberService.findMemberFindDtoById(memberTestId).getStatus()).isEqualTo(MemberStatus.LOCKED.toString());
+        assertThat(memberService.findMemberFindDtoById(memberTestId).getLogInAttempt()).isEqualTo(maxAttempt);
+
+        //잠긴 후에는 비밀번호가 맞아도 로그인할 수 없다.
+        assertThatThrownBy(() -> authenticate(PASSWORD))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage(LogInErrorMessage.LOG_IN_ATTEMPT_EXCEEDED.getMessage());
+    }
+
+    @Test
+    @DisplayName("로그인에 성공하면 실패 횟수를 다시 0부터 센다.")
+    void resetAfterSuccess() throws Exception {
+        //given
+        for (int i = 1; i < maxAttempt; i++) {
+            assertThatThrownBy(() -> authenticate("wrongPassword"))
+                    .isInstanceOf(BadCredentialsException.class);
+        }
+
+        //when
+        //DB에 저장된 실패 횟수가 없으므로, 성공해도 회원을 저장하지 않는다.
+        StatementCount statementCount = statementCounter.measure(() -> authenticate(PASSWORD));
+        assertThat(countMemberUpdates(statementCount.getSqls())).isEqualTo(0);
+
+        //then
+        //다시 max - 1번 실패해도 잠그지 않는다.
+        for (int i = 1; i < maxAttempt; i++) {
+            assertThatThrownBy(() -> authenticate("wrongPassword"))
+                    .isInstanceOf(BadCredentialsException.class)
+                    .hasMessage(PasswordErrorMessage.PASSWORD_DOES_NOT_MATCH.getMessage());
+        }
+        assertThat(memberService.findMemberFindDtoById(memberTestId).getStatus()).isEqualTo(MemberStatus.ACTIVE.toString());
+    }
+
+    @Test
+    @DisplayName("로그인 성공 handler는 로그인할 때 조회한 회원으로 token들을 발급하고, 회원을 다시 조회하지 않는다.")
+    void issueTokensWithLoadedMember() throws Exception {
+        //given
+        Authentication authentication = authenticate(PASSWORD);
+        assertThat(authentication.getPrincipal()).isInstanceOf(PrincipalUserDetails.class);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login/member");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        StatementCount statementCount = statementCounter.measure(() -> memberLogInSuccessHandler.onAuthenticationSuccess(request, response, authentication));
+
+        //then
+        assertThat(statementCount.getSqls())
+                .noneMatch(sql -> sql.toLowerCase(Locale.ROOT).matches("(?s)select .* from member .*"));
+        assertThat(response.getCookie("accessToken")).isNotNull();
+        assertThat(response.getCookie("refreshToken")).isNotNull();
+        assertThat(response.getRedirectedUrl()).isEqualTo("/");
+    }
+
+    private Authentication authenticate(String password) {
+        return memberAuthenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, password));
+    }
+
+    private static long countMemberUpdates(List<String> sqls) {
+        return sqls.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("update member "))
+                .count();
+    }
+}
@@ -0,0 +1,56 @@
+package site.mylittlestore.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import site.mylittlestore.config.auth.MemberAuthorizationContext;
+import site.mylittlestore.enumstorage.role.MemberRole;
+import site.mylittlestore.interceptor.auth.MemberAuthorizationInterceptor;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemberAuthorizationInterceptorTest {
+    private final MemberAuthorizationInterceptor interceptor = new MemberAuthorizationInterceptor();
+
+    private boolean preHandle(String uri, MemberAuthorizationContext context) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (context != null) {
+            context.saveTo(request);
+        }
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    @Test
+    @DisplayName("본인의 회원 정보와 본인 가게의 하위 URL만 접근할 수 있다.")
+    void member() throws Exception {
+        MemberAuthorizationContext context = new MemberAuthorizationContext(1L, MemberRole.MEMBER, Set.of(10L, 11L));
+
+        assertThat(preHandle("/members/1", context)).isTrue();
+        assertThat(preHandle("/members/1/update", context)).isTrue();
+        assertThat(preHandle("/members/1/stores/new", context)).isTrue();
+        assertThat(preHandle("/members/1/stores/10", context)).isTrue();
+        assertThat(preHandle("/members/1/stores/11/storeTables/3/orders/4", context)).isTrue();
+
+        assertThat(preHandle("/members/2", context)).isFalse();
+        assertThat(preHandle("/members/1/stores/12", context)).isFalse();
+        assertThat(preHandle("/members/1/stores/12/items", context)).isFalse();
+        assertThat(preHandle("/members", context)).isFalse();
+    }
+
+    @Test
+    @DisplayName("admin은 모두 접근할 수 있다.")
+    void admin() throws Exception {
+        MemberAuthorizationContext context = new MemberAuthorizationContext(1L, MemberRole.ADMIN, Set.of());
+
+        assertThat(preHandle("/members/2/stores/12", context)).isTrue();
+    }
+
+    @Test
+    @DisplayName("인가 정보가 없으면 접근할 수 없다.")
+    void noContext() throws Exception {
+        assertThat(preHandle("/members/1", null)).isFalse();
+    }
+}
@@ -0,0 +1,175 @@
+package site.mylittlestore.auth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import site.mylittlestore.enumstorage.errormessage.auth.LogInErrorMessage;
+import site.mylittlestore.exception.auth.LogInException;
+import site.mylittlestore.service.auth.password.PasswordVerification;
+import site.mylittlestore.service.auth.password.PasswordVerifier;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PasswordVerifierTest {
+    private PasswordVerifier passwordVerifier;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordVerifier != null) {
+            passwordVerifier.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("검증 스레드에서 비밀번호를 검증한다.")
+    void verify() {
+        //given
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        passwordVerifier = new PasswordVerifier(passwordEncoder, "2a", 4, 1, 1, 3000);
+        String encodedPassword = passwordEncoder.encode("abcde102938!");
+
+        //when
+        PasswordVerification matched;
+        PasswordVerification mismatched;
+        try (PasswordVerifier.Permit permit = passwordVerifier.admit()) {
+            matched = permit.verify("abcde102938!", encodedPassword);
+            mismatched = permit.verify("wrong", encodedPassword);
+        }
+
+        //then
+        assertThat(matched.isMatched()).isTrue();
+        //설정이 같으면 다시 해시하지 않는다.
+        assertThat(matched.getRehashedPassword()).isEmpty();
+        assertThat(mismatched.isMatched()).isFalse();
+
+        assertThat(passwordVerifier.snapshot().getMatchedCount()).isEqualTo(1);
+        assertThat(passwordVerifier.snapshot().getMismatchedCount()).isEqualTo(1);
+        assertThat(passwordVerifier.snapshot().getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("저장된 해시의 설정이 지금 설정과 다르면, 로그인에 성공할 때 다시 해시한다.")
+    void rehash() {
+        //given
+        String encodedPassword = new BCryptPasswordEncoder(4).encode("abcde102938!");
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(5);
+        passwordVerifier = new PasswordVerifier(passwordEncoder, "2a", 5, 1, 1, 3000);
+
+        //when
+        PasswordVerification passwordVerification;
+        PasswordVerification wrongPasswordVerification;
+        try (PasswordVerifier.Permit permit = passwordVerifier.admit()) {
+            passwordVerification = permit.verify("abcde102938!", encodedPassword);
+            wrongPasswordVerification = permit.verify("wrong", encodedPassword);
+        }
+
+        //then
+        assertThat(passwordVerification.isMatched()).isTrue();
+        assertThat(passwordVerification.getRehashedPassword()).isPresent();
+        String rehashedPassword = passwordVerification.getRehashedPassword().get();
+        assertThat(rehashedPassword).startsWith("$2a$05$");
+        assertThat(passwordEncoder.matches("abcde102938!", rehashedPassword)).isTrue();
+
+        //틀리면 다시 해시하지 않는다.
+        assertThat(wrongPasswordVerification.getRehashedPassword()).isEmpty();
+        assertThat(passwordVerifier.snapshot().getRehashedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("검증할 자리가 없으면 바로 돌려보낸다.")
+    void admit() {
+        //given
+        //검증 스레드 1개, 기다리는 자리 1개
+        passwordVerifier = new PasswordVerifier(new BCryptPasswordEncoder(4), "2a", 4, 1, 1, 3000);
+        PasswordVerifier.Permit first = passwordVerifier.admit();
+        PasswordVerifier.Permit second = passwordVerifier.admit();
+
+        //then
+        assertThatThrownBy(() -> passwordVerifier.admit())
+                .isInstanceOf(LogInException.class)
+                .hasMessage(LogInErrorMessage.LOG_IN_BUSY.getMessage());
+        assertThat(passwordVerifier.snapshot().getRejectedCount()).isEqualTo(1);
+        assertThat(passwordVerifier.snapshot().getInFlight()).isEqualTo(2);
+
+        //자리를 돌려주면 다시 받는다.
+        first.close();
+        //두 번 닫아도 한 번만 돌려준다.
+        first.close();
+        passwordVerifier.admit().close();
+        second.close();
+        assertThat(passwordVerifier.snapshot().getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("max-wait 안에 검증이 끝나지 않으면 돌려보내고, 자리는 검증이 끝난 후에 돌려준다.")
+    void timeout() throws InterruptedException {
+        //given
+        //검증 스레드 1개, 기다리는 자리 1개
+        CountDownLatch release = new CountDownLatch(1);
+        passwordVerifier = new PasswordVerifier(new BlockingPasswordEncoder(release), "2a", 4, 1, 1, 100);
+
+        try {
+            //when
+            //검증 중에 돌려보낸다.
+            try (PasswordVerifier.Permit permit = passwordVerifier.admit()) {
+                assertThatThrownBy(() -> permit.verify("abcde102938!", "$2a$04$encoded"))
+                        .isInstanceOf(LogInException.class)
+                        .hasMessage(LogInErrorMessage.LOG_IN_BUSY.getMessage());
+            }
+
+            //검증 스레드가 아직 검증 중이므로, 닫아도 자리를 돌려주지 않는다.
+            assertThat(passwordVerifier.snapshot().getInFlight()).isEqualTo(1);
+
+            //큐에서 기다리다 돌려보낸 검증은 취소하고, 닫으면 바로 자리를 돌려준다.
+            try (PasswordVerifier.Permit permit = passwordVerifier.admit()) {
+                assertThatThrownBy(() -> permit.verify("abcde102938!", "$2a$04$encoded"))
+                        .isInstanceOf(LogInException.class)
+                        .hasMessage(LogInErrorMessage.LOG_IN_BUSY.getMessage());
+            }
+            assertThat(passwordVerifier.snapshot().getInFlight()).isEqualTo(1);
+            assertThat(passwordVerifier.snapshot().getQueueDepth()).isEqualTo(0);
+        } finally {
+            release.countDown();
+        }
+
+        //then
+        //검증이 끝나면 자리를 돌려준다.
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (passwordVerifier.snapshot().getInFlight() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(passwordVerifier.snapshot().getInFlight()).isEqualTo(0);
+        assertThat(passwordVerifier.snapshot().getTimedOutCount()).isEqualTo(2);
+    }
+
+    /**
+     * release될 때까지 검증하지 않는다.
+     */
+    private static class BlockingPasswordEncoder implements PasswordEncoder {
+        private final CountDownLatch release;
+
+        private BlockingPasswordEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+    }
+}
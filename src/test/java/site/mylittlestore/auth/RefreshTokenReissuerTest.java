@@ -0,0 +1,155 @@
+package site.mylittlestore.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.mylittlestore.enumstorage.errormessage.auth.jwt.JwtErrorMessage;
+import site.mylittlestore.enumstorage.role.MemberRole;
+import site.mylittlestore.exception.auth.jwt.NoSuchJwtException;
+import site.mylittlestore.service.auth.jwt.AuthenticatedMember;
+import site.mylittlestore.service.auth.jwt.JwtService;
+import site.mylittlestore.service.auth.jwt.RefreshTokenReissuer;
+import site.mylittlestore.service.auth.jwt.ReissuedTokens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RefreshTokenReissuerTest {
+    private static final int THREAD_COUNT = 64;
+
+    /**
+     * 재발급 횟수를 세고, release될 때까지 재발급을 붙잡아 두는 JwtService
+     */
+    private static class BlockingJwtService extends JwtService {
+        private final AtomicInteger reissueCount = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final boolean fail;
+
+        BlockingJwtService(boolean fail) {
+            super(null, null, null);
+            this.fail = fail;
+        }
+
+        @Override
+        public ReissuedTokens reissueTokens(String refreshToken) {
+            int count = reissueCount.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (fail) {
+                throw new NoSuchJwtException(JwtErrorMessage.NO_SUCH_REFRESH_TOKEN.getMessage());
+            }
+
+            return ReissuedTokens.builder()
+                    .accessToken("accessToken" + count)
+                    .refreshToken("refreshToken" + count)
+                    .authenticatedMember(AuthenticatedMember.builder()
+                            .memberId(1L)
+                            .email("test@gmail.com")
+                            .role(MemberRole.MEMBER)
+                            .expiresAt(System.currentTimeMillis() + 60000L)
+                            .build())
+                    .build();
+        }
+    }
+
+    /**
+     * THREAD_COUNT개의 요청이 동시에 같은 refresh token으로 재발급한다.
+     */
+    private List<Future<ReissuedTokens>> reissueConcurrently(RefreshTokenReissuer reissuer, BlockingJwtService jwtService) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch ready = new CountDownLatch(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<ReissuedTokens>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executorService.submit(() -> {
+                ready.countDown();
+                start.await();
+                return reissuer.reissue("refreshToken");
+            }));
+        }
+
+        ready.await();
+        start.countDown();
+
+        //첫 요청이 재발급을 시작하고, 나머지 요청들이 합류할 때까지 기다린 후 재발급을 끝낸다.
+        assertThat(jwtService.entered.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        jwtService.release.countDown();
+
+        for (Future<ReissuedTokens> future : futures) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException ignored) {
+            }
+        }
+        executorService.shutdown();
+
+        return futures;
+    }
+
+    @Test
+    @DisplayName("같은 refresh token으로 동시에 재발급하면, 한 번만 재발급하고 모두 같은 토큰 쌍을 받는다.")
+    void coalesce() throws Exception {
+        //given
+        BlockingJwtService jwtService = new BlockingJwtService(false);
+        RefreshTokenReissuer reissuer = new RefreshTokenReissuer(jwtService);
+
+        //when
+        List<Future<ReissuedTokens>> futures = reissueConcurrently(reissuer, jwtService);
+
+        //then
+        assertThat(jwtService.reissueCount.get()).isEqualTo(1);
+        for (Future<ReissuedTokens> future : futures) {
+            assertThat(future.get().getAccessToken()).isEqualTo("accessToken1");
+            assertThat(future.get().getRefreshToken()).isEqualTo("refreshToken1");
+        }
+        assertThat(reissuer.inFlightSize()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("재발급에 실패하면, 기다리던 요청들도 같은 예외를 받는다.")
+    void coalesceFailure() throws Exception {
+        //given
+        BlockingJwtService jwtService = new BlockingJwtService(true);
+        RefreshTokenReissuer reissuer = new RefreshTokenReissuer(jwtService);
+
+        //when
+        List<Future<ReissuedTokens>> futures = reissueConcurrently(reissuer, jwtService);
+
+        //then
+        assertThat(jwtService.reissueCount.get()).isEqualTo(1);
+        for (Future<ReissuedTokens> future : futures) {
+            assertThatThrownBy(future::get)
+                    .hasCauseInstanceOf(NoSuchJwtException.class);
+        }
+        assertThat(reissuer.inFlightSize()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("재발급이 끝난 후에 들어온 요청은 다시 재발급한다.")
+    void sequential() {
+        //given
+        BlockingJwtService jwtService = new BlockingJwtService(false);
+        jwtService.release.countDown();
+        RefreshTokenReissuer reissuer = new RefreshTokenReissuer(jwtService);
+
+        //when
+        ReissuedTokens first = reissuer.reissue("refreshToken");
+        ReissuedTokens second = reissuer.reissue("refreshToken");
+
+        //then
+        assertThat(jwtService.reissueCount.get()).isEqualTo(2);
+        assertThat(first.getAccessToken()).isNotEqualTo(second.getAccessToken());
+    }
+}
@@ -16,6 +16,7 @@ import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.enumstorage.errormessage.OrderItemErrorMessage;
 import site.mylittlestore.exception.orderitem.OrderItemException;
 import site.mylittlestore.service.*;
+import site.mylittlestore.service.item.MenuCache;
 import site.mylittlestore.service.member.MemberService;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,6 +49,8 @@ public class OrderItemControllerTest {
 
     @Autowired
     private ItemService itemService;
+    @Autowired
+    private MenuCache menuCache;
 
     private Long memberTestId;
     private Long storeTestId;
@@ -102,6 +105,12 @@ public class OrderItemControllerTest {
                 .build());
     }
 
+    @AfterEach
+    void tearDown() {
+        //sql/test.sql로 가게 Id가 다시 1부터 시작하므로, 이전 테스트의 메뉴를 비운다.
+        menuCache.clear();
+    }
+
     //나중에 주문만 확인할 이유가 생길 때 만들자
 //    @Test
 //    void orderItemInfo() throws Exception {
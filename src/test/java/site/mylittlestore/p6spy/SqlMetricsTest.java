@@ -0,0 +1,95 @@
+package site.mylittlestore.p6spy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.mylittlestore.dto.sqlmetrics.QueryShapeDto;
+import site.mylittlestore.dto.sqlmetrics.SlowQueryDto;
+import site.mylittlestore.dto.sqlmetrics.SqlMetricsDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlMetricsTest {
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    @DisplayName("리터럴과 IN 목록을 ?로 바꿔서 같은 모양으로 묶는다.")
+    void shapeOf() {
+        assertThat(SqlMetrics.shapeOf("select * from item  where item_id = 1 and name = 'it''s'"))
+                .isEqualTo("select * from item where item_id = ? and name = ?");
+        assertThat(SqlMetrics.shapeOf("select * from item where item_id in (?, ?, ?)"))
+                .isEqualTo(SqlMetrics.shapeOf("select * from item where item_id in (?)"));
+        assertThat(SqlMetrics.shapeOf("select item0_.item_id from item item0_ where item0_.stock >= 10"))
+                .isEqualTo("select item0_.item_id from item item0_ where item0_.stock >= ?");
+    }
+
+    @Test
+    @DisplayName("모양마다 실행 횟수, 지연 시간 히스토그램을 모은다.")
+    void record() {
+        //given
+        SqlMetrics sqlMetrics = new SqlMetrics(true, 10, 1000, 10, 1000);
+
+        //when
+        for (int i = 0; i < 99; i++) {
+            sqlMetrics.record("select * from item where item_id = " + i, MILLIS, false);
+        }
+        sqlMetrics.record("select * from item where item_id = 100", 300 * MILLIS, true);
+
+        //then
+        List<QueryShapeDto> queryShapes = sqlMetrics.snapshot().getQueryShapes();
+        assertThat(queryShapes).hasSize(1);
+
+        QueryShapeDto queryShape = queryShapes.get(0);
+        assertThat(queryShape.getShape()).isEqualTo("select * from item where item_id = ?");
+        assertThat(queryShape.getCount()).isEqualTo(100L);
+        assertThat(queryShape.getErrorCount()).isEqualTo(1L);
+        assertThat(queryShape.getP50Millis()).isEqualTo(1.0);
+        assertThat(queryShape.getP99Millis()).isEqualTo(1.0);
+        assertThat(queryShape.getMaxMillis()).isEqualTo(300.0);
+    }
+
+    @Test
+    @DisplayName("모양이 max-shapes를 넘으면 (other)로 합친다.")
+    void maxShapes() {
+        //given
+        SqlMetrics sqlMetrics = new SqlMetrics(true, 2, 1000, 10, 1000);
+
+        //when
+        sqlMetrics.record("select * from item", MILLIS, false);
+        sqlMetrics.record("select * from orders", MILLIS, false);
+        sqlMetrics.record("select * from payment", MILLIS, false);
+        sqlMetrics.record("select * from member", MILLIS, false);
+
+        //then
+        SqlMetricsDto snapshot = sqlMetrics.snapshot();
+        assertThat(snapshot.getQueryShapes()).hasSize(3);
+        assertThat(snapshot.getOverflowCount()).isEqualTo(2L);
+        assertThat(snapshot.getQueryShapes())
+                .filteredOn(queryShape -> queryShape.getShape().equals(SqlMetrics.OTHER_SHAPE))
+                .singleElement()
+                .extracting(QueryShapeDto::getCount)
+                .isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("느린 SQL 문은 최근 slow-samples개만 남기고, stack-threshold보다 느릴 때만 호출 스택을 남긴다.")
+    void slowQueries() {
+        //given
+        SqlMetrics sqlMetrics = new SqlMetrics(true, 10, 10, 2, 100);
+
+        //when
+        sqlMetrics.record("select * from item", MILLIS, false);
+        sqlMetrics.record("select * from orders", 20 * MILLIS, false);
+        sqlMetrics.record("select * from payment", 30 * MILLIS, false);
+        sqlMetrics.record("select * from member", 200 * MILLIS, false);
+
+        //then
+        List<SlowQueryDto> slowQueries = sqlMetrics.snapshot().getSlowQueries();
+        assertThat(slowQueries).extracting(SlowQueryDto::getShape)
+                .containsExactlyInAnyOrder("select * from payment", "select * from member");
+        assertThat(slowQueries).filteredOn(slowQuery -> slowQuery.getStack() != null)
+                .extracting(SlowQueryDto::getShape)
+                .containsExactly("select * from member");
+    }
+}
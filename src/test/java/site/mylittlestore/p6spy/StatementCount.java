@@ -0,0 +1,86 @@
+package site.mylittlestore.p6spy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * StatementCounter.measure()로 센 SQL 문
+ * 서비스 호출 하나가 보내는 SQL 문의 상한을 검증해서, N + 1 문제가 다시 생기면 테스트가 실패하도록 한다.
+ */
+public class StatementCount {
+    private final List<String> sqls;
+
+    StatementCount(List<String> sqls) {
+        this.sqls = Collections.unmodifiableList(new ArrayList<>(sqls));
+    }
+
+    public List<String> getSqls() {
+        return sqls;
+    }
+
+    public long total() {
+        return sqls.size();
+    }
+
+    public long selects() {
+        return count(sqls, "select");
+    }
+
+    public long inserts() {
+        return count(sqls, "insert");
+    }
+
+    public long updates() {
+        return count(sqls, "update");
+    }
+
+    public long deletes() {
+        return count(sqls, "delete");
+    }
+
+    public StatementCount assertSelectsAtMost(long max) {
+        return assertAtMost("select", selects(), max);
+    }
+
+    public StatementCount assertInsertsAtMost(long max) {
+        return assertAtMost("insert", inserts(), max);
+    }
+
+    public StatementCount assertUpdatesAtMost(long max) {
+        return assertAtMost("update", updates(), max);
+    }
+
+    public StatementCount assertDeletesAtMost(long max) {
+        return assertAtMost("delete", deletes(), max);
+    }
+
+    public StatementCount assertTotalAtMost(long max) {
+        return assertAtMost("전체", total(), max);
+    }
+
+    /**
+     * SQL 문을 하나도 보내지 않았는지 확인
+     */
+    public StatementCount assertNone() {
+        return assertTotalAtMost(0);
+    }
+
+    private StatementCount assertAtMost(String type, long actual, long max) {
+        assertThat(actual)
+                .as(() -> type + " 문은 최대 " + max + "번이어야 하는데, " + actual + "번 실행되었습니다.\n" + String.join("\n", sqls))
+                .isLessThanOrEqualTo(max);
+        return this;
+    }
+
+    static long count(Collection<String> sqls, String sqlPrefix) {
+        String prefix = sqlPrefix.toLowerCase(Locale.ROOT);
+        return sqls.stream()
+                .filter(sql -> StatementCounter.normalize(sql).startsWith(prefix))
+                .count();
+    }
+}
@@ -0,0 +1,77 @@
+package site.mylittlestore.p6spy;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * p6spy로 DB에 보낸 SQL 문을 센다.
+ * JDBC batch는 모아서 보낸 한 번을 하나로 센다.
+ * JdbcEventListener 빈은 p6spy-spring-boot-starter가 자동으로 등록한다.
+ */
+@Component
+public class StatementCounter extends SimpleJdbcEventListener {
+    private final Queue<String> executedSqls = new ConcurrentLinkedQueue<>();
+
+    //measure() 중인 스레드에서 실행한 SQL 문
+    private final ThreadLocal<List<String>> measuringSqls = new ThreadLocal<>();
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String sql = statementInformation.getSql();
+        executedSqls.add(sql);
+
+        List<String> sqls = measuringSqls.get();
+        if (sqls != null) {
+            sqls.add(sql);
+        }
+    }
+
+    /**
+     * action을 실행하는 동안, 현재 스레드에서 보낸 SQL 문만 센다.
+     * 스케줄러 등 다른 스레드의 SQL 문은 세지 않는다.
+     * ex) statementCounter.measure(() -> orderItemService.createOrderItem(...)).assertSelectsAtMost(4);
+     */
+    public StatementCount measure(Action action) throws Exception {
+        List<String> sqls = new ArrayList<>();
+        measuringSqls.set(sqls);
+        try {
+            action.run();
+        } finally {
+            measuringSqls.remove();
+        }
+        return new StatementCount(sqls);
+    }
+
+    public void clear() {
+        executedSqls.clear();
+    }
+
+    public long count() {
+        return executedSqls.size();
+    }
+
+    /**
+     * sqlPrefix로 시작하는 SQL 문의 개수 (대소문자 무시)
+     * @param sqlPrefix ex) "insert into order_item"
+     */
+    public long count(String sqlPrefix) {
+        return StatementCount.count(executedSqls, sqlPrefix);
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    static String normalize(String sql) {
+        return sql == null ? "" : sql.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,7 @@
 package site.mylittlestore.repository;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -122,4 +123,38 @@ class ItemRepositoryTest {
         assertThat(findItem.get().getStock()).isEqualTo(100L);
     }
 
+    @Test
+    @DisplayName("다른 가게의 상품은 재고를 줄이거나 늘리지 않는다.")
+    void changeStockOfOtherStoreItem() {
+        //given
+        Long otherStoreId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(memberTestId)
+                .name("otherStoreTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        Long otherStoreItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(otherStoreId)
+                .name("otherItemTest")
+                .price(5000L)
+                .stock(10L)
+                .build());
+
+        //when
+        long decreasedCount = itemRepository.decreaseStock(storeTestId, otherStoreItemId, 1L);
+        long increasedCount = itemRepository.increaseStock(storeTestId, otherStoreItemId, 1L);
+
+        //then
+        assertThat(decreasedCount).isEqualTo(0L);
+        assertThat(increasedCount).isEqualTo(0L);
+
+        //상품의 가게에서는 줄인다.
+        assertThat(itemRepository.decreaseStock(otherStoreId, otherStoreItemId, 1L)).isEqualTo(1L);
+
+        em.clear();
+        assertThat(itemRepository.findItemById(otherStoreItemId).get().getStock()).isEqualTo(9L);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package site.mylittlestore.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.domain.Item;
+import site.mylittlestore.domain.Order;
+import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.domain.Store;
+import site.mylittlestore.dto.item.ItemCreationDto;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.dto.store.StoreToggleStatusDto;
+import site.mylittlestore.p6spy.StatementCount;
+import site.mylittlestore.p6spy.StatementCounter;
+import site.mylittlestore.repository.orderitem.OrderItemRepository;
+import site.mylittlestore.service.ItemService;
+import site.mylittlestore.service.OrderService;
+import site.mylittlestore.service.StoreService;
+import site.mylittlestore.service.StoreTableService;
+import site.mylittlestore.service.member.MemberService;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 운영과 같이 pooled-lo optimizer로 주문 상품 Id를 받는다.
+ * 테스트가 끝나면 IdOptimizerResetListener가 메모리에 받아둔 Id 범위를 버리므로, sql/test.sql로 시퀀스를 다시 시작해도 겹치지 않는다.
+ */
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class OrderItemIdAllocationTest {
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long storeTestId;
+    private Long itemTestId;
+    private Long orderTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email("memberTest@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        Long newStoreId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(newMemberId)
+                .name("storeTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(newStoreId)
+                .name("itemTest")
+                .price(10000L)
+                .stock(100L)
+                .build());
+
+        //가게 열기
+        storeService.toggleStoreStatus(StoreToggleStatusDto.builder()
+                .id(newStoreId)
+                .memberId(newMemberId)
+                .build());
+
+        Long newStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        storeTestId = newStoreId;
+        itemTestId = newItemId;
+        orderTestId = orderService.createOrder(newStoreId, newStoreTableId);
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("JPA로 저장하는 주문 상품과 MERGE로 만드는 주문 상품의 Id가 겹치지 않는다.")
+    void saveAllWithCreateOrIncrement() throws Exception {
+        //given
+        int saveAllCount = 60;
+        int mergeCount = 5;
+
+        Store store = em.find(Store.class, storeTestId);
+        Order order = em.find(Order.class, orderTestId);
+        Item item = em.find(Item.class, itemTestId);
+
+        //setUp도 이 트랜잭션 안에서 실행되므로, 주문 INSERT 등을 미리 보내서 세지 않는다.
+        em.flush();
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        List<Long> mergedOrderItemIds = new ArrayList<>();
+
+        //when
+        //JPA 저장 -> MERGE -> JPA 저장 -> batch MERGE 순서로 섞는다.
+        //가격이 모두 다르므로, MERGE는 모두 새로 만든다.
+        StatementCount statementCount = statementCounter.measure(() -> {
+            orderItems.addAll(orderItemRepository.saveAll(newOrderItems(store, order, item, 1, saveAllCount)));
+
+            for (int i = 0; i < mergeCount; i++) {
+                mergedOrderItemIds.add(orderItemRepository.createOrIncrement(storeTestId, orderTestId, itemTestId, 10_000L + i, 1L).orElseThrow());
+            }
+
+            orderItems.addAll(orderItemRepository.saveAll(newOrderItems(store, order, item, saveAllCount + 1, saveAllCount)));
+
+            List<OrderItemCreationDto> orderItemCreationDtos = new ArrayList<>();
+            for (int i = 0; i < mergeCount; i++) {
+                orderItemCreationDtos.add(OrderItemCreationDto.builder()
+                        .orderId(orderTestId)
+                        .itemId(itemTestId)
+                        .price(20_000L + i)
+                        .count(1L)
+                        .build());
+            }
+            mergedOrderItemIds.addAll(orderItemRepository.createOrIncrementAll(storeTestId, orderTestId, orderItemCreationDtos));
+
+            em.flush();
+        });
+
+        //then
+        //JPA Id와 MERGE Id가 모두 다르다.
+        Set<Long> jpaOrderItemIds = orderItems.stream()
+                .map(OrderItem::getId)
+                .collect(Collectors.toSet());
+        assertThat(jpaOrderItemIds).hasSize(saveAllCount * 2).doesNotContainNull();
+        assertThat(mergedOrderItemIds).hasSize(mergeCount * 2).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(mergedOrderItemIds).doesNotContainAnyElementsOf(jpaOrderItemIds);
+
+        Set<Long> allOrderItemIds = new HashSet<>(jpaOrderItemIds);
+        allOrderItemIds.addAll(mergedOrderItemIds);
+        assertThat(orderItemRepository.count()).isEqualTo(allOrderItemIds.size());
+
+        //JPA 저장 120개는 시퀀스를 범위(50개)마다 한 번씩만 부르고, INSERT는 batch로 나간다.
+        //시퀀스 3번 + INSERT batch 최대 4번 + createOrIncrement 5번 + batch MERGE 1번 + MERGE 후 Id 조회 1번
+        int sequenceCalls = (saveAllCount * 2 + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+        int insertBatches = 2 * ((saveAllCount + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE);
+        statementCount
+                .assertInsertsAtMost(insertBatches)
+                .assertTotalAtMost(sequenceCalls + insertBatches + mergeCount + 2);
+    }
+
+    private static List<OrderItem> newOrderItems(Store store, Order order, Item item, int fromPrice, int count) {
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orderItems.add(OrderItem.builder()
+                    .store(store)
+                    .order(order)
+                    .item(item)
+                    .price((long) (fromPrice + i))
+                    .count(1L)
+                    .build());
+        }
+        return orderItems;
+    }
+}
@@ -8,7 +8,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import site.mylittlestore.domain.Item;
+import site.mylittlestore.domain.Order;
 import site.mylittlestore.domain.OrderItem;
+import site.mylittlestore.domain.Store;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
@@ -17,10 +21,13 @@ import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.enumstorage.errormessage.OrderItemErrorMessage;
 import site.mylittlestore.exception.orderitem.NoSuchOrderItemException;
+import site.mylittlestore.p6spy.StatementCounter;
 import site.mylittlestore.repository.orderitem.OrderItemRepository;
 import site.mylittlestore.service.*;
 import site.mylittlestore.service.member.MemberService;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -46,6 +53,11 @@ public class OrderItemRepositoryTest {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private StatementCounter statementCounter;
+
     private Long memberTestId;
     private Long storeTestId;
     private Long itemTestId1;
@@ -249,4 +261,38 @@ public class OrderItemRepositoryTest {
         //then
         assertThat(allByOrderId.size()).isEqualTo(3);
     }
+
+    @Test
+    @Transactional
+    @DisplayName("주문 상품 N개를 저장하면 INSERT 문은 N / batch_size번만 보낸다.")
+    void saveAllWithJdbcBatch() {
+        //given
+        int orderItemCount = 120;
+        int batchSize = 50;
+
+        Store store = em.find(Store.class, storeTestId);
+        Order order = em.find(Order.class, orderTestId1);
+        Item item = em.find(Item.class, itemTestId1);
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < orderItemCount; i++) {
+            orderItems.add(OrderItem.builder()
+                    .store(store)
+                    .order(order)
+                    .item(item)
+                    .price((long) (i + 1))
+                    .count(1L)
+                    .build());
+        }
+
+        //when
+        statementCounter.clear();
+        orderItemRepository.saveAll(orderItems);
+        em.flush();
+
+        //then
+        //Id는 시퀀스에서 받으므로, INSERT는 flush할 때 batch로 나간다.
+        assertThat(statementCounter.count("insert into order_item")).isEqualTo((orderItemCount + batchSize - 1) / batchSize);
+        assertThat(orderItems).allMatch(orderItem -> orderItem.getId() != null);
+    }
 }
@@ -0,0 +1,165 @@
+package site.mylittlestore.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.mylittlestore.repository.member.temporarymember.TemporaryMemberRepository;
+import site.mylittlestore.service.member.TemporaryMemberService;
+import site.mylittlestore.service.member.TemporaryMemberSweeper;
+import site.mylittlestore.util.TokenHasher;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TemporaryMemberRepositoryTest {
+    private static final int SMALL_SIZE = 1_000;
+    private static final int LARGE_SIZE = 50_000;
+    private static final int LOOKUPS = 300;
+
+    @Autowired
+    private TemporaryMemberRepository temporaryMemberRepository;
+
+    @Autowired
+    private TemporaryMemberService temporaryMemberService;
+
+    @Autowired
+    private TemporaryMemberSweeper temporaryMemberSweeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("임시 회원이 많아져도 조회 시간이 거의 그대로다.")
+    void lookUpLatency() {
+        //given
+        LocalDateTime expiredAt = LocalDateTime.now().plusDays(1);
+        insertTemporaryMembers(0, SMALL_SIZE, expiredAt);
+
+        //워밍업
+        medianLookUpNanos(SMALL_SIZE);
+        long smallMedian = medianLookUpNanos(SMALL_SIZE);
+
+        //when
+        insertTemporaryMembers(SMALL_SIZE, LARGE_SIZE, expiredAt);
+        long largeMedian = medianLookUpNanos(LARGE_SIZE);
+
+        //then
+        //전체를 읽는다면 50배 가까이 느려진다.
+        assertThat(largeMedian).isLessThan(smallMedian * 5);
+    }
+
+    @Test
+    @DisplayName("조회와 삭제는 인덱스를 사용한다.")
+    void explain() {
+        //given
+        insertTemporaryMembers(0, SMALL_SIZE, LocalDateTime.now().plusDays(1));
+
+        //when
+        String findByEmail = explain("SELECT id FROM temporary_member WHERE email = 'temporaryMember1@gmail.com'");
+        String findByVerificationCodeHash = explain("SELECT id FROM temporary_member WHERE verification_code_hash = '" + TokenHasher.hash(verificationCode(1)) + "'");
+        String findAllExpiredIds = explain("SELECT id FROM temporary_member WHERE verification_code_expired_at < CURRENT_TIMESTAMP ORDER BY verification_code_expired_at LIMIT 500");
+
+        //then
+        assertThat(findByEmail).doesNotContainIgnoringCase("tableScan");
+        assertThat(findByVerificationCodeHash).doesNotContainIgnoringCase("tableScan");
+        assertThat(findAllExpiredIds).containsIgnoringCase("IDX_TEMPORARY_MEMBER_VERIFICATION_CODE_EXPIRED_AT");
+    }
+
+    @Test
+    @DisplayName("인증 코드가 만료된 임시 회원을 나눠서 지운다.")
+    void sweep() {
+        //given
+        insertTemporaryMembers(0, 1_200, LocalDateTime.now().minusMinutes(1));
+        insertTemporaryMembers(1_200, 1_210, LocalDateTime.now().plusDays(1));
+
+        //when
+        //한 번에 chunkSize개까지만 지운다.
+        long deletedCount = temporaryMemberService.deleteExpiredTemporaryMembers(LocalDateTime.now(), 500);
+        assertThat(deletedCount).isEqualTo(500L);
+
+        Object chunkSize = ReflectionTestUtils.getField(temporaryMemberSweeper, "chunkSize");
+        ReflectionTestUtils.setField(temporaryMemberSweeper, "chunkSize", 300);
+        try {
+            temporaryMemberSweeper.sweep();
+        } finally {
+            ReflectionTestUtils.setField(temporaryMemberSweeper, "chunkSize", chunkSize);
+        }
+
+        //then
+        //만료되지 않은 임시 회원만 남는다.
+        assertThat(temporaryMemberRepository.count()).isEqualTo(10L);
+        assertThat(temporaryMemberRepository.findIdByEmail(email(0))).isEmpty();
+        assertThat(temporaryMemberRepository.findByEmail(email(1_200))).isPresent();
+    }
+
+    private void insertTemporaryMembers(int from, int to, LocalDateTime expiredAt) {
+        List<Integer> numbers = IntStream.range(from, to).boxed().collect(Collectors.toList());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate("INSERT INTO temporary_member " +
+                        "(name, email, password, city, street, zipcode, verification_code_hash, verification_code_expired_at, created_date, last_modified_date) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                numbers, 1_000, (ps, number) -> {
+                    ps.setString(1, "temporaryMember" + number);
+                    ps.setString(2, email(number));
+                    ps.setString(3, "password");
+                    ps.setString(4, "city");
+                    ps.setString(5, "street");
+                    ps.setString(6, "zipcode");
+                    ps.setString(7, TokenHasher.hash(verificationCode(number)));
+                    ps.setTimestamp(8, Timestamp.valueOf(expiredAt));
+                    ps.setTimestamp(9, now);
+                    ps.setTimestamp(10, now);
+                });
+    }
+
+    /**
+     * 회원가입, 인증 메일 재발송, 이메일 인증에서 하는 조회를 한 번씩 하는 시간의 중앙값
+     */
+    private long medianLookUpNanos(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        long[] elapsedNanos = new long[LOOKUPS];
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            int number = ThreadLocalRandom.current().nextInt(size);
+
+            long start = System.nanoTime();
+            assertThat(temporaryMemberRepository.findIdByEmail(email(number))).isPresent();
+            assertThat(temporaryMemberRepository.findByEmail(email(number))).isPresent();
+            assertThat(temporaryMemberRepository.findByVerificationCodeHash(TokenHasher.hash(verificationCode(number)), now)).isPresent();
+            elapsedNanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(elapsedNanos);
+        return elapsedNanos[LOOKUPS / 2];
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    private static String email(int number) {
+        return "temporaryMember" + number + "@gmail.com";
+    }
+
+    private static String verificationCode(int number) {
+        return "verificationCode" + number;
+    }
+}
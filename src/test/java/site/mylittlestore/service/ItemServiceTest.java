@@ -1,5 +1,6 @@
 package site.mylittlestore.service;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -11,12 +12,14 @@ import site.mylittlestore.domain.Item;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.item.ItemFindDto;
 import site.mylittlestore.dto.item.ItemUpdateDto;
+import site.mylittlestore.dto.item.MenuCacheMetricsDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.enumstorage.errormessage.ItemErrorMessage;
 import site.mylittlestore.enumstorage.status.ItemStatus;
 import site.mylittlestore.exception.item.NoSuchItemException;
 import site.mylittlestore.repository.item.ItemRepository;
+import site.mylittlestore.service.item.MenuCache;
 import site.mylittlestore.service.member.MemberService;
 
 import javax.persistence.EntityManager;
@@ -45,6 +48,9 @@ class ItemServiceTest {
     @Autowired
     private StoreService storeService;
 
+    @Autowired
+    private MenuCache menuCache;
+
     @PersistenceContext
     EntityManager em;
 
@@ -81,6 +87,12 @@ class ItemServiceTest {
         itemTestId = newItemId;
     }
 
+    @AfterEach
+    void tearDown() {
+        //sql/test.sql로 가게 Id가 다시 1부터 시작하므로, 이전 테스트의 메뉴를 비운다.
+        menuCache.clear();
+    }
+
     /**
      * Id로 아이템을 찾는다.
      */
@@ -205,4 +217,72 @@ class ItemServiceTest {
 
         assertThat(findById.get().getItemStatus()).isEqualTo(ItemStatus.DELETED);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByStoreIdCached() {
+        //given
+        long hitCount = menuCache.getHitCount();
+        long missCount = menuCache.getMissCount();
+
+        //when
+        itemService.findAllItemDtoByStoreId(storeTestId);
+        List<ItemFindDto> cachedItems = itemService.findAllItemDtoByStoreId(storeTestId);
+
+        //then
+        //처음 한 번만 DB에서 조회한다.
+        assertThat(menuCache.getMissCount()).isEqualTo(missCount + 1);
+        assertThat(menuCache.getHitCount()).isEqualTo(hitCount + 1);
+        assertThat(cachedItems.size()).isEqualTo(1);
+        assertThat(cachedItems.get(0).getName()).isEqualTo("itemTest");
+
+        //지표로도 조회된다.
+        MenuCacheMetricsDto menuCacheMetrics = menuCache.snapshot();
+        assertThat(menuCacheMetrics.getMissCount()).isEqualTo(missCount + 1);
+        assertThat(menuCacheMetrics.getHitCount()).isEqualTo(hitCount + 1);
+        assertThat(menuCacheMetrics.getStores()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void findAllByStoreIdAfterUpdateItem() {
+        //given
+        itemService.findAllItemDtoByStoreId(storeTestId);
+
+        //when
+        itemService.updateItem(ItemUpdateDto.builder()
+                .id(itemTestId)
+                .storeId(storeTestId)
+                .newItemName("newItemTest")
+                .newPrice(9999L)
+                .newStock(99L)
+                .build());
+
+        //then
+        //상품을 수정하면 메뉴 캐시를 비운다.
+        List<ItemFindDto> items = itemService.findAllItemDtoByStoreId(storeTestId);
+        assertThat(items.get(0).getName()).isEqualTo("newItemTest");
+        assertThat(items.get(0).getPrice()).isEqualTo(9999L);
+        assertThat(items.get(0).getStock()).isEqualTo(99L);
+    }
+
+    @Test
+    void findAllByStoreIdAfterStockChanged() {
+        //given
+        itemService.findAllItemDtoByStoreId(storeTestId);
+        long missCount = menuCache.getMissCount();
+        long stockReloadCount = menuCache.getStockReloadCount();
+
+        //when
+        //주문으로 재고만 바뀐다.
+        Item item = itemRepository.findById(itemTestId).get();
+        item.decreaseStock(30L);
+        itemRepository.save(item);
+        menuCache.evictStock(storeTestId, itemTestId);
+
+        //then
+        //메뉴는 그대로 두고, 재고만 다시 조회한다.
+        List<ItemFindDto> items = itemService.findAllItemDtoByStoreId(storeTestId);
+        assertThat(items.get(0).getStock()).isEqualTo(70L);
+        assertThat(menuCache.getMissCount()).isEqualTo(missCount);
+        assertThat(menuCache.getStockReloadCount()).isEqualTo(stockReloadCount + 1);
+    }
+}
@@ -4,18 +4,23 @@ import org.junit.jupiter.api.*;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
 import site.mylittlestore.domain.member.Member;
 import site.mylittlestore.dto.member.MemberUpdateDto;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.enumstorage.errormessage.MemberErrorMessage;
+import site.mylittlestore.enumstorage.message.EmailMessage;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.member.MemberFindDto;
 import site.mylittlestore.dto.member.MemberPasswordUpdateDto;
 import site.mylittlestore.exception.member.NoSuchMemberException;
 import site.mylittlestore.repository.member.MemberRepository;
 import site.mylittlestore.service.member.MemberService;
+import site.mylittlestore.service.outbox.OutboxService;
+import site.mylittlestore.util.email.OutboxEmails;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -39,6 +44,10 @@ class MemberServiceTest {
     @Autowired
     private MemberRepository memberRepository;
 
+    //outbox에 넘긴 이메일에서 인증 코드를 꺼낸다.
+    @SpyBean
+    private OutboxService outboxService;
+
     @PersistenceContext
     private EntityManager em;
 
@@ -214,4 +223,43 @@ class MemberServiceTest {
         //then
         assertThat(member.getPassword()).isEqualTo("Cha Cha");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("비밀번호 변경 코드 조회")
+    void verifyPasswordVerificationCode() throws Exception {
+        //given
+        //비밀번호 변경 이메일 발송
+        memberService.sendChangePasswordEmail("memberTest@gmail.com");
+        String passwordVerificationCode = OutboxEmails.findLastCode(outboxService, "memberTest@gmail.com", EmailMessage.CHANGE_PASSWORD_EMAIL_LINK);
+
+        //when
+        Long memberId = memberService.verifyPasswordVerificationCode(passwordVerificationCode);
+
+        //then
+        assertThat(memberId).isEqualTo(memberTestId);
+        assertThatThrownBy(() -> memberService.verifyPasswordVerificationCode(passwordVerificationCode + "a"))
+                .isInstanceOf(NoSuchMemberException.class)
+                .hasMessageContaining(MemberErrorMessage.NO_SUCH_MEMBER_WITH_THAT_PASSWORD_VERIFICATION_CODE.getMessage());
+    }
+
+    @Test
+    @DisplayName("만료된 비밀번호 변경 코드는 조회되지 않는다.")
+    void verifyExpiredPasswordVerificationCode() throws Exception {
+        //given
+        //유효 기간 0으로 비밀번호 변경 이메일 발송
+        Object passwordVerificationCodeExpiration = ReflectionTestUtils.getField(memberService, "passwordVerificationCodeExpiration");
+        ReflectionTestUtils.setField(memberService, "passwordVerificationCodeExpiration", 0L);
+        try {
+            memberService.sendChangePasswordEmail("memberTest@gmail.com");
+        } finally {
+            ReflectionTestUtils.setField(memberService, "passwordVerificationCodeExpiration", passwordVerificationCodeExpiration);
+        }
+        String passwordVerificationCode = OutboxEmails.findLastCode(outboxService, "memberTest@gmail.com", EmailMessage.CHANGE_PASSWORD_EMAIL_LINK);
+
+        //when
+        //then
+        assertThatThrownBy(() -> memberService.verifyPasswordVerificationCode(passwordVerificationCode))
+                .isInstanceOf(NoSuchMemberException.class)
+                .hasMessageContaining(MemberErrorMessage.NO_SUCH_MEMBER_WITH_THAT_PASSWORD_VERIFICATION_CODE.getMessage());
+    }
+}
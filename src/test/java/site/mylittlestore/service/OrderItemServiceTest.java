@@ -12,13 +12,18 @@ import site.mylittlestore.dto.orderitem.*;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.enumstorage.status.OrderItemStatus;
+import site.mylittlestore.exception.item.NoSuchItemException;
 import site.mylittlestore.exception.item.NotEnoughStockException;
 import site.mylittlestore.exception.orderitem.NoSuchOrderItemException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.p6spy.StatementCounter;
 import site.mylittlestore.repository.orderitem.OrderItemRepository;
 import site.mylittlestore.service.member.MemberService;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
@@ -43,6 +48,8 @@ public class OrderItemServiceTest {
     
     @Autowired
     OrderItemRepository orderItemRepository;
+    @Autowired
+    private StatementCounter statementCounter;
 
     private Long memberTestId;
     private Long storeTestId;
@@ -206,7 +213,7 @@ public class OrderItemServiceTest {
         //정확히 ORDERED만 잘 찾는지 확인
         assertThat(allOrderItemFindDtosByOrderId.size()).isEqualTo(2);
         assertThat(allOrderItemFindDtosByOrderId.stream()
-                .filter(orderItemFindDto -> orderItemFindDto.getId() == createdOrderItemId3 || orderItemFindDto.getId() == createdOrderItemId4)
+                .filter(orderItemFindDto -> orderItemFindDto.getId().equals(createdOrderItemId3) || orderItemFindDto.getId().equals(createdOrderItemId4))
                 .map(OrderItemFindDto::getId)
                 .collect(Collectors.toList())).containsExactlyInAnyOrder(createdOrderItemId3, createdOrderItemId4);
     }
@@ -582,4 +589,170 @@ public class OrderItemServiceTest {
 
         assertThat(1).isEqualTo(2);
     }
+
+    @Test
+    @DisplayName("주문 상품 생성은 주문에 있는 주문 상품 수와 상관없이 SQL 문 수가 같다.")
+    void createOrderItemStatementCount() throws Exception {
+        //given
+        //가격이 다른 주문 상품 여러개 생성
+        for (long price = 1000L; price <= 5000L; price += 1000L) {
+            orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                    .orderId(orderTestId)
+                    .itemId(itemTestId)
+                    .price(price)
+                    .count(1L)
+                    .build());
+        }
+
+        //when
+        //then
+        //주문 잠금 / 주문 + 가게, 테이블, 결제 조회 / 재고 UPDATE / 주문 상품 MERGE
+        statementCounter.measure(() -> orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                        .orderId(orderTestId)
+                        .itemId(itemTestId)
+                        .price(1000L)
+                        .count(1L)
+                        .build()))
+                .assertSelectsAtMost(5)
+                .assertUpdatesAtMost(1)
+                .assertInsertsAtMost(0)
+                .assertTotalAtMost(6);
+    }
+
+    @Test
+    @DisplayName("주문서 한 장의 여러 주문 상품을 한 번에 생성한다.")
+    void createOrderItems() {
+        //given
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("itemTest2")
+                .price(5000L)
+                .stock(10L)
+                .build());
+
+        //when
+        //같은 상품, 같은 가격은 하나의 주문 상품으로 합쳐진다.
+        List<Long> createdOrderItemIds = orderItemService.createOrderItems(orderTestId, List.of(
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(itemTestId).price(10000L).count(2L).build(),
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(newItemId).price(5000L).count(3L).build(),
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(itemTestId).price(10000L).count(1L).build()));
+
+        //then
+        assertThat(createdOrderItemIds.size()).isEqualTo(3);
+        assertThat(createdOrderItemIds.get(0)).isEqualTo(createdOrderItemIds.get(2));
+
+        List<OrderItemFindDto> findAllOrderItemByOrderId = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId);
+        assertThat(findAllOrderItemByOrderId.size()).isEqualTo(2);
+        assertThat(orderItemService.findOrderItemFindDtoByIdAndOrderId(createdOrderItemIds.get(0), orderTestId).getCount()).isEqualTo(3L);
+        assertThat(orderItemService.findOrderItemFindDtoByIdAndOrderId(createdOrderItemIds.get(1), orderTestId).getCount()).isEqualTo(3L);
+
+        //재고 관련 확인
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(97L);
+        assertThat(itemService.findItemDtoById(newItemId).getStock()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("한 번에 주문할 때 재고가 부족한 상품이 있으면 모두 주문되지 않는다.")
+    void createOrderItemsNotEnoughStockException() {
+        //given
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(storeTestId)
+                .name("itemTest2")
+                .price(5000L)
+                .stock(1L)
+                .build());
+
+        //when
+        assertThatThrownBy(() -> orderItemService.createOrderItems(orderTestId, List.of(
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(itemTestId).price(10000L).count(2L).build(),
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(newItemId).price(5000L).count(2L).build())))
+                .isInstanceOf(NotEnoughStockException.class);
+
+        //then
+        assertThat(orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId)).isEmpty();
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+        assertThat(itemService.findItemDtoById(newItemId).getStock()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("한 번에 주문할 때 다른 가게의 상품이 있으면, 그 상품의 재고는 줄이지 않는다.")
+    void createOrderItemsOtherStoreItemException() {
+        //given
+        Long otherStoreId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(memberTestId)
+                .name("otherStoreTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        Long otherStoreItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(otherStoreId)
+                .name("otherItemTest")
+                .price(5000L)
+                .stock(10L)
+                .build());
+
+        //when
+        assertThatThrownBy(() -> orderItemService.createOrderItems(orderTestId, List.of(
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(itemTestId).price(10000L).count(2L).build(),
+                OrderItemCreationDto.builder().orderId(orderTestId).itemId(otherStoreItemId).price(5000L).count(2L).build())))
+                .isInstanceOf(NoSuchItemException.class);
+
+        //then
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+        assertThat(itemService.findItemDtoById(otherStoreItemId).getStock()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 주문해도 재고보다 많이 팔리지 않는지 테스트")
+    void createOrderItemConcurrently() throws Exception {
+        //given
+        //재고 100개인 상품을 32개 스레드가 동시에 5개씩 주문
+        int threadCount = 32;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger notEnoughStockCount = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                try {
+                    orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                            .orderId(orderTestId)
+                            .itemId(itemTestId)
+                            .price(10000L)
+                            .count(5L)
+                            .build());
+                    successCount.incrementAndGet();
+                } catch (NotEnoughStockException e) {
+                    notEnoughStockCount.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        //when
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        //then
+        //재고만큼만 팔리고, 나머지는 재고 부족
+        assertThat(successCount.get()).isEqualTo(20);
+        assertThat(notEnoughStockCount.get()).isEqualTo(12);
+
+        ItemFindDto itemFindDto = itemService.findItemDtoById(itemTestId);
+        assertThat(itemFindDto.getStock()).isEqualTo(0L);
+
+        //주문된 수량의 합도 팔린 재고와 같아야 한다.
+        long orderedCount = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId).stream()
+                .mapToLong(OrderItemFindDto::getCount)
+                .sum();
+        assertThat(orderedCount).isEqualTo(100L);
+    }
 }
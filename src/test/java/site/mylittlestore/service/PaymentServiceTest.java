@@ -6,8 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
 import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
@@ -17,11 +21,17 @@ import site.mylittlestore.dto.store.StoreToggleStatusDto;
 import site.mylittlestore.enumstorage.status.PaymentStatus;
 import site.mylittlestore.exception.payment.PaymentAlreadyExistException;
 import site.mylittlestore.exception.store.StoreClosedException;
+import site.mylittlestore.p6spy.StatementCounter;
 import site.mylittlestore.service.member.MemberService;
+import site.mylittlestore.service.storetable.StoreTableBoard;
 
 import java.util.ArrayList;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -43,6 +53,16 @@ public class PaymentServiceTest {
     @Autowired
     private PaymentService paymentService;
 
+    @SpyBean
+    private StoreTableBoard storeTableBoard;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StatementCounter statementCounter;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private Long memberTestId;
     private Long storeTestId;
     private Long itemTestId;
@@ -128,6 +148,108 @@ public class PaymentServiceTest {
         assertThat(paymentDto.getPaymentStatus()).isEqualTo(PaymentStatus.IN_PROGRESS.toString());
     }
 
+    @Test
+    @DisplayName("결제 시작은 주문 상품 수와 상관없이 SQL 문 수가 같다.")
+    void startPaymentStatementCount() throws Exception {
+        //given
+        createOrderItems(5);
+
+        //when
+        //then
+        //주문 + 가게 + 주문 상품, 테이블, 결제 조회 / 결제 INSERT / 주문 상태 UPDATE
+        statementCounter.measure(() -> paymentService.startPayment(orderTestId))
+                .assertSelectsAtMost(3)
+                .assertInsertsAtMost(1)
+                .assertUpdatesAtMost(1);
+    }
+
+    @Test
+    @DisplayName("결제 완료는 주문 상품 수와 상관없이 SQL 문 수가 같다.")
+    void finishPaymentStatementCount() throws Exception {
+        //given
+        createOrderItems(5);
+        Long paymentId = paymentService.startPayment(orderTestId);
+
+        //결제 수단으로 모두 지불한 상태로 만든다.
+        jdbcTemplate.update("update payment set payment_status = 'SUCCESS', paid_payment_amount = initial_payment_amount where payment_id = ?", paymentId);
+
+        //when
+        //then
+        //결제 조회 / 주문 + 테이블 + 주문 상품, 결제 조회 / 주문, 테이블 UPDATE / 주문 상품 UPDATE batch
+        statementCounter.measure(() -> assertThat(paymentService.finishPayment(paymentId, orderTestId)).isTrue())
+                .assertSelectsAtMost(3)
+                .assertUpdatesAtMost(3)
+                .assertInsertsAtMost(0);
+    }
+
+    @Test
+    @DisplayName("결제 완료가 커밋되면, 테이블 현황판에 주문과 결제가 없는 빈 테이블을 보낸다.")
+    void finishPaymentPublishAfterCommit() {
+        //given
+        createOrderItems(1);
+        Long paymentId = paymentService.startPayment(orderTestId);
+        jdbcTemplate.update("update payment set payment_status = 'SUCCESS', paid_payment_amount = initial_payment_amount where payment_id = ?", paymentId);
+
+        //현황판 구독
+        storeTableBoard.subscribe(storeTestId);
+        long publishedCount = storeTableBoard.getPublishedCount();
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(paymentService.finishPayment(paymentId, orderTestId)).isTrue();
+
+            //커밋 전에는 보내지 않는다.
+            assertThat(storeTableBoard.getPublishedCount()).isEqualTo(publishedCount);
+        });
+
+        //then
+        assertThat(storeTableBoard.getPublishedCount()).isEqualTo(publishedCount + 1);
+        verify(storeTableBoard).publish(eq(storeTestId), any(), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("결제 완료가 롤백되면, 테이블 현황판에 보내지 않는다.")
+    void finishPaymentNotPublishAfterRollback() {
+        //given
+        createOrderItems(1);
+        Long paymentId = paymentService.startPayment(orderTestId);
+        jdbcTemplate.update("update payment set payment_status = 'SUCCESS', paid_payment_amount = initial_payment_amount where payment_id = ?", paymentId);
+
+        //현황판 구독
+        storeTableBoard.subscribe(storeTestId);
+        long publishedCount = storeTableBoard.getPublishedCount();
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(paymentService.finishPayment(paymentId, orderTestId)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        //then
+        //publish는 호출되었지만, 롤백되어 보내지 않는다.
+        verify(storeTableBoard).publish(eq(storeTestId), any(), isNull(), isNull());
+        assertThat(storeTableBoard.getPublishedCount()).isEqualTo(publishedCount);
+
+        //테이블도 비워지지 않았다.
+        assertThat(jdbcTemplate.queryForObject("select store_table_status from store_table where table_id = ?", String.class, storeTableTestId))
+                .isNotEqualTo("EMPTY");
+    }
+
+    /**
+     * 가격이 다른 주문 상품을 count개 만든다.
+     * 결제 금액이 Long 캐시(-128~127) 밖이므로, 금액을 ==로 비교하면 결제 완료 테스트가 실패한다.
+     */
+    private void createOrderItems(int count) {
+        for (int i = 1; i <= count; i++) {
+            orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                    .orderId(orderTestId)
+                    .itemId(itemTestId)
+                    .price(1000L * i)
+                    .count(1L)
+                    .build());
+        }
+    }
+
     @Test
     @DisplayName("가게가 닫혀있을 때, 결제 시작 시 예외 발생")
     void startPaymentExceptionWhenStoreClosed() {
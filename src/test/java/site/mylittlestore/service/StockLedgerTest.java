@@ -0,0 +1,364 @@
+package site.mylittlestore.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.dto.item.ItemCreationDto;
+import site.mylittlestore.dto.item.ItemUpdateDto;
+import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemDeleteDto;
+import site.mylittlestore.dto.orderitem.OrderItemFindDto;
+import site.mylittlestore.dto.store.StoreCreationDto;
+import site.mylittlestore.dto.store.StoreToggleStatusDto;
+import site.mylittlestore.exception.item.NotEnoughStockException;
+import site.mylittlestore.service.item.StockLedger;
+import site.mylittlestore.service.member.MemberService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class StockLedgerTest {
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private StoreService storeService;
+    @Autowired
+    private StoreTableService storeTableService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private StockLedger stockLedger;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long memberTestId;
+    private Long storeTestId;
+    private Long itemTestId;
+    private Long orderTestId;
+
+    @BeforeEach
+    void setUp() {
+        Long newMemberId = memberService.joinMember(MemberCreationDto.builder()
+                .name("memberTest")
+                .email("memberTest@gmail.com")
+                .password("password")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        Long newStoreId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(newMemberId)
+                .name("storeTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        Long newItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(newStoreId)
+                .name("itemTest")
+                .price(10000L)
+                .stock(100L)
+                .build());
+
+        //가게 열기
+        storeService.toggleStoreStatus(StoreToggleStatusDto.builder()
+                .id(newStoreId)
+                .memberId(newMemberId)
+                .build());
+
+        //테이블 생성
+        Long createdStoreTableId = storeTableService.createStoreTable(newStoreId);
+
+        //주문 생성
+        Long createdOrderId = orderService.createOrder(newStoreId, createdStoreTableId);
+
+        //재고 장부 켜기
+        stockLedger.enable(newStoreId);
+
+        memberTestId = newMemberId;
+        storeTestId = newStoreId;
+        itemTestId = newItemId;
+        orderTestId = createdOrderId;
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockLedger.disable(storeTestId);
+    }
+
+    @Test
+    @DisplayName("재고 장부를 켜면, 재고는 메모리에서 줄고 flush할 때 DB에 반영된다.")
+    void reserveAndFlush() {
+        //when
+        orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(10L)
+                .build());
+
+        //then
+        assertThat(stockLedger.findStock(itemTestId)).contains(90L);
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+        //메뉴는 장부의 재고를 보여준다.
+        assertThat(itemService.findAllItemDtoByStoreId(storeTestId).get(0).getStock()).isEqualTo(90L);
+
+        stockLedger.flush();
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(90L);
+    }
+
+    @Test
+    @DisplayName("주문 상품을 삭제하면, 장부의 재고가 복구된다.")
+    void release() {
+        //given
+        Long orderItemId = orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .count(10L)
+                .build());
+
+        //when
+        orderItemService.deleteOrderItem(OrderItemDeleteDto.builder()
+                .id(orderItemId)
+                .orderId(orderTestId)
+                .itemId(itemTestId)
+                .price(10000L)
+                .build());
+
+        //then
+        assertThat(stockLedger.findStock(itemTestId)).contains(100L);
+
+        stockLedger.flush();
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("재고 장부로 여러 스레드가 동시에 주문해도 재고보다 많이 팔리지 않는다.")
+    void reserveConcurrently() throws Exception {
+        //given
+        //재고 100개인 상품을 32개 스레드가 동시에 5개씩 주문
+        int threadCount = 32;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger notEnoughStockCount = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                try {
+                    orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                            .orderId(orderTestId)
+                            .itemId(itemTestId)
+                            .price(10000L)
+                            .count(5L)
+                            .build());
+                    successCount.incrementAndGet();
+                } catch (NotEnoughStockException e) {
+                    notEnoughStockCount.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        //when
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        stockLedger.flush();
+
+        //then
+        assertThat(successCount.get()).isEqualTo(20);
+        assertThat(notEnoughStockCount.get()).isEqualTo(12);
+        assertThat(stockLedger.findStock(itemTestId)).contains(0L);
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("재고 장부를 켠 가게에서 같은 주문 상품을 동시에 주문해도, 주문 상품은 한 줄로 합쳐진다.")
+    void createOrderItemConcurrently() throws Exception {
+        //given
+        //재고 100개인 상품을 16개 스레드가 같은 주문에 같은 가격으로 5개씩 주문
+        int threadCount = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> orderItemIds = ConcurrentHashMap.newKeySet();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                orderItemIds.add(orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                        .orderId(orderTestId)
+                        .itemId(itemTestId)
+                        .price(10000L)
+                        .count(5L)
+                        .build()));
+                return null;
+            }));
+        }
+
+        //when
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        stockLedger.flush();
+
+        //then
+        //주문 수량과 차감한 재고가 같다.
+        List<OrderItemFindDto> orderItemFindDtos = orderItemService.findAllOrderItemFindDtosByOrderIdAndStoreId(orderTestId, storeTestId);
+        assertThat(orderItemFindDtos.size()).isEqualTo(1);
+        assertThat(orderItemFindDtos.get(0).getCount()).isEqualTo(80L);
+        assertThat(orderItemIds).containsExactly(orderItemFindDtos.get(0).getId());
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("재고를 줄이는 중에 상품이 장부에서 빠져도, 줄인 재고를 잃지 않는다.")
+    void reserveWhileEvicting() throws Exception {
+        //given
+        //8개 스레드가 1개씩 10번 주문하는 동안, 다른 스레드는 계속 장부에서 상품을 뺀다.
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean reserving = new AtomicBoolean(true);
+
+        Future<?> evicting = executorService.submit(() -> {
+            start.await();
+            while (reserving.get()) {
+                stockLedger.evict(itemTestId);
+            }
+            return null;
+        });
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < 10; j++) {
+                    assertThat(stockLedger.reserve(storeTestId, itemTestId, 1L)).isTrue();
+                }
+                return null;
+            }));
+        }
+
+        //when
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        reserving.set(false);
+        evicting.get(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+        stockLedger.flush();
+
+        //then
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(20L);
+        stockLedger.evict(itemTestId);
+        assertThat(stockLedger.reserve(storeTestId, itemTestId, 20L)).isTrue();
+        assertThat(stockLedger.reserve(storeTestId, itemTestId, 1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("상품이 장부에서 빠진 후에 롤백돼도, 줄인 재고가 돌아온다.")
+    void rollbackAfterEvict() {
+        //when
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(stockLedger.reserve(storeTestId, itemTestId, 10L)).isTrue();
+
+            //상품을 장부에서 뺀다. (줄인 재고가 따로 커밋되어 DB에 반영된다.)
+            stockLedger.evict(itemTestId);
+            assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(90L);
+
+            status.setRollbackOnly();
+        });
+        stockLedger.flush();
+
+        //then
+        assertThat(stockLedger.findStock(itemTestId)).contains(100L);
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("상품 재고를 직접 바꾸면, 바꾸기 전에 줄인 재고는 바꾼 재고에 더해지지 않는다.")
+    void updateItemAfterReserve() {
+        //given
+        assertThat(stockLedger.reserve(storeTestId, itemTestId, 10L)).isTrue();
+
+        //when
+        itemService.updateItem(ItemUpdateDto.builder()
+                .id(itemTestId)
+                .storeId(storeTestId)
+                .newItemName("itemTest")
+                .newPrice(10000L)
+                .newStock(50L)
+                .build());
+        assertThat(stockLedger.reserve(storeTestId, itemTestId, 5L)).isTrue();
+        stockLedger.flush();
+
+        //then
+        assertThat(stockLedger.findStock(itemTestId)).contains(45L);
+        assertThat(itemService.findItemDtoById(itemTestId).getStock()).isEqualTo(45L);
+    }
+
+    @Test
+    @DisplayName("가게에 없는 상품은 장부에 넣지 않고, 재고를 줄이지 않는다.")
+    void reserveOtherStoreItem() {
+        //given
+        Long otherStoreId = storeService.createStore(StoreCreationDto.builder()
+                .memberId(memberTestId)
+                .name("otherStoreTest")
+                .city("city")
+                .street("street")
+                .zipcode("zipcode")
+                .build());
+
+        Long otherStoreItemId = itemService.createItem(ItemCreationDto.builder()
+                .storeId(otherStoreId)
+                .name("otherItemTest")
+                .price(5000L)
+                .stock(10L)
+                .build());
+
+        int size = stockLedger.size();
+
+        //when
+        boolean otherStoreItemReserved = stockLedger.reserve(storeTestId, otherStoreItemId, 1L);
+        boolean noSuchItemReserved = stockLedger.reserve(storeTestId, Long.MAX_VALUE, 1L);
+
+        //then
+        assertThat(otherStoreItemReserved).isFalse();
+        assertThat(noSuchItemReserved).isFalse();
+        assertThat(stockLedger.size()).isEqualTo(size);
+        assertThat(stockLedger.findStock(otherStoreItemId)).isEmpty();
+        assertThat(itemService.findItemDtoById(otherStoreItemId).getStock()).isEqualTo(10L);
+    }
+}
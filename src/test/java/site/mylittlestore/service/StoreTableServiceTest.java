@@ -7,15 +7,20 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import site.mylittlestore.dto.item.ItemCreationDto;
 import site.mylittlestore.dto.member.MemberCreationDto;
+import site.mylittlestore.dto.orderitem.OrderItemCreationDto;
 import site.mylittlestore.dto.store.StoreCreationDto;
 import site.mylittlestore.dto.store.StoreToggleStatusDto;
+import site.mylittlestore.dto.storetable.StoreTableBoardDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDto;
 import site.mylittlestore.dto.storetable.StoreTableFindDtoWithOrderFindDto;
+import site.mylittlestore.enumstorage.status.OrderStatus;
 import site.mylittlestore.enumstorage.status.StoreTableStatus;
+import site.mylittlestore.p6spy.StatementCounter;
 import site.mylittlestore.service.member.MemberService;
 
 import javax.persistence.EntityManager;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,8 +41,13 @@ public class StoreTableServiceTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private OrderItemService orderItemService;
+
     @Autowired
     private EntityManager em;
+    @Autowired
+    private StatementCounter statementCounter;
 
     private Long memberTestId;
     private Long storeTestId;
@@ -143,6 +153,94 @@ public class StoreTableServiceTest {
 //        assertThat(allStoreTableFindDtoByStoreId.size()).isEqualTo(3);
     }
 
+    @Test
+    @DisplayName("주문과 함께 테이블 전체 조회는 테이블, 주문 수와 상관없이 SQL 문 수가 같다.")
+    void findAllStoreTableFindDtoWithOrderFindDtoByStoreIdStatementCount() throws Exception {
+        //given
+        //주문이 있는 테이블 여러개 생성
+        for (int i = 0; i < 4; i++) {
+            Long createdStoreTableId = storeTableService.createStoreTable(storeTestId);
+            Long createdOrderId = orderService.createOrder(storeTestId, createdStoreTableId);
+            orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                    .orderId(createdOrderId)
+                    .itemId(itemTestId)
+                    .price(10000L)
+                    .count(1L)
+                    .build());
+        }
+
+        //주문이 없는 테이블 생성
+        storeTableService.createStoreTable(storeTestId);
+
+        //when
+        //then
+        //테이블과 주문, 결제를 한 번에 조회하고, 주문 상품 Id는 @BatchSize로 한 번에 조회한다.
+        statementCounter.measure(() -> assertThat(storeTableService.findAllStoreTableFindDtoWithOrderFindDtoByStoreId(storeTestId).size()).isEqualTo(6))
+                .assertSelectsAtMost(2)
+                .assertTotalAtMost(2);
+    }
+
+    @Test
+    @DisplayName("테이블 현황판은 테이블마다 주문 상품 수량과 금액 합계를 SQL 문 하나로 조회한다.")
+    void findAllStoreTableBoardDtoByStoreId() throws Exception {
+        //given
+        //주문이 있는 테이블 여러개 생성
+        for (int i = 0; i < 4; i++) {
+            Long createdStoreTableId = storeTableService.createStoreTable(storeTestId);
+            Long createdOrderId = orderService.createOrder(storeTestId, createdStoreTableId);
+            orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                    .orderId(createdOrderId)
+                    .itemId(itemTestId)
+                    .price(10000L)
+                    .count(2L)
+                    .build());
+            orderItemService.createOrderItem(OrderItemCreationDto.builder()
+                    .orderId(createdOrderId)
+                    .itemId(itemTestId)
+                    .price(5000L)
+                    .count(1L)
+                    .build());
+        }
+
+        //주문이 없는 테이블 생성
+        Long emptyStoreTableId = storeTableService.createStoreTable(storeTestId);
+
+        //when
+        List<StoreTableBoardDto> storeTableBoardDtos = new ArrayList<>();
+        statementCounter.measure(() -> storeTableBoardDtos.addAll(storeTableService.findAllStoreTableBoardDtoByStoreId(storeTestId)))
+                .assertSelectsAtMost(1)
+                .assertTotalAtMost(1);
+
+        //then
+        assertThat(storeTableBoardDtos.size()).isEqualTo(6);
+
+        //setUp에서 만든 주문 상품이 없는 주문
+        StoreTableBoardDto setUpStoreTableBoardDto = storeTableBoardDtos.get(0);
+        assertThat(setUpStoreTableBoardDto.getId()).isEqualTo(storeTableTestId);
+        assertThat(setUpStoreTableBoardDto.getOrderId()).isEqualTo(orderTestId);
+        assertThat(setUpStoreTableBoardDto.getOrderStatus()).isEqualTo(OrderStatus.USING.toString());
+        assertThat(setUpStoreTableBoardDto.getOrderItemCount()).isEqualTo(0L);
+        assertThat(setUpStoreTableBoardDto.getTotalPrice()).isEqualTo(0L);
+
+        //주문 상품이 있는 주문
+        assertThat(storeTableBoardDtos.subList(1, 5))
+                .allSatisfy(storeTableBoardDto -> {
+                    assertThat(storeTableBoardDto.getStoreTableStatus()).isEqualTo(StoreTableStatus.USING.toString());
+                    assertThat(storeTableBoardDto.getOrderId()).isNotNull();
+                    assertThat(storeTableBoardDto.getPaymentId()).isNull();
+                    assertThat(storeTableBoardDto.getOrderItemCount()).isEqualTo(3L);
+                    assertThat(storeTableBoardDto.getTotalPrice()).isEqualTo(25000L);
+                });
+
+        //주문이 없는 테이블
+        StoreTableBoardDto emptyStoreTableBoardDto = storeTableBoardDtos.get(5);
+        assertThat(emptyStoreTableBoardDto.getId()).isEqualTo(emptyStoreTableId);
+        assertThat(emptyStoreTableBoardDto.getStoreTableStatus()).isEqualTo(StoreTableStatus.EMPTY.toString());
+        assertThat(emptyStoreTableBoardDto.getOrderId()).isNull();
+        assertThat(emptyStoreTableBoardDto.getOrderStatus()).isNull();
+        assertThat(emptyStoreTableBoardDto.getOrderItemCount()).isEqualTo(0L);
+    }
+
     @Test
     @DisplayName("테이블 생성")
     void createStoreTable() {
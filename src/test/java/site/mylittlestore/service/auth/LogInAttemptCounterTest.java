@@ -0,0 +1,70 @@
+package site.mylittlestore.service.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogInAttemptCounterTest {
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private LogInAttemptCounter logInAttemptCounter;
+
+    @BeforeEach
+    void setUp() {
+        //5번 실패하면 잠그고, 마지막 실패 후 10초가 지나면 다시 센다.
+        logInAttemptCounter = new LogInAttemptCounter(5, 10_000L, now::get);
+    }
+
+    @Test
+    @DisplayName("실패 횟수는 회원마다 세고, max-attempt에 닿으면 잠근다.")
+    void countUp() {
+        for (int i = 1; i <= 4; i++) {
+            int logInAttempt = logInAttemptCounter.countUp(1L, 0);
+            assertThat(logInAttempt).isEqualTo(i);
+            assertThat(logInAttemptCounter.isExceeded(logInAttempt)).isFalse();
+        }
+        //다른 회원은 따로 센다.
+        assertThat(logInAttemptCounter.countUp(2L, 0)).isEqualTo(1);
+
+        assertThat(logInAttemptCounter.isExceeded(logInAttemptCounter.countUp(1L, 0))).isTrue();
+    }
+
+    @Test
+    @DisplayName("DB에 저장된 실패 횟수가 더 크면, 거기서부터 센다.")
+    void countUpFromPersistedAttempt() {
+        assertThat(logInAttemptCounter.countUp(1L, 3)).isEqualTo(4);
+        assertThat(logInAttemptCounter.countUp(1L, 3)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("로그인에 성공하면 다시 0부터 센다.")
+    void reset() {
+        logInAttemptCounter.countUp(1L, 0);
+        logInAttemptCounter.countUp(1L, 0);
+
+        logInAttemptCounter.reset(1L);
+
+        assertThat(logInAttemptCounter.size()).isEqualTo(0);
+        assertThat(logInAttemptCounter.countUp(1L, 0)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("마지막 실패 후 ttl이 지나면 지운다.")
+    void evict() {
+        logInAttemptCounter.countUp(1L, 0);
+        now.addAndGet(5_000L);
+        logInAttemptCounter.countUp(2L, 0);
+
+        //1번 회원만 ttl이 지났다.
+        now.addAndGet(5_000L);
+        assertThat(logInAttemptCounter.evict()).isEqualTo(1);
+        assertThat(logInAttemptCounter.size()).isEqualTo(1);
+
+        //지우기 전이라도 ttl이 지났으면 다시 센다.
+        now.addAndGet(10_000L);
+        assertThat(logInAttemptCounter.countUp(2L, 0)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,122 @@
+package site.mylittlestore.service.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnedStoreCacheTest {
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    //회원 Id -> 가게 Id 목록 (DB 대신)
+    private final Map<Long, List<Long>> storeIds = new ConcurrentHashMap<>();
+    private final AtomicInteger loadCount = new AtomicInteger();
+    //조회한 직후에 할 일
+    private Consumer<Long> afterLoad = memberId -> {};
+
+    private OwnedStoreCache ownedStoreCache;
+
+    @BeforeEach
+    void setUp() {
+        //3명까지, 조회한 후 10초 동안 캐시한다.
+        ownedStoreCache = new OwnedStoreCache(memberId -> {
+            loadCount.incrementAndGet();
+            List<Long> loadedStoreIds = storeIds.getOrDefault(memberId, List.of());
+            afterLoad.accept(memberId);
+            return loadedStoreIds;
+        }, 3, 10_000L, now::get);
+    }
+
+    @Test
+    @DisplayName("처음 한 번만 조회하고, refresh하면 다시 조회한다.")
+    void refresh() {
+        //given
+        storeIds.put(1L, List.of(10L));
+        assertThat(ownedStoreCache.findAllStoreIdsByMemberId(1L)).containsExactly(10L);
+        assertThat(ownedStoreCache.findAllStoreIdsByMemberId(1L)).containsExactly(10L);
+        assertThat(loadCount.get()).isEqualTo(1);
+
+        //when
+        storeIds.put(1L, List.of(10L, 11L));
+        ownedStoreCache.refresh(1L);
+
+        //then
+        assertThat(ownedStoreCache.findAllStoreIdsByMemberId(1L)).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("조회하는 사이에 refresh되면, 조회한 목록을 캐시하지 않는다.")
+    void refreshWhileLoading() {
+        //given
+        //이전 목록을 읽은 직후에 가게가 생기고 커밋되어 refresh된다.
+        storeIds.put(1L, List.of(10L));
+        afterLoad = memberId -> {
+            if (loadCount.get() == 1) {
+                storeIds.put(memberId, List.of(10L, 11L));
+                ownedStoreCache.refresh(memberId);
+            }
+        };
+
+        //when
+        //이번 요청은 이전 목록을 받는다.
+        assertThat(ownedStoreCache.findAllStoreIdsByMemberId(1L)).containsExactly(10L);
+
+        //then
+        //이전 목록이 캐시에 남지 않는다.
+        assertThat(ownedStoreCache.findAllStoreIdsByMemberId(1L)).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("ttl이 지나면 다시 조회하고, 지운다.")
+    void expire() {
+        //given
+        storeIds.put(1L, List.of(10L));
+        ownedStoreCache.findAllStoreIdsByMemberId(1L);
+
+        //when
+        now.addAndGet(10_000L);
+
+        //then
+        assertThat(ownedStoreCache.evict()).isEqualTo(1);
+        assertThat(ownedStoreCache.size()).isEqualTo(0);
+
+        ownedStoreCache.findAllStoreIdsByMemberId(1L);
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("max-size명보다 많으면 캐시하지 않고 조회하고, 만료된 회원이 지워지면 다시 캐시한다.")
+    void maxSize() {
+        //given
+        for (long memberId = 1; memberId <= 3; memberId++) {
+            ownedStoreCache.findAllStoreIdsByMemberId(memberId);
+        }
+
+        //when
+        //4번째 회원은 캐시하지 않는다.
+        ownedStoreCache.findAllStoreIdsByMemberId(4L);
+        ownedStoreCache.findAllStoreIdsByMemberId(4L);
+
+        //then
+        assertThat(ownedStoreCache.size()).isEqualTo(3);
+        assertThat(loadCount.get()).isEqualTo(5);
+
+        //만료되면 지우고 캐시한다.
+        now.addAndGet(10_000L);
+        ownedStoreCache.findAllStoreIdsByMemberId(4L);
+        ownedStoreCache.findAllStoreIdsByMemberId(4L);
+
+        assertThat(ownedStoreCache.size()).isEqualTo(1);
+        assertThat(loadCount.get()).isEqualTo(6);
+    }
+}
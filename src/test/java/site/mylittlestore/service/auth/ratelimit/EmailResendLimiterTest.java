@@ -0,0 +1,122 @@
+package site.mylittlestore.service.auth.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailResendLimiterTest {
+    private static final String EMAIL = "cha3088@gmail.com";
+    private static final String IP = "127.0.0.1";
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private InMemoryRateLimitStore rateLimitStore;
+    private EmailResendLimiter emailResendLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitStore = new InMemoryRateLimitStore(100, now::get);
+        //이메일, IP마다 3번, IP마다 5번, 10초에 하나씩 다시 찬다. 같은 이메일은 1초에 한 번만 보낸다.
+        emailResendLimiter = new EmailResendLimiter(rateLimitStore, 3, 5, 10_000L, 1_000L);
+    }
+
+    @Test
+    @DisplayName("coalesce-window 안에 다시 요청하면 새로 보내지 않는다.")
+    void coalesce() {
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.SEND);
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.COALESCED);
+        //다른 IP에서 요청해도 같은 이메일이면 합친다.
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, "10.0.0.1")).isEqualTo(ResendDecision.COALESCED);
+        //이메일 종류가 다르면 따로 센다.
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.CHANGE_PASSWORD_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.SEND);
+
+        now.addAndGet(1_000L);
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, "10.0.0.1")).isEqualTo(ResendDecision.SEND);
+    }
+
+    @Test
+    @DisplayName("이메일, IP마다 토큰이 떨어지면 다시 찰 때까지 거절한다.")
+    void rateLimit() {
+        //토큰 3개
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.SEND);
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.COALESCED);
+        now.addAndGet(1_000L);
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.SEND);
+
+        //when
+        now.addAndGet(1_000L);
+        ResendDecision resendDecision = emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP);
+
+        //then
+        assertThat(resendDecision).isEqualTo(ResendDecision.RATE_LIMITED);
+        //다른 IP는 따로 센다.
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, "10.0.0.1")).isEqualTo(ResendDecision.SEND);
+
+        //10초 후 토큰 하나가 다시 찬다.
+        now.addAndGet(10_000L);
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.SEND);
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP)).isEqualTo(ResendDecision.RATE_LIMITED);
+    }
+
+    @Test
+    @DisplayName("IP마다 이메일과 상관없이 ip-capacity번까지만 보낸다.")
+    void rateLimitByIp() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, i + EMAIL, IP)).isEqualTo(ResendDecision.SEND);
+        }
+
+        //when
+        ResendDecision resendDecision = emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, "other" + EMAIL, IP);
+
+        //then
+        assertThat(resendDecision).isEqualTo(ResendDecision.RATE_LIMITED);
+        //다른 IP는 따로 센다.
+        assertThat(emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, "other" + EMAIL, "10.0.0.1")).isEqualTo(ResendDecision.SEND);
+    }
+
+    @Test
+    @DisplayName("다시 가득 찬 버킷은 지운다.")
+    void evict() {
+        //given
+        emailResendLimiter.tryResend(EmailResendLimiter.VERIFICATION_EMAIL, EMAIL, IP);
+        assertThat(rateLimitStore.size()).isEqualTo(3);
+
+        //when
+        now.addAndGet(5_000L);
+        rateLimitStore.evict();
+
+        //then
+        //coalesce 버킷은 다시 찼고, IP와 재발송 버킷은 아직 차지 않았다.
+        assertThat(rateLimitStore.size()).isEqualTo(2);
+
+        now.addAndGet(5_000L);
+        rateLimitStore.evict();
+        assertThat(rateLimitStore.size()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("버킷이 max-keys개면 가장 오래 쓰지 않은 버킷을 지우고, 새 키도 제한한다.")
+    void evictLeastRecentlyUsed() {
+        //given
+        InMemoryRateLimitStore smallStore = new InMemoryRateLimitStore(2, now::get);
+        assertThat(smallStore.tryAcquire("a", 1, 10_000L)).isTrue();
+        assertThat(smallStore.tryAcquire("b", 1, 10_000L)).isTrue();
+        //a를 다시 쓰므로, b가 가장 오래 쓰지 않은 버킷이다.
+        assertThat(smallStore.tryAcquire("a", 1, 10_000L)).isFalse();
+
+        //when
+        boolean acquired = smallStore.tryAcquire("c", 1, 10_000L);
+
+        //then
+        //b를 지우고 c의 버킷을 만든다.
+        assertThat(acquired).isTrue();
+        assertThat(smallStore.tryAcquire("c", 1, 10_000L)).isFalse();
+        assertThat(smallStore.tryAcquire("a", 1, 10_000L)).isFalse();
+        assertThat(smallStore.size()).isEqualTo(2);
+        assertThat(smallStore.snapshot().getEvictedCount()).isEqualTo(1);
+    }
+}
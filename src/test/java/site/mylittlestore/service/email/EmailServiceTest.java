@@ -0,0 +1,151 @@
+package site.mylittlestore.service.email;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import site.mylittlestore.dto.email.EmailMetricsDto;
+import site.mylittlestore.exception.email.EmailSendException;
+import site.mylittlestore.util.email.Email;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailServiceTest {
+    private FakeSmtpServer smtpServer;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.from", "noreply@mylittlestore.site");
+        properties.setProperty("mail.smtp.timeout", "5000");
+        javaMailSender.setJavaMailProperties(properties);
+
+        //발송 스레드 1개, 대기열 1개
+        emailService = new EmailService(javaMailSender, 1, 1, 60000, 60000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtpServer.release();
+        emailService.shutdown();
+        smtpServer.close();
+    }
+
+    @Test
+    void sendReusesConnection() throws Exception {
+        //when
+        for (int i = 0; i < 3; i++) {
+            emailService.send(email("member" + i + "@gmail.com", "subject", "message" + i)).get(5, TimeUnit.SECONDS);
+        }
+
+        //then
+        //하나의 SMTP 연결로 모두 보낸다.
+        assertThat(smtpServer.getMessages()).hasSize(3);
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(1);
+
+        EmailMetricsDto emailMetricsDto = emailService.snapshot();
+        assertThat(emailMetricsDto.getSentCount()).isEqualTo(3);
+        assertThat(emailMetricsDto.getConnectedCount()).isEqualTo(1);
+        assertThat(emailMetricsDto.getIdleTransportCount()).isEqualTo(1);
+        assertThat(emailMetricsDto.getQueueDepth()).isEqualTo(0);
+    }
+
+    @Test
+    void sendCoalescesPendingEmail() throws Exception {
+        //given
+        //발송 스레드를 붙잡아둔다.
+        smtpServer.block();
+        CompletableFuture<Void> blockedFuture = emailService.send(email("blocked@gmail.com", "subject", "blocked"));
+        smtpServer.awaitBlocked();
+
+        //when
+        //같은 수신자, 같은 제목의 이메일을 보내기 전에 다시 보낸다. (ex. 인증 이메일 재발송)
+        CompletableFuture<Void> firstFuture = emailService.send(email("member@gmail.com", "subject", "first code"));
+        CompletableFuture<Void> secondFuture = emailService.send(email("member@gmail.com", "subject", "second code"));
+        assertThat(emailService.snapshot().getQueueDepth()).isEqualTo(1);
+
+        smtpServer.release();
+        CompletableFuture.allOf(blockedFuture, firstFuture, secondFuture).get(5, TimeUnit.SECONDS);
+
+        //then
+        //마지막 이메일만 보낸다.
+        assertThat(smtpServer.getMessages()).hasSize(2);
+        assertThat(smtpServer.getMessages().get(1)).contains("second code");
+        assertThat(smtpServer.getMessages().get(1)).doesNotContain("first code");
+        assertThat(emailService.snapshot().getCoalescedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sendRejectsWhenQueueIsFull() throws Exception {
+        //given
+        smtpServer.block();
+        CompletableFuture<Void> blockedFuture = emailService.send(email("blocked@gmail.com", "subject", "blocked"));
+        smtpServer.awaitBlocked();
+        CompletableFuture<Void> queuedFuture = emailService.send(email("queued@gmail.com", "subject", "queued"));
+
+        //when
+        CompletableFuture<Void> rejectedFuture = emailService.send(email("rejected@gmail.com", "subject", "rejected"));
+
+        //then
+        //대기열이 가득 차면 기다리지 않고 바로 실패한다.
+        assertThat(rejectedFuture).isCompletedExceptionally();
+        assertThatThrownBy(rejectedFuture::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(EmailSendException.class);
+        assertThat(emailService.snapshot().getRejectedCount()).isEqualTo(1);
+
+        smtpServer.release();
+        CompletableFuture.allOf(blockedFuture, queuedFuture).get(5, TimeUnit.SECONDS);
+        assertThat(smtpServer.getMessages()).hasSize(2);
+    }
+
+    @Test
+    void sendSkipsDuplicate() throws Exception {
+        //when
+        emailService.send(email("member@gmail.com", "subject", "code")).get(5, TimeUnit.SECONDS);
+        //outbox에서 다시 처리하는 경우
+        emailService.send(email("member@gmail.com", "subject", "code")).get(5, TimeUnit.SECONDS);
+        //내용이 바뀌면 보낸다.
+        emailService.send(email("member@gmail.com", "subject", "new code")).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(smtpServer.getMessages()).hasSize(2);
+        assertThat(emailService.snapshot().getDuplicateCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sendFailure() throws Exception {
+        //when
+        CompletableFuture<Void> failedFuture = emailService.send(email(FakeSmtpServer.REJECTED_RECIPIENT + "@gmail.com", "subject", "message"));
+
+        //then
+        assertThatThrownBy(() -> failedFuture.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+        assertThat(emailService.snapshot().getFailedCount()).isEqualTo(1);
+
+        //실패한 연결은 버리고, 새로 연결해서 보낸다.
+        emailService.send(email("member@gmail.com", "subject", "message")).get(5, TimeUnit.SECONDS);
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(2);
+    }
+
+    private static Email email(String receiver, String subject, String message) {
+        return Email.builder()
+                .subject(subject)
+                .receiver(receiver)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package site.mylittlestore.service.email;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 SMTP 서버
+ * 받은 이메일(DATA)과 연결 수를 기록한다.
+ * block()을 호출하면 다음 이메일부터 release()까지 DATA에 응답하지 않는다. (발송 스레드를 붙잡아둔다.)
+ */
+class FakeSmtpServer implements AutoCloseable {
+    //RCPT에 이 문자열이 들어있으면 거절한다.
+    static final String REJECTED_RECIPIENT = "reject";
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::accept, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<String> getMessages() {
+        return messages;
+    }
+
+    int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    void block() {
+        gate = new CountDownLatch(1);
+    }
+
+    /**
+     * 이메일 하나가 block()에 붙잡힐 때까지 기다린다.
+     */
+    void awaitBlocked() throws InterruptedException {
+        if (!blocked.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("이메일이 도착하지 않았습니다.");
+        }
+    }
+
+    void release() {
+        gate.countDown();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+
+                Thread session = new Thread(() -> handle(socket), "fake-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(writer, "220 localhost fake smtp");
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+
+                switch (command) {
+                    case "EHLO":
+                    case "HELO":
+                        reply(writer, "250 localhost");
+                        break;
+                    case "RCPT":
+                        reply(writer, line.contains(REJECTED_RECIPIENT) ? "550 no such user" : "250 OK");
+                        break;
+                    case "DATA":
+                        reply(writer, "354 end with .");
+                        messages.add(readData(reader));
+                        if (gate.getCount() > 0) {
+                            blocked.countDown();
+                            gate.await();
+                        }
+                        reply(writer, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(writer, "221 bye");
+                        return;
+                    default:
+                        //MAIL, RSET, NOOP
+                        reply(writer, "250 OK");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            //연결 종료
+        }
+    }
+
+    private static String readData(BufferedReader reader) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null && !line.equals(".")) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+        }
+        return data.toString();
+    }
+
+    private static void reply(Writer writer, String line) throws IOException {
+        writer.write(line + "\r\n");
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        gate.countDown();
+        serverSocket.close();
+    }
+}
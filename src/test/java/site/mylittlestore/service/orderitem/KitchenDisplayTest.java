@@ -0,0 +1,98 @@
+package site.mylittlestore.service.orderitem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.mylittlestore.dto.orderitem.OrderItemEventDto;
+import site.mylittlestore.enumstorage.OrderItemEventType;
+import site.mylittlestore.service.sse.SseEvent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KitchenDisplayTest {
+    private static final long STORE_ID = 1L;
+    private static final long OTHER_STORE_ID = 2L;
+
+    private KitchenDisplay kitchenDisplay;
+
+    @BeforeEach
+    void setUp() {
+        //최근 이벤트 3개만 남긴다.
+        kitchenDisplay = new KitchenDisplay(3, 16, 60000L, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        kitchenDisplay.shutdown();
+    }
+
+    private void publish(Long storeId, Long orderItemId) {
+        kitchenDisplay.publish(storeId, OrderItemEventDto.builder()
+                .eventType(OrderItemEventType.CREATED.toString())
+                .orderItemId(orderItemId)
+                .countDelta(1L)
+                .build());
+    }
+
+    private static List<Long> orderItemIds(List<SseEvent> events) {
+        return events.stream()
+                .map(event -> ((OrderItemEventDto) event.getData()).getOrderItemId())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("마지막으로 받은 순번 이후의 이벤트를 순서대로 다시 보낸다.")
+    void findAllAfter() {
+        //given
+        long lastSequence = kitchenDisplay.findLastSequence(STORE_ID);
+        publish(STORE_ID, 1L);
+        long firstSequence = lastSequence + 1;
+
+        publish(STORE_ID, 2L);
+        publish(OTHER_STORE_ID, 100L);
+        publish(STORE_ID, 3L);
+
+        //when
+        List<SseEvent> events = kitchenDisplay.findAllAfter(STORE_ID, firstSequence).orElseThrow();
+        List<SseEvent> allEvents = kitchenDisplay.findAllAfter(STORE_ID, lastSequence).orElseThrow();
+
+        //then
+        //가게마다 순번을 따로 매긴다.
+        assertThat(orderItemIds(allEvents)).containsExactly(1L, 2L, 3L);
+        assertThat(orderItemIds(events)).containsExactly(2L, 3L);
+        assertThat(events).extracting(SseEvent::getId)
+                .containsExactly(String.valueOf(firstSequence + 1), String.valueOf(firstSequence + 2));
+
+        //다 받았으면 보낼 이벤트가 없다.
+        assertThat(kitchenDisplay.findAllAfter(STORE_ID, firstSequence + 2).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("원형 버퍼에서 밀려난 이벤트가 필요하거나 모르는 순번이면, 다시 조회해야 한다.")
+    void findAllAfterResync() {
+        //given
+        long firstSequence = kitchenDisplay.findLastSequence(STORE_ID) + 1;
+        publish(STORE_ID, 1L);
+
+        //원형 버퍼(3개)보다 많이 발행
+        for (long orderItemId = 2; orderItemId <= 5; orderItemId++) {
+            publish(STORE_ID, orderItemId);
+        }
+
+        //when
+        //then
+        //2는 밀려났다.
+        assertThat(kitchenDisplay.findAllAfter(STORE_ID, firstSequence)).isEmpty();
+
+        //3, 4, 5는 남아있다.
+        assertThat(orderItemIds(kitchenDisplay.findAllAfter(STORE_ID, firstSequence + 1).orElseThrow())).containsExactly(3L, 4L, 5L);
+
+        //재시작 전의 순번, 아직 매기지 않은 순번
+        assertThat(kitchenDisplay.findAllAfter(STORE_ID, 1L)).isEmpty();
+        assertThat(kitchenDisplay.findAllAfter(STORE_ID, firstSequence + 100)).isEmpty();
+    }
+}
@@ -0,0 +1,352 @@
+package site.mylittlestore.service.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.mylittlestore.domain.outbox.OutboxEvent;
+import site.mylittlestore.enumstorage.OutboxEventType;
+import site.mylittlestore.enumstorage.status.OutboxEventStatus;
+import site.mylittlestore.repository.outbox.OutboxEventRepository;
+import site.mylittlestore.util.email.Email;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Sql(scripts = {"classpath:sql/test.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class OutboxDispatcherTest {
+    //빈으로 등록된 OutboxDispatcher가 테스트 중에 이벤트를 처리하지 않도록 바꿔둔다.
+    @MockBean
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void appendEmail() {
+        //when
+        transactionTemplate.executeWithoutResult(status -> outboxService.appendEmail(email("commit@gmail.com")));
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.appendEmail(email("rollback@gmail.com"));
+            status.setRollbackOnly();
+        });
+
+        //then
+        //커밋된 트랜잭션의 이벤트만 남는다.
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findAll();
+        assertThat(outboxEvents).hasSize(1);
+        assertThat(outboxEvents.get(0).getEventType()).isEqualTo(OutboxEventType.EMAIL);
+        assertThat(outboxEvents.get(0).getOutboxEventStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(outboxEvents.get(0).getPayload()).contains("commit@gmail.com");
+    }
+
+    @Test
+    void dispatch() {
+        //given
+        outboxService.appendEmail(email("1@gmail.com"));
+        outboxService.appendEmail(email("2@gmail.com"));
+        outboxService.appendEmail(email("3@gmail.com"));
+
+        RecordingHandler handler = new RecordingHandler(0);
+        OutboxDispatcher dispatcher = dispatcher(handler, 2, 10, 1000);
+
+        //when
+        int dispatchedCount = dispatcher.dispatch(false);
+
+        //then
+        //batch-size(2)씩 나눠서, 모두 처리한다.
+        assertThat(dispatchedCount).isEqualTo(3);
+        assertThat(handler.payloads).hasSize(3);
+        assertThat(handler.payloads.get(0)).contains("1@gmail.com");
+        assertThat(outboxService.countByStatus(OutboxEventStatus.SENT)).isEqualTo(3);
+        assertThat(outboxService.countByStatus(OutboxEventStatus.PENDING)).isEqualTo(0);
+
+        //보낸 이벤트의 내용은 남기지 않는다.
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getPayload)
+                .containsOnly(OutboxEvent.REDACTED_PAYLOAD);
+
+        //다시 처리하지 않는다.
+        assertThat(dispatcher.dispatch(false)).isEqualTo(0);
+        assertThat(handler.payloads).hasSize(3);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchRetry() {
+        //given
+        outboxService.appendEmail(email("retry@gmail.com"));
+
+        //처음 두 번은 실패한다.
+        RecordingHandler handler = new RecordingHandler(2);
+        OutboxDispatcher dispatcher = dispatcher(handler, 10, 10, 0);
+
+        //when
+        dispatcher.dispatch(false);
+        dispatcher.dispatch(false);
+
+        //then
+        OutboxEvent failedOutboxEvent = outboxEventRepository.findAll().get(0);
+        assertThat(failedOutboxEvent.getOutboxEventStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(failedOutboxEvent.getAttemptCount()).isEqualTo(2);
+        assertThat(failedOutboxEvent.getLastError()).contains("SMTP");
+
+        //when
+        assertThat(dispatcher.dispatch(false)).isEqualTo(1);
+
+        //then
+        assertThat(outboxService.countByStatus(OutboxEventStatus.SENT)).isEqualTo(1);
+        assertThat(dispatcher.getFailedCount()).isEqualTo(2);
+        assertThat(dispatcher.getSentCount()).isEqualTo(1);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchBackoff() {
+        //given
+        outboxService.appendEmail(email("backoff@gmail.com"));
+
+        RecordingHandler handler = new RecordingHandler(Integer.MAX_VALUE);
+        OutboxDispatcher dispatcher = dispatcher(handler, 10, 10, 60000);
+
+        //when
+        dispatcher.dispatch(false);
+        dispatcher.dispatch(false);
+
+        //then
+        //backoff가 지나기 전에는 다시 시도하지 않는다.
+        assertThat(handler.payloads).hasSize(1);
+        assertThat(outboxEventRepository.findAll().get(0).getAttemptCount()).isEqualTo(1);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchMaxAttempts() {
+        //given
+        outboxService.appendEmail(email("failed@gmail.com"));
+
+        RecordingHandler handler = new RecordingHandler(Integer.MAX_VALUE);
+        OutboxDispatcher dispatcher = dispatcher(handler, 10, 3, 0);
+
+        //when
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(false);
+        }
+
+        //then
+        //max-attempts번 실패하면 더 이상 시도하지 않는다.
+        assertThat(handler.payloads).hasSize(3);
+        assertThat(outboxService.countByStatus(OutboxEventStatus.FAILED)).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll().get(0).getPayload()).isEqualTo(OutboxEvent.REDACTED_PAYLOAD);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchExpired() {
+        //given
+        outboxService.appendEmail(email("expired@gmail.com"), LocalDateTime.now().minusSeconds(1));
+        outboxService.appendEmail(email("valid@gmail.com"), LocalDateTime.now().plusMinutes(10));
+
+        RecordingHandler handler = new RecordingHandler(0);
+        OutboxDispatcher dispatcher = dispatcher(handler, 10, 10, 1000);
+
+        //when
+        dispatcher.expire();
+        int dispatchedCount = dispatcher.dispatch(false);
+
+        //then
+        //만료된 이벤트는 보내지 않고, 내용을 지운다.
+        assertThat(dispatchedCount).isEqualTo(1);
+        assertThat(handler.payloads).hasSize(1);
+        assertThat(handler.payloads.get(0)).contains("valid@gmail.com");
+        assertThat(outboxService.countByStatus(OutboxEventStatus.FAILED)).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getPayload)
+                .containsOnly(OutboxEvent.REDACTED_PAYLOAD);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchMarksCompletedFirst() throws Exception {
+        //given
+        outboxService.appendEmail(email("1@gmail.com"));
+        outboxService.appendEmail(email("slow@gmail.com"));
+        outboxService.appendEmail(email("3@gmail.com"));
+
+        //slow@gmail.com은 release가 완료될 때까지 끝나지 않는다.
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        OutboxDispatcher dispatcher = dispatcher(payload -> payload.contains("slow@gmail.com") ? release : CompletableFuture.completedFuture(null), 60000, 5000);
+
+        //when
+        CompletableFuture<Integer> dispatchedCount = CompletableFuture.supplyAsync(() -> dispatcher.dispatch(false));
+
+        //then
+        //느린 이벤트를 기다리지 않고, 끝난 이벤트부터 SENT로 바꾼다.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxService.countByStatus(OutboxEventStatus.SENT) < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(outboxService.countByStatus(OutboxEventStatus.SENT)).isEqualTo(2);
+        assertThat(dispatchedCount).isNotDone();
+
+        release.complete(null);
+        assertThat(dispatchedCount.get(5, TimeUnit.SECONDS)).isEqualTo(3);
+        assertThat(outboxService.countByStatus(OutboxEventStatus.SENT)).isEqualTo(3);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchTimeout() {
+        //given
+        outboxService.appendEmail(email("timeout@gmail.com"));
+
+        //끝나지 않는다.
+        OutboxDispatcher dispatcher = dispatcher(payload -> new CompletableFuture<>(), 2000, 1900);
+
+        //when
+        long start = System.nanoTime();
+        int dispatchedCount = dispatcher.dispatch(false);
+
+        //then
+        //lease가 끝나기 lease-margin 전까지만 기다린다.
+        assertThat(dispatchedCount).isEqualTo(0);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+        assertThat(outboxService.countByStatus(OutboxEventStatus.PENDING)).isEqualTo(1);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchAfterLeaseExpired() {
+        //given
+        outboxService.appendEmail(email("lease@gmail.com"));
+
+        //처리하는 동안 lease가 끝나서, 다른 서버가 다시 맡는다.
+        LocalDateTime otherLeasedUntil = LocalDateTime.now().plusMinutes(10);
+        OutboxDispatcher dispatcher = dispatcher(payload -> {
+            assertThat(outboxService.leaseDispatchable(LocalDateTime.now().plusMinutes(5), otherLeasedUntil, 10)).hasSize(1);
+            return CompletableFuture.completedFuture(null);
+        }, 60000, 5000);
+
+        //when
+        int dispatchedCount = dispatcher.dispatch(false);
+
+        //then
+        //다른 서버가 맡은 이벤트는 SENT로 바꾸지 않는다.
+        assertThat(dispatchedCount).isEqualTo(0);
+        assertThat(dispatcher.getSentCount()).isEqualTo(0);
+        assertThat(outboxService.countByStatus(OutboxEventStatus.PENDING)).isEqualTo(1);
+
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void leaseDispatchable() {
+        //given
+        outboxService.appendEmail(email("lease@gmail.com"));
+
+        //when
+        LocalDateTime now = LocalDateTime.now();
+        int leasedCount = outboxService.leaseDispatchable(now, now.plusMinutes(1), 10).size();
+
+        //then
+        //맡은 이벤트는 lease가 끝날 때까지 다시 맡지 않는다.
+        assertThat(leasedCount).isEqualTo(1);
+        assertThat(outboxService.leaseDispatchable(now, now.plusMinutes(1), 10)).isEmpty();
+        assertThat(outboxService.leaseDispatchable(now.plusMinutes(2), now.plusMinutes(3), 10)).hasSize(1);
+    }
+
+    @Test
+    void backoff() {
+        //given
+        OutboxDispatcher dispatcher = dispatcher(new RecordingHandler(0), 10, 10, 1000);
+
+        //then
+        //두 배씩 늘어나고, 절반까지 무작위로 줄어든다.
+        assertThat(dispatcher.backoff(1)).isBetween(Duration.ofMillis(500), Duration.ofMillis(1000));
+        assertThat(dispatcher.backoff(3)).isBetween(Duration.ofMillis(2000), Duration.ofMillis(4000));
+        //max-backoff를 넘지 않는다.
+        assertThat(dispatcher.backoff(100)).isBetween(Duration.ofMillis(5000), Duration.ofMillis(10000));
+
+        dispatcher.shutdown();
+    }
+
+    private OutboxDispatcher dispatcher(OutboxEventHandler handler, int batchSize, int maxAttempts, long initialBackoff) {
+        return new OutboxDispatcher(outboxService, List.of(handler), batchSize, maxAttempts, 60000, 5000, initialBackoff, 10000, 604800000);
+    }
+
+    private OutboxDispatcher dispatcher(Function<String, CompletableFuture<?>> handler, long lease, long leaseMargin) {
+        OutboxEventHandler outboxEventHandler = new OutboxEventHandler() {
+            @Override
+            public OutboxEventType getEventType() {
+                return OutboxEventType.EMAIL;
+            }
+
+            @Override
+            public CompletableFuture<?> handle(String payload) {
+                return handler.apply(payload);
+            }
+        };
+        return new OutboxDispatcher(outboxService, List.of(outboxEventHandler), 10, 10, lease, leaseMargin, 1000, 10000, 604800000);
+    }
+
+    private static Email email(String receiver) {
+        return Email.builder()
+                .subject("subject")
+                .receiver(receiver)
+                .message("message")
+                .build();
+    }
+
+    /**
+     * 받은 이벤트를 기록하고, 처음 failures번은 실패한다.
+     */
+    private static class RecordingHandler implements OutboxEventHandler {
+        private final List<String> payloads = new ArrayList<>();
+        private int failures;
+
+        private RecordingHandler(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public OutboxEventType getEventType() {
+            return OutboxEventType.EMAIL;
+        }
+
+        @Override
+        public CompletableFuture<Void> handle(String payload) {
+            payloads.add(payload);
+
+            if (failures > 0) {
+                failures--;
+                return CompletableFuture.failedFuture(new IllegalStateException("SMTP 서버에 연결할 수 없습니다."));
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package site.mylittlestore.service.sse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SseChannelTest {
+    private static final long STORE_ID = 1L;
+    private static final long OTHER_STORE_ID = 2L;
+
+    //sender에 맡겨진 작업, runSender()를 호출해야 보낸다.
+    private final Queue<Runnable> senderTasks = new ArrayDeque<>();
+
+    private SseChannel sseChannel;
+
+    @BeforeEach
+    void setUp() {
+        senderTasks.clear();
+        sseChannel = new SseChannel(3, 60000L, senderTasks::add);
+    }
+
+    private void runSender() {
+        Runnable task;
+        while ((task = senderTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    @DisplayName("같은 가게의 구독자에게만, 발행한 순서대로 보낸다.")
+    void publish() {
+        //given
+        RecordingSseEmitter emitter = new RecordingSseEmitter();
+        RecordingSseEmitter otherStoreEmitter = new RecordingSseEmitter();
+        sseChannel.subscribe(STORE_ID, List.of(), emitter);
+        sseChannel.subscribe(OTHER_STORE_ID, List.of(), otherStoreEmitter);
+
+        //when
+        sseChannel.publish(STORE_ID, SseEvent.of("storeTable", "1"));
+        sseChannel.publish(STORE_ID, SseEvent.of("storeTable", "2"));
+
+        //발행한 스레드에서는 보내지 않는다.
+        assertThat(emitter.sentEvents).isEmpty();
+        runSender();
+
+        //then
+        assertThat(emitter.sentEvents).containsExactly("event:storeTable|data:1", "event:storeTable|data:2");
+        assertThat(otherStoreEmitter.sentEvents).isEmpty();
+    }
+
+    @Test
+    @DisplayName("구독하자마자 보낼 이벤트는 이후에 발행한 이벤트보다 먼저 보낸다.")
+    void subscribeWithInitialEvents() {
+        //given
+        RecordingSseEmitter emitter = new RecordingSseEmitter();
+        sseChannel.subscribe(STORE_ID, List.of(SseEvent.of(7L, "orderItem", "7")), emitter);
+
+        //when
+        sseChannel.publish(STORE_ID, SseEvent.of(8L, "orderItem", "8"));
+        runSender();
+
+        //then
+        assertThat(emitter.sentEvents).containsExactly("id:7|event:orderItem|data:7", "id:8|event:orderItem|data:8");
+    }
+
+    @Test
+    @DisplayName("구독하자마자 보낼 이벤트가 버퍼보다 많아도, resync 없이 모두 보낸다.")
+    void subscribeWithInitialEventsLargerThanBuffer() {
+        //given
+        //버퍼(3개)보다 많이 놓쳤다.
+        List<SseEvent> initialEvents = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            initialEvents.add(SseEvent.of(id, "orderItem", String.valueOf(id)));
+        }
+        RecordingSseEmitter emitter = new RecordingSseEmitter();
+        sseChannel.subscribe(STORE_ID, initialEvents, emitter);
+
+        //when
+        sseChannel.publish(STORE_ID, SseEvent.of(11L, "orderItem", "11"));
+        runSender();
+
+        //then
+        //놓친 이벤트 다음에 발행한 이벤트
+        List<String> expectedEvents = new ArrayList<>();
+        for (long id = 1; id <= 11; id++) {
+            expectedEvents.add("id:" + id + "|event:orderItem|data:" + id);
+        }
+        assertThat(emitter.sentEvents).containsExactlyElementsOf(expectedEvents);
+        assertThat(sseChannel.getDroppedCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("느린 구독자의 버퍼가 가득 차면, 밀린 이벤트를 버리고 resync를 보낸다.")
+    void overflow() {
+        //given
+        RecordingSseEmitter slowEmitter = new RecordingSseEmitter();
+        sseChannel.subscribe(STORE_ID, List.of(), slowEmitter);
+
+        //when
+        //버퍼(3개)보다 많이 발행
+        for (int i = 1; i <= 5; i++) {
+            sseChannel.publish(STORE_ID, SseEvent.of("storeTable", String.valueOf(i)));
+        }
+        runSender();
+
+        //then
+        //1~4는 버리고, resync 다음에 5
+        assertThat(slowEmitter.sentEvents).containsExactly("event:resync|data:", "event:storeTable|data:5");
+        assertThat(sseChannel.getDroppedCount()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("보내다가 실패하면 구독자에서 뺀다.")
+    void removeBrokenSubscriber() {
+        //given
+        RecordingSseEmitter emitter = new RecordingSseEmitter();
+        RecordingSseEmitter brokenEmitter = new RecordingSseEmitter();
+        brokenEmitter.broken = true;
+        sseChannel.subscribe(STORE_ID, List.of(), emitter);
+        sseChannel.subscribe(STORE_ID, List.of(), brokenEmitter);
+
+        //when
+        sseChannel.heartbeat();
+        runSender();
+
+        //then
+        assertThat(emitter.sentEvents).containsExactly(":heartbeat");
+        assertThat(sseChannel.countSubscribers(STORE_ID)).isEqualTo(1);
+
+        sseChannel.publish(STORE_ID, SseEvent.of("storeTable", "1"));
+        runSender();
+        assertThat(brokenEmitter.sentEvents).isEmpty();
+    }
+
+    /**
+     * 보낸 이벤트를 "필드:값|필드:값" 문자열로 남기는 SseEmitter
+     */
+    private static class RecordingSseEmitter extends SseEmitter {
+        private final List<String> sentEvents = new ArrayList<>();
+        private boolean broken = false;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+
+            String text = builder.build().stream()
+                    .map(dataWithMediaType -> String.valueOf(dataWithMediaType.getData()))
+                    .collect(Collectors.joining());
+            sentEvents.add(String.join("|", text.trim().split("\n")));
+        }
+    }
+}
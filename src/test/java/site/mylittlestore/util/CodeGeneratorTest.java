@@ -0,0 +1,70 @@
+package site.mylittlestore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodeGeneratorTest {
+    private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @Test
+    @DisplayName("0-9, a-z로 된 고정 길이의 코드를 만든다.")
+    void generateCode() {
+        for (int length : new int[]{0, 1, 20, 100}) {
+            String code = CodeGenerator.generateCode(length);
+
+            assertThat(code).hasSize(length);
+            assertThat(code.chars()).allMatch(c -> ALPHABET.indexOf(c) >= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("모든 문자가 고르게 나온다.")
+    void uniform() {
+        int[] counts = new int[ALPHABET.length()];
+        int total = 360_000;
+
+        for (char c : CodeGenerator.generateCode(total).toCharArray()) {
+            counts[ALPHABET.indexOf(c)]++;
+        }
+
+        //문자마다 기댓값 10000, 표준편차 약 98
+        for (int count : counts) {
+            assertThat(count).isBetween(9_400, 10_600);
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 만들어도 겹치지 않는다.")
+    void concurrent() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        codes.add(CodeGenerator.generateCode(20));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertThat(codes).hasSize(80_000);
+    }
+}
@@ -0,0 +1,63 @@
+package site.mylittlestore.util;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 테스트가 끝나면 pooled-lo optimizer가 메모리에 받아둔 Id 범위를 버린다.
+ * sql/test.sql로 시퀀스를 1부터 다시 시작하면, 받아둔 범위와 새로 받는 범위가 겹치기 때문이다.
+ * 버린 후에는 다음 INSERT에서 시퀀스를 다시 부른다.
+ */
+public class IdOptimizerResetListener extends AbstractTestExecutionListener {
+
+    @Override
+    public int getOrder() {
+        //sql/test.sql을 실행하는 SqlScriptsTestExecutionListener 다음
+        return 5100;
+    }
+
+    @Override
+    public void afterTestMethod(TestContext testContext) {
+        //컨텍스트를 새로 띄우지 않는다.
+        if (!testContext.hasApplicationContext()) {
+            return;
+        }
+
+        ApplicationContext applicationContext = testContext.getApplicationContext();
+        for (EntityManagerFactory entityManagerFactory : applicationContext.getBeansOfType(EntityManagerFactory.class).values()) {
+            SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+            for (EntityPersister entityPersister : sessionFactory.getMetamodel().entityPersisters().values()) {
+                IdentifierGenerator identifierGenerator = entityPersister.getIdentifierGenerator();
+
+                if (identifierGenerator instanceof SequenceStyleGenerator) {
+                    reset(((SequenceStyleGenerator) identifierGenerator).getOptimizer());
+                }
+            }
+        }
+    }
+
+    /**
+     * PooledLoOptimizer, PooledOptimizer는 받아둔 범위를 noTenantState에 두고, null이면 시퀀스를 다시 부른다.
+     */
+    private static void reset(Optimizer optimizer) {
+        if (ReflectionUtils.findField(optimizer.getClass(), "noTenantState") == null) {
+            return;
+        }
+
+        //generate()와 같이 optimizer를 잠근다.
+        synchronized (optimizer) {
+            ReflectionTestUtils.setField(optimizer, "noTenantState", null);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package site.mylittlestore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.mylittlestore.enumstorage.errormessage.auth.PasswordErrorMessage;
+import site.mylittlestore.exception.auth.PasswordException;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ValidatorTest {
+    //이전 Validator의 정규식, 비밀번호는 끝의 $가 마지막 줄바꿈 앞에서도 맞았으므로 \z로 바꿨다.
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            "(([^<>()\\[\\]\\\\.,;:\\s@\"]+(\\.[^<>()\\[\\]\\\\.,;:\\s@\"]+)*)|(\".+\"))@((\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}])|(([a-zA-Z\\-0-9]+\\.)+[a-zA-Z]{2,}))"
+    );
+    private static final Pattern PASSWORD_FORMAT_PATTERN = Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)(?=.*[$@$!%*#?&])[A-Za-z\\d$@$!%*#?&]{8,30}\\z");
+    private static final Pattern PASSWORD_REPEAT_PATTERN = Pattern.compile("(\\w)\\1{2,}");
+
+    //형식에 쓰이는 문자, 조각 위주로 섞는다.
+    private static final char[] EMAIL_ALPHABET = "aZ09-._@@..\"\"[]() ,\n\u2028é".toCharArray();
+    private static final String[] EMAIL_LOCAL_PARTS = {"a", "Z9", ".", "\"", "@", " ", "\n", "\u2028", "é", "(", "_"};
+    private static final String[] EMAIL_DOMAIN_PARTS = {"a", "Z9", "-", ".", "com", "kr", "c0m", "1", ".1", "[", "]", "123", "1234"};
+    private static final char[] PASSWORD_ALPHABET = "aaZ0011$@!&_-. \n".toCharArray();
+
+    private static final Duration LINEAR_TIME_LIMIT = Duration.ofSeconds(1);
+
+    @Test
+    void isValidEmail() {
+        assertThat(Validator.isValidEmail("cha3088@gmail.com")).isTrue();
+        assertThat(Validator.isValidEmail("first.last@mail.my-little-store.site")).isTrue();
+        assertThat(Validator.isValidEmail("\"quoted@local\"@gmail.com")).isTrue();
+        assertThat(Validator.isValidEmail("member@[127.0.0.1]")).isTrue();
+
+        assertThat(Validator.isValidEmail("")).isFalse();
+        assertThat(Validator.isValidEmail(null)).isFalse();
+        assertThat(Validator.isValidEmail("cha3088")).isFalse();
+        assertThat(Validator.isValidEmail(".cha@gmail.com")).isFalse();
+        assertThat(Validator.isValidEmail("cha..3088@gmail.com")).isFalse();
+        assertThat(Validator.isValidEmail("cha 3088@gmail.com")).isFalse();
+        assertThat(Validator.isValidEmail("cha3088@gmail")).isFalse();
+        assertThat(Validator.isValidEmail("cha3088@gmail.c0m")).isFalse();
+        assertThat(Validator.isValidEmail("cha3088@gmail..com")).isFalse();
+        assertThat(Validator.isValidEmail("member@[127.0.0.1000]")).isFalse();
+        assertThat(Validator.isValidEmail("\"\"@gmail.com")).isFalse();
+    }
+
+    @Test
+    void isValidPassword() {
+        assertThat(Validator.isValidPassword("abcde102938!")).isTrue();
+        assertThat(Validator.isValidPassword("cha3088@gmail.com", "abcde102938!")).isTrue();
+
+        assertPasswordException("   ", PasswordErrorMessage.PASSWORD_IS_BLANK);
+        assertPasswordException("abcde1!", PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID);
+        assertPasswordException("abcde102938", PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID);
+        assertPasswordException("abcde102938!\n", PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID);
+        assertPasswordException("abcde102938!abcde102938!abcde102938!", PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID);
+        assertPasswordException("abccc102938!", PasswordErrorMessage.PASSWORD_CONTAINS_REPEATED_CHARACTER);
+
+        //특수문자는 반복되어도 된다.
+        assertThat(Validator.isValidPassword("abcde10!!!")).isTrue();
+
+        assertThatThrownBy(() -> Validator.isValidPassword("cha3088@gmail.com", "cha3088!abc"))
+                .isInstanceOf(PasswordException.class)
+                .hasMessage(PasswordErrorMessage.PASSWORD_CONTAINS_ID.getMessage());
+    }
+
+    @Test
+    @DisplayName("무작위 입력에서 이전 정규식과 결과가 같다.")
+    void fuzzAgainstRegex() {
+        Random random = new Random(3088);
+
+        for (int i = 0; i < 100_000; i++) {
+            String email = randomString(random, EMAIL_ALPHABET, 24);
+            assertThat(Validator.isValidEmail(email))
+                    .as("email: %s", email)
+                    .isEqualTo(EMAIL_PATTERN.matcher(email).matches());
+
+            //local@domain 모양으로 만들어서, 통과하는 경우도 충분히 비교한다.
+            String structuredEmail = randomParts(random, EMAIL_LOCAL_PARTS, 4) + "@" + randomParts(random, EMAIL_DOMAIN_PARTS, 6);
+            assertThat(Validator.isValidEmail(structuredEmail))
+                    .as("email: %s", structuredEmail)
+                    .isEqualTo(EMAIL_PATTERN.matcher(structuredEmail).matches());
+
+            String password = randomString(random, PASSWORD_ALPHABET, 32);
+            String id = randomString(random, PASSWORD_ALPHABET, 3);
+            assertThat(validatePassword(id + "@gmail.com", password))
+                    .as("id: %s, password: %s", id, password)
+                    .isEqualTo(validatePasswordWithRegex(id + "@gmail.com", password));
+        }
+    }
+
+    @Test
+    @DisplayName("정규식이 되돌아가며 찾는 입력도 길이에 비례해서 끝난다.")
+    void adversarialInputs() {
+        int n = 200_000;
+
+        assertTimeoutPreemptively(LINEAR_TIME_LIMIT, () -> {
+            assertThat(Validator.isValidEmail("a".repeat(n) + "@")).isFalse();
+            assertThat(Validator.isValidEmail("a.".repeat(n) + "@gmail.com")).isFalse();
+            assertThat(Validator.isValidEmail("\"" + "@\"".repeat(n))).isFalse();
+            assertThat(Validator.isValidEmail("\"" + "a".repeat(n) + "\"@" + "a-".repeat(n) + ".c0m")).isFalse();
+            assertThat(Validator.isValidEmail("member@" + "a.".repeat(n) + "com")).isTrue();
+            assertThat(Validator.isValidEmail("member@[" + "1".repeat(n) + "]")).isFalse();
+
+            assertPasswordException("a1!".repeat(n), PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID);
+            //아이디가 비밀번호보다 길면 포함할 수 없다.
+            assertThat(Validator.isValidPassword("a".repeat(n) + "@gmail.com", "abcde102938!")).isTrue();
+            assertThatThrownBy(() -> Validator.isValidPassword("bcde1@" + "a.".repeat(n) + "com", "abcde102938!"))
+                    .isInstanceOf(PasswordException.class)
+                    .hasMessage(PasswordErrorMessage.PASSWORD_CONTAINS_ID.getMessage());
+        });
+    }
+
+    private static void assertPasswordException(String password, PasswordErrorMessage passwordErrorMessage) {
+        assertThatThrownBy(() -> Validator.isValidPassword(password))
+                .isInstanceOf(PasswordException.class)
+                .hasMessage(passwordErrorMessage.getMessage());
+    }
+
+    private static String randomString(Random random, char[] alphabet, int maxLength) {
+        char[] chars = new char[random.nextInt(maxLength + 1)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return new String(chars);
+    }
+
+    private static String randomParts(Random random, String[] parts, int maxCount) {
+        StringBuilder stringBuilder = new StringBuilder();
+        int count = random.nextInt(maxCount + 1);
+        for (int i = 0; i < count; i++) {
+            stringBuilder.append(parts[random.nextInt(parts.length)]);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * @return 통과하면 null, 아니면 예외 메시지
+     */
+    private static String validatePassword(String email, String password) {
+        try {
+            Validator.isValidPassword(email, password);
+            return null;
+        } catch (PasswordException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String validatePasswordWithRegex(String email, String password) {
+        if (password.isBlank()) {
+            return PasswordErrorMessage.PASSWORD_IS_BLANK.getMessage();
+        }
+        if (!PASSWORD_FORMAT_PATTERN.matcher(password).find()) {
+            return PasswordErrorMessage.PASSWORD_FORMAT_IS_NOT_VALID.getMessage();
+        }
+        if (PASSWORD_REPEAT_PATTERN.matcher(password).find()) {
+            return PasswordErrorMessage.PASSWORD_CONTAINS_REPEATED_CHARACTER.getMessage();
+        }
+        if (password.contains(email.split("@")[0])) {
+            return PasswordErrorMessage.PASSWORD_CONTAINS_ID.getMessage();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package site.mylittlestore.util.email;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+import site.mylittlestore.enumstorage.message.EmailMessage;
+import site.mylittlestore.service.outbox.OutboxService;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * outbox에 넘긴 이메일에서 인증 코드를 꺼낸다.
+ * DB에는 인증 코드의 해시만 저장하고, outbox의 내용도 보낸 후에 지우므로,
+ * 테스트는 @SpyBean OutboxService에 넘긴 이메일의 링크에서 사용자처럼 코드를 얻는다.
+ */
+public class OutboxEmails {
+
+    /**
+     * receiver에게 마지막으로 보낸, link가 있는 이메일의 인증 코드
+     */
+    public static String findLastCode(OutboxService outboxService, String receiver, EmailMessage link) {
+        List<Invocation> invocations = new ArrayList<>(Mockito.mockingDetails(outboxService).getInvocations());
+        Collections.reverse(invocations);
+
+        for (Invocation invocation : invocations) {
+            if (!invocation.getMethod().getName().equals("appendEmail")) {
+                continue;
+            }
+
+            Email email = invocation.getArgument(0);
+            int linkIndex = email.getMessage().lastIndexOf(link.getMessage());
+
+            if (email.getReceiver().equals(receiver) && linkIndex >= 0) {
+                return URLDecoder.decode(email.getMessage().substring(linkIndex + link.getMessage().length()), StandardCharsets.UTF_8);
+            }
+        }
+        throw new IllegalStateException(receiver + "에게 보낸 이메일이 없습니다.");
+    }
+}